@@ -116,4 +116,9 @@ public abstract class AbstractChecker extends AbstractHasFormat implements
 		}
 		return false;
 	}
+
+	@Override
+	public byte[][] getSignatures() {
+		return null;
+	}
 }
@@ -594,7 +594,7 @@ public abstract class AbstractImageMetadata implements ImageMetadata {
 			toCopy.getPixelType(), toCopy.isOrderCertain(), toCopy.isLittleEndian(),
 			toCopy.isIndexed(), toCopy.isFalseColor(), toCopy.isMetadataComplete());
 		// FIXME: Use setters, not direct assignment.
-		this.table = new DefaultMetaTable(toCopy.getTable());
+		this.table = AbstractMetadata.copyTable(toCopy.getTable());
 		this.thumbnail = toCopy.isThumbnail();
 		this.thumbSizeX = toCopy.getThumbSizeX();
 		this.thumbSizeY = toCopy.getThumbSizeY();
@@ -76,7 +76,7 @@ public abstract class AbstractMetadata extends AbstractHasSource implements
 	public AbstractMetadata(final Metadata copy) {
 		this(copy.getAll());
 
-		table = new DefaultMetaTable(copy.getTable());
+		table = copyTable(copy.getTable());
 	}
 
 	public AbstractMetadata(final List<ImageMetadata> list) {
@@ -192,6 +192,17 @@ public abstract class AbstractMetadata extends AbstractHasSource implements
 
 	// -- Helper Methods --
 
+	/**
+	 * Copies the given table, preserving its representation: copies of
+	 * {@link CompactMetaTable}s are compact as well, and share its string pool.
+	 */
+	static MetaTable copyTable(final MetaTable table) {
+		if (table instanceof CompactMetaTable) {
+			return new CompactMetaTable((CompactMetaTable) table);
+		}
+		return new DefaultMetaTable(table);
+	}
+
 	private void reset(final Class<?> type) {
 		if (type == null || type == AbstractMetadata.class) return;
 
@@ -31,14 +31,19 @@ package io.scif;
 
 import io.scif.config.SCIFIOConfig;
 import io.scif.io.RandomAccessInputStream;
+import io.scif.services.LocationService;
 import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 
+import org.scijava.plugin.Parameter;
+
 /**
  * Abstract superclass of all SCIFIO {@link io.scif.Parser} implementations.
  *
@@ -57,6 +62,9 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 	/** Last Metadata instance parsed by this parser. */
 	private M metadata;
 
+	@Parameter
+	private LocationService locationService;
+
 	// -- Parser API Methods --
 
 	@Override
@@ -214,7 +222,8 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 		}
 
 		if (stream == null) stream =
-			new RandomAccessInputStream(getContext(), fileName);
+			new RandomAccessInputStream(getContext(), locationService.getHandle(
+				fileName, false, true, config.parserIsMemoryMapped()), fileName);
 
 		return parse(stream, meta, config);
 	}
@@ -248,11 +257,22 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 		meta.setSource(stream);
 		meta.setDatasetName(stream.getFileName());
 
+		CompactMetaTable.StringPool pool = null;
+		if (config.parserIsCompactMetaTables()) {
+			pool = new CompactMetaTable.StringPool();
+			final CompactMetaTable table =
+				new CompactMetaTable(pool, config.parserIsFiltered());
+			table.putAll(meta.getTable());
+			meta.setTable(table);
+		}
+
 		metadata = meta;
 		typedParse(stream, meta, config);
 
 		meta.populateImageMetadata();
 
+		if (pool != null) compactTables(meta, pool);
+
 		return meta;
 	}
 
@@ -295,6 +315,38 @@ public abstract class AbstractParser<M extends TypedMetadata> extends
 		close();
 	}
 
+	/**
+	 * Replaces the metadata tables of the given {@link Metadata} and its images
+	 * by {@link CompactMetaTable}s sharing the given pool. Tables shared by
+	 * several images remain shared.
+	 */
+	private void compactTables(final Metadata meta,
+		final CompactMetaTable.StringPool pool)
+	{
+		final Map<MetaTable, MetaTable> compacted = new IdentityHashMap<>();
+		meta.setTable(compact(meta.getTable(), pool, compacted));
+		for (final ImageMetadata imageMeta : meta.getAll()) {
+			imageMeta.setTable(compact(imageMeta.getTable(), pool, compacted));
+		}
+	}
+
+	private MetaTable compact(final MetaTable table,
+		final CompactMetaTable.StringPool pool,
+		final Map<MetaTable, MetaTable> compacted)
+	{
+		if (table == null) return null;
+		MetaTable result = compacted.get(table);
+		if (result == null) {
+			if (table instanceof CompactMetaTable) {
+				((CompactMetaTable) table).trim();
+				result = table;
+			}
+			else result = new CompactMetaTable(table, pool);
+			compacted.put(table, result);
+		}
+		return result;
+	}
+
 	/* Builds a FileInfo array around the provided array of file names */
 	private FileInfo[] getFileInfo(final String[] files) {
 		final FileInfo[] infos = new FileInfo[files.length];
@@ -31,16 +31,23 @@ package io.scif;
 
 import io.scif.config.SCIFIOConfig;
 import io.scif.io.RandomAccessInputStream;
+import io.scif.services.LocationService;
 import io.scif.util.FormatTools;
 import io.scif.util.SCIFIOMetadataTools;
+import io.scif.util.SerialExecutor;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import net.imagej.axis.Axes;
 import net.imglib2.FinalInterval;
 import net.imglib2.Interval;
 
+import org.scijava.plugin.Parameter;
+
 /**
  * Abstract superclass of all SCIFIO {@link io.scif.Reader} implementations.
  *
@@ -67,6 +74,12 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 
 	private final Class<P> planeClass;
 
+	/** Serves the asynchronous plane requests to this reader. */
+	private SerialExecutor asyncExecutor;
+
+	@Parameter
+	private LocationService locationService;
+
 	// -- Constructors --
 
 	/** Constructs a reader and stores a reference to its plane type */
@@ -167,6 +180,59 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 			bounds, config);
 	}
 
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds) throws FormatException,
+		IOException
+	{
+		return openPlane(imageIndex, planeIndex, target, bounds,
+			new SCIFIOConfig());
+	}
+
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		// NB: Fall back to reading a whole Plane and copying it. Readers which
+		// can read directly into the buffer should override this method.
+		final int size = checkTarget(imageIndex, planeIndex, target, bounds);
+		final P plane = openPlane(imageIndex, planeIndex, bounds, config);
+		target.put(plane.getBytes(), 0, size);
+		return target;
+	}
+
+	@Override
+	public CompletableFuture<Plane> openPlaneAsync(final int imageIndex,
+		final long planeIndex, final Interval bounds)
+	{
+		return openPlaneAsync(imageIndex, planeIndex, bounds, new SCIFIOConfig());
+	}
+
+	@Override
+	public CompletableFuture<Plane> openPlaneAsync(final int imageIndex,
+		final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+	{
+		return FormatTools.openPlaneAsync(this, getAsyncExecutor(config),
+			imageIndex, planeIndex, bounds, config);
+	}
+
+	@Override
+	public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds) throws FormatException, IOException
+	{
+		return openPlanes(imageIndex, planeIndices, bounds, new SCIFIOConfig());
+	}
+
+	@Override
+	public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		return FormatTools.openPlanes(this, imageIndex, planeIndices, bounds,
+			config);
+	}
+
 	@Override
 	public String getCurrentFile() {
 		return getStream() == null ? null : getStream().getFileName();
@@ -264,7 +330,8 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 
 		close();
 		final RandomAccessInputStream stream =
-			new RandomAccessInputStream(getContext(), fileName);
+			new RandomAccessInputStream(getContext(), locationService.getHandle(
+				fileName, false, true, config.parserIsMemoryMapped()), fileName);
 		try {
 			setMetadata(getFormat().createParser().parse(stream, config));
 		}
@@ -321,6 +388,67 @@ public abstract class AbstractReader<M extends TypedMetadata, P extends DataPlan
 			.<P> castToTypedPlane(plane));
 	}
 
+	/**
+	 * Reads a raw plane from disk directly into the given buffer, starting at its
+	 * current position.
+	 * <p>
+	 * NB Presumes that the source stream {@code s} is set to the correct offset,
+	 * i.e. start of the plane
+	 * </p>
+	 *
+	 * @return {@code target}, positioned just past the last byte read.
+	 */
+	protected ByteBuffer readPlane(final RandomAccessInputStream s,
+		final int imageIndex, final Interval bounds, final ByteBuffer target)
+		throws IOException
+	{
+		final int size =
+			(int) FormatTools.getPlaneSize(metadata, bounds, imageIndex);
+		if (SCIFIOMetadataTools.wholePlane(imageIndex, metadata, bounds)) {
+			// contiguous on disk, so read straight into the buffer
+			final int limit = target.limit();
+			final int end = target.position() + size;
+			target.limit(end);
+			s.read(target);
+			target.limit(limit);
+			target.position(end);
+			return target;
+		}
+		final P plane = createPlane(bounds);
+		readPlane(s, imageIndex, bounds, plane);
+		target.put(plane.getBytes(), 0, size);
+		return target;
+	}
+
+	/**
+	 * Gets the executor serving the asynchronous requests to this reader, which
+	 * runs them one at a time on the executor of the given configuration.
+	 */
+	protected synchronized Executor getAsyncExecutor(
+		final SCIFIOConfig config)
+	{
+		if (asyncExecutor == null ||
+			asyncExecutor.getExecutor() != config.readerGetExecutor())
+		{
+			asyncExecutor = new SerialExecutor(config.readerGetExecutor());
+		}
+		return asyncExecutor;
+	}
+
+	/**
+	 * Checks that the given buffer can hold the requested region of the given
+	 * plane.
+	 *
+	 * @return The number of bytes the region occupies.
+	 */
+	protected int checkTarget(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds) throws FormatException
+	{
+		FormatTools.checkPlaneForReading(metadata, imageIndex, planeIndex, target
+			.remaining(), bounds);
+		return (int) FormatTools.getPlaneSize(metadata, bounds, imageIndex);
+	}
+
 	@Override
 	public long getPlaneCount(final int imageIndex) {
 		return metadata.get(imageIndex).getPlaneCount();
@@ -29,6 +29,11 @@
 
 package io.scif;
 
+import io.scif.config.SCIFIOConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import net.imglib2.Interval;
 
 /**
@@ -64,4 +69,30 @@ public abstract class ByteArrayReader<M extends TypedMetadata> extends
 		return new ByteArrayPlane(getContext(), meta, bounds);
 	}
 
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final int size = checkTarget(imageIndex, planeIndex, target, bounds);
+		if (!target.hasArray() || target.arrayOffset() + target.position() != 0 ||
+			target.array().length != size)
+		{
+			return super.openPlane(imageIndex, planeIndex, target, bounds, config);
+		}
+
+		// the buffer wraps an array of exactly the plane size, so the plane can
+		// be read into it in place
+		final byte[] bytes = target.array();
+		final ByteArrayPlane plane = new ByteArrayPlane(getContext());
+		plane.populate(getMetadata().get(imageIndex), bytes, bounds);
+		final ByteArrayPlane result =
+			openPlane(imageIndex, planeIndex, plane, bounds, config);
+		if (result.getBytes() != bytes) {
+			System.arraycopy(result.getBytes(), 0, bytes, 0, size);
+		}
+		target.position(target.position() + size);
+		return target;
+	}
+
 }
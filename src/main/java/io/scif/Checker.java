@@ -105,4 +105,16 @@ public interface Checker extends HasFormat {
 	 * @return True if {@code block} is compatible with this {@code Format}.
 	 */
 	boolean checkHeader(byte[] block);
+
+	/**
+	 * Gets the byte sequences one of which every source of this {@code Format}
+	 * starts with. Sources starting with none of them are assumed to fail
+	 * {@link #isFormat(RandomAccessInputStream)}, which lets the
+	 * {@link io.scif.services.FormatService} skip this checker based on the
+	 * first bytes of the source alone.
+	 *
+	 * @return The possible leading bytes of a source, or null if sources of
+	 *         this {@code Format} can not be recognized by a fixed signature.
+	 */
+	byte[][] getSignatures();
 }
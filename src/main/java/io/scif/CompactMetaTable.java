@@ -0,0 +1,547 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Memory-efficient {@link MetaTable} implementation, intended for datasets
+ * with very many images (e.g. high content screening plates), where each
+ * {@link ImageMetadata} carries its own table of original metadata.
+ * <p>
+ * Entries are kept in parallel arrays rather than as individual map nodes:
+ * numeric and boolean values are stored unboxed, and keys and short string
+ * values are interned through a {@link StringPool}, which can be shared by all
+ * tables of a dataset so that the keys and values repeated across its images
+ * are only kept once. Values are boxed again on retrieval, so they compare
+ * equal to (though are not necessarily identical with) the values originally
+ * put in the table.
+ * </p>
+ * <p>
+ * Keys and values are normalized exactly as by {@link DefaultMetaTable}.
+ * Iteration follows insertion order, except that removing an entry moves the
+ * last entry into its place. Like {@link java.util.HashMap}, this class is not
+ * thread-safe.
+ * </p>
+ *
+ * @see MetaTable
+ * @see io.scif.config.SCIFIOConfig#parserSetCompactMetaTables(boolean)
+ */
+public class CompactMetaTable extends AbstractMap<String, Object> implements
+	MetaTable
+{
+
+	// -- Constants --
+
+	private static final byte OBJECT = 0, INT = 1, LONG = 2, SHORT = 3,
+			BYTE = 4, DOUBLE = 5, FLOAT = 6, BOOLEAN = 7;
+
+	private static final int DEFAULT_CAPACITY = 8;
+
+	// -- Fields --
+
+	private final StringPool pool;
+
+	private final boolean filtered;
+
+	/** Keys, in insertion order. */
+	private String[] keys;
+
+	/** Value type of each entry. */
+	private byte[] types;
+
+	/** Raw bits of the primitive values. */
+	private long[] prims;
+
+	/** Object values; null for entries with primitive values. */
+	private Object[] refs;
+
+	/** Open addressing hash index: 1-based entry indices, 0 when empty. */
+	private int[] index;
+
+	private int size;
+
+	private int modCount;
+
+	private Set<Map.Entry<String, Object>> entrySet;
+
+	// -- Constructors --
+
+	public CompactMetaTable() {
+		this(new StringPool());
+	}
+
+	public CompactMetaTable(final StringPool pool) {
+		this(pool, false);
+	}
+
+	/**
+	 * @param pool - Pool used to intern keys and string values
+	 * @param filter - Whether to filter entries as {@link DefaultMetaTable}
+	 *          does
+	 */
+	public CompactMetaTable(final StringPool pool, final boolean filter) {
+		this.pool = pool;
+		filtered = filter;
+		keys = new String[DEFAULT_CAPACITY];
+		types = new byte[DEFAULT_CAPACITY];
+		prims = new long[DEFAULT_CAPACITY];
+		refs = new Object[DEFAULT_CAPACITY];
+		index = new int[DEFAULT_CAPACITY * 2];
+	}
+
+	/**
+	 * Construct a CompactMetaTable and populate it using an existing map.
+	 */
+	public CompactMetaTable(final Map<String, Object> copy,
+		final StringPool pool)
+	{
+		this(pool);
+		for (final Map.Entry<String, Object> e : copy.entrySet())
+			put(e.getKey(), e.getValue());
+		trim();
+	}
+
+	/**
+	 * Copying constructor. The copy shares the string pool of the given table.
+	 */
+	public CompactMetaTable(final CompactMetaTable copy) {
+		pool = copy.pool;
+		filtered = copy.filtered;
+		size = copy.size;
+		keys = copy.keys.clone();
+		types = copy.types.clone();
+		prims = copy.prims.clone();
+		refs = copy.refs.clone();
+		index = copy.index.clone();
+	}
+
+	// -- CompactMetaTable methods --
+
+	/**
+	 * @return The pool used to intern the keys and string values of this table.
+	 */
+	public StringPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Shrinks the storage of this table to its current size. Useful once a
+	 * table has been fully populated.
+	 */
+	public void trim() {
+		final int capacity = Math.max(size, 1);
+		if (capacity == keys.length) return;
+		keys = Arrays.copyOf(keys, capacity);
+		types = Arrays.copyOf(types, capacity);
+		prims = Arrays.copyOf(prims, capacity);
+		refs = Arrays.copyOf(refs, capacity);
+		rehash(indexCapacity(capacity));
+	}
+
+	// -- MetaTable API Methods --
+
+	@Override
+	public void putList(final String key, final Object value) {
+		put(key, DefaultMetaTable.appendList(get(key), value));
+	}
+
+	// -- Map API Methods --
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key instanceof String && find((String) key) >= 0;
+	}
+
+	@Override
+	public Object get(final Object key) {
+		if (!(key instanceof String)) return null;
+		final int i = find((String) key);
+		return i < 0 ? null : value(i);
+	}
+
+	@Override
+	public Object put(final String key, final Object value) {
+		final Map.Entry<String, Object> entry = //
+			DefaultMetaTable.filter(key, value, filtered);
+		if (entry == null) return null;
+
+		final String k = entry.getKey();
+		int i = find(k);
+		final Object previous;
+		if (i < 0) {
+			previous = null;
+			if (size == keys.length) grow();
+			i = size++;
+			keys[i] = pool.intern(k);
+			insert(i);
+			modCount++;
+		}
+		else previous = value(i);
+
+		store(i, entry.getValue());
+		return previous;
+	}
+
+	@Override
+	public Object remove(final Object key) {
+		if (!(key instanceof String)) return null;
+		final int i = find((String) key);
+		if (i < 0) return null;
+		final Object previous = value(i);
+		removeAt(i);
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(refs, 0, size, null);
+		Arrays.fill(index, 0);
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		if (entrySet == null) entrySet = new EntrySet();
+		return entrySet;
+	}
+
+	// -- Helper methods --
+
+	/** Stores the given value as the value of entry {@code i}. */
+	private void store(final int i, final Object value) {
+		byte type = OBJECT;
+		long bits = 0;
+		Object ref = null;
+		if (value instanceof Integer) {
+			type = INT;
+			bits = (Integer) value;
+		}
+		else if (value instanceof Long) {
+			type = LONG;
+			bits = (Long) value;
+		}
+		else if (value instanceof Short) {
+			type = SHORT;
+			bits = (Short) value;
+		}
+		else if (value instanceof Byte) {
+			type = BYTE;
+			bits = (Byte) value;
+		}
+		else if (value instanceof Double) {
+			type = DOUBLE;
+			bits = Double.doubleToRawLongBits((Double) value);
+		}
+		else if (value instanceof Float) {
+			type = FLOAT;
+			bits = Float.floatToRawIntBits((Float) value);
+		}
+		else if (value instanceof Boolean) {
+			type = BOOLEAN;
+			bits = (Boolean) value ? 1 : 0;
+		}
+		else if (value instanceof String) ref = pool.intern((String) value);
+		else ref = value;
+
+		types[i] = type;
+		prims[i] = bits;
+		refs[i] = ref;
+	}
+
+	/** Boxes the value of entry {@code i}. */
+	private Object value(final int i) {
+		final long bits = prims[i];
+		switch (types[i]) {
+			case INT:
+				return (int) bits;
+			case LONG:
+				return bits;
+			case SHORT:
+				return (short) bits;
+			case BYTE:
+				return (byte) bits;
+			case DOUBLE:
+				return Double.longBitsToDouble(bits);
+			case FLOAT:
+				return Float.intBitsToFloat((int) bits);
+			case BOOLEAN:
+				return bits != 0;
+			default:
+				return refs[i];
+		}
+	}
+
+	/** @return The entry index of the given key, or -1 if not present. */
+	private int find(final String key) {
+		final int mask = index.length - 1;
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask) {
+			final int e = index[slot];
+			if (e == 0) return -1;
+			if (keys[e - 1].equals(key)) return e - 1;
+		}
+	}
+
+	/** Adds entry {@code i} to the hash index. */
+	private void insert(final int i) {
+		final int mask = index.length - 1;
+		int slot = hash(keys[i]) & mask;
+		while (index[slot] != 0)
+			slot = (slot + 1) & mask;
+		index[slot] = i + 1;
+	}
+
+	/** @return The index slot referring to entry {@code i}. */
+	private int slotOf(final int i) {
+		final int mask = index.length - 1;
+		int slot = hash(keys[i]) & mask;
+		while (index[slot] != i + 1)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Removes entry {@code i}, moving the last entry into its place.
+	 */
+	private void removeAt(final int i) {
+		deleteSlot(slotOf(i));
+
+		final int last = --size;
+		if (i != last) {
+			index[slotOf(last)] = i + 1;
+			keys[i] = keys[last];
+			types[i] = types[last];
+			prims[i] = prims[last];
+			refs[i] = refs[last];
+		}
+		keys[last] = null;
+		refs[last] = null;
+		modCount++;
+	}
+
+	/**
+	 * Empties the given index slot, shifting back any later entries of the same
+	 * probe sequence so that lookups still find them.
+	 */
+	private void deleteSlot(int hole) {
+		final int mask = index.length - 1;
+		int slot = hole;
+		while (true) {
+			slot = (slot + 1) & mask;
+			final int e = index[slot];
+			if (e == 0) break;
+			final int home = hash(keys[e - 1]) & mask;
+			// move the entry into the hole, unless its home lies cyclically in
+			// (hole, slot]
+			final boolean stays = hole <= slot ? hole < home && home <= slot
+				: hole < home || home <= slot;
+			if (!stays) {
+				index[hole] = e;
+				hole = slot;
+			}
+		}
+		index[hole] = 0;
+	}
+
+	private void grow() {
+		final int capacity = Math.max(DEFAULT_CAPACITY, keys.length * 2);
+		keys = Arrays.copyOf(keys, capacity);
+		types = Arrays.copyOf(types, capacity);
+		prims = Arrays.copyOf(prims, capacity);
+		refs = Arrays.copyOf(refs, capacity);
+		if (index.length < indexCapacity(capacity)) {
+			rehash(indexCapacity(capacity));
+		}
+	}
+
+	private void rehash(final int capacity) {
+		index = new int[capacity];
+		for (int i = 0; i < size; i++)
+			insert(i);
+	}
+
+	/**
+	 * @return A power of two which keeps the index at most half full.
+	 */
+	private static int indexCapacity(final int entries) {
+		return Integer.highestOneBit(Math.max(entries, 1) * 2 - 1) << 1;
+	}
+
+	private static int hash(final String key) {
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Interns strings, so that equal keys and values stored in any of the
+	 * {@link CompactMetaTable}s sharing a pool are only kept in memory once.
+	 * Strings longer than {@link #MAX_LENGTH} are unlikely to repeat and are
+	 * not pooled.
+	 */
+	public static class StringPool {
+
+		/** Maximum length of the strings which are pooled. */
+		public static final int MAX_LENGTH = 256;
+
+		private final Map<String, String> strings = new HashMap<>();
+
+		/**
+		 * @return The pooled instance equal to the given string.
+		 */
+		public synchronized String intern(final String s) {
+			if (s == null || s.length() > MAX_LENGTH) return s;
+			final String pooled = strings.putIfAbsent(s, s);
+			return pooled == null ? s : pooled;
+		}
+
+		/**
+		 * @return The number of distinct strings in this pool.
+		 */
+		public synchronized int size() {
+			return strings.size();
+		}
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			CompactMetaTable.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator() {
+			return new EntryIterator();
+		}
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private int next;
+
+		private int current = -1;
+
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size) throw new NoSuchElementException();
+			current = next++;
+			return new Entry(keys[current]);
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0) throw new IllegalStateException();
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(current);
+			// the last entry was moved into the removed slot; visit it next
+			next = current;
+			current = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	private class Entry implements Map.Entry<String, Object> {
+
+		private final String key;
+
+		private Entry(final String key) {
+			this.key = key;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return get(key);
+		}
+
+		@Override
+		public Object setValue(final Object value) {
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Map.Entry)) return false;
+			final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			final Object value = getValue();
+			return key.equals(e.getKey()) && (value == null ? e.getValue() == null
+				: value.equals(e.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			final Object value = getValue();
+			return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + getValue();
+		}
+	}
+}
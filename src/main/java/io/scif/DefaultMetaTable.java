@@ -29,6 +29,7 @@
 
 package io.scif;
 
+import java.util.AbstractMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Vector;
@@ -75,8 +76,27 @@ public class DefaultMetaTable extends HashMap<String, Object> implements
 
 	@Override
 	public void putList(final String key, final Object value) {
-		Object list = get(key);
+		put(key, appendList(get(key), value));
+	}
+
+	@Override
+	public Object put(final String key, final Object value) {
+		final Map.Entry<String, Object> entry = filter(key, value, filtered);
+		if (entry == null) return null;
+		return super.put(entry.getKey(), entry.getValue());
+	}
+
+	// -- Helper methods --
 
+	/**
+	 * Adds the given value to a {@link MetaTable} list value, as per
+	 * {@link MetaTable#putList(String, Object)}.
+	 *
+	 * @param list - Current value of the key, if any
+	 * @param value - Value to add to the list
+	 * @return The list to store under the key
+	 */
+	static Object appendList(Object list, final Object value) {
 		if (list == null) list = new Vector<>();
 
 		if (list instanceof Vector) {
@@ -90,12 +110,20 @@ public class DefaultMetaTable extends HashMap<String, Object> implements
 			v.add(value);
 			list = v;
 		}
-
-		put(key, list);
+		return list;
 	}
 
-	@Override
-	public Object put(String key, Object value) {
+	/**
+	 * Normalizes a key, value pair before it is stored in a {@link MetaTable}.
+	 * Keys are trimmed and character values are converted to strings; if
+	 * filtering is enabled, complex values are rejected and both key and value
+	 * are sanitized.
+	 *
+	 * @return The entry to store, or null if the pair should not be stored.
+	 */
+	static Map.Entry<String, Object> filter(String key, Object value,
+		final boolean filtered)
+	{
 		if (key == null || value == null /* || TODO !isMetadataCollected() */) {
 			return null;
 		}
@@ -137,10 +165,9 @@ public class DefaultMetaTable extends HashMap<String, Object> implements
 			// verify key & value are not empty
 			if (key.length() == 0) return null;
 			if (string && val.trim().length() == 0) return null;
-
-			if (string) value = val;
 		}
 
-		return super.put(key, val == null ? value : val);
+		return new AbstractMap.SimpleImmutableEntry<>(key, val == null ? value
+			: val);
 	}
 }
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sorted index over a list of file names, used to find the names matching a
+ * {@link NumberFilter} without scanning the whole list.
+ * <p>
+ * Once sorted, all names sharing a prefix are contiguous, and so are the names
+ * whose numerical block begins right after that prefix. Both ranges are
+ * located by binary search, leaving only the names which can possibly match to
+ * be checked against the filter.
+ * </p>
+ */
+public class FileNameIndex {
+
+	// -- Fields --
+
+	/** The indexed names, in lexicographic order. */
+	private final String[] names;
+
+	// -- Constructor --
+
+	/** Creates an index over the given names. The array is not modified. */
+	public FileNameIndex(final String[] nameList) {
+		names = nameList.clone();
+		Arrays.parallelSort(names);
+	}
+
+	// -- FileNameIndex API methods --
+
+	/** Gets the number of indexed names. */
+	public int size() {
+		return names.length;
+	}
+
+	/** Gets whether the given name is part of this index. */
+	public boolean contains(final String name) {
+		return Arrays.binarySearch(names, name) >= 0;
+	}
+
+	/**
+	 * Gets the number of names which could be accepted by a
+	 * {@link NumberFilter} with the given prefix. This is an upper bound on the
+	 * size of {@link #match(NumberFilter)}, computed without examining any name.
+	 */
+	public int candidates(final String prefix) {
+		final int[] r = ranges(prefix);
+		return r[1] - r[0] + r[3] - r[2];
+	}
+
+	/**
+	 * Gets the names accepted by the given filter, in lexicographic order. This
+	 * is the same set {@link NumberFilter#accept(String)} would select from the
+	 * indexed names.
+	 */
+	public String[] match(final NumberFilter filter) {
+		final int[] r = ranges(filter.getPrefix());
+		final List<String> list = new ArrayList<>();
+		collect(filter, r[0], r[1], list);
+		collect(filter, r[2], r[3], list);
+		return list.toArray(new String[list.size()]);
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets the two ranges of names whose numerical block could begin right after
+	 * the given prefix, as {from, to, from, to}.
+	 */
+	private int[] ranges(final String prefix) {
+		final int start = lowerBound(prefix, 0, names.length);
+		final int end = prefixEnd(prefix, start);
+		// ASCII digits and signs all sort between '+' and '9'
+		final int from = lowerBound(prefix + '+', start, end);
+		final int to = lowerBound(prefix + ':', from, end);
+		// non-ASCII digits sort after any other character of interest
+		return new int[] { from, to, lowerBound(prefix + '\u0080', to, end), end };
+	}
+
+	private void collect(final NumberFilter filter, final int from,
+		final int to, final List<String> list)
+	{
+		for (int i = from; i < to; i++) {
+			if (filter.accept(names[i])) list.add(names[i]);
+		}
+	}
+
+	/** Gets the index of the first name not less than the given key. */
+	private int lowerBound(final String key, int lo, int hi) {
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (names[mid].compareTo(key) < 0) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+	/** Gets the index of the first name, from start, lacking the prefix. */
+	private int prefixEnd(final String prefix, final int start) {
+		int lo = start, hi = names.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (names[mid].startsWith(prefix)) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo;
+	}
+
+}
@@ -29,9 +29,11 @@
 
 package io.scif;
 
+import io.scif.io.DirectoryScanner;
 import io.scif.io.Location;
 
 import java.io.File;
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -347,6 +349,20 @@ public class FilePattern {
 	}
 
 	private String[] getAllFiles(final String dir) {
+		final String mappedDir = scifio.location().getMappedId(dir);
+		final File localDir = new File(mappedDir);
+		if (mappedDir.equals(dir) && localDir.isDirectory()) {
+			// local directory; scan it without a Location per entry
+			try {
+				final List<String> files =
+					DirectoryScanner.listFiles(localDir.toPath());
+				return files.toArray(new String[files.size()]);
+			}
+			catch (final IOException e) {
+				scifio.log().debug("Could not scan directory: " + dir, e);
+			}
+		}
+
 		final ArrayList<String> files = new ArrayList<>();
 
 		final Location root = new Location(scifio.getContext(), dir);
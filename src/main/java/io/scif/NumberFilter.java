@@ -59,6 +59,16 @@ public class NumberFilter implements FileFilter {
 
 	// -- NumberFilter API methods --
 
+	/** Gets the string appearing before the numerical block. */
+	public String getPrefix() {
+		return pre;
+	}
+
+	/** Gets the string appearing after the numerical block. */
+	public String getSuffix() {
+		return post;
+	}
+
 	/** Gets numbers filling the asterisk positions. */
 	public BigInteger getNumber(final String name) {
 		if (!name.startsWith(pre) || !name.endsWith(post)) return null;
@@ -77,7 +87,16 @@ public class NumberFilter implements FileFilter {
 
 	/** Tests if a specified file should be included in a file list. */
 	public boolean accept(final String name) {
-		return getNumber(name) != null;
+		if (!name.startsWith(pre) || !name.endsWith(post)) return false;
+		final int ndx = pre.length();
+		final int end = name.length() - post.length();
+		if (end <= ndx) return false;
+		for (int i = ndx; i < end; i++) {
+			final char c = name.charAt(i);
+			// signs and non-ASCII digits are left to BigInteger
+			if (c < '0' || c > '9') return getNumber(name) != null;
+		}
+		return true;
 	}
 
 	// -- FileFilter API methods --
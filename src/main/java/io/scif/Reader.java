@@ -34,6 +34,8 @@ import io.scif.io.RandomAccessInputStream;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 import net.imglib2.Interval;
 
@@ -149,6 +151,80 @@ public interface Reader extends HasFormat, HasSource, Groupable {
 	Plane openPlane(int imageIndex, long planeIndex, Plane plane, Interval bounds,
 		SCIFIOConfig config) throws FormatException, IOException;
 
+	/**
+	 * Reads the raw bytes of a desired sub-region from the pixels at the
+	 * specified indices directly into {@code target}, starting at its current
+	 * position. Readers of uncompressed data may fill the buffer straight from
+	 * their source, without staging the pixels in an intermediate
+	 * {@code Plane}.
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndex the plane index within the image.
+	 * @param target buffer to receive the pixels; must have at least as many
+	 *          bytes remaining as the requested region occupies.
+	 * @param bounds bounds of the planar axes.
+	 * @return {@code target}, positioned just past the last byte read.
+	 */
+	ByteBuffer openPlane(int imageIndex, long planeIndex, ByteBuffer target,
+		Interval bounds) throws FormatException, IOException;
+
+	/**
+	 * As {@link #openPlane(int, long, ByteBuffer, Interval)} with configuration
+	 * options.
+	 *
+	 * @param config Configuration information to use for this read.
+	 */
+	ByteBuffer openPlane(int imageIndex, long planeIndex, ByteBuffer target,
+		Interval bounds, SCIFIOConfig config) throws FormatException, IOException;
+
+	/**
+	 * Requests a sub-region of the plane at the specified indices without
+	 * waiting for it to be read, so that callers such as viewers can pipeline
+	 * their requests. Requests to a reader are served one at a time, in the
+	 * order they were made; the reader must not be used directly by other
+	 * threads while requests are pending.
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndex the plane index within the image.
+	 * @param bounds bounds of the planar axes.
+	 * @return A future completed with the plane, or completed exceptionally
+	 *         with the {@link FormatException} or {@link IOException} which
+	 *         prevented reading it.
+	 * @see SCIFIOConfig#readerSetExecutor
+	 */
+	CompletableFuture<Plane> openPlaneAsync(int imageIndex, long planeIndex,
+		Interval bounds);
+
+	/**
+	 * As {@link #openPlaneAsync(int, long, Interval)} with configuration
+	 * options, including the executor on which the request is run.
+	 *
+	 * @param config Configuration information to use for this read.
+	 */
+	CompletableFuture<Plane> openPlaneAsync(int imageIndex, long planeIndex,
+		Interval bounds, SCIFIOConfig config);
+
+	/**
+	 * Reads the same sub-region of several planes of an image. Readers may read
+	 * the planes of a batch more efficiently than one at a time, e.g. by
+	 * coalescing reads of data which is adjacent on disk.
+	 *
+	 * @param imageIndex the image index within the dataset.
+	 * @param planeIndices the plane indices within the image.
+	 * @param bounds bounds of the planar axes.
+	 * @return The desired sub-regions, in the order of {@code planeIndices}.
+	 */
+	Plane[] openPlanes(int imageIndex, long[] planeIndices, Interval bounds)
+		throws FormatException, IOException;
+
+	/**
+	 * As {@link #openPlanes(int, long[], Interval)} with configuration options.
+	 *
+	 * @param config Configuration information to use for this read.
+	 */
+	Plane[] openPlanes(int imageIndex, long[] planeIndices, Interval bounds,
+		SCIFIOConfig config) throws FormatException, IOException;
+
 	/** Returns the current file. */
 	String getCurrentFile();
 
@@ -33,6 +33,7 @@ import io.scif.app.SCIFIOApp;
 import io.scif.codec.CodecService;
 import io.scif.formats.qt.QTJavaService;
 import io.scif.formats.tiff.TiffService;
+import io.scif.formats.tiff.TiffTileCacheService;
 import io.scif.gui.GUIService;
 import io.scif.img.ImgUtilityService;
 import io.scif.img.converters.PlaneConverterService;
@@ -212,6 +213,15 @@ public class SCIFIO extends AbstractGateway {
 		return get(TiffService.class);
 	}
 
+	/**
+	 * Gets this application context's {@link TiffTileCacheService}.
+	 *
+	 * @return The {@link TiffTileCacheService} of this application context.
+	 */
+	public TiffTileCacheService tiffTileCache() {
+		return get(TiffTileCacheService.class);
+	}
+
 	/**
 	 * Gets this application context's {@link TranslatorService}.
 	 *
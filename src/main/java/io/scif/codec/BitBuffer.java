@@ -36,40 +36,28 @@ import org.scijava.log.StderrLogService;
 
 /**
  * A class for reading arbitrary numbers of bits from a byte array.
+ * <p>
+ * Bits are served from a 64-bit window that is refilled several bytes at a
+ * time, so that most reads are a shift and a mask rather than a loop over the
+ * bytes they span.
+ * </p>
  *
  * @author Eric Kjellman
  */
 public class BitBuffer {
 
-	// -- Constants --
-
-	/** Various bitmasks for the 0000xxxx side of a byte. */
-	private static final int[] BACK_MASK = { 0x00, // 00000000
-		0x01, // 00000001
-		0x03, // 00000011
-		0x07, // 00000111
-		0x0F, // 00001111
-		0x1F, // 00011111
-		0x3F, // 00111111
-		0x7F // 01111111
-		};
-
-	/** Various bitmasks for the xxxx0000 side of a byte. */
-	private static final int[] FRONT_MASK = { 0x0000, // 00000000
-		0x0080, // 10000000
-		0x00C0, // 11000000
-		0x00E0, // 11100000
-		0x00F0, // 11110000
-		0x00F8, // 11111000
-		0x00FC, // 11111100
-		0x00FE // 11111110
-		};
+	// -- Fields --
 
 	private final byte[] byteBuffer;
 
-	private int currentByte;
+	/** Index of the next byte to load into the window. */
+	private int nextByte;
+
+	/** Bits loaded from the buffer; the lowest {@link #windowBits} are unread. */
+	private long window;
 
-	private int currentBit;
+	/** Number of unread bits in the window. */
+	private int windowBits;
 
 	private final int eofByte;
 
@@ -78,8 +66,7 @@ public class BitBuffer {
 	/** Default constructor. */
 	public BitBuffer(final byte[] byteBuffer) {
 		this.byteBuffer = byteBuffer;
-		currentByte = 0;
-		currentBit = 0;
+		nextByte = 0;
 		eofByte = byteBuffer.length;
 	}
 
@@ -94,21 +81,13 @@ public class BitBuffer {
 		}
 
 		// handles skipping past eof
-		if ((long) eofByte * 8 < (long) currentByte * 8 + currentBit + bits) {
+		if (getRemainingBits() < bits) {
 			eofFlag = true;
-			currentByte = eofByte;
-			currentBit = 0;
+			nextByte = eofByte;
+			windowBits = 0;
 			return;
 		}
-
-		final int skipBytes = (int) (bits / 8);
-		final int skipBits = (int) (bits % 8);
-		currentByte += skipBytes;
-		currentBit += skipBits;
-		while (currentBit >= 8) {
-			currentByte++;
-			currentBit -= 8;
-		}
+		advance(bits);
 	}
 
 	/**
@@ -129,6 +108,9 @@ public class BitBuffer {
 	 * Requesting more than 32 bits is allowed, but only up to 32 bits worth of
 	 * data will be returned (the last 32 bits read).
 	 * <p>
+	 * If fewer bits than requested remain, the remaining bits are returned, and
+	 * subsequent reads return -1.
+	 * <p>
 	 *
 	 * @param bitsToRead the number of bits to read from the bit buffer
 	 * @return the value of the bits read
@@ -139,54 +121,84 @@ public class BitBuffer {
 		}
 		if (bitsToRead == 0) return 0;
 		if (eofFlag) return -1; // Already at end of file
-		int toStore = 0;
-		while (bitsToRead != 0 && !eofFlag) {
-			if (currentBit < 0 || currentBit > 7) {
-				throw new IllegalStateException("byte=" + currentByte + ", bit = " +
-					currentBit);
-			}
+		if (bitsToRead > 32) {
+			// only the last 32 of the bits read are returned
+			final long skip = Math.min(bitsToRead, getRemainingBits()) - 32;
+			if (skip > 0) advance(skip);
+			bitsToRead = 32;
+		}
+		if (windowBits < bitsToRead) refill();
+		if (windowBits < bitsToRead) {
+			// not enough bits left: return what there is
+			eofFlag = true;
+			if (windowBits == 0) return -1;
+			final int toStore = (int) window & mask(windowBits);
+			windowBits = 0;
+			return toStore;
+		}
+		windowBits -= bitsToRead;
+		// If we reach the end of the buffer, subsequent reads return -1.
+		if (windowBits == 0 && nextByte == eofByte) eofFlag = true;
+		return (int) (window >>> windowBits) & mask(bitsToRead);
+	}
 
-			// if we need to read from more than the current byte in the
-			// buffer...
-			final int bitsLeft = 8 - currentBit;
-			if (bitsToRead >= bitsLeft) {
-				toStore <<= bitsLeft;
-				bitsToRead -= bitsLeft;
-				final int cb = byteBuffer[currentByte];
-				if (currentBit == 0) {
-					// we can read in a whole byte, so we'll do that.
-					toStore += cb & 0xff;
-				}
-				else {
-					// otherwise, only read the appropriate number of bits off
-					// the back
-					// side of the byte, in order to "finish" the current byte
-					// in the
-					// buffer.
-					toStore += cb & BACK_MASK[bitsLeft];
-					currentBit = 0;
-				}
-				currentByte++;
-			}
-			else {
-				// We will be able to finish using the current byte.
-				// read the appropriate number of bits off the front side of the
-				// byte,
-				// then push them into the int.
-				toStore = toStore << bitsToRead;
-				final int cb = byteBuffer[currentByte] & 0xff;
-				toStore +=
-					(cb & (0x00FF - FRONT_MASK[currentBit])) >> (bitsLeft - bitsToRead);
-				currentBit += bitsToRead;
-				bitsToRead = 0;
-			}
-			// If we reach the end of the buffer, return what we currently have.
-			if (currentByte == eofByte) {
-				eofFlag = true;
-				return toStore;
-			}
+	/**
+	 * Returns the next bits of the buffer without consuming them. Bits past the
+	 * end of the buffer read as 0.
+	 *
+	 * @param bitsToPeek the number of bits to return, from 0 to 32
+	 * @return the value of the next bits
+	 */
+	public int peekBits(final int bitsToPeek) {
+		if (bitsToPeek < 0 || bitsToPeek > 32) {
+			throw new IllegalArgumentException("Bits to peek must be 0 to 32");
 		}
-		return toStore;
+		if (bitsToPeek == 0) return 0;
+		if (windowBits < bitsToPeek) refill();
+		if (windowBits < bitsToPeek) {
+			if (windowBits == 0) return 0;
+			return ((int) window & mask(windowBits)) << (bitsToPeek - windowBits);
+		}
+		return (int) (window >>> (windowBits - bitsToPeek)) & mask(bitsToPeek);
+	}
+
+	/** Returns the number of bits left to read before the end of the buffer. */
+	public long getRemainingBits() {
+		if (eofFlag) return 0;
+		return (long) (eofByte - nextByte) * 8 + windowBits;
+	}
+
+	// -- Helper methods --
+
+	/** Loads as many whole bytes into the window as it can hold. */
+	private void refill() {
+		int bytes = Math.min((63 - windowBits) >> 3, eofByte - nextByte);
+		windowBits += bytes << 3;
+		long w = window;
+		while (bytes-- > 0) {
+			w = (w << 8) | (byteBuffer[nextByte++] & 0xff);
+		}
+		window = w;
+	}
+
+	/** Moves the position forward, within the remaining bits. */
+	private void advance(long bits) {
+		if (bits <= windowBits) {
+			windowBits -= bits;
+			return;
+		}
+		bits -= windowBits;
+		nextByte += (int) (bits >> 3);
+		windowBits = 0;
+		final int partial = (int) (bits & 7);
+		if (partial > 0) {
+			window = byteBuffer[nextByte++] & 0xff;
+			windowBits = 8 - partial;
+		}
+	}
+
+	private static int mask(final int bits) {
+		return -1 >>> (32 - bits);
 	}
 
 	/**
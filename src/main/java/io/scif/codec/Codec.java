@@ -34,6 +34,7 @@ import io.scif.SCIFIOPlugin;
 import io.scif.io.RandomAccessInputStream;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.scijava.plugin.SingletonPlugin;
 
@@ -127,4 +128,62 @@ public interface Codec extends SCIFIOPlugin, SingletonPlugin {
 	byte[] decompress(RandomAccessInputStream in, CodecOptions options)
 		throws FormatException, IOException;
 
+	/**
+	 * Decompresses a block of data into the given region of a caller-provided
+	 * array, so that buffers can be reused across blocks. Decompression stops
+	 * once {@code length} bytes have been produced; the rest of the region is
+	 * left untouched if the data decompresses to fewer bytes.
+	 * <p>
+	 * The default implementation decompresses into a new array using
+	 * {@link #decompress(byte[], CodecOptions)} and copies the result; codecs
+	 * override it to decode in place.
+	 * </p>
+	 *
+	 * @param data The data to be decompressed.
+	 * @param output The array to store the decompressed data in.
+	 * @param offset Index in {@code output} of the first decompressed byte.
+	 * @param length Maximum number of bytes to decompress.
+	 * @param options Options to be used during decompression.
+	 * @return The number of bytes stored in {@code output}.
+	 * @throws FormatException If data is not valid.
+	 */
+	default int decompress(final byte[] data, final byte[] output,
+		final int offset, final int length, final CodecOptions options)
+		throws FormatException
+	{
+		final byte[] bytes = decompress(data, options);
+		if (bytes == null) return 0;
+		final int n = Math.min(bytes.length, length);
+		System.arraycopy(bytes, 0, output, offset, n);
+		return n;
+	}
+
+	/**
+	 * Decompresses a block of data into the remaining space of the given
+	 * buffer, advancing its position by the number of bytes stored.
+	 *
+	 * @param data The data to be decompressed.
+	 * @param output The buffer to store the decompressed data in.
+	 * @param options Options to be used during decompression.
+	 * @return The number of bytes stored in {@code output}.
+	 * @throws FormatException If data is not valid.
+	 * @see #decompress(byte[], byte[], int, int, CodecOptions)
+	 */
+	default int decompress(final byte[] data, final ByteBuffer output,
+		final CodecOptions options) throws FormatException
+	{
+		final int n;
+		if (output.hasArray()) {
+			n = decompress(data, output.array(), output.arrayOffset() + output
+				.position(), output.remaining(), options);
+		}
+		else {
+			final byte[] bytes = decompress(data, options);
+			n = bytes == null ? 0 : Math.min(bytes.length, output.remaining());
+			if (n > 0) output.duplicate().put(bytes, 0, n);
+		}
+		output.position(output.position() + n);
+		return n;
+	}
+
 }
@@ -30,6 +30,7 @@
 package io.scif.codec;
 
 import java.awt.image.ColorModel;
+import java.util.zip.Deflater;
 
 /**
  * Options for compressing and decompressing data.
@@ -115,6 +116,19 @@ public class CodecOptions {
 	 */
 	public boolean ycbcr;
 
+	/**
+	 * Compression level used by deflate-based codecs, from 0 (no compression)
+	 * to 9 (best compression), as it would be provided to
+	 * {@link Deflater#setLevel(int)} (WRITE).
+	 */
+	public int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * Compression strategy used by deflate-based codecs, as it would be provided
+	 * to {@link Deflater#setStrategy(int)} (WRITE).
+	 */
+	public int deflateStrategy = Deflater.DEFAULT_STRATEGY;
+
 	// -- Constructors --
 
 	/** Construct a new CodecOptions. */
@@ -140,6 +154,8 @@ public class CodecOptions {
 			this.tileGridXOffset = options.tileGridXOffset;
 			this.tileGridYOffset = options.tileGridYOffset;
 			this.ycbcr = options.ycbcr;
+			this.deflateLevel = options.deflateLevel;
+			this.deflateStrategy = options.deflateStrategy;
 		}
 	}
 
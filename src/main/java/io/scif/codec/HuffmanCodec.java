@@ -34,7 +34,9 @@ import io.scif.UnsupportedCompressionException;
 import io.scif.io.RandomAccessInputStream;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.scijava.plugin.Plugin;
 
@@ -50,12 +52,13 @@ public class HuffmanCodec extends AbstractCodec {
 
 	private static final int LEAVES_OFFSET = 16;
 
-	// -- Fields --
+	/** Number of bits resolved by one lookup in a decoder's table. */
+	private static final int LOOKUP_BITS = 10;
 
-	private int leafCounter;
+	// -- Fields --
 
-	private final HashMap<short[], Decoder> cachedDecoders =
-		new HashMap<>();
+	private final Map<short[], Decoder> cachedDecoders =
+		new ConcurrentHashMap<>();
 
 	// -- Codec API methods --
 
@@ -96,9 +99,10 @@ public class HuffmanCodec extends AbstractCodec {
 		if ((huffman.bitsPerSample % 8) != 0) bytesPerSample++;
 
 		final BitWriter out = new BitWriter();
+		final Decoder decoder = getDecoder(huffman.table);
 
 		for (int i = 0; i < nSamples; i++) {
-			final int sample = getSample(bb, options);
+			final int sample = getSample(bb, decoder);
 			out.write(sample, bytesPerSample * 8);
 		}
 
@@ -119,18 +123,27 @@ public class HuffmanCodec extends AbstractCodec {
 		}
 
 		final HuffmanCodecOptions huffman = (HuffmanCodecOptions) options;
-		Decoder decoder = cachedDecoders.get(huffman.table);
-		if (decoder == null) {
-			decoder = new Decoder(huffman.table);
-			cachedDecoders.put(huffman.table, decoder);
-		}
+		return getSample(bb, getDecoder(huffman.table));
+	}
+
+	// -- Package-private methods --
 
+	/** Gets the decoder for the given table, building it on first use. */
+	Decoder getDecoder(final short[] table) {
+		return cachedDecoders.computeIfAbsent(table, Decoder::new);
+	}
+
+	/** Decodes one difference with the given decoder. */
+	int getSample(final BitBuffer bb, final Decoder decoder) {
 		int bitCount = decoder.decode(bb);
 		if (bitCount == 16) {
 			return 0x8000;
 		}
 		if (bitCount < 0) bitCount = 0;
-		int v = bb.getBits(bitCount) & ((int) Math.pow(2, bitCount) - 1);
+		// NB: as (int) Math.pow(2, bitCount) - 1, which saturates
+		final int mask = bitCount < 31 ? (1 << bitCount) - 1
+			: Integer.MAX_VALUE - 1;
+		int v = bb.getBits(bitCount) & mask;
 		if ((v & (1 << (bitCount - 1))) == 0) {
 			v -= (1 << bitCount) - 1;
 		}
@@ -140,49 +153,99 @@ public class HuffmanCodec extends AbstractCodec {
 
 	// -- Helper class --
 
-	class Decoder {
+	/**
+	 * A node of the code tree. The root also holds a table indexed by the next
+	 * {@link #LOOKUP_BITS} bits of input, which resolves shorter codes in a
+	 * single lookup and leads straight to the subtree of longer ones.
+	 */
+	static class Decoder {
 
 		public Decoder[] branch = new Decoder[2];
 
 		private int leafValue = -1;
 
+		/** Code length {@code << 16 |} value of the code each index starts with. */
+		private int[] lookup;
+
+		/** Subtrees of codes longer than the lookup, by lookup index. */
+		private Decoder[] subtrees;
+
 		public Decoder() {}
 
 		public Decoder(final short[] source) {
-			leafCounter = 0;
-			createDecoder(this, source, 0, 0);
+			createDecoder(this, source, 0, 0, new int[1]);
+			lookup = new int[1 << LOOKUP_BITS];
+			subtrees = new Decoder[1 << LOOKUP_BITS];
+			fillLookup(this, 0, 0);
 		}
 
 		private Decoder createDecoder(final short[] source, final int start,
-			final int level)
+			final int level, final int[] leafCounter)
 		{
 			final Decoder dest = new Decoder();
-			createDecoder(dest, source, start, level);
+			createDecoder(dest, source, start, level, leafCounter);
 			return dest;
 		}
 
 		private void createDecoder(final Decoder dest, final short[] source,
-			final int start, final int level)
+			final int start, final int level, final int[] leafCounter)
 		{
 			int next = 0;
 			int i = 0;
-			while (i <= leafCounter && next < LEAVES_OFFSET) {
+			while (i <= leafCounter[0] && next < LEAVES_OFFSET) {
 				i += source[start + next++] & 0xff;
 			}
 
 			if (level < next && next < LEAVES_OFFSET) {
-				dest.branch[0] = createDecoder(source, start, level + 1);
-				dest.branch[1] = createDecoder(source, start, level + 1);
+				dest.branch[0] = createDecoder(source, start, level + 1, leafCounter);
+				dest.branch[1] = createDecoder(source, start, level + 1, leafCounter);
 			}
 			else {
-				i = start + LEAVES_OFFSET + leafCounter++;
+				i = start + LEAVES_OFFSET + leafCounter[0]++;
 				if (i < source.length) {
 					dest.leafValue = source[i] & 0xff;
 				}
 			}
 		}
 
+		/** Records the given node, reached by {@code code}, in the lookup. */
+		private void fillLookup(final Decoder node, final int level,
+			final int code)
+		{
+			if (node.branch[0] == null) {
+				// every index starting with the code of this leaf
+				final int shift = LOOKUP_BITS - level;
+				final int entry = level << 16 | (node.leafValue & 0xffff);
+				Arrays.fill(lookup, code << shift, (code + 1) << shift, entry);
+			}
+			else if (level == LOOKUP_BITS) {
+				subtrees[code] = node;
+			}
+			else {
+				fillLookup(node.branch[0], level + 1, code << 1);
+				fillLookup(node.branch[1], level + 1, code << 1 | 1);
+			}
+		}
+
 		public int decode(final BitBuffer bb) {
+			// NB: codes are at most 15 bits long, so with this many bits left the
+			// end of the buffer cannot be reached
+			if (lookup != null && bb.getRemainingBits() >= LEAVES_OFFSET) {
+				final int index = bb.peekBits(LOOKUP_BITS);
+				final Decoder subtree = subtrees[index];
+				if (subtree == null) {
+					final int entry = lookup[index];
+					bb.skipBits(entry >>> 16);
+					return (short) entry;
+				}
+				bb.skipBits(LOOKUP_BITS);
+				return subtree.walk(bb);
+			}
+			return walk(bb);
+		}
+
+		/** Follows the code tree from this node, one bit at a time. */
+		private int walk(final BitBuffer bb) {
 			Decoder d = this;
 			while (d.branch[0] != null) {
 				final int v = bb.getBits(1);
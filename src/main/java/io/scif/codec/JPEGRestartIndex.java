@@ -0,0 +1,505 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import io.scif.io.RandomAccessInputStream;
+import io.scif.io.ReadRange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Index of the restart intervals of a baseline JPEG stream. Restart markers
+ * (RST0 - RST7) reset the entropy decoder, so every interval between two of
+ * them can be decoded without the data preceding it. This index records where
+ * each interval begins and groups intervals into rectangular units of the
+ * image, allowing a region to be decoded by assembling just the units which
+ * cover it into small, standalone JPEG streams.
+ */
+public class JPEGRestartIndex {
+
+	// -- Constants --
+
+	private static final int SOI = 0xd8;
+
+	private static final int EOI = 0xd9;
+
+	private static final int SOS = 0xda;
+
+	private static final int DRI = 0xdd;
+
+	private static final int RST0 = 0xd0;
+
+	private static final int RST7 = 0xd7;
+
+	/** Size of the chunks in which entropy-coded data is scanned. */
+	private static final int SCAN_CHUNK = 65536;
+
+	// -- Fields --
+
+	/** Stream header from SOI up to and including the SOS segment. */
+	private final byte[] header;
+
+	/** Offset of the frame height within {@link #header}. */
+	private final int sizeOffset;
+
+	private final int width, height, channels;
+
+	/** Offsets of the first byte of each restart interval. */
+	private final long[] starts;
+
+	/** Offset just past the last byte of entropy-coded data. */
+	private final long scanEnd;
+
+	/** Number of MCUs in each restart interval. */
+	private final int interval;
+
+	/** Whether any component is subsampled relative to the others. */
+	private final boolean subsampled;
+
+	private final int unitWidth, unitHeight, unitColumns, unitRows;
+
+	private final int intervalsPerUnit;
+
+	// -- Constructor --
+
+	private JPEGRestartIndex(final byte[] header, final int sizeOffset,
+		final int width, final int height, final int channels, final int mcuWidth,
+		final int mcuHeight, final boolean subsampled, final int interval,
+		final long[] starts, final long scanEnd)
+	{
+		this.header = header;
+		this.sizeOffset = sizeOffset;
+		this.width = width;
+		this.height = height;
+		this.channels = channels;
+		this.subsampled = subsampled;
+		this.interval = interval;
+		this.starts = starts;
+		this.scanEnd = scanEnd;
+
+		final int mcusPerRow = (width + mcuWidth - 1) / mcuWidth;
+		final int mcuRows = (height + mcuHeight - 1) / mcuHeight;
+		if (mcusPerRow % interval == 0) {
+			// every interval covers part of a single MCU row
+			unitWidth = interval * mcuWidth;
+			unitHeight = mcuHeight;
+			unitColumns = mcusPerRow / interval;
+			intervalsPerUnit = 1;
+		}
+		else {
+			// intervals straddle MCU rows; group them into full-width bands
+			// whose boundaries coincide with interval boundaries
+			final int rows = interval / gcd(interval, mcusPerRow);
+			unitWidth = width;
+			unitHeight = rows * mcuHeight;
+			unitColumns = 1;
+			intervalsPerUnit = rows * mcusPerRow / interval;
+		}
+		unitRows = (mcuRows * mcuHeight + unitHeight - 1) / unitHeight;
+	}
+
+	// -- Static utility methods --
+
+	/**
+	 * Indexes the restart intervals of the JPEG stream beginning at the current
+	 * position of the given stream. The stream position is left unchanged.
+	 *
+	 * @return The index, or null if the stream is not a single-scan, 8-bit
+	 *         baseline or extended sequential JPEG with restart markers.
+	 */
+	public static JPEGRestartIndex create(final RandomAccessInputStream in)
+		throws IOException
+	{
+		final long fp = in.getFilePointer();
+		final boolean littleEndian = in.isLittleEndian();
+		in.order(false);
+		try {
+			return parse(in);
+		}
+		finally {
+			in.seek(fp);
+			in.order(littleEndian);
+		}
+	}
+
+	// -- JPEGRestartIndex API methods --
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	/** Gets the number of channels in decoded pixels: 1 or 3. */
+	public int getChannels() {
+		return channels;
+	}
+
+	/** Gets the number of MCUs in each restart interval. */
+	public int getInterval() {
+		return interval;
+	}
+
+	/** Gets the number of restart intervals in the image. */
+	public int getIntervalCount() {
+		return starts.length;
+	}
+
+	/**
+	 * Reads the restart intervals covering the given region and assembles them
+	 * into standalone JPEG streams. The region's rows are split into at most
+	 * {@code parts} bands, which can be decoded independently. All bytes are
+	 * read with a single {@link RandomAccessInputStream#readRanges(List)} call;
+	 * the stream position is left unchanged.
+	 */
+	public List<Band> readBands(final RandomAccessInputStream in, final int x,
+		final int y, final int w, final int h, final int parts) throws IOException
+	{
+		if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > width ||
+			y + h > height)
+		{
+			throw new IllegalArgumentException("Invalid region: x=" + x + ", y=" +
+				y + ", w=" + w + ", h=" + h);
+		}
+
+		// when chroma is subsampled, the decoder interpolates across unit edges;
+		// decode one extra unit on each side so edge pixels match a full decode
+		final int margin = subsampled ? 1 : 0;
+		final int c0 = Math.max(0, x / unitWidth - margin);
+		final int c1 = Math.min(unitColumns, (x + w + unitWidth - 1) /
+			unitWidth + margin);
+		final int r0 = y / unitHeight;
+		final int r1 = (y + h + unitHeight - 1) / unitHeight;
+
+		final int count = Math.max(1, Math.min(parts, r1 - r0));
+		final List<Band> bands = new ArrayList<>(count);
+		final List<ReadRange> ranges = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			final int first = r0 + (r1 - r0) * i / count;
+			final int last = r0 + (r1 - r0) * (i + 1) / count;
+			final Band band = new Band(Math.max(0, first - margin), Math.min(
+				unitRows, last + margin), c0, c1, first * unitHeight, Math.min(
+					last * unitHeight, height));
+			band.addRanges(ranges);
+			bands.add(band);
+		}
+
+		in.readRanges(ranges);
+		for (final Band band : bands) {
+			band.renumberMarkers();
+		}
+		return bands;
+	}
+
+	// -- Helper methods --
+
+	private static JPEGRestartIndex parse(final RandomAccessInputStream in)
+		throws IOException
+	{
+		final long length = in.length();
+		if (in.getFilePointer() + 2 > length ||
+			(in.readShort() & 0xffff) != (0xff00 | SOI))
+		{
+			return null;
+		}
+
+		final ByteArrayOutputStream header = new ByteArrayOutputStream();
+		header.write(0xff);
+		header.write(SOI);
+
+		int sizeOffset = -1, interval = 0, frameComponents = 0;
+		int width = 0, height = 0, hMax = 0, vMax = 0;
+		boolean subsampled = false;
+		while (true) {
+			if (in.getFilePointer() + 4 > length) return null;
+			if ((in.readByte() & 0xff) != 0xff) return null;
+			int marker;
+			do {
+				marker = in.readByte() & 0xff;
+			}
+			while (marker == 0xff && in.getFilePointer() < length);
+			if (marker == EOI) return null;
+			if (marker == 0x01 || (marker >= RST0 && marker <= RST7)) continue;
+
+			final long segmentOffset = in.getFilePointer() - 2;
+			final int segmentLength = in.readShort() & 0xffff;
+			if (segmentLength < 2 || segmentOffset + 2 + segmentLength > length) {
+				return null;
+			}
+			final byte[] segment = new byte[segmentLength + 2];
+			in.seek(segmentOffset);
+			in.readFully(segment);
+
+			if (marker == 0xc0 || marker == 0xc1) {
+				if (segmentLength < 8 || segment[4] != 8) return null;
+				height = readShort(segment, 5);
+				width = readShort(segment, 7);
+				frameComponents = segment[9] & 0xff;
+				if (width == 0 || height == 0 || segmentLength < 8 + 3 *
+					frameComponents || (frameComponents != 1 && frameComponents != 3))
+				{
+					return null;
+				}
+				for (int c = 0; c < frameComponents; c++) {
+					final int sampling = segment[11 + 3 * c] & 0xff;
+					final int hs = sampling >> 4, vs = sampling & 0xf;
+					if (c > 0 && (hs != hMax || vs != vMax)) subsampled = true;
+					hMax = Math.max(hMax, hs);
+					vMax = Math.max(vMax, vs);
+				}
+				if (hMax == 0 || vMax == 0) return null;
+				sizeOffset = header.size() + 5;
+			}
+			else if (marker >= 0xc2 && marker <= 0xcf && marker != 0xc4 &&
+				marker != 0xc8)
+			{
+				// progressive, lossless, hierarchical or arithmetic coding
+				return null;
+			}
+			else if (marker == DRI) {
+				if (segmentLength < 4) return null;
+				interval = readShort(segment, 4);
+			}
+			header.write(segment, 0, segment.length);
+
+			if (marker == SOS) {
+				if (sizeOffset < 0 || interval == 0 ||
+					(segment[4] & 0xff) != frameComponents)
+				{
+					return null;
+				}
+				break;
+			}
+		}
+
+		final int mcuWidth = frameComponents == 1 ? 8 : 8 * hMax;
+		final int mcuHeight = frameComponents == 1 ? 8 : 8 * vMax;
+		final long mcus = (long) ((width + mcuWidth - 1) / mcuWidth) *
+			((height + mcuHeight - 1) / mcuHeight);
+		final long expected = (mcus + interval - 1) / interval;
+		if (expected > Integer.MAX_VALUE) return null;
+
+		// scan the entropy-coded data for restart markers
+		long[] starts = new long[(int) Math.min(expected, 1024)];
+		int count = 0;
+		starts[count++] = in.getFilePointer();
+		long scanEnd = length;
+		final byte[] chunk = new byte[SCAN_CHUNK];
+		boolean marker = false;
+		scan:
+		for (long pos = in.getFilePointer(); pos < length;) {
+			final int n = (int) Math.min(chunk.length, length - pos);
+			in.readFully(chunk, 0, n);
+			for (int i = 0; i < n; i++) {
+				final int b = chunk[i] & 0xff;
+				if (!marker) {
+					marker = b == 0xff;
+				}
+				else if (b >= RST0 && b <= RST7) {
+					if (count == expected) return null;
+					if (count == starts.length) {
+						starts = Arrays.copyOf(starts, (int) Math.min(expected,
+							2L * count));
+					}
+					starts[count++] = pos + i + 1;
+					marker = false;
+				}
+				else if (b != 0xff) {
+					if (b != 0) {
+						// any other marker ends the scan
+						scanEnd = pos + i - 1;
+						break scan;
+					}
+					marker = false;
+				}
+			}
+			pos += n;
+		}
+		if (count != expected) return null;
+
+		return new JPEGRestartIndex(header.toByteArray(), sizeOffset, width,
+			height, frameComponents, mcuWidth, mcuHeight, subsampled, interval,
+			starts, scanEnd);
+	}
+
+	/** Gets the offset just past the last byte of the given interval. */
+	private long getEnd(final int index) {
+		return index + 1 < starts.length ? starts[index + 1] - 2 : scanEnd;
+	}
+
+	private static int readShort(final byte[] b, final int off) {
+		return ((b[off] & 0xff) << 8) | (b[off + 1] & 0xff);
+	}
+
+	private static int gcd(final int a, final int b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	// -- Helper classes --
+
+	/** A standalone JPEG stream holding a rectangular band of the image. */
+	public class Band {
+
+		private final int x, y, width, height;
+
+		private final int firstRow, lastRow;
+
+		private final int unitRow0, unitRow1, unitCol0, unitCol1;
+
+		private final byte[] jpeg;
+
+		/** Positions of the second byte of every restart marker. */
+		private final int[] markers;
+
+		private Band(final int unitRow0, final int unitRow1, final int unitCol0,
+			final int unitCol1, final int firstRow, final int lastRow)
+		{
+			this.unitRow0 = unitRow0;
+			this.unitRow1 = unitRow1;
+			this.unitCol0 = unitCol0;
+			this.unitCol1 = unitCol1;
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+			x = unitCol0 * unitWidth;
+			y = unitRow0 * unitHeight;
+			width = Math.min(unitCol1 * unitWidth, JPEGRestartIndex.this.width) - x;
+			height = Math.min(unitRow1 * unitHeight, JPEGRestartIndex.this.height) -
+				y;
+
+			long size = header.length + 2;
+			int markerCount = -1;
+			for (int r = unitRow0; r < unitRow1; r++) {
+				final int first = getFirstInterval(r);
+				final int last = getLastInterval(r);
+				size += getEnd(last) - starts[first] + 2;
+				markerCount += last - first + 1;
+			}
+			if (size > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Region too large: " + width +
+					"x" + height);
+			}
+			jpeg = new byte[(int) size - 2];
+			markers = new int[markerCount];
+		}
+
+		// -- Band API methods --
+
+		/** Gets the column of the first decoded pixel. */
+		public int getX() {
+			return x;
+		}
+
+		/** Gets the row of the first decoded pixel. */
+		public int getY() {
+			return y;
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		/** Gets the first image row which this band is responsible for. */
+		public int getFirstRow() {
+			return firstRow;
+		}
+
+		/**
+		 * Gets the row just past the last image row which this band is
+		 * responsible for. Rows outside of {@link #getFirstRow()} and this one
+		 * are decoded only to reproduce chroma interpolation at the band edges.
+		 */
+		public int getLastRow() {
+			return lastRow;
+		}
+
+		/** Gets the standalone JPEG stream. */
+		public byte[] getBytes() {
+			return jpeg;
+		}
+
+		// -- Helper methods --
+
+		private int getFirstInterval(final int unitRow) {
+			return (unitRow * unitColumns + unitCol0) * intervalsPerUnit;
+		}
+
+		private int getLastInterval(final int unitRow) {
+			return Math.min(starts.length, (unitRow * unitColumns + unitCol1) *
+				intervalsPerUnit) - 1;
+		}
+
+		/** Adds the ranges filling this band's stream, and writes the rest. */
+		private void addRanges(final List<ReadRange> ranges) {
+			System.arraycopy(header, 0, jpeg, 0, header.length);
+			jpeg[sizeOffset] = (byte) (height >> 8);
+			jpeg[sizeOffset + 1] = (byte) height;
+			jpeg[sizeOffset + 2] = (byte) (width >> 8);
+			jpeg[sizeOffset + 3] = (byte) width;
+
+			int pos = header.length;
+			int marker = 0;
+			for (int r = unitRow0; r < unitRow1; r++) {
+				if (r > unitRow0) {
+					markers[marker++] = pos + 1;
+					pos += 2;
+				}
+				final int first = getFirstInterval(r);
+				final int last = getLastInterval(r);
+				final int length = (int) (getEnd(last) - starts[first]);
+				ranges.add(new ReadRange(starts[first], length, jpeg, pos));
+				for (int i = first + 1; i <= last; i++) {
+					markers[marker++] = pos + (int) (starts[i] - starts[first]) - 1;
+				}
+				pos += length;
+			}
+			jpeg[pos] = (byte) 0xff;
+			jpeg[pos + 1] = (byte) EOI;
+		}
+
+		/** Numbers the restart markers consecutively, as decoders expect. */
+		private void renumberMarkers() {
+			for (int i = 0; i < markers.length; i++) {
+				jpeg[markers[i] - 1] = (byte) 0xff;
+				jpeg[markers[i]] = (byte) (RST0 + (i & 7));
+			}
+		}
+	}
+
+}
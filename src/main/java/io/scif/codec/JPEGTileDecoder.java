@@ -38,7 +38,12 @@ import java.awt.image.ColorModel;
 import java.awt.image.ImageConsumer;
 import java.awt.image.ImageProducer;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.scijava.AbstractContextual;
 import org.scijava.Context;
@@ -58,12 +63,22 @@ public class JPEGTileDecoder extends AbstractContextual {
 	@Parameter
 	private LogService log;
 
+	@Parameter
+	private CodecService codecService;
+
 	private TileConsumer consumer;
 
 	private TileCache tiles;
 
 	private RandomAccessInputStream in;
 
+	/** Restart interval index, if the stream has restart markers. */
+	private JPEGRestartIndex index;
+
+	private int decodeThreads = 1;
+
+	private ForkJoinPool decodePool;
+
 	public JPEGTileDecoder(final Context ctx) {
 		setContext(ctx);
 	}
@@ -89,6 +104,17 @@ public class JPEGTileDecoder extends AbstractContextual {
 		final int h)
 	{
 		this.in = in;
+
+		// streams with restart markers are decoded on demand, region by region
+		try {
+			index = JPEGRestartIndex.create(in);
+		}
+		catch (final IOException e) {
+			log.debug("", e);
+			index = null;
+		}
+		if (index != null) return;
+
 		tiles = new TileCache(getContext(), y, h);
 
 		// pre-process the stream to make sure that the
@@ -146,20 +172,84 @@ public class JPEGTileDecoder extends AbstractContextual {
 
 	public byte[] getScanline(final int y) {
 		try {
+			if (index != null) {
+				final byte[] buf = new byte[index.getWidth() * index.getChannels()];
+				getRegion(buf, 0, y, index.getWidth(), 1);
+				return buf;
+			}
 			return tiles.get(0, y, consumer.getWidth(), 1);
 		}
-		catch (final FormatException e) {
+		catch (final FormatException | IOException e) {
 			log.debug("", e);
 		}
 		return null;
 	}
 
+	/**
+	 * Whether the stream has restart markers, so that
+	 * {@link #getRegion(byte[], int, int, int, int)} can be used.
+	 */
+	public boolean hasRestartIndex() {
+		return index != null;
+	}
+
+	/**
+	 * Decodes a region of the image into the given buffer, as interleaved 8-bit
+	 * samples. Only the restart intervals covering the region are read and
+	 * decoded, in parallel if {@link #setDecodeThreads(int)} allows.
+	 *
+	 * @throws IllegalStateException if the stream has no restart markers.
+	 */
+	public void getRegion(final byte[] buf, final int x, final int y,
+		final int w, final int h) throws FormatException, IOException
+	{
+		if (index == null) {
+			throw new IllegalStateException("Stream has no restart markers");
+		}
+		final List<JPEGRestartIndex.Band> bands =
+			index.readBands(in, x, y, w, h, decodeThreads);
+		if (decodeThreads <= 1 || bands.size() <= 1) {
+			for (final JPEGRestartIndex.Band band : bands) {
+				copyBand(band, buf, x, y, w, h);
+			}
+			return;
+		}
+		final List<Future<?>> decoded = new ArrayList<>(bands.size());
+		for (final JPEGRestartIndex.Band band : bands) {
+			decoded.add(getDecodePool().submit(() -> {
+				copyBand(band, buf, x, y, w, h);
+				return null;
+			}));
+		}
+		awaitBands(decoded);
+	}
+
+	/**
+	 * Sets the maximum number of threads used to decode a single region in
+	 * {@link #getRegion(byte[], int, int, int, int)}. Compressed data is always
+	 * read on the calling thread.
+	 */
+	public void setDecodeThreads(final int decodeThreads) {
+		if (decodeThreads == this.decodeThreads) return;
+		this.decodeThreads = decodeThreads;
+		if (decodePool != null) {
+			decodePool.shutdown();
+			decodePool = null;
+		}
+	}
+
 	public int getWidth() {
-		return consumer.getWidth();
+		return index != null ? index.getWidth() : consumer.getWidth();
 	}
 
 	public int getHeight() {
-		return consumer.getHeight();
+		return index != null ? index.getHeight() : consumer.getHeight();
+	}
+
+	/** Gets the number of interleaved channels in each decoded pixel. */
+	public int getChannels() {
+		if (index != null) return index.getChannels();
+		return getScanline(0).length / getWidth();
 	}
 
 	public void close() {
@@ -173,6 +263,73 @@ public class JPEGTileDecoder extends AbstractContextual {
 		}
 		tiles = null;
 		consumer = null;
+		index = null;
+		if (decodePool != null) {
+			decodePool.shutdown();
+			decodePool = null;
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Decodes a band and copies the part of it inside the given region. */
+	private void copyBand(final JPEGRestartIndex.Band band, final byte[] buf,
+		final int x, final int y, final int w, final int h)
+		throws FormatException, IOException
+	{
+		final CodecOptions options = new CodecOptions();
+		options.interleaved = true;
+		options.littleEndian = false;
+		final byte[] pixels = codecService.getCodec(JPEGCodec.class).decompress(
+			band.getBytes(), options);
+
+		final int c = index.getChannels();
+		if (pixels.length != band.getWidth() * band.getHeight() * c) {
+			throw new FormatException("Restart intervals at " + band.getX() + "," +
+				band.getY() + " decoded to " + pixels.length + " bytes");
+		}
+		final int rowLength = w * c;
+		final int first = Math.max(y, band.getFirstRow());
+		final int last = Math.min(y + h, band.getLastRow());
+		for (int row = first; row < last; row++) {
+			System.arraycopy(pixels, ((row - band.getY()) * band.getWidth() + x -
+				band.getX()) * c, buf, (row - y) * rowLength, rowLength);
+		}
+	}
+
+	private synchronized ForkJoinPool getDecodePool() {
+		if (decodePool == null) decodePool = new ForkJoinPool(decodeThreads);
+		return decodePool;
+	}
+
+	/**
+	 * Waits for all of the given band decoding tasks to finish, rethrowing the
+	 * first failure encountered.
+	 */
+	private void awaitBands(final List<Future<?>> bands) throws FormatException,
+		IOException
+	{
+		try {
+			for (final Future<?> band : bands) {
+				band.get();
+			}
+		}
+		catch (final InterruptedException e) {
+			throw new IOException("Interrupted while decoding JPEG", e);
+		}
+		catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof FormatException) throw (FormatException) cause;
+			if (cause instanceof IOException) throw (IOException) cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new FormatException(cause);
+		}
+		finally {
+			for (final Future<?> band : bands) {
+				band.cancel(false);
+			}
+		}
 	}
 
 	// -- Helper classes --
@@ -88,20 +88,20 @@ public class LZWCodec extends AbstractCodec {
 	/** Rehashing step. HASH_SIZE and HASH_STEP shoulg be coprime. */
 	private static final int HASH_STEP = 257;
 
-	private static final int CLEAR_CODE = 256;
+	static final int CLEAR_CODE = 256;
 
-	private static final int EOI_CODE = 257;
+	static final int EOI_CODE = 257;
 
-	private static final int FIRST_CODE = 258;
+	static final int FIRST_CODE = 258;
+
+	/** Per-thread decoding engine, reusing its string table across calls. */
+	private static final ThreadLocal<LZWDecoder> DECODERS =
+		ThreadLocal.withInitial(LZWDecoder::new);
 
 	/** Masks for writing bits in compressor. */
 	private static final int[] COMPR_MASKS = { 0xff, 0x7f, 0x3f, 0x1f, 0x0f,
 		0x07, 0x03, 0x01 };
 
-	/** Masks for reading bits in decompressor. */
-	private static final int[] DECOMPR_MASKS = { 0x00, 0x01, 0x03, 0x07, 0x0f,
-		0x1f, 0x3f, 0x7f };
-
 	@Override
 	public byte[] compress(final byte[] input, final CodecOptions options)
 		throws FormatException
@@ -268,149 +268,47 @@ public class LZWCodec extends AbstractCodec {
 		if (in == null || in.length() == 0) return null;
 		if (options == null) options = CodecOptions.getDefaultOptions();
 
-		// Output buffer
+		final byte[] input = new byte[(int) (in.length() - in.getFilePointer())];
+		in.readFully(input);
 		final byte[] output = new byte[options.maxBytes];
-		// Position in output buffer to write next byte to
-		int currOutPos = 0;
-
-		// Table mapping codes to strings.
-		// Its structure is based on the fact that a string for a code has form:
-		// (string for another code) + (new byte).
-		// Thus, at index 'code': first array contains 'another code', second
-		// array
-		// contains 'new byte', and third array contains length of the string.
-		// The length is needed to make retrieving the string faster.
-		final int[] anotherCodes = new int[4096];
-		final byte[] newBytes = new byte[4096];
-		final int[] lengths = new int[4096];
-		// We need to initialize only firt 256 entries in the table
-		for (int i = 0; i < 256; i++) {
-			newBytes[i] = (byte) i;
-			lengths[i] = 1;
-		}
-
-		// Length of the code to be read from input
-		int currCodeLength = 9;
-		// Next code to be added to the table
-		int nextCode = FIRST_CODE;
-
-		// Variables to handle reading bit stream:
-		// Byte from 'input[curr_in_pos-1]' -- only 'bits_read' bits on the
-		// right
-		// are non-zero
-		int currRead = 0;
-		// Number of bits in 'curr_read' that were not consumed yet
-		int bitsRead = 0;
-
-		// Current code being processed by decompressor.
-		int currCode;
-		// Previous code processed by decompressor.
-		int oldCode = 0; // without initializer, Java reports error later
-
-		try {
-			do {
-				// read next code
-				{
-					int bitsLeft = currCodeLength - bitsRead;
-					if (bitsLeft > 8) {
-						currRead = (currRead << 8) | (in.read() & 0xff);
-						bitsLeft -= 8;
-					}
-					bitsRead = 8 - bitsLeft;
-					final int nextByte = in.read() & 0xff;
-					currCode = (currRead << bitsLeft) | (nextByte >> bitsRead);
-					currRead = nextByte & DECOMPR_MASKS[bitsRead];
-				}
-
-				if (currCode == EOI_CODE) break;
+		decompress(input, output, 0, output.length, options);
+		return output;
+	}
 
-				if (currCode == CLEAR_CODE) {
-					// initialize table -- nothing to do
-					nextCode = FIRST_CODE;
-					currCodeLength = 9;
-					// read next code
-					{
-						int bitsLeft = currCodeLength - bitsRead;
-						if (bitsLeft > 8) {
-							currRead = (currRead << 8) | (in.read() & 0xff);
-							bitsLeft -= 8;
-						}
-						bitsRead = 8 - bitsLeft;
+	/**
+	 * The CodecOptions parameter should have the following fields set:
+	 * {@link CodecOptions#maxBytes maxBytes}
+	 *
+	 * @see Codec#decompress(byte[], CodecOptions)
+	 */
+	@Override
+	public byte[] decompress(final byte[] data, CodecOptions options)
+		throws FormatException
+	{
+		if (data == null || data.length == 0) return null;
+		if (options == null) options = CodecOptions.getDefaultOptions();
+		final byte[] output = new byte[options.maxBytes];
+		decompress(data, output, 0, output.length, options);
+		return output;
+	}
 
-						final int nextByte = in.read() & 0xff;
-						currCode = (currRead << bitsLeft) | (nextByte >> bitsRead);
-						currRead = nextByte & DECOMPR_MASKS[bitsRead];
-					}
-					if (currCode == EOI_CODE) break;
-					// write string[curr_code] to output
-					// -- but here we are sure that string consists of a single
-					// byte
-					if (currOutPos >= output.length - 1) break;
-					output[currOutPos++] = newBytes[currCode];
-					oldCode = currCode;
-				}
-				else if (currCode < nextCode) {
-					// Code is already in the table
-					// 1) Write strin[curr_code] to output
-					final int outLength = lengths[currCode];
-					int i = currOutPos + outLength;
-					int tablePos = currCode;
-					if (i > output.length) break;
-					while (i > currOutPos) {
-						output[--i] = newBytes[tablePos];
-						tablePos = anotherCodes[tablePos];
-					}
-					currOutPos += outLength;
-					// 2) Add string[old_code]+firstByte(string[curr_code]) to
-					// the table
-					if (nextCode >= anotherCodes.length) break;
-					anotherCodes[nextCode] = oldCode;
-					newBytes[nextCode] = output[i];
-					lengths[nextCode] = lengths[oldCode] + 1;
-					oldCode = currCode;
-					nextCode++;
-				}
-				else {
-					// Special case: code is not in the table
-					// 1) Write string[old_code] to output
-					final int outLength = lengths[oldCode];
-					int i = currOutPos + outLength;
-					int tablePos = oldCode;
-					if (i > output.length) break;
-					while (i > currOutPos) {
-						output[--i] = newBytes[tablePos];
-						tablePos = anotherCodes[tablePos];
-					}
-					currOutPos += outLength;
-					// 2) Write firstByte(string[old_code]) to output
-					if (currOutPos >= output.length - 1) break;
-					output[currOutPos++] = output[i];
-					// 3) Add string[old_code]+firstByte(string[old_code]) to
-					// the table
-					anotherCodes[nextCode] = oldCode;
-					newBytes[nextCode] = output[i];
-					lengths[nextCode] = outLength + 1;
-					oldCode = currCode;
-					nextCode++;
-				}
-				// Increase length of code if needed
-				switch (nextCode) {
-					case 511:
-						currCodeLength = 10;
-						break;
-					case 1023:
-						currCodeLength = 11;
-						break;
-					case 2047:
-						currCodeLength = 12;
-						break;
-				}
-			}
-			while (currOutPos < output.length && in.getFilePointer() < in.length());
-		}
-		catch (final ArrayIndexOutOfBoundsException e) {
-			throw new FormatException("Invalid LZW data", e);
+	/**
+	 * Decodes the data straight into the given array with a table-driven
+	 * {@link LZWDecoder}, without allocating an output buffer.
+	 *
+	 * @see Codec#decompress(byte[], byte[], int, int, CodecOptions)
+	 */
+	@Override
+	public int decompress(final byte[] input, final byte[] output,
+		final int offset, final int length, final CodecOptions options)
+		throws FormatException
+	{
+		final LZWDecoder decoder = DECODERS.get();
+		final int n = decoder.decode(input, output, offset, length);
+		if (decoder.getInvalidCode() >= 0) {
+			log().debug("Invalid LZW code " + decoder.getInvalidCode() +
+				"; keeping the " + n + " bytes decoded before it");
 		}
-		return output;
+		return n;
 	}
 }
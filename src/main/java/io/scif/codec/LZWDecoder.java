@@ -0,0 +1,204 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+/**
+ * Table-driven decoding engine behind {@link LZWCodec}. Strings are decoded
+ * straight into the destination array: every string in the LZW table is the
+ * concatenation of a string emitted earlier and the first byte emitted after
+ * it, so it already appears verbatim in the output, and the table only needs
+ * to record where. Emitting a code is then a single copy instead of a walk
+ * along a chain of prefix codes. Each code, at most 12 bits long, is
+ * extracted from the three bytes starting at its first byte, so no bit buffer
+ * needs to be maintained.
+ * <p>
+ * A decoder keeps its table between calls to avoid reallocating it, so an
+ * instance must not be used by several threads at once.
+ * </p>
+ */
+final class LZWDecoder {
+
+	// -- Constants --
+
+	private static final int TABLE_SIZE = 4096;
+
+	/** Strings shorter than this are copied byte by byte. */
+	private static final int COPY_THRESHOLD = 16;
+
+	// -- Fields --
+
+	/** Output offset of the string for each code of the table. */
+	private final int[] offsets = new int[TABLE_SIZE];
+
+	/** Length of the string for each code of the table. */
+	private final int[] lengths = new int[TABLE_SIZE];
+
+	/** Invalid code which ended the last decode, or -1 if there was none. */
+	private int invalidCode = -1;
+
+	// -- LZWDecoder methods --
+
+	/**
+	 * Decodes TIFF LZW data into {@code output}, starting at {@code offset}.
+	 * Decoding stops at the end of information code, when the input is
+	 * exhausted, or once {@code length} bytes have been written; a string which
+	 * does not fit is truncated. Decoding also stops quietly at a code which is
+	 * not in the table, keeping the data decoded so far, so that slightly
+	 * corrupt files still open; see {@link #getInvalidCode()}.
+	 *
+	 * @return The number of bytes written.
+	 */
+	int decode(final byte[] input, final byte[] output, final int offset,
+		final int length)
+	{
+		invalidCode = -1;
+		if (input == null || input.length == 0) return 0;
+		final int[] offsets = this.offsets;
+		final int[] lengths = this.lengths;
+		final int inLength = input.length;
+		final long inBits = (long) inLength * 8;
+		final int end = offset + length;
+
+		long bitPos = 0;
+		int out = offset;
+		int codeLength = 9;
+		int codeMask = 511;
+		int nextCode = LZWCodec.FIRST_CODE;
+		// code at which the code length grows (early change, as in libtiff)
+		int limit = 511;
+		// string emitted for the previous code, or -1 after a CLEAR code
+		int oldOffset = -1;
+		int oldLength = 0;
+
+		while (out < end) {
+			// read next code from the 24 bits starting at its first byte
+			final int bytePos = (int) (bitPos >>> 3);
+			final int word;
+			if (bytePos + 2 < inLength) {
+				word = (input[bytePos] & 0xff) << 16 |
+					(input[bytePos + 1] & 0xff) << 8 | (input[bytePos + 2] & 0xff);
+			}
+			else word = tail(input, bytePos);
+			final int code =
+				(word >>> (24 - codeLength - (int) (bitPos & 7))) & codeMask;
+			bitPos += codeLength;
+
+			if (code == LZWCodec.EOI_CODE) break;
+			if (code == LZWCodec.CLEAR_CODE) {
+				nextCode = LZWCodec.FIRST_CODE;
+				codeLength = 9;
+				codeMask = 511;
+				limit = 511;
+				oldOffset = -1;
+			}
+			else {
+				// emit the string for the code
+				final int pos = out;
+				final int len;
+				if (code < LZWCodec.CLEAR_CODE) {
+					output[out++] = (byte) code;
+					len = 1;
+				}
+				else if (code < nextCode) {
+					len = lengths[code];
+					out = copy(output, offsets[code], out, Math.min(len, end - out));
+				}
+				else if (code == nextCode && oldOffset >= 0) {
+					// the string for the previous code plus its own first byte
+					len = oldLength + 1;
+					out = copy(output, oldOffset, out, Math.min(oldLength, end - out));
+					if (out < end) output[out++] = output[oldOffset];
+				}
+				else {
+					invalidCode = code;
+					break;
+				}
+
+				// add the previous string plus this one's first byte to the table
+				if (oldOffset >= 0 && nextCode < TABLE_SIZE) {
+					offsets[nextCode] = oldOffset;
+					lengths[nextCode] = oldLength + 1;
+					if (++nextCode == limit && codeLength < 12) {
+						codeLength++;
+						codeMask = (codeMask << 1) | 1;
+						limit = (limit << 1) | 1;
+					}
+				}
+				oldOffset = pos;
+				oldLength = len;
+			}
+
+			// stop once fewer than 8 bits of input remain
+			if (inBits - bitPos < 8) break;
+		}
+		return out - offset;
+	}
+
+	/**
+	 * Gets the code not in the table at which the last {@link #decode} call
+	 * stopped, or -1 if it did not stop at an invalid code.
+	 */
+	int getInvalidCode() {
+		return invalidCode;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Reads the three bytes at the given position near the end of the input,
+	 * padding with zero bytes.
+	 */
+	private static int tail(final byte[] input, final int pos) {
+		int word = 0;
+		for (int i = 0; i < 3; i++) {
+			final int index = pos + i;
+			word = (word << 8) | (index < input.length ? input[index] & 0xff : 0);
+		}
+		return word;
+	}
+
+	/**
+	 * Copies {@code len} bytes of earlier output to {@code dest}. The source
+	 * always lies entirely before the destination.
+	 *
+	 * @return The output position after the copied bytes.
+	 */
+	private static int copy(final byte[] output, final int src, final int dest,
+		final int len)
+	{
+		if (len < COPY_THRESHOLD) {
+			for (int i = 0; i < len; i++) {
+				output[dest + i] = output[src + i];
+			}
+		}
+		else System.arraycopy(output, src, output, dest, len);
+		return dest + len;
+	}
+}
@@ -198,20 +198,23 @@ public class LosslessJPEGCodec extends AbstractCodec {
 
 				final BitBuffer bb = new BitBuffer(toDecode);
 				final HuffmanCodec huffman = codecService.getCodec(HuffmanCodec.class);
-				final HuffmanCodecOptions huffmanOptions = new HuffmanCodecOptions();
-				huffmanOptions.bitsPerSample = bitsPerSample;
-				huffmanOptions.maxBytes = buf.length / nComponents;
+
+				// look up the decoder of each component once, not once per sample
+				final HuffmanCodec.Decoder[] decoders =
+					new HuffmanCodec.Decoder[nComponents];
+				for (int i = 0; i < nComponents; i++) {
+					if (huffmanTables != null && huffmanTables[dcTable[i]] != null) {
+						decoders[i] = huffman.getDecoder(huffmanTables[dcTable[i]]);
+					}
+				}
 
 				int nextSample = 0;
 				while (nextSample < buf.length / nComponents) {
 					for (int i = 0; i < nComponents; i++) {
-						if (huffmanTables != null) {
-							huffmanOptions.table = huffmanTables[dcTable[i]];
-						}
 						int v = 0;
 
-						if (huffmanOptions.table != null) {
-							v = huffman.getSample(bb, huffmanOptions);
+						if (decoders[i] != null) {
+							v = huffman.getSample(bb, decoders[i]);
 							if (nextSample == 0) {
 								v += (int) Math.pow(2, bitsPerSample - 1);
 							}
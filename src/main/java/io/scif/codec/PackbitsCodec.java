@@ -95,4 +95,39 @@ public class PackbitsCodec extends AbstractCodec {
 		if (fp + nread < in.length()) in.seek(fp + nread);
 		return output.toByteArray();
 	}
+
+	/**
+	 * Unpacks the data straight into the given array, stopping once
+	 * {@code length} bytes have been produced or the data is exhausted.
+	 *
+	 * @see Codec#decompress(byte[], byte[], int, int, CodecOptions)
+	 */
+	@Override
+	public int decompress(final byte[] data, final byte[] output,
+		final int offset, final int length, final CodecOptions options)
+		throws FormatException
+	{
+		if (data == null) throw new IllegalArgumentException("No data to decompress.");
+		final int end = offset + length;
+		int out = offset;
+		int pos = 0;
+		while (out < end && pos < data.length) {
+			final byte n = data[pos++];
+			if (n >= 0) { // 0 <= n <= 127
+				final int len =
+					Math.min(Math.min(n + 1, data.length - pos), end - out);
+				System.arraycopy(data, pos, output, out, len);
+				pos += n + 1;
+				out += len;
+			}
+			else if (n != -128) { // -127 <= n <= -1
+				if (pos >= data.length) break;
+				final int len = Math.min(-n + 1, end - out);
+				final byte b = data[pos++];
+				for (int i = 0; i < len; i++)
+					output[out++] = b;
+			}
+		}
+		return out - offset;
+	}
 }
@@ -0,0 +1,311 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream producing a single zlib or gzip stream whose deflate data is
+ * compressed block by block on an {@link Executor}. Each block is primed with
+ * the last 32 KiB of the block before it and ends on a byte boundary (a sync
+ * flush), so the compressed blocks simply concatenate into one valid stream
+ * that any inflater can read, with a compression ratio close to that of a
+ * single-threaded deflate.
+ * <p>
+ * Blocks are written to the underlying stream in order as they complete; only
+ * a bounded number of them is kept in flight. {@link Deflater}s are reused
+ * per thread. The level and strategy are taken from
+ * {@link CodecOptions#deflateLevel} and {@link CodecOptions#deflateStrategy}.
+ * </p>
+ */
+public class ParallelDeflateOutputStream extends OutputStream {
+
+	// -- Constants --
+
+	/** Number of uncompressed bytes deflated as one block. */
+	public static final int BLOCK_SIZE = 128 * 1024;
+
+	/** Size of the deflate window, i.e. of the dictionary given to a block. */
+	private static final int DICTIONARY_SIZE = 32 * 1024;
+
+	/** Maximum number of blocks submitted but not yet written. */
+	private static final int MAX_PENDING = 32;
+
+	/** Raw (headerless) deflaters reused across blocks. */
+	private static final ZStreamPool<Deflater> DEFLATERS = new ZStreamPool<>(
+		() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true), Deflater::reset,
+		Deflater::end);
+
+	// -- Fields --
+
+	private final OutputStream out;
+
+	private final boolean gzip;
+
+	private final int level;
+
+	private final int strategy;
+
+	private final Executor executor;
+
+	private final Checksum checksum;
+
+	/** Compressed blocks, in stream order. */
+	private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+	private byte[] block = new byte[BLOCK_SIZE];
+
+	private int blockLength;
+
+	/** Tail of the previously submitted block, or null for the first one. */
+	private byte[] dictionary;
+
+	private long totalIn;
+
+	private boolean headerWritten;
+
+	private boolean finished;
+
+	// -- Constructors --
+
+	/**
+	 * Creates a stream writing zlib (or gzip, if {@code gzip} is set) data to
+	 * the given stream.
+	 *
+	 * @param out Stream to write the compressed data to.
+	 * @param gzip Whether to write a gzip rather than a zlib stream.
+	 * @param options Options providing the deflate level and strategy; if null,
+	 *          the defaults are used.
+	 * @param executor Executor compressing the blocks; if null, blocks are
+	 *          compressed on the calling thread.
+	 */
+	public ParallelDeflateOutputStream(final OutputStream out,
+		final boolean gzip, final CodecOptions options, final Executor executor)
+	{
+		this.out = out;
+		this.gzip = gzip;
+		this.level = options == null ? Deflater.DEFAULT_COMPRESSION
+			: options.deflateLevel;
+		this.strategy = options == null ? Deflater.DEFAULT_STRATEGY
+			: options.deflateStrategy;
+		this.executor = executor;
+		checksum = gzip ? new CRC32() : new Adler32();
+	}
+
+	// -- ParallelDeflateOutputStream API methods --
+
+	/**
+	 * Compresses and writes all remaining data, followed by the stream trailer,
+	 * without closing the underlying stream.
+	 */
+	public void finish() throws IOException {
+		if (finished) return;
+		finished = true;
+		submit(true);
+		while (!pending.isEmpty())
+			writeBlock();
+		writeTrailer();
+		out.flush();
+	}
+
+	// -- OutputStream API methods --
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, int off, int len) throws IOException {
+		if (finished) throw new IOException("Stream already finished");
+		if (off < 0 || len < 0 || off + len > b.length) {
+			throw new IndexOutOfBoundsException();
+		}
+		while (len > 0) {
+			// a full block is only submitted once more data arrives, as the last
+			// block of the stream must be compressed differently
+			if (blockLength == BLOCK_SIZE) submit(false);
+			final int n = Math.min(len, BLOCK_SIZE - blockLength);
+			System.arraycopy(b, off, block, blockLength, n);
+			blockLength += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Hands the current block over for compression. */
+	private void submit(final boolean last) throws IOException {
+		if (!headerWritten) writeHeader();
+		final byte[] input = block;
+		final int length = blockLength;
+		final byte[] dict = dictionary;
+		checksum.update(input, 0, length);
+		totalIn += length;
+		if (!last) {
+			dictionary = Arrays.copyOfRange(input, length - DICTIONARY_SIZE,
+				length);
+			block = new byte[BLOCK_SIZE];
+			blockLength = 0;
+		}
+		if (executor == null) {
+			pending.add(CompletableFuture.completedFuture(deflate(input, length,
+				dict, last)));
+		}
+		else {
+			pending.add(CompletableFuture.supplyAsync(() -> deflate(input, length,
+				dict, last), executor));
+		}
+		// write out whatever is ready, and wait if too much is in flight
+		while (!pending.isEmpty() && (pending.size() > MAX_PENDING || pending
+			.peek().isDone()))
+		{
+			writeBlock();
+		}
+	}
+
+	/** Writes the oldest pending block, waiting for it if needed. */
+	private void writeBlock() throws IOException {
+		final byte[] compressed;
+		try {
+			compressed = pending.remove().get();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		catch (final ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+		out.write(compressed);
+	}
+
+	/**
+	 * Deflates one block. Every block but the last ends with a sync flush so
+	 * that the next one starts on a byte boundary.
+	 */
+	private byte[] deflate(final byte[] input, final int length,
+		final byte[] dict, final boolean last)
+	{
+		final Deflater deflater = DEFLATERS.take();
+		deflater.setLevel(level);
+		deflater.setStrategy(strategy);
+		if (dict != null) deflater.setDictionary(dict);
+		deflater.setInput(input, 0, length);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 2 +
+			64);
+		final byte[] buf = new byte[8192];
+		try {
+			if (last) {
+				deflater.finish();
+				while (!deflater.finished()) {
+					bytes.write(buf, 0, deflater.deflate(buf, 0, buf.length));
+				}
+			}
+			else {
+				// a call may only apply the level and strategy, so loop until all
+				// input is consumed and the flush did not fill the buffer
+				int n;
+				do {
+					n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+					bytes.write(buf, 0, n);
+				}
+				while (n == buf.length || !deflater.needsInput());
+			}
+		}
+		finally {
+			DEFLATERS.give(deflater);
+		}
+		return bytes.toByteArray();
+	}
+
+	private void writeHeader() throws IOException {
+		headerWritten = true;
+		if (gzip) {
+			// magic, deflate method, no flags, no time, no extra flags, unknown OS
+			out.write(new byte[] { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0,
+				(byte) 0xff });
+		}
+		else {
+			// deflate with a 32 KiB window, and the level hint
+			final int cmf = 0x78;
+			final int flevel = level == Deflater.DEFAULT_COMPRESSION ? 2
+				: level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3;
+			int flg = flevel << 6;
+			flg += (31 - (cmf << 8 | flg) % 31) % 31;
+			out.write(cmf);
+			out.write(flg);
+		}
+	}
+
+	private void writeTrailer() throws IOException {
+		final long sum = checksum.getValue();
+		if (gzip) {
+			writeIntLE(sum);
+			writeIntLE(totalIn);
+		}
+		else {
+			out.write((int) (sum >>> 24));
+			out.write((int) (sum >>> 16));
+			out.write((int) (sum >>> 8));
+			out.write((int) sum);
+		}
+	}
+
+	private void writeIntLE(final long value) throws IOException {
+		out.write((int) value);
+		out.write((int) (value >>> 8));
+		out.write((int) (value >>> 16));
+		out.write((int) (value >>> 24));
+	}
+}
@@ -50,6 +50,16 @@ public class PassthroughCodec extends AbstractCodec {
 		return data;
 	}
 
+	@Override
+	public int decompress(final byte[] data, final byte[] output,
+		final int offset, final int length, final CodecOptions options)
+		throws FormatException
+	{
+		final int n = Math.min(data.length, length);
+		System.arraycopy(data, 0, output, offset, n);
+		return n;
+	}
+
 	@Override
 	public byte[] decompress(final RandomAccessInputStream in,
 		final CodecOptions options) throws FormatException, IOException
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of {@link java.util.zip.Inflater}s or
+ * {@link java.util.zip.Deflater}s, which hold native zlib state and are costly
+ * to create. Instances are reset when returned to the pool, and ended if the
+ * pool is already full, so that surplus native state is released at once
+ * rather than whenever the instance happens to be collected.
+ */
+final class ZStreamPool<T> {
+
+	// -- Fields --
+
+	private final Supplier<T> factory;
+
+	private final Consumer<T> reset;
+
+	private final Consumer<T> end;
+
+	private final BlockingQueue<T> idle;
+
+	// -- Constructor --
+
+	/**
+	 * @param factory Creates a new instance.
+	 * @param reset Resets an instance for reuse.
+	 * @param end Releases the native state of an instance.
+	 */
+	ZStreamPool(final Supplier<T> factory, final Consumer<T> reset,
+		final Consumer<T> end)
+	{
+		this.factory = factory;
+		this.reset = reset;
+		this.end = end;
+		idle = new ArrayBlockingQueue<>(Runtime.getRuntime()
+			.availableProcessors());
+	}
+
+	// -- ZStreamPool methods --
+
+	/** Takes an idle instance from the pool, or creates one. */
+	T take() {
+		final T t = idle.poll();
+		return t == null ? factory.get() : t;
+	}
+
+	/** Returns an instance taken from this pool, once it is no longer used. */
+	void give(final T t) {
+		reset.accept(t);
+		if (!idle.offer(t)) end.accept(t);
+	}
+}
@@ -34,7 +34,9 @@ import io.scif.io.RandomAccessInputStream;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 import org.scijava.plugin.Plugin;
@@ -47,21 +49,42 @@ import org.scijava.plugin.Plugin;
 @Plugin(type = Codec.class)
 public class ZlibCodec extends AbstractCodec {
 
+	// -- Constants --
+
+	/** Inflaters reused across calls. */
+	private static final ZStreamPool<Inflater> INFLATERS = new ZStreamPool<>(
+		Inflater::new, Inflater::reset, Inflater::end);
+
+	/** Deflaters reused across calls. */
+	private static final ZStreamPool<Deflater> DEFLATERS = new ZStreamPool<>(
+		Deflater::new, Deflater::reset, Deflater::end);
+
+	// -- Codec API methods --
+
 	@Override
 	public byte[] compress(final byte[] data, final CodecOptions options)
 		throws FormatException
 	{
 		if (data == null || data.length == 0) throw new IllegalArgumentException(
 			"No data to compress");
-		final Deflater deflater = new Deflater();
+		final Deflater deflater = DEFLATERS.take();
+		deflater.setLevel(options == null ? Deflater.DEFAULT_COMPRESSION
+			: options.deflateLevel);
+		deflater.setStrategy(options == null ? Deflater.DEFAULT_STRATEGY
+			: options.deflateStrategy);
 		deflater.setInput(data);
 		deflater.finish();
 		final byte[] buf = new byte[8192];
 		final ByteVector bytes = new ByteVector();
-		int r = 0;
-		// compress until eof reached
-		while ((r = deflater.deflate(buf, 0, buf.length)) > 0) {
-			bytes.add(buf, 0, r);
+		// compress until eof reached; a call may only apply the level and
+		// strategy without producing output
+		try {
+			while (!deflater.finished()) {
+				bytes.add(buf, 0, deflater.deflate(buf, 0, buf.length));
+			}
+		}
+		finally {
+			DEFLATERS.give(deflater);
 		}
 		return bytes.toByteArray();
 	}
@@ -70,7 +93,8 @@ public class ZlibCodec extends AbstractCodec {
 	public byte[] decompress(final RandomAccessInputStream in,
 		final CodecOptions options) throws FormatException, IOException
 	{
-		final InflaterInputStream i = new InflaterInputStream(in);
+		final Inflater inflater = INFLATERS.take();
+		final InflaterInputStream i = new InflaterInputStream(in, inflater);
 		final ByteVector bytes = new ByteVector();
 		final byte[] buf = new byte[8192];
 		int r = 0;
@@ -80,7 +104,39 @@ public class ZlibCodec extends AbstractCodec {
 				bytes.add(buf, 0, r);
 		}
 		catch (final EOFException e) {}
+		finally {
+			INFLATERS.give(inflater);
+		}
 		return bytes.toByteArray();
 	}
 
+	/**
+	 * Inflates the data straight into the given array, with an {@link Inflater}
+	 * reused across calls.
+	 */
+	@Override
+	public int decompress(final byte[] data, final byte[] output,
+		final int offset, final int length, final CodecOptions options)
+		throws FormatException
+	{
+		final Inflater inflater = INFLATERS.take();
+		inflater.setInput(data);
+		int n = 0;
+		try {
+			// a truncated stream yields whatever could be inflated
+			while (n < length && !inflater.finished()) {
+				final int r = inflater.inflate(output, offset + n, length - n);
+				if (r == 0) break;
+				n += r;
+			}
+		}
+		catch (final DataFormatException e) {
+			throw new FormatException(e);
+		}
+		finally {
+			INFLATERS.give(inflater);
+		}
+		return n;
+	}
+
 }
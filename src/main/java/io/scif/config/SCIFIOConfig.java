@@ -44,6 +44,7 @@ import io.scif.img.converters.PlaneConverter;
 
 import java.awt.image.ColorModel;
 import java.util.HashMap;
+import java.util.concurrent.Executor;
 
 import net.imglib2.img.array.ArrayImgFactory;
 import net.imglib2.img.cell.CellImgFactory;
@@ -86,6 +87,19 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 
 	private boolean saveOriginalMetadata;
 
+	private boolean memoryMapped = false;
+
+	private boolean ifdIndexing = false;
+
+	private boolean compactMetaTables = false;
+
+	// Reader
+	private int tileDecodeThreads = 1;
+
+	private boolean tileCaching = false;
+
+	private Executor executor = null;
+
 	// Writer
 	private boolean writeSequential = false;
 
@@ -97,6 +111,8 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 
 	private CodecOptions options = null;
 
+	private int compressionThreads = 1;
+
 	// Groupable
 	/** Whether or not to group multi-file formats. */
 	private boolean group = false;
@@ -139,12 +155,21 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 	// Whether or not to use a MinMaxFilter
 	private boolean computeMinMax = false;
 
+	// Whether or not MinMaxFilter statistics are kept in a sidecar file
+	private boolean minMaxCaching = false;
+
 	// Custom plane converter
 	private PlaneConverter planeConverter = null;
 
 	// Custom heuristic for choosing an ImgFactory
 	private ImgFactoryHeuristic imgFactoryHeuristic = null;
 
+	// Number of independent readers used to load cells of a SCIFIOCellImg
+	private int readerPoolSize = 1;
+
+	// Number of threads used to read the planes of non-cell images
+	private int threads = 1;
+
 	// ImgSaver
 	private boolean writeRGB = true;
 
@@ -166,18 +191,28 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		level = config.level;
 		filterMetadata = config.filterMetadata;
 		saveOriginalMetadata = config.saveOriginalMetadata;
+		memoryMapped = config.memoryMapped;
+		ifdIndexing = config.ifdIndexing;
+		compactMetaTables = config.compactMetaTables;
+		tileDecodeThreads = config.tileDecodeThreads;
+		tileCaching = config.tileCaching;
+		executor = config.executor;
 		writeSequential = config.writeSequential;
 		model = config.model;
 		fps = config.fps;
 		compression = config.compression;
 		options = config.options;
+		compressionThreads = config.compressionThreads;
 		group = config.group;
 		imgModes = config.imgModes;
 		range = config.range;
 		region = config.region;
 		computeMinMax = config.computeMinMax;
+		minMaxCaching = config.minMaxCaching;
 		planeConverter = config.planeConverter;
 		imgFactoryHeuristic = config.imgFactoryHeuristic;
+		readerPoolSize = config.readerPoolSize;
+		threads = config.threads;
 		writeRGB = config.writeRGB;
 	}
 
@@ -244,6 +279,130 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return this;
 	}
 
+	/**
+	 * @return True if files opened for parsing should be memory mapped in their
+	 *         entirety, rather than read through a sliding buffer.
+	 */
+	public boolean parserIsMemoryMapped() {
+		return memoryMapped;
+	}
+
+	/**
+	 * @param memoryMapped Whether files opened for parsing (and subsequent
+	 *          reading) should be memory mapped in their entirety. This makes
+	 *          random access to large files cheap, at the cost of address
+	 *          space. Has no effect on compressed or remote sources.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig parserSetMemoryMapped(final boolean memoryMapped) {
+		this.memoryMapped = memoryMapped;
+		return this;
+	}
+
+	/**
+	 * @return True if parsers of multi-page formats should keep the page
+	 *         offsets of parsed files in a sidecar file for faster reopening.
+	 */
+	public boolean parserIsIFDIndexing() {
+		return ifdIndexing;
+	}
+
+	/**
+	 * @param ifdIndexing Whether parsers of multi-page formats (such as TIFF)
+	 *          should keep the page offsets of parsed files in a sidecar file
+	 *          next to them, so that reopening a file with many pages does not
+	 *          have to scan all of them again.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig parserSetIFDIndexing(final boolean ifdIndexing) {
+		this.ifdIndexing = ifdIndexing;
+		return this;
+	}
+
+	/**
+	 * @return True if parsers should store metadata tables as
+	 *         {@link io.scif.CompactMetaTable}s.
+	 */
+	public boolean parserIsCompactMetaTables() {
+		return compactMetaTables;
+	}
+
+	/**
+	 * @param compactMetaTables Whether parsers should store the metadata tables
+	 *          of the dataset and of each of its images as
+	 *          {@link io.scif.CompactMetaTable}s sharing one string pool. This
+	 *          greatly reduces the memory used by the original metadata of
+	 *          datasets with many images, at a small cost when accessing it.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig parserSetCompactMetaTables(
+		final boolean compactMetaTables)
+	{
+		this.compactMetaTables = compactMetaTables;
+		return this;
+	}
+
+	// -- Reader methods --
+
+	/**
+	 * @return The maximum number of threads used to decompress the tiles of a
+	 *         single plane, for formats which support it. Default: 1
+	 */
+	public int readerGetTileDecodeThreads() {
+		return tileDecodeThreads;
+	}
+
+	/**
+	 * @param tileDecodeThreads Maximum number of threads used to decompress the
+	 *          tiles (or strips) of a single plane. Compressed bytes are still
+	 *          read sequentially; only decoding is parallelized. A value of 1
+	 *          decodes all tiles on the calling thread.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig readerSetTileDecodeThreads(final int tileDecodeThreads) {
+		this.tileDecodeThreads = tileDecodeThreads;
+		return this;
+	}
+
+	/**
+	 * @return True if decoded tiles should be kept in a cache shared by all
+	 *         readers of the context, for formats which support it.
+	 */
+	public boolean readerIsTileCaching() {
+		return tileCaching;
+	}
+
+	/**
+	 * @param tileCaching Whether decoded tiles should be kept in a shared,
+	 *          size-bounded cache, so that overlapping region requests only
+	 *          decompress each tile once.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig readerSetTileCaching(final boolean tileCaching) {
+		this.tileCaching = tileCaching;
+		return this;
+	}
+
+	/**
+	 * @return The executor on which asynchronous plane requests are run, or
+	 *         null to use shared daemon threads.
+	 */
+	public Executor readerGetExecutor() {
+		return executor;
+	}
+
+	/**
+	 * @param executor The executor on which
+	 *          {@link io.scif.Reader#openPlaneAsync} requests are run. Requests
+	 *          to a given reader are still run one at a time, in order. If null,
+	 *          shared daemon threads are used.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig readerSetExecutor(final Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
 	// -- Writer methods --
 
 	/**
@@ -330,6 +489,30 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return options;
 	}
 
+	/**
+	 * Sets the number of threads writers may use to compress image data. When
+	 * planes are also written sequentially (see
+	 * {@link #writerSetSequential(boolean)}), compression of later planes may
+	 * run ahead of writing earlier ones; the planes still land in the output in
+	 * order.
+	 *
+	 * @param threads Number of compression threads; 1 compresses on the calling
+	 *          thread.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig writerSetCompressionThreads(final int threads) {
+		compressionThreads = threads;
+		return this;
+	}
+
+	/**
+	 * @return The number of threads writers may use to compress image data.
+	 *         Default: 1.
+	 */
+	public int writerGetCompressionThreads() {
+		return compressionThreads;
+	}
+
 	// -- Groupable methods --
 
 	/**
@@ -389,6 +572,26 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return this;
 	}
 
+	/**
+	 * @return True if computed min/max statistics should be kept in a sidecar
+	 *         file next to the opened dataset. Default: false
+	 */
+	public boolean imgOpenerIsMinMaxCaching() {
+		return minMaxCaching;
+	}
+
+	/**
+	 * @param minMaxCaching Whether min/max statistics computed while opening a
+	 *          dataset should be persisted in a sidecar file next to it, so that
+	 *          reopening an unchanged dataset does not scan its planes again.
+	 *          Only applies when computing min/max values.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetMinMaxCaching(final boolean minMaxCaching) {
+		this.minMaxCaching = minMaxCaching;
+		return this;
+	}
+
 	/**
 	 * Returns a {@link ImageRegion} specifying dimension constraints. This may be
 	 * of a different dimensionality than the underlying image, in which case the
@@ -448,6 +651,48 @@ public class SCIFIOConfig extends HashMap<String, Object> {
 		return this;
 	}
 
+	/**
+	 * @return The number of independent readers opened to load the cells of
+	 *         {@link io.scif.img.cell.SCIFIOCellImg}s concurrently. Default: 1
+	 */
+	public int imgOpenerGetReaderPoolSize() {
+		return readerPoolSize;
+	}
+
+	/**
+	 * @param readerPoolSize Number of independent readers to open on the
+	 *          dataset for loading the cells of a
+	 *          {@link io.scif.img.cell.SCIFIOCellImg}. Values greater than 1
+	 *          let cells be fetched in parallel, and should typically match the
+	 *          number of cache I/O threads. A value of 1 loads all cells
+	 *          through a single shared reader.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetReaderPoolSize(final int readerPoolSize) {
+		this.readerPoolSize = readerPoolSize;
+		return this;
+	}
+
+	/**
+	 * @return The number of threads used to read the planes of array and planar
+	 *         images. Default: 1
+	 */
+	public int imgOpenerGetThreads() {
+		return threads;
+	}
+
+	/**
+	 * @param threads Number of threads used to read the planes of array and
+	 *          planar images. Each thread opens its own reader on the dataset
+	 *          and fills a disjoint set of planes. Planes are read serially when
+	 *          computing min/max values or using a custom plane converter.
+	 * @return This SCIFIOConfig for method chaining.
+	 */
+	public SCIFIOConfig imgOpenerSetThreads(final int threads) {
+		this.threads = threads;
+		return this;
+	}
+
 	/**
 	 * @return True if all available images should be opened. Useful if the actual
 	 *         range of available images is not known.
@@ -37,9 +37,14 @@ import io.scif.Plane;
 import io.scif.Reader;
 import io.scif.config.SCIFIOConfig;
 import io.scif.io.RandomAccessInputStream;
+import io.scif.util.FormatTools;
+import io.scif.util.SerialExecutor;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import net.imglib2.FinalInterval;
 import net.imglib2.Interval;
@@ -76,6 +81,9 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 	/* Need to wrap each Reader's Metadata separately */
 	private Metadata wrappedMeta = null;
 
+	/* Serves the asynchronous plane requests to this filter */
+	private SerialExecutor asyncExecutor;
+
 	private final Class<? extends MetadataWrapper> metaClass;
 
 	@Parameter
@@ -129,6 +137,17 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 	 */
 	protected void readPlaneHelper() {}
 
+	/**
+	 * Returns whether this filter passes the planes of the given image through
+	 * from its parent unchanged. Batched and asynchronous reads of such images
+	 * are forwarded to the parent, which may serve them more efficiently than
+	 * one plane at a time. Filters are assumed to transform planes unless they
+	 * override this.
+	 */
+	protected boolean isTransparent(final int imageIndex) {
+		return false;
+	}
+
 	/**
 	 * Convenience accessor for the parent's Metadata
 	 */
@@ -243,6 +262,73 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 		return getParent().openPlane(imageIndex, planeIndex, plane, bounds, config);
 	}
 
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds) throws FormatException,
+		IOException
+	{
+		return openPlane(imageIndex, planeIndex, target, bounds,
+			new SCIFIOConfig());
+	}
+
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		// NB: Filters may transform the planes of their parent, so by default
+		// the plane is opened through this filter and copied.
+		final int size =
+			(int) FormatTools.getPlaneSize(getMetadata(), bounds, imageIndex);
+		FormatTools.checkPlaneForReading(getMetadata(), imageIndex, planeIndex,
+			target.remaining(), bounds);
+		final Plane plane = openPlane(imageIndex, planeIndex, bounds, config);
+		target.put(plane.getBytes(), 0, size);
+		return target;
+	}
+
+	@Override
+	public CompletableFuture<Plane> openPlaneAsync(final int imageIndex,
+		final long planeIndex, final Interval bounds)
+	{
+		return openPlaneAsync(imageIndex, planeIndex, bounds, new SCIFIOConfig());
+	}
+
+	@Override
+	public CompletableFuture<Plane> openPlaneAsync(final int imageIndex,
+		final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+	{
+		if (isTransparent(imageIndex)) {
+			openPlaneHelper();
+			return getParent().openPlaneAsync(imageIndex, planeIndex, bounds,
+				config);
+		}
+		return FormatTools.openPlaneAsync(this, getAsyncExecutor(config),
+			imageIndex, planeIndex, bounds, config);
+	}
+
+	@Override
+	public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds) throws FormatException, IOException
+	{
+		return openPlanes(imageIndex, planeIndices, bounds, new SCIFIOConfig());
+	}
+
+	@Override
+	public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		if (isTransparent(imageIndex)) {
+			openPlaneHelper();
+			return getParent().openPlanes(imageIndex, planeIndices, bounds, config);
+		}
+		// NB: Filters may transform the planes of their parent, so by default
+		// the planes are opened through this filter one at a time.
+		return FormatTools.openPlanes(this, imageIndex, planeIndices, bounds,
+			config);
+	}
+
 	@Override
 	public int fileGroupOption(final String id) throws FormatException,
 		IOException
@@ -456,6 +542,21 @@ public abstract class AbstractReaderFilter extends AbstractFilter<Reader>
 		return metaClass.isAssignableFrom(meta.getClass());
 	}
 
+	/**
+	 * Gets the executor serving the asynchronous requests to this filter, which
+	 * runs them one at a time on the executor of the given configuration.
+	 */
+	protected synchronized Executor getAsyncExecutor(
+		final SCIFIOConfig config)
+	{
+		if (asyncExecutor == null ||
+			asyncExecutor.getExecutor() != config.readerGetExecutor())
+		{
+			asyncExecutor = new SerialExecutor(config.readerGetExecutor());
+		}
+		return asyncExecutor;
+	}
+
 	/**
 	 * Helper method that is always called by the {@link #close} method, if the
 	 * {@code fileOnly} flag is false.
@@ -32,6 +32,7 @@ package io.scif.filters;
 import io.scif.ByteArrayPlane;
 import io.scif.ByteArrayReader;
 import io.scif.FormatException;
+import io.scif.ImageMetadata;
 import io.scif.Plane;
 import io.scif.config.SCIFIOConfig;
 
@@ -230,6 +231,12 @@ public class ChannelFiller extends AbstractReaderFilter {
 
 	// -- AbstractReaderFilter API Methods --
 
+	@Override
+	protected boolean isTransparent(final int imageIndex) {
+		final ImageMetadata parentMeta = getParentMeta().get(imageIndex);
+		return parentMeta.isFalseColor() || !parentMeta.isIndexed();
+	}
+
 	/* lutLength is 0 until a plane is opened */
 	@Override
 	protected void
@@ -44,8 +44,16 @@ import io.scif.services.LocationService;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import net.imagej.axis.Axes;
 import net.imglib2.Interval;
@@ -60,6 +68,11 @@ import org.scijava.plugin.Plugin;
 @Plugin(type = Filter.class)
 public class FileStitcher extends AbstractReaderFilter {
 
+	// -- Constants --
+
+	/** Default maximum number of child readers kept open at once. */
+	public static final int DEFAULT_MAX_OPEN_READERS = 16;
+
 	// -- Fields --
 
 	@Parameter
@@ -84,7 +97,31 @@ public class FileStitcher extends AbstractReaderFilter {
 	 */
 	private int[] imagesPerFile = null;
 
-	private Reader[] readers = null;
+	/**
+	 * Initialized child readers of all but the first file, by file index, least
+	 * recently used first. The first file is read by the parent reader.
+	 */
+	private final LinkedHashMap<Integer, PooledReader> readers =
+		new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Evicted child readers which were handed out by {@link #getReader} or
+	 * {@link #getUnderlyingReaders()}, and so are only closed with this
+	 * stitcher.
+	 */
+	private final List<Reader> detached = new ArrayList<>();
+
+	/** Child readers being initialized ahead of use, by file index. */
+	private final Map<Integer, Future<Reader>> prefetched = new HashMap<>();
+
+	/** Thread initializing child readers ahead of use, created on demand. */
+	private ForkJoinPool prefetchPool;
+
+	/** Maximum number of child readers kept open at once. */
+	private int maxOpenReaders = DEFAULT_MAX_OPEN_READERS;
+
+	/** Number of files whose readers are initialized ahead of use. */
+	private int prefetchCount = 0;
 
 	private String[] files = null;
 
@@ -130,19 +167,53 @@ public class FileStitcher extends AbstractReaderFilter {
 	}
 
 	/**
-	 * Gets the reader appropriate for use with the given image.
+	 * Sets the maximum number of child readers kept open at once, besides the
+	 * parent reader of the first file. When more files are in use, the least
+	 * recently used reader which is not reading a plane is closed, and
+	 * initialized again if its file is needed later.
 	 */
-	public Reader getReader(final int imageIndex) throws FormatException,
-		IOException
+	public synchronized void setMaxOpenReaders(final int maxOpenReaders) {
+		if (maxOpenReaders < 1) {
+			throw new IllegalArgumentException("Invalid reader count: " +
+				maxOpenReaders);
+		}
+		this.maxOpenReaders = maxOpenReaders;
+		evictReaders();
+	}
+
+	/** Gets the maximum number of child readers kept open at once. */
+	public int getMaxOpenReaders() {
+		return maxOpenReaders;
+	}
+
+	/**
+	 * Sets how many of the following files are initialized on a background
+	 * thread whenever a file is accessed, so that reading planes in order does
+	 * not wait for each file to be parsed. 0 (the default) disables
+	 * prefetching.
+	 */
+	public synchronized void setPrefetchCount(final int prefetchCount) {
+		this.prefetchCount = Math.max(0, prefetchCount);
+	}
+
+	/** Gets how many of the following files are initialized ahead of use. */
+	public int getPrefetchCount() {
+		return prefetchCount;
+	}
+
+	/**
+	 * Gets the reader appropriate for use with the given image. The returned
+	 * reader stays open until this stitcher is closed, even if it is evicted
+	 * from the pool of open readers meanwhile.
+	 */
+	public synchronized Reader getReader(final int imageIndex)
+		throws FormatException, IOException
 	{
 		if (noStitch) return getParent();
-		final int[] fileIndex = computeFileIndex(imageIndex);
-		Reader r = readers[fileIndex[0]];
-		if (r == null) {
-			r = initializeService.initializeReader(files[imageIndex]);
-			readers[fileIndex[0]] = r;
-		}
-		return r;
+		final PooledReader pr = acquire(computeFileIndex(imageIndex)[0]);
+		pr.exposed = true;
+		release(pr);
+		return pr.reader;
 	}
 
 	/**
@@ -257,7 +328,6 @@ public class FileStitcher extends AbstractReaderFilter {
 			// Get the individual file ids
 			String[] patterns = findPatterns(source);
 			if (patterns.length == 0) patterns = new String[] { source };
-			readers = new Reader[patterns.length];
 
 			fp = new FilePattern(getContext(), patterns[0]);
 
@@ -306,6 +376,10 @@ public class FileStitcher extends AbstractReaderFilter {
 
 			this.files = files;
 			pattern = fp;
+
+			// NB: all files are assumed to have the same characteristics
+			imagesPerFile = new int[files.length];
+			Arrays.fill(imagesPerFile, getParent().getImageCount());
 		}
 		catch (final IOException e) {
 			// TODO Auto-generated catch block
@@ -329,6 +403,39 @@ public class FileStitcher extends AbstractReaderFilter {
 
 	// -- Reader API methods --
 
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		if (noStitch) return super.openPlane(imageIndex, planeIndex, config);
+		final int[] adjustedIndex = computeFileIndex(imageIndex);
+		final PooledReader pr = acquire(adjustedIndex[0]);
+		try {
+			return pr.reader.openPlane(adjustedIndex[1], planeIndex, config);
+		}
+		finally {
+			release(pr);
+		}
+	}
+
+	@Override
+	public Plane openPlane(final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		if (noStitch) return super.openPlane(imageIndex, planeIndex, bounds,
+			config);
+		final int[] adjustedIndex = computeFileIndex(imageIndex);
+		final PooledReader pr = acquire(adjustedIndex[0]);
+		try {
+			return pr.reader.openPlane(adjustedIndex[1], planeIndex, bounds,
+				config);
+		}
+		finally {
+			release(pr);
+		}
+	}
+
 	@Override
 	public Plane openPlane(final int imageIndex, final long planeIndex,
 		final Plane plane, final Interval bounds,
@@ -350,12 +457,17 @@ public class FileStitcher extends AbstractReaderFilter {
 		// If this is a valid image index, get the appropriate reader and
 		// return the corresponding plane
 		final int[] adjustedIndex = computeFileIndex(imageIndex);
-		if (adjustedIndex[0] < readers.length &&
-			adjustedIndex[1] < readers[adjustedIndex[0]].getImageCount())
-		{
-			final Reader r = readers[adjustedIndex[0]];
-			return r.openPlane(adjustedIndex[1], planeIndex, bp, bounds,
-				config);
+		if (adjustedIndex[0] < files.length) {
+			final PooledReader pr = acquire(adjustedIndex[0]);
+			try {
+				if (adjustedIndex[1] < pr.reader.getImageCount()) {
+					return pr.reader.openPlane(adjustedIndex[1], planeIndex, bp, bounds,
+						config);
+				}
+			}
+			finally {
+				release(pr);
+			}
 		}
 
 		// return a blank image to cover for the fact that
@@ -364,9 +476,22 @@ public class FileStitcher extends AbstractReaderFilter {
 		return bp;
 	}
 
+	/**
+	 * Gets the parent reader of the first file, followed by the open readers of
+	 * the other files. The returned readers stay open until this stitcher is
+	 * closed, even if they are evicted from the pool of open readers meanwhile.
+	 */
 	@Override
-	public Reader[] getUnderlyingReaders() {
-		return readers;
+	public synchronized Reader[] getUnderlyingReaders() {
+		if (noStitch || files == null) return super.getUnderlyingReaders();
+		final Reader[] underlying = new Reader[readers.size() + 1];
+		underlying[0] = getParent();
+		int i = 1;
+		for (final PooledReader pr : readers.values()) {
+			pr.exposed = true;
+			underlying[i++] = pr.reader;
+		}
+		return underlying;
 	}
 
 	// -- Prioritized API --
@@ -386,7 +511,9 @@ public class FileStitcher extends AbstractReaderFilter {
 	private int[] computeFileIndex(int imageIndex) {
 		if (noStitch) return new int[] { imageIndex, 0 };
 		int fileIndex = 0;
-		while (imageIndex >= imagesPerFile[fileIndex]) {
+		while (fileIndex < imagesPerFile.length &&
+			imageIndex >= imagesPerFile[fileIndex])
+		{
 			imageIndex -= imagesPerFile[fileIndex++];
 		}
 
@@ -402,16 +529,169 @@ public class FileStitcher extends AbstractReaderFilter {
 
 		imagesPerFile = null;
 
-		for (final Reader r : readers) {
-			if (r != null) {
-				r.close();
-			}
-		}
+		closeReaders();
 
-		readers = null;
 		files = null;
 		pattern = null;
 
 		noStitch = false;
 	}
+
+	// -- Helper methods --
+
+	/**
+	 * Obtains the initialized reader of the given file for one use, waiting for
+	 * it if it is being prefetched, and schedules the following files for
+	 * prefetching. The reader is not evicted until it is handed back with
+	 * {@link #release}.
+	 */
+	private synchronized PooledReader acquire(final int fileIndex)
+		throws FormatException, IOException
+	{
+		if (fileIndex >= files.length) {
+			throw new FormatException("Invalid file index: " + fileIndex);
+		}
+		PooledReader pr;
+		if (fileIndex == 0) {
+			// NB: The parent reader is already initialized on the first file.
+			pr = new PooledReader(getParent());
+		}
+		else {
+			pr = readers.get(fileIndex);
+			if (pr == null) {
+				final Future<Reader> future = prefetched.remove(fileIndex);
+				pr = new PooledReader(future == null ? initializeService
+					.initializeReader(files[fileIndex]) : await(future));
+				readers.put(fileIndex, pr);
+			}
+		}
+		pr.users++;
+		evictReaders();
+		prefetch(fileIndex);
+		return pr;
+	}
+
+	/**
+	 * Hands back a reader obtained by {@link #acquire}, closing readers which
+	 * could not be evicted while they were in use.
+	 */
+	private synchronized void release(final PooledReader pr) {
+		pr.users--;
+		evictReaders();
+	}
+
+	/**
+	 * Starts initializing the readers of the files following the given one, and
+	 * closes finished prefetches that are no longer ahead of it.
+	 */
+	private void prefetch(final int fileIndex) throws IOException {
+		final int last = Math.min(fileIndex + prefetchCount, files.length - 1);
+		final Iterator<Map.Entry<Integer, Future<Reader>>> iter =
+			prefetched.entrySet().iterator();
+		while (iter.hasNext()) {
+			final Map.Entry<Integer, Future<Reader>> entry = iter.next();
+			final int index = entry.getKey();
+			if ((index <= fileIndex || index > last) && entry.getValue().isDone()) {
+				iter.remove();
+				close(entry.getValue());
+			}
+		}
+		for (int i = fileIndex + 1; i <= last; i++) {
+			if (readers.containsKey(i) || prefetched.containsKey(i)) continue;
+			if (prefetchPool == null) prefetchPool = new ForkJoinPool(1);
+			final String file = files[i];
+			prefetched.put(i, prefetchPool.submit(() -> initializeService
+				.initializeReader(file)));
+		}
+	}
+
+	/**
+	 * Closes the least recently used readers beyond the open reader limit which
+	 * are not in use. Readers which were handed out are detached rather than
+	 * closed.
+	 */
+	private void evictReaders() {
+		final Iterator<PooledReader> iter = readers.values().iterator();
+		while (readers.size() > maxOpenReaders && iter.hasNext()) {
+			final PooledReader pr = iter.next();
+			if (pr.users > 0) continue;
+			iter.remove();
+			if (pr.exposed) {
+				detached.add(pr.reader);
+				continue;
+			}
+			try {
+				pr.reader.close();
+			}
+			catch (final IOException e) {
+				log().debug("Failed to close evicted reader", e);
+			}
+		}
+	}
+
+	/** Closes all pooled, detached and prefetched readers. */
+	private synchronized void closeReaders() throws IOException {
+		for (final PooledReader pr : readers.values()) {
+			pr.reader.close();
+		}
+		readers.clear();
+		for (final Reader r : detached) {
+			r.close();
+		}
+		detached.clear();
+		for (final Future<Reader> future : prefetched.values()) {
+			if (!future.cancel(false)) close(future);
+		}
+		prefetched.clear();
+		if (prefetchPool != null) {
+			prefetchPool.shutdown();
+			prefetchPool = null;
+		}
+	}
+
+	/** Closes the reader of a finished or running prefetch, if any. */
+	private void close(final Future<Reader> future) throws IOException {
+		try {
+			future.get().close();
+		}
+		catch (final InterruptedException | ExecutionException e) {
+			log().debug("Discarding failed prefetch", e);
+		}
+	}
+
+	/** Waits for a prefetched reader, rethrowing any initialization failure. */
+	private Reader await(final Future<Reader> future) throws FormatException,
+		IOException
+	{
+		try {
+			return future.get();
+		}
+		catch (final InterruptedException e) {
+			throw new IOException("Interrupted while initializing reader", e);
+		}
+		catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof FormatException) throw (FormatException) cause;
+			if (cause instanceof IOException) throw (IOException) cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			throw new FormatException(cause);
+		}
+	}
+
+	// -- Helper classes --
+
+	/** A child reader, and the number of plane reads currently using it. */
+	private static final class PooledReader {
+
+		private final Reader reader;
+
+		private int users;
+
+		/** Whether the reader was handed out, so must not be closed on eviction. */
+		private boolean exposed;
+
+		private PooledReader(final Reader reader) {
+			this.reader = reader;
+		}
+	}
 }
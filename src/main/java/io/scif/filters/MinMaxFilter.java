@@ -36,6 +36,9 @@ import io.scif.Plane;
 import io.scif.config.SCIFIOConfig;
 import io.scif.util.FormatTools;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -60,6 +63,11 @@ import org.scijava.util.Bytes;
 @Plugin(type = Filter.class)
 public class MinMaxFilter extends AbstractReaderFilter {
 
+	// -- Constants --
+
+	/** Number of bins of the histogram computed for each plane. */
+	public static final int HISTOGRAM_BINS = 256;
+
 	// -- Fields --
 
 	/**
@@ -86,6 +94,21 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	 */
 	private int[] minMaxDone;
 
+	/**
+	 * Histogram of each plane, for each image, binned evenly between the plane's
+	 * minimum and maximum. Null for planes which have not been read in full.
+	 */
+	private int[][][] planeHistograms;
+
+	/** Whether statistics are persisted in a sidecar next to the source. */
+	private boolean caching = false;
+
+	/** Whether the sidecar of the current source has been consulted. */
+	private boolean cacheLoaded;
+
+	/** Whether statistics have been computed since they were last persisted. */
+	private boolean dirty;
+
 	// -- MinMaxFilter API methods --
 
 	/**
@@ -95,6 +118,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	public Double getAxisGlobalMinimum(final int imageIndex, final AxisType type,
 		final int index) throws FormatException
 	{
+		loadStatistics();
 		return getAxisGlobalValue(imageIndex, type, index, planarAxisMin);
 	}
 
@@ -105,6 +129,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	public Double getAxisGlobalMaximum(final int imageIndex, final AxisType type,
 		final int index) throws FormatException
 	{
+		loadStatistics();
 		return getAxisGlobalValue(imageIndex, type, index, planarAxisMax);
 	}
 
@@ -115,6 +140,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	public Double getAxisKnownMinimum(final int imageIndex, final AxisType type,
 		final int index)
 	{
+		loadStatistics();
 		return getAxisKnownValue(imageIndex, type, index, planarAxisMin);
 	}
 
@@ -125,6 +151,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	public Double getAxisKnownMaximum(final int imageIndex, final AxisType type,
 		final int index)
 	{
+		loadStatistics();
 		return getAxisKnownValue(imageIndex, type, index, planarAxisMax);
 	}
 
@@ -133,6 +160,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	 * plane. Returns null if the plane has not already been read.
 	 */
 	public Double getPlaneMinimum(final int imageIndex, final long planeIndex) {
+		loadStatistics();
 		return getPlaneValue(imageIndex, planeIndex, planeMins);
 	}
 
@@ -141,15 +169,45 @@ public class MinMaxFilter extends AbstractReaderFilter {
 	 * plane. Returns null if the plane has not already been read.
 	 */
 	public Double getPlaneMaximum(final int imageIndex, final long planeIndex) {
+		loadStatistics();
 		return getPlaneValue(imageIndex, planeIndex, planeMaxs);
 	}
 
+	/**
+	 * Retrieves the histogram of the specified plane, with
+	 * {@link #HISTOGRAM_BINS} bins spanning evenly from the plane's minimum to
+	 * its maximum. Returns null if the plane has not already been read in full.
+	 */
+	public int[] getPlaneHistogram(final int imageIndex, final long planeIndex) {
+		loadStatistics();
+		if (planeHistograms == null) return null;
+		final int[] histogram = planeHistograms[imageIndex][(int) planeIndex];
+		return histogram == null ? null : histogram.clone();
+	}
+
+	/**
+	 * Sets whether the computed statistics are persisted in a sidecar file next
+	 * to the source (named after it, with a {@code .minmax} suffix). When
+	 * enabled, the statistics of a source which has not changed since they were
+	 * saved are available as soon as it is opened, and its planes are not
+	 * scanned again. The sidecar is updated when this filter is closed.
+	 */
+	public void setCaching(final boolean caching) {
+		this.caching = caching;
+	}
+
+	/** Gets whether computed statistics are persisted in a sidecar file. */
+	public boolean isCaching() {
+		return caching;
+	}
+
 	/**
 	 * Returns true if the values returned by getAxisGlobalMinimum/Maximum can be
 	 * trusted.
 	 */
 	public boolean isMinMaxPopulated(final int imageIndex) {
 //		FormatTools.assertId(getCurrentFile(), true, 2);
+		loadStatistics();
 		return minMaxDone != null && minMaxDone[imageIndex] == getImageCount();
 	}
 
@@ -235,6 +293,7 @@ public class MinMaxFilter extends AbstractReaderFilter {
 
 	@Override
 	public void close(final boolean fileOnly) throws IOException {
+		if (caching && dirty) saveStatistics();
 		super.close(fileOnly);
 		if (!fileOnly) {
 			planarAxisMin = null;
@@ -242,6 +301,9 @@ public class MinMaxFilter extends AbstractReaderFilter {
 			planeMins = null;
 			planeMaxs = null;
 			minMaxDone = null;
+			planeHistograms = null;
+			cacheLoaded = false;
+			dirty = false;
 		}
 	}
 
@@ -293,18 +355,8 @@ public class MinMaxFilter extends AbstractReaderFilter {
 
 		for (int i = 0; i < pixels; i++) {
 			// get the value for this pixel
-			final int idx = bpp * i;
-			long bits = Bytes.toLong(buf, idx, bpp, little);
-			if (signed) {
-				if (bits >= threshold) bits -= 2 * threshold;
-			}
-			double v = bits;
-			if (pixelType == FormatTools.FLOAT) {
-				v = Float.intBitsToFloat((int) bits);
-			}
-			else if (pixelType == FormatTools.DOUBLE) {
-				v = Double.longBitsToDouble(bits);
-			}
+			final double v =
+				getValue(buf, bpp * i, bpp, little, signed, threshold, pixelType);
 
 			// Update the appropriate planar axis min/max if necessary
 			final long[] planarPositions =
@@ -331,15 +383,51 @@ public class MinMaxFilter extends AbstractReaderFilter {
 			}
 		}
 
+		// Bin the whole plane between its extrema
+		if (len == planeSize) {
+			final double min = planeMins[imageIndex][(int) planeIndex];
+			final double scale =
+				HISTOGRAM_BINS / (planeMaxs[imageIndex][(int) planeIndex] - min);
+			final int[] histogram = new int[HISTOGRAM_BINS];
+			for (int i = 0; i < pixels; i++) {
+				final double v =
+					getValue(buf, bpp * i, bpp, little, signed, threshold, pixelType);
+				final int bin = (int) ((v - min) * scale);
+				histogram[Math.max(0, Math.min(HISTOGRAM_BINS - 1, bin))]++;
+			}
+			planeHistograms[imageIndex][(int) planeIndex] = histogram;
+		}
+		else planeHistograms[imageIndex][(int) planeIndex] = null;
+
 		// Set the number of planes complete for this image
 		minMaxDone[imageIndex] =
 			Math.max(minMaxDone[imageIndex], (int) planeIndex + 1);
+		dirty = true;
+	}
+
+	/** Decodes the pixel value starting at the given index of a buffer. */
+	private double getValue(final byte[] buf, final int idx, final int bpp,
+		final boolean little, final boolean signed, final long threshold,
+		final int pixelType)
+	{
+		long bits = Bytes.toLong(buf, idx, bpp, little);
+		if (signed) {
+			if (bits >= threshold) bits -= 2 * threshold;
+		}
+		if (pixelType == FormatTools.FLOAT) {
+			return Float.intBitsToFloat((int) bits);
+		}
+		else if (pixelType == FormatTools.DOUBLE) {
+			return Double.longBitsToDouble(bits);
+		}
+		return bits;
 	}
 
 	/**
 	 * Ensures internal min/max variables are initialized properly.
 	 */
 	private void initMinMax() {
+		loadStatistics();
 		final io.scif.Metadata m = getMetadata();
 		final int imageCount = m.getImageCount();
 
@@ -388,6 +476,142 @@ public class MinMaxFilter extends AbstractReaderFilter {
 			}
 		}
 		if (minMaxDone == null) minMaxDone = new int[imageCount];
+		if (planeHistograms == null) {
+			planeHistograms = new int[imageCount][][];
+			for (int i = 0; i < imageCount; i++) {
+				planeHistograms[i] = new int[(int) getPlaneCount(i)][];
+			}
+		}
+	}
+
+	/**
+	 * Ensures statistics persisted for the current source, if any, are loaded.
+	 */
+	private void loadStatistics() {
+		if (!caching || cacheLoaded || getMetadata() == null) return;
+		cacheLoaded = true;
+		readStatistics();
+	}
+
+	/** Gets the local file whose statistics may be persisted, if any. */
+	private File getStatisticsSource() {
+		final String id = getCurrentFile();
+		if (id == null) return null;
+		final File file = new File(id);
+		return file.isFile() ? file : null;
+	}
+
+	/**
+	 * Restores the statistics persisted for the current source. The sidecar is
+	 * ignored unless it describes images of the same dimensions.
+	 */
+	private void readStatistics() {
+		final File file = getStatisticsSource();
+		if (file == null) return;
+		final Metadata m = getMetadata();
+		try (final DataInputStream in = MinMaxIndex.open(file)) {
+			if (in == null || in.readInt() != m.getImageCount()) return;
+			final List<Map<AxisType, double[]>> axisMin = new ArrayList<>();
+			final List<Map<AxisType, double[]>> axisMax = new ArrayList<>();
+			final double[][] mins = new double[m.getImageCount()][];
+			final double[][] maxs = new double[mins.length][];
+			final int[][][] histograms = new int[mins.length][][];
+			final int[] done = new int[mins.length];
+			for (int i = 0; i < done.length; i++) {
+				final ImageMetadata iMeta = m.get(i);
+				final List<CalibratedAxis> axes = iMeta.getAxesPlanar();
+				final int planeCount = (int) getPlaneCount(i);
+				if (in.readInt() != planeCount || in.readInt() != axes.size()) {
+					return;
+				}
+				done[i] = in.readInt();
+				final Map<AxisType, double[]> minMap = new HashMap<>();
+				final Map<AxisType, double[]> maxMap = new HashMap<>();
+				for (final CalibratedAxis axis : axes) {
+					final int length = (int) iMeta.getAxisLength(axis.type());
+					if (in.readInt() != length) return;
+					minMap.put(axis.type(), readDoubles(in, length));
+					maxMap.put(axis.type(), readDoubles(in, length));
+				}
+				axisMin.add(minMap);
+				axisMax.add(maxMap);
+				mins[i] = readDoubles(in, planeCount);
+				maxs[i] = readDoubles(in, planeCount);
+				histograms[i] = new int[planeCount][];
+				for (int p = 0; p < histograms[i].length; p++) {
+					if (!in.readBoolean()) continue;
+					histograms[i][p] = new int[HISTOGRAM_BINS];
+					for (int b = 0; b < HISTOGRAM_BINS; b++) {
+						histograms[i][p][b] = in.readInt();
+					}
+				}
+			}
+			planarAxisMin = axisMin;
+			planarAxisMax = axisMax;
+			planeMins = mins;
+			planeMaxs = maxs;
+			planeHistograms = histograms;
+			minMaxDone = done;
+		}
+		catch (final IOException e) {
+			log().debug("Could not read min/max statistics of " + file, e);
+		}
+	}
+
+	/** Persists the statistics computed so far for the current source. */
+	private void saveStatistics() {
+		final File file = getStatisticsSource();
+		if (file == null || minMaxDone == null) return;
+		final Metadata m = getMetadata();
+		try {
+			MinMaxIndex.write(file, out -> {
+				out.writeInt(minMaxDone.length);
+				for (int i = 0; i < minMaxDone.length; i++) {
+					final ImageMetadata iMeta = m.get(i);
+					final List<CalibratedAxis> axes = iMeta.getAxesPlanar();
+					out.writeInt(planeMins[i].length);
+					out.writeInt(axes.size());
+					out.writeInt(minMaxDone[i]);
+					for (final CalibratedAxis axis : axes) {
+						final double[] min = planarAxisMin.get(i).get(axis.type());
+						out.writeInt(min.length);
+						writeDoubles(out, min);
+						writeDoubles(out, planarAxisMax.get(i).get(axis.type()));
+					}
+					writeDoubles(out, planeMins[i]);
+					writeDoubles(out, planeMaxs[i]);
+					for (final int[] histogram : planeHistograms[i]) {
+						out.writeBoolean(histogram != null);
+						if (histogram == null) continue;
+						for (final int count : histogram) {
+							out.writeInt(count);
+						}
+					}
+				}
+			});
+			dirty = false;
+		}
+		catch (final IOException e) {
+			log().debug("Could not write min/max statistics of " + file, e);
+		}
+	}
+
+	private static double[] readDoubles(final DataInputStream in,
+		final int length) throws IOException
+	{
+		final double[] values = new double[length];
+		for (int i = 0; i < length; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+
+	private static void writeDoubles(final DataOutputStream out,
+		final double[] values) throws IOException
+	{
+		for (final double value : values) {
+			out.writeDouble(value);
+		}
 	}
 
 	/**
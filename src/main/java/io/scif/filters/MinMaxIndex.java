@@ -0,0 +1,85 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import io.scif.io.SidecarFile;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Persists the statistics computed by a {@link MinMaxFilter} in a
+ * {@link SidecarFile}, so that reopening a large dataset does not require all
+ * of its planes to be scanned again.
+ */
+final class MinMaxIndex {
+
+	// -- Constants --
+
+	/** Suffix appended to the source file name to name its sidecar. */
+	static final String SUFFIX = ".minmax";
+
+	/** Sidecar magic number, "MMAX". */
+	private static final int MAGIC = 0x4d4d4158;
+
+	private static final int VERSION = 1;
+
+	private static final SidecarFile SIDECAR = new SidecarFile(SUFFIX, MAGIC,
+		VERSION);
+
+	// -- Constructor --
+
+	private MinMaxIndex() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	// -- Utility methods --
+
+	/**
+	 * Opens the sidecar of the given source file, positioned after its header.
+	 *
+	 * @return A stream over the statistics, or null if there is no valid,
+	 *         up-to-date sidecar.
+	 */
+	static DataInputStream open(final File source) throws IOException {
+		return SIDECAR.open(source);
+	}
+
+	/**
+	 * Writes the sidecar of the given source file, with the given statistics
+	 * following the header.
+	 */
+	static void write(final File source, final SidecarFile.Contents contents)
+		throws IOException
+	{
+		SIDECAR.write(source, contents);
+	}
+}
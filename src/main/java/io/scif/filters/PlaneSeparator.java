@@ -31,6 +31,7 @@ package io.scif.filters;
 
 import io.scif.ByteArrayPlane;
 import io.scif.FormatException;
+import io.scif.ImageMetadata;
 import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.config.SCIFIOConfig;
@@ -146,6 +147,14 @@ public class PlaneSeparator extends AbstractReaderFilter {
 		super.setSource(stream);
 	}
 
+	@Override
+	protected boolean isTransparent(final int imageIndex) {
+		// NB: Nothing is separated if the planar axes match those of the parent.
+		final ImageMetadata parentMeta = getParentMeta().get(imageIndex);
+		return !parentMeta.isIndexed() && getMetadata().get(imageIndex)
+			.getPlanarAxisCount() == parentMeta.getPlanarAxisCount();
+	}
+
 	@Override
 	public long getPlaneCount(final int imageIndex) {
 		return getMetadata().get(imageIndex).getPlaneCount();
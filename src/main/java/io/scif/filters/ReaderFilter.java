@@ -29,11 +29,18 @@
 
 package io.scif.filters;
 
+import io.scif.FormatException;
 import io.scif.Metadata;
+import io.scif.Plane;
 import io.scif.Reader;
+import io.scif.config.SCIFIOConfig;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Set;
 
+import net.imglib2.Interval;
+
 /**
  * {@link io.scif.filters.MasterFilter} for wrapping {@link io.scif.Reader}
  * components.
@@ -103,4 +110,25 @@ public class ReaderFilter extends AbstractReaderFilter implements
 	public Metadata getMetadata() {
 		return fHelper.getParent().getMetadata();
 	}
+
+	@Override
+	public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+		final ByteBuffer target, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		// NB: The master filter does not alter planes itself, so let the top of
+		// the stack read into the buffer, directly if it can.
+		return getParent().openPlane(imageIndex, planeIndex, target, bounds,
+			config);
+	}
+
+	@Override
+	public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+		final Interval bounds, final SCIFIOConfig config) throws FormatException,
+		IOException
+	{
+		// NB: Let the top of the stack read the batch, coalescing reads if it
+		// can.
+		return getParent().openPlanes(imageIndex, planeIndices, bounds, config);
+	}
 }
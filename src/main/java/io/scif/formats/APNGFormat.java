@@ -379,6 +379,12 @@ public class APNGFormat extends AbstractFormat {
 			}
 			return true;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { (byte) 0x89, 0x50, 0x4e, 0x47, 0x0d, 0x0a, 0x1a,
+				0x0a } };
+		}
 	}
 
 	/**
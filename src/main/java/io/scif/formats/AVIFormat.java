@@ -60,6 +60,7 @@ import io.scif.util.SCIFIOMetadataTools;
 
 import java.awt.image.IndexColorModel;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Vector;
 
@@ -449,6 +450,11 @@ public class AVIFormat extends AbstractFormat {
 			return type.equals(AVI_MAGIC_STRING) && format.equals("AVI ");
 		}
 
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { AVI_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
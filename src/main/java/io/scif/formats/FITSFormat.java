@@ -42,6 +42,7 @@ import io.scif.io.RandomAccessInputStream;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import net.imagej.axis.Axes;
 import net.imglib2.Interval;
@@ -211,5 +212,18 @@ public class FITSFormat extends AbstractFormat {
 					FormatTools.getPlaneSize(this, imageIndex));
 			return readPlane(getStream(), imageIndex, bounds, plane);
 		}
+
+		@Override
+		public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+			final ByteBuffer target, final Interval bounds,
+			final SCIFIOConfig config) throws FormatException, IOException
+		{
+			checkTarget(imageIndex, planeIndex, target, bounds);
+
+			getStream().seek(
+				getMetadata().getPixelOffset() + planeIndex *
+					FormatTools.getPlaneSize(this, imageIndex));
+			return readPlane(getStream(), imageIndex, bounds, target);
+		}
 	}
 }
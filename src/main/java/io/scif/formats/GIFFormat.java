@@ -44,6 +44,7 @@ import io.scif.io.RandomAccessInputStream;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Vector;
 
 import net.imagej.axis.Axes;
@@ -358,6 +359,12 @@ public class GIFFormat extends AbstractFormat {
 			if (!FormatTools.validStream(in, blockLen, false)) return false;
 			return in.readString(blockLen).startsWith(GIF_MAGIC_STRING);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { GIF_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -41,17 +41,21 @@ import io.scif.FormatException;
 import io.scif.ImageMetadata;
 import io.scif.Plane;
 import io.scif.Translator;
+import io.scif.codec.CompressionType;
+import io.scif.codec.ParallelDeflateOutputStream;
 import io.scif.common.DateTools;
 import io.scif.config.SCIFIOConfig;
 import io.scif.img.axes.SCIFIOAxes;
 import io.scif.io.Location;
 import io.scif.io.RandomAccessInputStream;
 import io.scif.io.RandomAccessOutputStream;
+import io.scif.io.SeekableGZipStream;
 import io.scif.util.FormatTools;
 import io.scif.util.SCIFIOMetadataTools;
 
 import java.io.ByteArrayOutputStream;
-import java.io.FileInputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -60,7 +64,7 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
-import java.util.zip.GZIPInputStream;
+import java.util.concurrent.ForkJoinPool;
 
 import net.imagej.axis.Axes;
 import net.imagej.axis.AxisType;
@@ -1358,8 +1362,8 @@ public class ICSFormat extends AbstractFormat {
 		/* Whether or not the pixels are GZIP-compressed. */
 		private boolean gzip;
 
-		/* Cached GZIPInputStream */
-		private GZIPInputStream gzipStream;
+		/* Cached gzip stream, seekable through inflate checkpoints. */
+		private SeekableGZipStream gzipStream;
 
 		/* Whether or not the image is inverted along the Y axis. */
 		private boolean invertY; // TODO only in oldInitFile
@@ -1405,20 +1409,18 @@ public class ICSFormat extends AbstractFormat {
 				getStream().seek(getMetadata().offset + planeIndex * len);
 			}
 			else {
-				long toSkip = (planeIndex - prevPlane - 1) * len;
-				if (gzipStream == null || planeIndex <= prevPlane) {
-					FileInputStream fis = null;
-					toSkip = planeIndex * len;
-					if (getMetadata().versionTwo) {
-						fis = new FileInputStream(getMetadata().icsId);
-						fis.skip(getMetadata().offset);
-					}
-					else {
-						fis = new FileInputStream(getMetadata().idsId);
-						toSkip += getMetadata().offset;
-					}
+				long position = planeIndex * len;
+				if (gzipStream == null) {
 					try {
-						gzipStream = new GZIPInputStream(fis);
+						if (getMetadata().versionTwo) {
+							gzipStream =
+								new SeekableGZipStream(new File(getMetadata().icsId),
+									getMetadata().offset);
+						}
+						else {
+							gzipStream =
+								new SeekableGZipStream(new File(getMetadata().idsId), 0);
+						}
 					}
 					catch (final IOException e) {
 						// the 'gzip' flag is set erroneously
@@ -1427,18 +1429,22 @@ public class ICSFormat extends AbstractFormat {
 						gzipStream = null;
 					}
 				}
+				if (!getMetadata().versionTwo) position += getMetadata().offset;
 
 				if (gzipStream != null) {
-					while (toSkip > 0) {
-						toSkip -= gzipStream.skip(toSkip);
-					}
+					// NB: Earlier planes are reached through inflate checkpoints,
+					// rather than by decompressing again from the start.
+					gzipStream.seek(position);
 
 					data =
 						new byte[(int) (len * (meta.storedRGB() ? meta.get(imageIndex)
 							.getAxisLength(Axes.CHANNEL) : 1))];
 					int toRead = data.length;
 					while (toRead > 0) {
-						toRead -= gzipStream.read(data, data.length - toRead, toRead);
+						final int n =
+							gzipStream.read(data, data.length - toRead, toRead);
+						if (n < 0) throw new EOFException();
+						toRead -= n;
 					}
 				}
 			}
@@ -1570,6 +1576,13 @@ public class ICSFormat extends AbstractFormat {
 	 */
 	public static class Writer extends AbstractWriter<Metadata> {
 
+		// -- Constants --
+
+		public static final String COMPRESSION_UNCOMPRESSED =
+			CompressionType.UNCOMPRESSED.getCompression();
+
+		public static final String COMPRESSION_GZIP = "gzip";
+
 		// -- Fields --
 
 		private long dimensionOffset;
@@ -1582,11 +1595,20 @@ public class ICSFormat extends AbstractFormat {
 
 		private RandomAccessOutputStream pixels;
 
+		/** Number of threads deflating gzip-compressed pixels. */
+		private int compressionThreads = 1;
+
+		/** Pool deflating the blocks of gzip-compressed pixels, if threaded. */
+		private ForkJoinPool compressionPool;
+
+		/** Stream compressing the pixels, when writing gzip. */
+		private ParallelDeflateOutputStream deflater;
+
 		// -- AbstractWriter Methods --
 
 		@Override
 		protected String[] makeCompressionTypes() {
-			return new String[0];
+			return new String[] { COMPRESSION_UNCOMPRESSED, COMPRESSION_GZIP };
 		}
 
 		@Override
@@ -1637,6 +1659,28 @@ public class ICSFormat extends AbstractFormat {
 			final int planeSize =
 				(int) (meta.get(0).getSize() / meta.get(0).getPlaneCount());
 
+			if (isGZip()) {
+				// NB: the compressed stream can only be appended to
+				if (!SCIFIOMetadataTools.wholePlane(imageIndex, meta, bounds) ||
+					planeIndex != lastPlane + 1)
+				{
+					throw new FormatException("gzip-compressed pixels must be " +
+						"written as whole planes, in order");
+				}
+				if (deflater == null) {
+					pixels.seek(pixelOffset);
+					if (compressionThreads > 1) {
+						compressionPool = new ForkJoinPool(compressionThreads);
+					}
+					deflater = new ParallelDeflateOutputStream(pixels, true,
+						getCodecOptions(), compressionPool);
+				}
+				deflater.write(interleaved || rgbChannels == 1 ? plane.getBytes()
+					: interleave(plane.getBytes(), w, h, rgbChannels, bytesPerPixel));
+				lastPlane = planeIndex;
+				return;
+			}
+
 			pixels.seek(pixelOffset + planeIndex * planeSize);
 			if (SCIFIOMetadataTools.wholePlane(imageIndex, meta, bounds) &&
 				(interleaved || rgbChannels == 1))
@@ -1694,6 +1738,32 @@ public class ICSFormat extends AbstractFormat {
 			pixels = null;
 		}
 
+		// -- HasSource API Methods --
+
+		@Override
+		public void close(final boolean fileOnly) throws IOException {
+			// the end of the gzip stream is only written once all planes are in
+			try {
+				if (deflater != null) deflater.finish();
+			}
+			finally {
+				deflater = null;
+				if (compressionPool != null) compressionPool.shutdown();
+				compressionPool = null;
+				pixelOffset = 0;
+				lastPlane = -1;
+				dimensionOffset = 0;
+				dimensionLength = 0;
+				try {
+					if (pixels != null) pixels.close();
+				}
+				finally {
+					pixels = null;
+					super.close(fileOnly);
+				}
+			}
+		}
+
 		@Override
 		public void setDest(final String id) throws FormatException, IOException {
 			// FIXME consolidate this code in setDest when the RAOS id is
@@ -1749,6 +1819,7 @@ public class ICSFormat extends AbstractFormat {
 				getMetadata().idsId != null ? getMetadata().idsId : getMetadata().icsId;
 
 			super.setDest(out, imageIndex, config);
+			compressionThreads = config.writerGetCompressionThreads();
 
 			if (out.length() == 0) {
 				out.writeBytes("\t\n");
@@ -1781,7 +1852,8 @@ public class ICSFormat extends AbstractFormat {
 					(pixelType == FormatTools.FLOAT ? "real\n" : "integer\n"));
 				out.writeBytes("representation\tsign\t" +
 					(signed ? "signed\n" : "unsigned\n"));
-				out.writeBytes("representation\tcompression\tuncompressed\n");
+				out.writeBytes("representation\tcompression\t" +
+					(isGZip() ? "gzip\n" : "uncompressed\n"));
 				out.writeBytes("representation\tbyte_order\t");
 				for (int i = 0; i < sizes[0] / 8; i++) {
 					if ((littleEndian && (sizes[0] < 32 || pixelType == FormatTools.FLOAT)) ||
@@ -1839,6 +1911,31 @@ public class ICSFormat extends AbstractFormat {
 
 		// -- Helper methods --
 
+		private boolean isGZip() {
+			return COMPRESSION_GZIP.equals(getCompression());
+		}
+
+		/**
+		 * Reorders a whole plane of planar channels into the interleaved layout
+		 * of the pixel data.
+		 */
+		private static byte[] interleave(final byte[] data, final int w,
+			final int h, final int channels, final int bytesPerPixel)
+		{
+			final byte[] out = new byte[w * h * channels * bytesPerPixel];
+			int next = 0;
+			for (int row = 0; row < h; row++) {
+				for (int col = 0; col < w; col++) {
+					for (int c = 0; c < channels; c++) {
+						System.arraycopy(data, (w * (c * h + row) + col) * bytesPerPixel,
+							out, next, bytesPerPixel);
+						next += bytesPerPixel;
+					}
+				}
+			}
+			return out;
+		}
+
 		/* Sets the ICS Metadta icsId and idsId fields */
 		private void updateMetadataIds(final String id) {
 			getMetadata().idsId =
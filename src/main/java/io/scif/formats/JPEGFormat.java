@@ -144,6 +144,11 @@ public class JPEGFormat extends ImageIOFormat {
 
 			return true;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { (byte) 0xff, (byte) 0xd8, (byte) 0xff } };
+		}
 	}
 
 	public static class Parser extends ImageIOFormat.Parser<Metadata> {
@@ -98,8 +98,7 @@ public class JPEGTileFormat extends AbstractFormat {
 			iMeta.setLittleEndian(false);
 			iMeta.setAxisLength(Axes.X, decoder.getWidth());
 			iMeta.setAxisLength(Axes.Y, decoder.getHeight());
-			iMeta.setAxisLength(Axes.CHANNEL, decoder.getScanline(0).length /
-				iMeta.getAxisLength(Axes.X));
+			iMeta.setAxisLength(Axes.CHANNEL, decoder.getChannels());
 			iMeta.setPixelType(FormatTools.UINT8);
 			iMeta.setMetadataComplete(true);
 			iMeta.setIndexed(false);
@@ -154,10 +153,18 @@ public class JPEGTileFormat extends AbstractFormat {
 			final int xAxis = meta.get(imageIndex).getAxisIndex(Axes.X);
 			final int yAxis = meta.get(imageIndex).getAxisIndex(Axes.Y);
 			final int x = (int) bounds.min(xAxis), y = (int) bounds.min(yAxis), //
-					w = (int) bounds.max(xAxis), h = (int) bounds.max(yAxis);
+					w = (int) bounds.dimension(xAxis), h = (int) bounds.dimension(yAxis);
 			FormatTools.checkPlaneForReading(meta, imageIndex, planeIndex,
 				buf.length, bounds);
 
+			final JPEGTileDecoder decoder = meta.getDecoder();
+			if (decoder.hasRestartIndex()) {
+				// decode only the restart intervals covering the region
+				decoder.setDecodeThreads(config.readerGetTileDecodeThreads());
+				decoder.getRegion(buf, x, y, w, h);
+				return plane;
+			}
+
 			final int c = (int) meta.get(imageIndex).getAxisLength(Axes.CHANNEL);
 
 			for (int ty = y; ty < y + h; ty++) {
@@ -39,6 +39,7 @@ import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.config.SCIFIOConfig;
 import io.scif.io.RandomAccessOutputStream;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
 import io.scif.util.SCIFIOMetadataTools;
 
@@ -56,7 +57,6 @@ import net.imglib2.img.basictypeaccess.array.ShortArray;
 
 import org.scijava.plugin.Plugin;
 import org.scijava.util.ArrayUtils;
-import org.scijava.util.Bytes;
 
 /**
  * Format for Java source code. At the moment, this code just writes a very
@@ -124,7 +124,7 @@ public class JavaFormat extends AbstractFormat {
 
 			// write array
 			final String varName = "image" + imageIndex + "Plane" + planeIndex;
-			final Object array = Bytes.makeArray(buf, bpp, fp, little);
+			final Object array = ConversionTools.makeArray(buf, bpp, fp, little);
 
 			getStream().seek(getStream().length());
 			writePlane(varName, getType(array), (int) bounds.dimension(0), (int) bounds.dimension(1));
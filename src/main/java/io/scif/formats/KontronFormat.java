@@ -163,6 +163,11 @@ public class KontronFormat extends AbstractFormat {
 
 			return true;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { KONTRON_ID };
+		}
 	}
 
 	public static class Reader extends ByteArrayReader<Metadata> {
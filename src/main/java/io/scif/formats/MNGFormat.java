@@ -151,6 +151,12 @@ public class MNGFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.readLong() == MNG_MAGIC_BYTES;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { (byte) 0x8a, 0x4d, 0x4e, 0x47, 0x0d, 0x0a, 0x1a,
+				0x0a } };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
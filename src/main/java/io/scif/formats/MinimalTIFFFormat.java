@@ -39,10 +39,12 @@ import io.scif.Format;
 import io.scif.FormatException;
 import io.scif.HasColorTable;
 import io.scif.ImageMetadata;
+import io.scif.Plane;
 import io.scif.codec.JPEG2000CodecOptions;
 import io.scif.config.SCIFIOConfig;
 import io.scif.formats.tiff.IFD;
 import io.scif.formats.tiff.IFDList;
+import io.scif.formats.tiff.LazyIFDList;
 import io.scif.formats.tiff.PhotoInterp;
 import io.scif.formats.tiff.TiffCompression;
 import io.scif.formats.tiff.TiffParser;
@@ -288,8 +290,12 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			super.close(fileOnly);
 			if (!fileOnly) {
 				if (ifds != null) {
-					for (final IFD ifd : ifds) {
-						if (ifd.getOnDemandStripOffsets() != null) {
+					for (int i = 0; i < ifds.size(); i++) {
+						// NB: Do not parse IFDs which were never used.
+						if (ifds instanceof LazyIFDList &&
+							!((LazyIFDList) ifds).isParsed(i)) continue;
+						final IFD ifd = ifds.get(i);
+						if (ifd != null && ifd.getOnDemandStripOffsets() != null) {
 							ifd.getOnDemandStripOffsets().close();
 						}
 					}
@@ -298,6 +304,7 @@ public class MinimalTIFFFormat extends AbstractFormat {
 				thumbnailIFDs = null;
 				subResolutionIFDs = new ArrayList<>();
 				lastPlane = 0;
+				if (tiffParser != null) tiffParser.close();
 				tiffParser = null;
 				resolutionLevels = null;
 				j2kCodecOptions = JPEG2000CodecOptions.getDefaultOptions();
@@ -387,6 +394,12 @@ public class MinimalTIFFFormat extends AbstractFormat {
 		public boolean isFormat(final RandomAccessInputStream stream) {
 			return new TiffParser(getContext(), stream).isValidHeader();
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { 'I', 'I', 42, 0 }, { 'M', 'M', 0, 42 },
+				{ 'I', 'I', 43, 0 }, { 'M', 'M', 0, 43 } };
+		}
 	}
 
 	public static class Parser<M extends Metadata> extends AbstractParser<M> {
@@ -404,6 +417,7 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			final TiffParser tiffParser = new TiffParser(getContext(), stream);
 			tiffParser.setDoCaching(false);
 			tiffParser.setUse64BitOffsets(meta.isUse64Bit());
+			tiffParser.setIFDIndexing(config.parserIsIFDIndexing());
 			meta.setTiffParser(tiffParser);
 
 			final Boolean littleEndian = tiffParser.checkHeader();
@@ -415,6 +429,19 @@ public class MinimalTIFFFormat extends AbstractFormat {
 
 			log().debug("Reading IFDs");
 
+			tiffParser.setAssumeEqualStrips(meta.isEqualStrips());
+
+			// pages of plain multi-page files are only parsed once used
+			final IFDList lazyIFDs = tiffParser.getLazyNonThumbnailIFDs();
+			if (lazyIFDs != null) {
+				if (lazyIFDs.size() == 0) {
+					throw new FormatException("No IFDs found");
+				}
+				meta.setIfds(lazyIFDs);
+				meta.setThumbnailIFDs(tiffParser.getLazyThumbnailIFDs());
+				return;
+			}
+
 			final IFDList allIFDs = tiffParser.getIFDs();
 
 			if (allIFDs == null || allIFDs.size() == 0) {
@@ -440,7 +467,6 @@ public class MinimalTIFFFormat extends AbstractFormat {
 
 			log().debug("Populating metadata");
 
-			tiffParser.setAssumeEqualStrips(meta.isEqualStrips());
 			for (final IFD ifd : ifds) {
 				tiffParser.fillInIFD(ifd);
 				if (ifd.getCompression() == TiffCompression.JPEG_2000 ||
@@ -572,6 +598,8 @@ public class MinimalTIFFFormat extends AbstractFormat {
 				setResolutionLevel(ifd);
 			}
 
+			tiffParser.setDecodeThreads(config.readerGetTileDecodeThreads());
+			tiffParser.setTileCaching(config.readerIsTileCaching());
 			tiffParser.getSamples(ifd, buf, x, y, w, h);
 
 			final boolean float16 =
@@ -630,6 +658,31 @@ public class MinimalTIFFFormat extends AbstractFormat {
 			return plane;
 		}
 
+		@Override
+		public Plane[] openPlanes(final int imageIndex, final long[] planeIndices,
+			final Interval bounds, final SCIFIOConfig config) throws FormatException,
+			IOException
+		{
+			final Metadata meta = getMetadata();
+			final IFDList ifds = meta.getIfds();
+			final List<IFD> batch = new ArrayList<>();
+			for (final long planeIndex : planeIndices) {
+				if (planeIndex >= 0 && planeIndex < ifds.size()) {
+					batch.add(ifds.get((int) planeIndex));
+				}
+			}
+
+			// read the strips of the whole batch with as few seeks as possible
+			final TiffParser tiffParser = meta.getTiffParser();
+			tiffParser.prefetch(batch);
+			try {
+				return super.openPlanes(imageIndex, planeIndices, bounds, config);
+			}
+			finally {
+				tiffParser.clearPrefetched();
+			}
+		}
+
 		@Override
 		public long getOptimalTileWidth(final int imageIndex) {
 			FormatTools.assertId(getStream().getFileName(), true, 1);
@@ -48,6 +48,8 @@ import io.scif.util.FormatTools;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import net.imagej.axis.Axes;
 import net.imglib2.Interval;
@@ -213,6 +215,12 @@ public class NRRDFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.readString(blockLen).startsWith(NRRD_MAGIC_STRING);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { NRRD_MAGIC_STRING.getBytes(
+				StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -501,5 +509,31 @@ public class NRRDFormat extends AbstractFormat {
 			throw new FormatException("Could not find a supporting Format");
 		}
 
+		@Override
+		public ByteBuffer openPlane(final int imageIndex, final long planeIndex,
+			final ByteBuffer target, final Interval bounds,
+			final SCIFIOConfig config) throws FormatException, IOException
+		{
+			final Metadata meta = getMetadata();
+			if (!meta.getEncoding().equals("raw")) {
+				return super.openPlane(imageIndex, planeIndex, target, bounds, config);
+			}
+			checkTarget(imageIndex, planeIndex, target, bounds);
+
+			final long offset =
+				meta.getOffset() + planeIndex *
+					FormatTools.getPlaneSize(this, imageIndex);
+			if (meta.getDataFile() == null) {
+				getStream().seek(offset);
+				return readPlane(getStream(), imageIndex, bounds, target);
+			}
+			try (final RandomAccessInputStream s =
+				new RandomAccessInputStream(getContext(), meta.getDataFile()))
+			{
+				s.seek(offset);
+				return readPlane(s, imageIndex, bounds, target);
+			}
+		}
+
 	}
 }
@@ -162,6 +162,11 @@ public class PCXFormat extends AbstractFormat {
 			if (!FormatTools.validStream(stream, blockLen, false)) return false;
 			return stream.read() == PCX_MAGIC_BYTE;
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { PCX_MAGIC_BYTE } };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
@@ -142,6 +142,10 @@ public class PGMFormat extends AbstractFormat {
 				Character.isDigit((char) stream.read());
 		}
 
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { { PGM_MAGIC_CHAR } };
+		}
 	}
 
 	public static class Parser extends AbstractParser<Metadata> {
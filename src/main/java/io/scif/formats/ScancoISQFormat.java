@@ -44,6 +44,7 @@ import io.scif.io.RandomAccessInputStream;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -139,6 +140,11 @@ public class ScancoISQFormat extends AbstractFormat {
 			final String fileStart = new String(firstBytes);
 			return ISQ_ID.equals(fileStart);
 		}
+
+		@Override
+		public byte[][] getSignatures() {
+			return new byte[][] { ISQ_ID.getBytes(StandardCharsets.US_ASCII) };
+		}
 	}
 
 	public static class Metadata extends AbstractMetadata {
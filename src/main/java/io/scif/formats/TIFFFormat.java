@@ -46,6 +46,7 @@ import io.scif.common.DateTools;
 import io.scif.config.SCIFIOConfig;
 import io.scif.formats.tiff.IFD;
 import io.scif.formats.tiff.IFDList;
+import io.scif.formats.tiff.LazyIFDList;
 import io.scif.formats.tiff.PhotoInterp;
 import io.scif.formats.tiff.TiffCompression;
 import io.scif.formats.tiff.TiffParser;
@@ -979,6 +980,11 @@ public class TIFFFormat extends AbstractFormat {
 			final MetaTable table = meta.getTable();
 
 			for (int i = 0; i < ifds.size(); i++) {
+				// NB: Do not parse every page of a lazily listed file for its name.
+				if (ifds instanceof LazyIFDList && !((LazyIFDList) ifds).isParsed(i))
+				{
+					continue;
+				}
 				put(table, "PageName #" + i, ifds.get(i), IFD.PAGE_NAME);
 			}
 
@@ -1367,6 +1373,9 @@ public class TIFFFormat extends AbstractFormat {
 		public static final String COMPRESSION_JPEG = //
 			CompressionType.JPEG.getCompression();
 
+		public static final String COMPRESSION_ZLIB = //
+			CompressionType.ZLIB.getCompression();
+
 		public static final String BIG_TIFF_KEY = "WRITE_BIG_TIFF";
 
 		// -- Fields --
@@ -1388,7 +1397,8 @@ public class TIFFFormat extends AbstractFormat {
 		@Override
 		protected String[] makeCompressionTypes() {
 			return new String[] { COMPRESSION_UNCOMPRESSED, COMPRESSION_LZW,
-				COMPRESSION_J2K, COMPRESSION_J2K_LOSSY, COMPRESSION_JPEG };
+				COMPRESSION_J2K, COMPRESSION_J2K_LOSSY, COMPRESSION_JPEG,
+				COMPRESSION_ZLIB };
 		}
 
 		// -- TIFFWriter API Methods --
@@ -1476,6 +1486,8 @@ public class TIFFFormat extends AbstractFormat {
 			super.setDest(dest, imageIndex, config);
 			synchronized (this) {
 				setupTiffSaver(dest, imageIndex);
+				tiffSaver.setCompressionThreads(config
+					.writerGetCompressionThreads());
 			}
 
 			// Check if a bigTIFF setting was requested
@@ -1554,6 +1566,15 @@ public class TIFFFormat extends AbstractFormat {
 
 		@Override
 		public void close() throws IOException {
+			if (tiffSaver != null && getStream() != null) {
+				// write any planes still being compressed
+				try {
+					tiffSaver.flush();
+				}
+				catch (final FormatException e) {
+					throw new IOException(e);
+				}
+			}
 			super.close();
 			if (in != null) {
 				in.close();
@@ -1582,6 +1603,9 @@ public class TIFFFormat extends AbstractFormat {
 				else if (getCompression().equals(COMPRESSION_JPEG)) {
 					compressType = TiffCompression.JPEG;
 				}
+				else if (getCompression().equals(COMPRESSION_ZLIB)) {
+					compressType = TiffCompression.DEFLATE;
+				}
 			}
 			final Object v = ifd.get(new Integer(IFD.COMPRESSION));
 			if (v == null) ifd.put(new Integer(IFD.COMPRESSION), compressType
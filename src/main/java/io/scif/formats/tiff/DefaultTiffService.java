@@ -78,6 +78,13 @@ public class DefaultTiffService extends AbstractService implements TiffService {
 	@Override
 	public void undifference(final byte[] input, final IFD ifd)
 		throws FormatException
+	{
+		undifference(input, input.length, ifd);
+	}
+
+	@Override
+	public void undifference(final byte[] input, final int length,
+		final IFD ifd) throws FormatException
 	{
 		final int predictor = ifd.getIFDIntValue(IFD.PREDICTOR, 1);
 		if (predictor == 2) {
@@ -93,7 +100,7 @@ public class DefaultTiffService extends AbstractService implements TiffService {
 			if (planarConfig == 2 || bitsPerSample[len - 1] == 0) len = 1;
 			len *= bytes;
 
-			for (int b = 0; b <= input.length - bytes; b += bytes) {
+			for (int b = 0; b <= length - bytes; b += bytes) {
 				if (b / len % width == 0) continue;
 				int value = Bytes.toInt(input, b, bytes, little);
 				value += Bytes.toInt(input, b - len, bytes, little);
@@ -0,0 +1,230 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats.tiff;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default {@link TiffTileCacheService}: a least recently used cache bounded by
+ * the total size of the cached tiles.
+ */
+@Plugin(type = Service.class)
+public class DefaultTiffTileCacheService extends AbstractService implements
+	TiffTileCacheService
+{
+
+	// -- Constants --
+
+	/** Default capacity of the cache, in bytes. */
+	public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+	// -- Fields --
+
+	/** Cached tiles, in access order. Guarded by {@code this}. */
+	private final LinkedHashMap<TileKey, byte[]> tiles =
+		new LinkedHashMap<>(16, 0.75f, true);
+
+	private long maxBytes = DEFAULT_MAX_BYTES;
+
+	private long size;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	// -- TiffTileCacheService methods --
+
+	@Override
+	public boolean get(final String id, final long ifdOffset,
+		final long tileIndex, final byte[] buf)
+	{
+		final byte[] tile;
+		synchronized (this) {
+			tile = tiles.get(TileKey.of(id, ifdOffset, tileIndex));
+		}
+		if (tile == null || tile.length > buf.length) {
+			misses.incrementAndGet();
+			return false;
+		}
+		hits.incrementAndGet();
+		System.arraycopy(tile, 0, buf, 0, tile.length);
+		return true;
+	}
+
+	@Override
+	public void put(final String id, final long ifdOffset, final long tileIndex,
+		final byte[] tile)
+	{
+		if (tile.length > maxBytes) return;
+		final byte[] copy = tile.clone();
+		synchronized (this) {
+			final byte[] old = tiles.put(TileKey.of(id, ifdOffset, tileIndex), copy);
+			if (old != null) size -= old.length;
+			size += copy.length;
+			trim();
+		}
+	}
+
+	@Override
+	public synchronized void invalidate(final String id) {
+		// the same file may be cached under a relative and an absolute path
+		final String path = new File(id).getAbsolutePath();
+		final Iterator<Map.Entry<TileKey, byte[]>> iter =
+			tiles.entrySet().iterator();
+		while (iter.hasNext()) {
+			final Map.Entry<TileKey, byte[]> entry = iter.next();
+			final String key = entry.getKey().id;
+			if (key.equals(id) || new File(key).getAbsolutePath().equals(path)) {
+				size -= entry.getValue().length;
+				iter.remove();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void clear() {
+		tiles.clear();
+		size = 0;
+	}
+
+	@Override
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	@Override
+	public synchronized void setMaxBytes(final long maxBytes) {
+		this.maxBytes = maxBytes;
+		trim();
+	}
+
+	@Override
+	public synchronized long getSize() {
+		return size;
+	}
+
+	@Override
+	public long getHits() {
+		return hits.get();
+	}
+
+	@Override
+	public long getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public void resetStatistics() {
+		hits.set(0);
+		misses.set(0);
+	}
+
+	// -- Disposable methods --
+
+	@Override
+	public void dispose() {
+		clear();
+	}
+
+	// -- Helper methods --
+
+	/** Evicts least recently used tiles until the cache fits its capacity. */
+	private void trim() {
+		final Iterator<byte[]> iter = tiles.values().iterator();
+		while (size > maxBytes && iter.hasNext()) {
+			size -= iter.next().length;
+			iter.remove();
+		}
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Identifies one tile of one IFD of one version of a file. The file's length
+	 * and modification time are part of the key, so that tiles of a file
+	 * rewritten by another process are no longer found.
+	 */
+	private static final class TileKey {
+
+		private final String id;
+
+		private final long length;
+
+		private final long lastModified;
+
+		private final long ifdOffset;
+
+		private final long tileIndex;
+
+		public TileKey(final String id, final long length,
+			final long lastModified, final long ifdOffset, final long tileIndex)
+		{
+			this.id = id;
+			this.length = length;
+			this.lastModified = lastModified;
+			this.ifdOffset = ifdOffset;
+			this.tileIndex = tileIndex;
+		}
+
+		/** Creates the key of a tile of the current version of a file. */
+		public static TileKey of(final String id, final long ifdOffset,
+			final long tileIndex)
+		{
+			final File file = new File(id);
+			return new TileKey(id, file.length(), file.lastModified(), ifdOffset,
+				tileIndex);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof TileKey)) return false;
+			final TileKey key = (TileKey) o;
+			return ifdOffset == key.ifdOffset && tileIndex == key.tileIndex &&
+				length == key.length && lastModified == key.lastModified &&
+				id.equals(key.id);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = id.hashCode();
+			result = 31 * result + Long.hashCode(lastModified);
+			result = 31 * result + Long.hashCode(ifdOffset);
+			return 31 * result + Long.hashCode(tileIndex);
+		}
+	}
+}
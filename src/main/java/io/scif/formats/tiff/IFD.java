@@ -34,14 +34,34 @@ import io.scif.util.FormatTools;
 
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import org.scijava.log.LogService;
 import org.scijava.util.DebugUtils;
 
 /**
  * Data structure for working with TIFF Image File Directories (IFDs).
+ * <p>
+ * Although an IFD is a {@link HashMap}, its directory entries are not kept in
+ * hash map nodes: tags are stored in a sorted {@code int} array, and numeric
+ * and boolean values are stored unboxed, so that files with very many IFDs do
+ * not fill the heap with boxed tags and values. Scalar values are boxed again
+ * on retrieval through the {@link Map} API; the typed accessors such as
+ * {@link #getIFDLongValue(int, long)} avoid this. Iteration follows ascending
+ * tag order.
+ * </p>
  *
  * @author Curtis Rueden
  * @author Eric Kjellman
@@ -321,10 +341,43 @@ public class IFD extends HashMap<Integer, Object> {
 
 	public static final int SUBJECT_DISTANCE_RANGE = 41996;
 
+	// value types of the directory entries
+	private static final byte OBJECT = 0, INT = 1, LONG = 2, SHORT = 3,
+			BYTE = 4, DOUBLE = 5, FLOAT = 6, BOOLEAN = 7;
+
+	private static final int[] NO_TAGS = {};
+
 	// -- Fields --
 
 	private final LogService log;
 
+	/** Offset of this IFD within its source file, or -1 if unknown. */
+	private long offset = -1;
+
+	/** Tags of the directory entries, in ascending order. */
+	private int[] tags = NO_TAGS;
+
+	/** Value type of each directory entry. */
+	private byte[] types;
+
+	/** Raw bits of the primitive values. */
+	private long[] prims;
+
+	/** Object values; null for entries with primitive values. */
+	private Object[] refs;
+
+	private int size;
+
+	private int modCount;
+
+	/** Cached results of {@link #getStripOffsets()}. */
+	private long[] stripOffsets;
+
+	/** Cached results of {@link #getStripByteCounts()}. */
+	private long[] stripByteCounts;
+
+	private Set<Map.Entry<Integer, Object>> entrySet;
+
 	// -- Constructors --
 
 	public IFD(final LogService log) {
@@ -333,8 +386,30 @@ public class IFD extends HashMap<Integer, Object> {
 	}
 
 	public IFD(final IFD ifd, final LogService log) {
-		super(ifd);
+		super();
 		this.log = log;
+		size = ifd.size;
+		if (size > 0) {
+			tags = Arrays.copyOf(ifd.tags, size);
+			types = Arrays.copyOf(ifd.types, size);
+			prims = Arrays.copyOf(ifd.prims, size);
+			refs = Arrays.copyOf(ifd.refs, size);
+		}
+	}
+
+	// -- IFD methods --
+
+	/**
+	 * Gets the offset at which this IFD was parsed from its source file. IFDs
+	 * which were built or copied in memory report -1.
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	/** Sets the offset at which this IFD was parsed from its source file. */
+	public void setOffset(final long offset) {
+		this.offset = offset;
 	}
 
 	// -- Tag retrieval methods --
@@ -351,7 +426,8 @@ public class IFD extends HashMap<Integer, Object> {
 
 	/** Gets the given directory entry value from this IFD. */
 	public Object getIFDValue(final int tag) {
-		return get(new Integer(tag));
+		final int i = find(tag);
+		return i < 0 ? null : value(i);
 	}
 
 	/**
@@ -361,7 +437,7 @@ public class IFD extends HashMap<Integer, Object> {
 	public Object getIFDValue(final int tag, final Class<?> checkClass)
 		throws FormatException
 	{
-		Object value = get(new Integer(tag));
+		Object value = getIFDValue(tag);
 		if (checkClass != null && value != null && !checkClass.isInstance(value)) {
 			// wrap object in array of length 1, if appropriate
 			final Class<?> cType = checkClass.getComponentType();
@@ -423,6 +499,10 @@ public class IFD extends HashMap<Integer, Object> {
 	public long getIFDLongValue(final int tag, final long defaultValue)
 		throws FormatException
 	{
+		final int i = find(tag);
+		if (i < 0) return defaultValue;
+		if (isNumeric(i)) return longValue(i);
+
 		long value = defaultValue;
 		final Number number = (Number) getIFDValue(tag, Number.class);
 		if (number != null) value = number.longValue();
@@ -449,6 +529,10 @@ public class IFD extends HashMap<Integer, Object> {
 	public int getIFDIntValue(final int tag, final int defaultValue)
 		throws FormatException
 	{
+		final int i = find(tag);
+		if (i < 0) return defaultValue;
+		if (isNumeric(i)) return (int) longValue(i);
+
 		int value = defaultValue;
 		final Number number = (Number) getIFDValue(tag, Number.class);
 		if (number != null) value = number.intValue();
@@ -654,9 +738,7 @@ public class IFD extends HashMap<Integer, Object> {
 	}
 
 	public boolean isTiled() {
-		final Object offsets = get(new Integer(STRIP_OFFSETS));
-		final Object tileWidth = get(new Integer(TILE_WIDTH));
-		return offsets == null && tileWidth != null;
+		return !hasValue(STRIP_OFFSETS) && hasValue(TILE_WIDTH);
 	}
 
 	/**
@@ -874,11 +956,18 @@ public class IFD extends HashMap<Integer, Object> {
 	 * @return the strip offsets for the image. The length of the array is equal
 	 *         to the number of strips per image. <i>StripsPerImage = floor
 	 *         ((ImageLength + RowsPerStrip - 1) / RowsPerStrip)</i>.
+	 *         The array is cached and shared between calls, and must not be
+	 *         modified.
 	 * @throws FormatException if there is a problem parsing the IFD metadata.
 	 * @see #getStripByteCounts()
 	 * @see #getRowsPerStrip()
 	 */
 	public long[] getStripOffsets() throws FormatException {
+		if (stripOffsets == null) stripOffsets = computeStripOffsets();
+		return stripOffsets;
+	}
+
+	private long[] computeStripOffsets() throws FormatException {
 		final int tag = isTiled() ? TILE_OFFSETS : STRIP_OFFSETS;
 		long[] offsets = null;
 		final OnDemandLongArray compressedOffsets = getOnDemandStripOffsets();
@@ -933,11 +1022,18 @@ public class IFD extends HashMap<Integer, Object> {
 	 *
 	 * @return the byte counts for each strip. The length of the array is equal to
 	 *         the number of strips per image. <i>StripsPerImage =
-	 *         floor((ImageLength + RowsPerStrip - 1) / RowsPerStrip)</i>.
+	 *         floor((ImageLength + RowsPerStrip - 1) / RowsPerStrip)</i>. The
+	 *         array is cached and shared between calls, and must not be
+	 *         modified.
 	 * @throws FormatException if there is a problem parsing the IFD metadata.
 	 * @see #getStripOffsets()
 	 */
 	public long[] getStripByteCounts() throws FormatException {
+		if (stripByteCounts == null) stripByteCounts = computeStripByteCounts();
+		return stripByteCounts;
+	}
+
+	private long[] computeStripByteCounts() throws FormatException {
 		final int tag = isTiled() ? TILE_BYTE_COUNTS : STRIP_BYTE_COUNTS;
 		long[] byteCounts = getIFDLongArray(tag);
 		if (isTiled() && byteCounts == null) {
@@ -967,16 +1063,17 @@ public class IFD extends HashMap<Integer, Object> {
 			Arrays.fill(byteCounts, count);
 		}
 
-		final long[] counts = new long[byteCounts.length];
+		long[] counts = byteCounts;
 
 		if (getCompression() == TiffCompression.LZW &&
-			(!containsKey(ROWS_PER_STRIP) || ((imageLength % getRowsPerStrip()[0])) != 0))
+			(find(ROWS_PER_STRIP) < 0 ||
+				((imageLength % getRowsPerStrip()[0])) != 0))
 		{
+			counts = new long[byteCounts.length];
 			for (int i = 0; i < byteCounts.length; i++) {
 				counts[i] = byteCounts[i] * 2;
 			}
 		}
-		else System.arraycopy(byteCounts, 0, counts, 0, counts.length);
 
 		if (isTiled()) return counts;
 
@@ -1092,22 +1189,281 @@ public class IFD extends HashMap<Integer, Object> {
 
 	/** Adds a directory entry to this IFD. */
 	public void putIFDValue(final int tag, final Object value) {
-		put(new Integer(tag), value);
+		store(insert(tag), value);
 	}
 
 	/** Adds a directory entry of type BYTE to this IFD. */
 	public void putIFDValue(final int tag, final short value) {
-		putIFDValue(tag, new Short(value));
+		storePrimitive(insert(tag), SHORT, value);
 	}
 
 	/** Adds a directory entry of type SHORT to this IFD. */
 	public void putIFDValue(final int tag, final int value) {
-		putIFDValue(tag, new Integer(value));
+		storePrimitive(insert(tag), INT, value);
 	}
 
 	/** Adds a directory entry of type LONG to this IFD. */
 	public void putIFDValue(final int tag, final long value) {
-		putIFDValue(tag, new Long(value));
+		storePrimitive(insert(tag), LONG, value);
+	}
+
+	// -- Map API methods --
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean containsKey(final Object key) {
+		return key instanceof Integer && find((Integer) key) >= 0;
+	}
+
+	@Override
+	public boolean containsValue(final Object value) {
+		for (int i = 0; i < size; i++) {
+			final Object v = value(i);
+			if (value == null ? v == null : value.equals(v)) return true;
+		}
+		return false;
+	}
+
+	@Override
+	public Object get(final Object key) {
+		return key instanceof Integer ? getIFDValue((Integer) key) : null;
+	}
+
+	@Override
+	public Object getOrDefault(final Object key, final Object defaultValue) {
+		if (!(key instanceof Integer)) return defaultValue;
+		final int i = find((Integer) key);
+		return i < 0 ? defaultValue : value(i);
+	}
+
+	@Override
+	public Object put(final Integer key, final Object value) {
+		final int tag = key;
+		final int i = find(tag);
+		final Object previous = i < 0 ? null : value(i);
+		store(i < 0 ? insert(tag) : i, value);
+		return previous;
+	}
+
+	@Override
+	public void putAll(final Map<? extends Integer, ? extends Object> m) {
+		for (final Map.Entry<? extends Integer, ? extends Object> e : m
+			.entrySet())
+		{
+			put(e.getKey(), e.getValue());
+		}
+	}
+
+	@Override
+	public Object putIfAbsent(final Integer key, final Object value) {
+		final Object v = get(key);
+		return v == null ? put(key, value) : v;
+	}
+
+	@Override
+	public Object remove(final Object key) {
+		if (!(key instanceof Integer)) return null;
+		final int i = find((Integer) key);
+		if (i < 0) return null;
+		final Object previous = value(i);
+		removeAt(i);
+		return previous;
+	}
+
+	@Override
+	public boolean remove(final Object key, final Object value) {
+		if (!containsKey(key)) return false;
+		final Object v = get(key);
+		if (value == null ? v != null : !value.equals(v)) return false;
+		remove(key);
+		return true;
+	}
+
+	@Override
+	public boolean replace(final Integer key, final Object oldValue,
+		final Object newValue)
+	{
+		if (!containsKey(key)) return false;
+		final Object v = get(key);
+		if (oldValue == null ? v != null : !oldValue.equals(v)) return false;
+		put(key, newValue);
+		return true;
+	}
+
+	@Override
+	public Object replace(final Integer key, final Object value) {
+		return containsKey(key) ? put(key, value) : null;
+	}
+
+	@Override
+	public Object computeIfAbsent(final Integer key,
+		final Function<? super Integer, ? extends Object> mappingFunction)
+	{
+		Object v = get(key);
+		if (v == null) {
+			v = mappingFunction.apply(key);
+			if (v != null) put(key, v);
+		}
+		return v;
+	}
+
+	@Override
+	public Object computeIfPresent(final Integer key,
+		final BiFunction<? super Integer, ? super Object, ? extends Object> f)
+	{
+		final Object old = get(key);
+		if (old == null) return null;
+		final Object v = f.apply(key, old);
+		if (v == null) remove(key);
+		else put(key, v);
+		return v;
+	}
+
+	@Override
+	public Object compute(final Integer key,
+		final BiFunction<? super Integer, ? super Object, ? extends Object> f)
+	{
+		final Object v = f.apply(key, get(key));
+		if (v == null) remove(key);
+		else put(key, v);
+		return v;
+	}
+
+	@Override
+	public Object merge(final Integer key, final Object value,
+		final BiFunction<? super Object, ? super Object, ? extends Object> f)
+	{
+		final Object old = get(key);
+		final Object v = old == null ? value : f.apply(old, value);
+		if (v == null) remove(key);
+		else put(key, v);
+		return v;
+	}
+
+	@Override
+	public void forEach(
+		final BiConsumer<? super Integer, ? super Object> action)
+	{
+		final int expected = modCount;
+		for (int i = 0; i < size; i++) {
+			action.accept(tags[i], value(i));
+			if (modCount != expected) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	@Override
+	public void replaceAll(
+		final BiFunction<? super Integer, ? super Object, ? extends Object> f)
+	{
+		for (int i = 0; i < size; i++)
+			store(i, f.apply(tags[i], value(i)));
+	}
+
+	@Override
+	public void clear() {
+		if (size > 0) Arrays.fill(refs, 0, size, null);
+		size = 0;
+		modCount++;
+		modified();
+	}
+
+	@Override
+	public Set<Integer> keySet() {
+		return new AbstractSet<Integer>() {
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new EntryIterator<Integer>() {
+
+					@Override
+					protected Integer get(final int i) {
+						return tags[i];
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+
+			@Override
+			public boolean contains(final Object o) {
+				return containsKey(o);
+			}
+		};
+	}
+
+	@Override
+	public Collection<Object> values() {
+		return new AbstractCollection<Object>() {
+
+			@Override
+			public Iterator<Object> iterator() {
+				return new EntryIterator<Object>() {
+
+					@Override
+					protected Object get(final int i) {
+						return value(i);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	@Override
+	public Set<Map.Entry<Integer, Object>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<Integer, Object>>() {
+
+				@Override
+				public Iterator<Map.Entry<Integer, Object>> iterator() {
+					return new EntryIterator<Map.Entry<Integer, Object>>() {
+
+						@Override
+						protected Map.Entry<Integer, Object> get(final int i) {
+							return new Entry(tags[i]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					IFD.this.clear();
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	// -- Object API methods --
+
+	@Override
+	public Object clone() {
+		final IFD ifd = new IFD(this, log);
+		ifd.setOffset(offset);
+		return ifd;
 	}
 
 	// -- Debugging --
@@ -1160,4 +1516,222 @@ public class IFD extends HashMap<Integer, Object> {
 		return DebugUtils.getFieldName(IFD.class, value);
 	}
 
+	// -- Helper methods --
+
+	/** @return The index of the given tag, or -1 if not present. */
+	private int find(final int tag) {
+		// entries are usually added in ascending tag order
+		if (size > 0 && tags[size - 1] == tag) return size - 1;
+		final int i = Arrays.binarySearch(tags, 0, size, tag);
+		return i < 0 ? -1 : i;
+	}
+
+	/** @return Whether a non-null value is stored for the given tag. */
+	private boolean hasValue(final int tag) {
+		final int i = find(tag);
+		return i >= 0 && (types[i] != OBJECT || refs[i] != null);
+	}
+
+	/**
+	 * @return The index of the entry for the given tag, adding an empty entry
+	 *         if needed.
+	 */
+	private int insert(final int tag) {
+		if (size > 0 && tags[size - 1] < tag) return append(tag);
+		int i = Arrays.binarySearch(tags, 0, size, tag);
+		if (i >= 0) return i;
+		i = -i - 1;
+		append(tag);
+		final int n = size - 1 - i;
+		System.arraycopy(tags, i, tags, i + 1, n);
+		System.arraycopy(types, i, types, i + 1, n);
+		System.arraycopy(prims, i, prims, i + 1, n);
+		System.arraycopy(refs, i, refs, i + 1, n);
+		tags[i] = tag;
+		return i;
+	}
+
+	private int append(final int tag) {
+		if (size == tags.length) {
+			final int capacity = Math.max(16, size + (size >> 1));
+			tags = Arrays.copyOf(tags, capacity);
+			types = types == null ? new byte[capacity] : Arrays.copyOf(types,
+				capacity);
+			prims = prims == null ? new long[capacity] : Arrays.copyOf(prims,
+				capacity);
+			refs = refs == null ? new Object[capacity] : Arrays.copyOf(refs,
+				capacity);
+		}
+		tags[size] = tag;
+		types[size] = OBJECT;
+		refs[size] = null;
+		modCount++;
+		return size++;
+	}
+
+	private void removeAt(final int i) {
+		final int n = size - 1 - i;
+		System.arraycopy(tags, i + 1, tags, i, n);
+		System.arraycopy(types, i + 1, types, i, n);
+		System.arraycopy(prims, i + 1, prims, i, n);
+		System.arraycopy(refs, i + 1, refs, i, n);
+		refs[--size] = null;
+		modCount++;
+		modified();
+	}
+
+	/** Stores the given value as the value of entry {@code i}. */
+	private void store(final int i, final Object value) {
+		if (value instanceof Integer) storePrimitive(i, INT, (Integer) value);
+		else if (value instanceof Long) storePrimitive(i, LONG, (Long) value);
+		else if (value instanceof Short) storePrimitive(i, SHORT, (Short) value);
+		else if (value instanceof Byte) storePrimitive(i, BYTE, (Byte) value);
+		else if (value instanceof Double) {
+			final long bits = Double.doubleToRawLongBits((Double) value);
+			storePrimitive(i, DOUBLE, bits);
+		}
+		else if (value instanceof Float) {
+			storePrimitive(i, FLOAT, Float.floatToRawIntBits((Float) value));
+		}
+		else if (value instanceof Boolean) {
+			storePrimitive(i, BOOLEAN, (Boolean) value ? 1 : 0);
+		}
+		else {
+			types[i] = OBJECT;
+			refs[i] = value;
+			modified();
+		}
+	}
+
+	private void storePrimitive(final int i, final byte type, final long bits) {
+		types[i] = type;
+		prims[i] = bits;
+		refs[i] = null;
+		modified();
+	}
+
+	/** @return Whether entry {@code i} holds an integral number. */
+	private boolean isNumeric(final int i) {
+		final byte type = types[i];
+		return type == INT || type == LONG || type == SHORT || type == BYTE;
+	}
+
+	/** @return The value of entry {@code i}, which must be integral. */
+	private long longValue(final int i) {
+		return prims[i];
+	}
+
+	/** Boxes the value of entry {@code i}. */
+	private Object value(final int i) {
+		final long bits = prims[i];
+		switch (types[i]) {
+			case INT:
+				return (int) bits;
+			case LONG:
+				return bits;
+			case SHORT:
+				return (short) bits;
+			case BYTE:
+				return (byte) bits;
+			case DOUBLE:
+				return Double.longBitsToDouble(bits);
+			case FLOAT:
+				return Float.intBitsToFloat((int) bits);
+			case BOOLEAN:
+				return bits != 0;
+			default:
+				return refs[i];
+		}
+	}
+
+	/** Discards the values derived from the directory entries. */
+	private void modified() {
+		stripOffsets = null;
+		stripByteCounts = null;
+	}
+
+	// -- Helper classes --
+
+	private abstract class EntryIterator<T> implements Iterator<T> {
+
+		private int next;
+
+		private int current = -1;
+
+		private int expectedModCount = modCount;
+
+		protected abstract T get(int i);
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size) throw new NoSuchElementException();
+			current = next++;
+			return get(current);
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0) throw new IllegalStateException();
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			removeAt(current);
+			next = current;
+			current = -1;
+			expectedModCount = modCount;
+		}
+	}
+
+	private class Entry implements Map.Entry<Integer, Object> {
+
+		private final Integer tag;
+
+		private Entry(final int tag) {
+			this.tag = tag;
+		}
+
+		@Override
+		public Integer getKey() {
+			return tag;
+		}
+
+		@Override
+		public Object getValue() {
+			return getIFDValue(tag);
+		}
+
+		@Override
+		public Object setValue(final Object value) {
+			return put(tag, value);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Map.Entry)) return false;
+			final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+			final Object value = getValue();
+			return tag.equals(e.getKey()) && //
+				(value == null ? e.getValue() == null : value.equals(e.getValue()));
+		}
+
+		@Override
+		public int hashCode() {
+			final Object value = getValue();
+			return tag.hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return tag + "=" + getValue();
+		}
+	}
+
 }
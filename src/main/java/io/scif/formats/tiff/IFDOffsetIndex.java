@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats.tiff;
+
+import io.scif.io.SidecarFile;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Persists the IFD offsets of a TIFF file in a {@link SidecarFile}, so that
+ * reopening a file with many pages does not have to walk its whole IFD chain.
+ * Alongside each offset, the sidecar keeps a few flags summarizing the tags of
+ * the IFD, which tell the format parser whether it can list the pages lazily.
+ */
+final class IFDOffsetIndex {
+
+	// -- Constants --
+
+	/** Suffix appended to the TIFF file name to name its sidecar. */
+	static final String SUFFIX = ".ifdx";
+
+	/** Flag of IFDs whose NewSubfileType marks them as thumbnails. */
+	static final byte THUMBNAIL = 1;
+
+	/**
+	 * Flag of IFDs which only {@link TiffParser#getIFDs()} lists correctly:
+	 * those without an image width, with SubIFDs, or compressed with JPEG 2000.
+	 */
+	static final byte IRREGULAR = 2;
+
+	/** Sidecar magic number, "IFDX". */
+	private static final int MAGIC = 0x49464458;
+
+	private static final int VERSION = 2;
+
+	private static final SidecarFile SIDECAR = new SidecarFile(SUFFIX, MAGIC,
+		VERSION);
+
+	// -- Fields --
+
+	/** Offset of each IFD in the main IFD chain. */
+	final long[] offsets;
+
+	/** {@link #THUMBNAIL} and {@link #IRREGULAR} flags of each IFD. */
+	final byte[] flags;
+
+	// -- Constructor --
+
+	IFDOffsetIndex(final long[] offsets, final byte[] flags) {
+		this.offsets = offsets;
+		this.flags = flags;
+	}
+
+	// -- IFDOffsetIndex methods --
+
+	/** Returns whether any IFD has all of the given flags. */
+	boolean any(final byte flag) {
+		for (final byte f : flags) {
+			if ((f & flag) == flag) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the offsets of the IFDs which do, or do not, have the given flag.
+	 */
+	long[] select(final byte flag, final boolean set) {
+		int count = 0;
+		for (final byte f : flags) {
+			if (((f & flag) != 0) == set) count++;
+		}
+		final long[] selected = new long[count];
+		for (int i = 0, n = 0; i < flags.length; i++) {
+			if (((flags[i] & flag) != 0) == set) selected[n++] = offsets[i];
+		}
+		return selected;
+	}
+
+	/** Writes this index to the sidecar of the given TIFF file. */
+	void write(final File tiff) throws IOException {
+		SIDECAR.write(tiff, out -> {
+			out.writeInt(offsets.length);
+			for (final long offset : offsets) {
+				out.writeLong(offset);
+			}
+			out.write(flags);
+		});
+	}
+
+	// -- Utility methods --
+
+	/**
+	 * Reads the IFD index of the given TIFF file from its sidecar.
+	 *
+	 * @return The index, or null if there is no valid, up-to-date sidecar.
+	 */
+	static IFDOffsetIndex read(final File tiff) throws IOException {
+		try (final DataInputStream in = SIDECAR.open(tiff)) {
+			if (in == null) return null;
+			final int count = in.readInt();
+			final long size = SIDECAR.getFile(tiff).length();
+			if (count < 0 || size != SidecarFile.HEADER_LENGTH + 4 + 9L * count) {
+				return null;
+			}
+			final long[] offsets = new long[count];
+			for (int i = 0; i < count; i++) {
+				offsets[i] = in.readLong();
+			}
+			final byte[] flags = new byte[count];
+			in.readFully(flags);
+			return new IFDOffsetIndex(offsets, flags);
+		}
+	}
+}
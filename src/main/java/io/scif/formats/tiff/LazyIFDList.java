@@ -0,0 +1,306 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats.tiff;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@link IFDList} that initially only knows the offsets of its IFDs, and
+ * parses and fills in each IFD from its {@link TiffParser} the first time it
+ * is accessed.
+ * This keeps listing the pages of huge multi-page files cheap when only a few
+ * of them are actually used.
+ * <p>
+ * {@link #get}, {@link #size} and iteration are lazy. Any other operation first
+ * parses all remaining IFDs, after which the list behaves like a plain
+ * {@link IFDList}. Iterators over a partially parsed list do not support
+ * modification. An IFD that fails to parse is listed as {@code null}.
+ * </p>
+ * <p>
+ * IFDs are parsed while holding the lock of the {@link TiffParser}, so that
+ * concurrent accesses do not move its stream under each other.
+ * </p>
+ *
+ * @see TiffParser#getLazyIFDs()
+ * @see TiffParser#getLazyNonThumbnailIFDs()
+ */
+public class LazyIFDList extends IFDList {
+
+	// -- Fields --
+
+	/** Parser to read IFDs from. */
+	private final TiffParser parser;
+
+	/** Offsets of the IFDs, or null once all of them have been parsed. */
+	private volatile long[] offsets;
+
+	/** Read-only view parsing IFDs as they are reached. */
+	private final List<IFD> view = new AbstractList<IFD>() {
+
+		@Override
+		public IFD get(final int index) {
+			return LazyIFDList.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return LazyIFDList.this.size();
+		}
+	};
+
+	// -- Constructor --
+
+	/**
+	 * Creates a list of the IFDs at the given offsets.
+	 *
+	 * @param parser Parser whose stream contains the IFDs.
+	 * @param offsets Offset of each IFD within the stream.
+	 */
+	public LazyIFDList(final TiffParser parser, final long[] offsets) {
+		this.parser = parser;
+		this.offsets = offsets;
+		ensureCapacity(offsets.length);
+		for (int i = 0; i < offsets.length; i++) {
+			super.add(null);
+		}
+	}
+
+	// -- LazyIFDList methods --
+
+	/** Returns whether the IFD at the given index has already been parsed. */
+	public boolean isParsed(final int index) {
+		return offsets == null || super.get(index) != null;
+	}
+
+	/** Parses every IFD that has not been accessed yet. */
+	public void parseAll() {
+		if (offsets == null) return;
+		synchronized (parser) {
+			for (int i = 0; i < size(); i++) {
+				get(i);
+			}
+			offsets = null;
+		}
+	}
+
+	// -- List methods --
+
+	@Override
+	public IFD get(final int index) {
+		if (offsets == null) return super.get(index);
+		synchronized (parser) {
+			IFD ifd = super.get(index);
+			final long[] unparsed = offsets;
+			if (ifd == null && unparsed != null) {
+				try {
+					ifd = parser.getIFD(unparsed[index]);
+					if (ifd != null) parser.fillInIFD(ifd);
+				}
+				catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				super.set(index, ifd);
+			}
+			return ifd;
+		}
+	}
+
+	@Override
+	public Iterator<IFD> iterator() {
+		return offsets == null ? super.iterator() : view.iterator();
+	}
+
+	@Override
+	public ListIterator<IFD> listIterator() {
+		return offsets == null ? super.listIterator() : view.listIterator();
+	}
+
+	@Override
+	public ListIterator<IFD> listIterator(final int index) {
+		return offsets == null ? super.listIterator(index) : view.listIterator(
+			index);
+	}
+
+	@Override
+	public void forEach(final Consumer<? super IFD> action) {
+		parseAll();
+		super.forEach(action);
+	}
+
+	@Override
+	public Spliterator<IFD> spliterator() {
+		parseAll();
+		return super.spliterator();
+	}
+
+	@Override
+	public Object[] toArray() {
+		parseAll();
+		return super.toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(final T[] a) {
+		parseAll();
+		return super.toArray(a);
+	}
+
+	@Override
+	public int indexOf(final Object o) {
+		parseAll();
+		return super.indexOf(o);
+	}
+
+	@Override
+	public int lastIndexOf(final Object o) {
+		parseAll();
+		return super.lastIndexOf(o);
+	}
+
+	@Override
+	public boolean contains(final Object o) {
+		parseAll();
+		return super.contains(o);
+	}
+
+	@Override
+	public List<IFD> subList(final int fromIndex, final int toIndex) {
+		parseAll();
+		return super.subList(fromIndex, toIndex);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		parseAll();
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		parseAll();
+		return super.hashCode();
+	}
+
+	@Override
+	public Object clone() {
+		parseAll();
+		return super.clone();
+	}
+
+	@Override
+	public IFD set(final int index, final IFD element) {
+		final IFD previous = get(index);
+		super.set(index, element);
+		return previous;
+	}
+
+	@Override
+	public boolean add(final IFD e) {
+		parseAll();
+		return super.add(e);
+	}
+
+	@Override
+	public void add(final int index, final IFD element) {
+		parseAll();
+		super.add(index, element);
+	}
+
+	@Override
+	public IFD remove(final int index) {
+		parseAll();
+		return super.remove(index);
+	}
+
+	@Override
+	public boolean remove(final Object o) {
+		parseAll();
+		return super.remove(o);
+	}
+
+	@Override
+	public void clear() {
+		offsets = null;
+		super.clear();
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends IFD> c) {
+		parseAll();
+		return super.addAll(c);
+	}
+
+	@Override
+	public boolean addAll(final int index, final Collection<? extends IFD> c) {
+		parseAll();
+		return super.addAll(index, c);
+	}
+
+	@Override
+	public boolean removeAll(final Collection<?> c) {
+		parseAll();
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(final Collection<?> c) {
+		parseAll();
+		return super.retainAll(c);
+	}
+
+	@Override
+	public boolean removeIf(final Predicate<? super IFD> filter) {
+		parseAll();
+		return super.removeIf(filter);
+	}
+
+	@Override
+	public void replaceAll(final UnaryOperator<IFD> operator) {
+		parseAll();
+		super.replaceAll(operator);
+	}
+
+	@Override
+	public void sort(final Comparator<? super IFD> c) {
+		parseAll();
+		super.sort(c);
+	}
+}
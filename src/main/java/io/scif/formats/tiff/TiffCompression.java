@@ -272,6 +272,27 @@ public enum TiffCompression implements CodedEnum {
 		return codec.decompress(input, options);
 	}
 
+	/**
+	 * Decodes a strip of data into the given region of {@code output}, so that
+	 * the caller's buffer is filled directly instead of a new array being
+	 * allocated for the decoded strip.
+	 *
+	 * @return The number of bytes decoded, at most {@code length}.
+	 * @see Codec#decompress(byte[], byte[], int, int, CodecOptions)
+	 */
+	public int decompress(final CodecService codecService, final byte[] input,
+		final byte[] output, final int offset, final int length,
+		final CodecOptions options) throws FormatException
+	{
+		if (codecClass == null) {
+			throw new UnsupportedCompressionException("Sorry, " + getCodecName() +
+				" compression mode is not supported");
+		}
+
+		final Codec codec = codecService.getCodec(codecClass);
+		return codec.decompress(input, output, offset, length, options);
+	}
+
 	// -- TiffCompression methods - compression --
 
 	/**
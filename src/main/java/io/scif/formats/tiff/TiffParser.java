@@ -33,13 +33,26 @@ import io.scif.FormatException;
 import io.scif.SCIFIO;
 import io.scif.codec.BitBuffer;
 import io.scif.codec.CodecOptions;
+import io.scif.codec.JPEG2000CodecOptions;
 import io.scif.common.Constants;
 import io.scif.enumeration.EnumException;
 import io.scif.io.RandomAccessInputStream;
+import io.scif.io.ReadRange;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import org.scijava.AbstractContextual;
 import org.scijava.Context;
@@ -90,6 +103,36 @@ public class TiffParser extends AbstractContextual {
 	/** Codec options to be used when decoding compressed pixel data. */
 	private CodecOptions codecOptions = CodecOptions.getDefaultOptions();
 
+	/** Maximum number of threads used to decode the tiles of one plane. */
+	private int decodeThreads = 1;
+
+	/** Lazily created pool on which tiles are decoded in parallel. */
+	private ForkJoinPool decodePool;
+
+	/** Shared cache of decoded tiles, or null if tile caching is disabled. */
+	private TiffTileCacheService tileCache;
+
+	/** Whether IFD offsets are persisted in a sidecar file. */
+	private boolean ifdIndexing;
+
+	/** Summary of the main IFD chain, from which the lazy IFD lists are made. */
+	private IFDOffsetIndex ifdIndex;
+
+	/** Prefetched runs of raw pixel data, keyed by their file offsets. */
+	private final NavigableMap<Long, byte[]> prefetched = new TreeMap<>();
+
+	/**
+	 * Offsets of the strips read ahead by the current {@link #getSamples} call,
+	 * which are stored in {@link #prefetched} until the call completes.
+	 */
+	private final List<Long> pendingStrips = new ArrayList<>();
+
+	/** Maximum number of bytes of strips read ahead by one getSamples call. */
+	private static final int MAX_PREFETCH_RUN = 64 * 1024 * 1024;
+
+	/** Maximum number of bytes prefetched in total. */
+	private static final long MAX_PREFETCH = 256L * 1024 * 1024;
+
 	// -- Constructors --
 
 	/** Constructs a new TIFF parser from the given file name. */
@@ -144,6 +187,72 @@ public class TiffParser extends AbstractContextual {
 		return codecOptions;
 	}
 
+	/**
+	 * Sets the maximum number of threads used to decompress the tiles of a
+	 * single plane in {@link #getSamples}. Compressed tiles are always read
+	 * sequentially from the input source; only decompression and unpacking are
+	 * spread across threads.
+	 *
+	 * @param decodeThreads Number of decoding threads; 1 (the default) decodes
+	 *          every tile on the calling thread.
+	 */
+	public void setDecodeThreads(final int decodeThreads) {
+		if (decodeThreads == this.decodeThreads) return;
+		this.decodeThreads = decodeThreads;
+		if (decodePool != null) {
+			decodePool.shutdown();
+			decodePool = null;
+		}
+	}
+
+	/** Gets the maximum number of threads used to decompress tiles. */
+	public int getDecodeThreads() {
+		return decodeThreads;
+	}
+
+	/**
+	 * Releases the tile decoding threads. The input stream is left open, since
+	 * it is usually shared with the reader which created this parser.
+	 */
+	public synchronized void close() {
+		if (decodePool != null) {
+			decodePool.shutdown();
+			decodePool = null;
+		}
+	}
+
+	/**
+	 * Sets whether or not decoded tiles are kept in the context's
+	 * {@link TiffTileCacheService}, so that overlapping reads of the same tiles
+	 * are only decompressed once.
+	 */
+	public void setTileCaching(final boolean tileCaching) {
+		tileCache =
+			tileCaching ? getContext().getService(TiffTileCacheService.class) : null;
+	}
+
+	/** Gets whether or not decoded tiles are cached. */
+	public boolean isTileCaching() {
+		return tileCache != null;
+	}
+
+	/**
+	 * Sets whether or not the IFD offsets of the current file are kept in a
+	 * sidecar file next to it (the file name plus {@code .ifdx}). When enabled,
+	 * {@link #getIFDOffsets()} reads the offsets from an up-to-date sidecar
+	 * instead of walking the IFD chain, and writes the sidecar otherwise. Has
+	 * no effect on sources that are not plain files, and sidecars that can not
+	 * be written are silently skipped.
+	 */
+	public void setIFDIndexing(final boolean ifdIndexing) {
+		this.ifdIndexing = ifdIndexing;
+	}
+
+	/** Gets whether or not IFD offsets are kept in a sidecar file. */
+	public boolean isIFDIndexing() {
+		return ifdIndexing;
+	}
+
 	/** Sets whether or not IFD entries should be cached. */
 	public void setDoCaching(final boolean doCaching) {
 		this.doCaching = doCaching;
@@ -245,6 +354,38 @@ public class TiffParser extends AbstractContextual {
 		return ifds;
 	}
 
+	/**
+	 * Returns a list of the IFDs in the main IFD chain of the file, each of
+	 * which is only parsed when first accessed. Unlike {@link #getIFDs()}, the
+	 * list does not include SubIFDs, and does not skip IFDs without an image
+	 * width.
+	 */
+	public LazyIFDList getLazyIFDs() throws IOException {
+		return new LazyIFDList(this, getIFDOffsets());
+	}
+
+	/**
+	 * Returns the non-thumbnail IFDs, as {@link #getNonThumbnailIFDs()} lists
+	 * them, but parses and fills in each IFD only when it is first accessed.
+	 * Only the tag directory of each IFD is read up front, or nothing at all
+	 * with an up-to-date IFD offset index.
+	 *
+	 * @return The IFDs, or null if some IFD lacks an image width, has SubIFDs or
+	 *         is compressed with JPEG 2000, since those need
+	 *         {@link #getNonThumbnailIFDs()}.
+	 */
+	public LazyIFDList getLazyNonThumbnailIFDs() throws IOException {
+		return getLazyIFDs(false);
+	}
+
+	/**
+	 * Returns the thumbnail IFDs lazily, in the same way as
+	 * {@link #getLazyNonThumbnailIFDs()}.
+	 */
+	public LazyIFDList getLazyThumbnailIFDs() throws IOException {
+		return getLazyIFDs(true);
+	}
+
 	/** Returns thumbnail IFDs. */
 	public IFDList getThumbnailIFDs() throws IOException {
 		final IFDList ifds = getIFDs();
@@ -291,28 +432,7 @@ public class TiffParser extends AbstractContextual {
 
 	/** Gets the offsets to every IFD in the file. */
 	public long[] getIFDOffsets() throws IOException {
-		// check TIFF header
-		final int bytesPerEntry =
-			bigTiff ? TiffConstants.BIG_TIFF_BYTES_PER_ENTRY
-				: TiffConstants.BYTES_PER_ENTRY;
-
-		final Vector<Long> offsets = new Vector<>();
-		long offset = getFirstOffset();
-		while (offset > 0 && offset < in.length()) {
-			in.seek(offset);
-			offsets.add(offset);
-			final int nEntries =
-				bigTiff ? (int) in.readLong() : in.readUnsignedShort();
-			in.skipBytes(nEntries * bytesPerEntry);
-			offset = getNextOffset(offset);
-		}
-
-		final long[] f = new long[offsets.size()];
-		for (int i = 0; i < f.length; i++) {
-			f[i] = offsets.get(i).longValue();
-		}
-
-		return f;
+		return readIFDIndex().offsets;
 	}
 
 	/**
@@ -374,6 +494,7 @@ public class TiffParser extends AbstractContextual {
 	public IFD getIFD(final long offset) throws IOException {
 		if (offset < 0 || offset >= in.length()) return null;
 		final IFD ifd = new IFD(log);
+		ifd.setOffset(offset);
 
 		// save little-endian flag to internal LITTLE_ENDIAN tag
 		ifd.put(new Integer(IFD.LITTLE_ENDIAN), Boolean.valueOf(in.isLittleEndian()));
@@ -432,8 +553,8 @@ public class TiffParser extends AbstractContextual {
 			}
 			else value = getIFDValue(entry);
 
-			if (value != null && !ifd.containsKey(new Integer(tag))) {
-				ifd.put(new Integer(tag), value);
+			if (value != null && !ifd.containsKey(tag)) {
+				ifd.putIFDValue(tag, value);
 			}
 		}
 
@@ -453,7 +574,7 @@ public class TiffParser extends AbstractContextual {
 
 		for (final TiffIFDEntry entry : entries) {
 			if (entry.getValueCount() < 10 * 1024 * 1024 || entry.getTag() < 32768) {
-				ifd.put(new Integer(entry.getTag()), getIFDValue(entry));
+				ifd.putIFDValue(entry.getTag(), getIFDValue(entry));
 			}
 		}
 	}
@@ -630,25 +751,116 @@ public class TiffParser extends AbstractContextual {
 
 	// -- TiffParser methods - image reading --
 
+	/**
+	 * Reads the raw strips of the given IFDs into memory ahead of the
+	 * {@link #getSamples} calls for them, with a single vectored read which
+	 * coalesces the reads of strips lying next to each other on disk, or nearly
+	 * so (see {@link ReadRange#coalesce}). Tiled IFDs are skipped, since regions
+	 * of them are usually read tile by tile. Prefetched data is kept until
+	 * {@link #clearPrefetched()} is called.
+	 */
+	public void prefetch(final List<IFD> ifds) throws FormatException,
+		IOException
+	{
+		final List<long[]> strips = new ArrayList<>();
+		for (final IFD ifd : ifds) {
+			if (ifd.isTiled()) continue;
+			final long[] offsets = ifd.getStripOffsets();
+			final long[] byteCounts = ifd.getStripByteCounts();
+			if (offsets == null || byteCounts == null) continue;
+			for (int i = 0; i < offsets.length; i++) {
+				final long count = equalStrips ? byteCounts[0] //
+					: i < byteCounts.length ? byteCounts[i] : 0;
+				if (count > 0) strips.add(new long[] { offsets[i], count });
+			}
+		}
+		strips.sort((a, b) -> Long.compare(a[0], b[0]));
+
+		final long length = in.length();
+		final List<ReadRange> ranges = new ArrayList<>();
+		long total = 0;
+		long previous = -1;
+		for (final long[] strip : strips) {
+			if (total >= MAX_PREFETCH) break;
+			final long count = Math.min(strip[1], length - strip[0]);
+			if (strip[0] == previous || count <= 0 || count > Integer.MAX_VALUE ||
+				prefetched.containsKey(strip[0]))
+			{
+				continue;
+			}
+			previous = strip[0];
+			ranges.add(new ReadRange(strip[0], (int) count, new byte[(int) count],
+				0));
+			total += count;
+		}
+		if (ranges.isEmpty()) return;
+		in.readRanges(ranges);
+		for (final ReadRange range : ranges) {
+			prefetched.put(range.getOffset(), range.getDest());
+		}
+	}
+
+	/** Discards the data read by {@link #prefetch(List)}. */
+	public void clearPrefetched() {
+		prefetched.clear();
+		pendingStrips.clear();
+	}
+
 	public byte[]
 		getTile(final IFD ifd, byte[] buf, final int row, final int col)
 			throws FormatException, IOException
 	{
-		final byte[] jpegTable = (byte[]) ifd.getIFDValue(IFD.JPEG_TABLES);
+		if (buf == null) buf = new byte[getTileSize(ifd)];
+		final String id = getCacheId(ifd);
+		final long tileIndex = row * ifd.getTilesPerRow() + col;
+		if (id != null && tileCache.get(id, ifd.getOffset(), tileIndex, buf)) {
+			return buf;
+		}
+		final byte[] tile = readTile(ifd, row, col);
+		if (tile == null) return buf;
+		decodeTile(ifd, tile, buf, row, codecOptions);
+		if (id != null) tileCache.put(id, ifd.getOffset(), tileIndex, buf);
+		return buf;
+	}
 
-		codecOptions.interleaved = true;
-		codecOptions.littleEndian = ifd.isLittleEndian();
+	/**
+	 * Gets the identifier under which tiles of the given IFD are cached, or null
+	 * if they should not be cached.
+	 */
+	private String getCacheId(final IFD ifd) {
+		if (tileCache == null || ifd.getOffset() < 0) return null;
+		return in.getFileName();
+	}
 
-		final long tileWidth = ifd.getTileWidth();
-		final long tileLength = ifd.getTileLength();
-		final int samplesPerPixel = ifd.getSamplesPerPixel();
-		final int planarConfig = ifd.getPlanarConfiguration();
-		final TiffCompression compression = ifd.getCompression();
+	/**
+	 * Reads the raw (still compressed) bytes of the given tile from the input
+	 * source.
+	 *
+	 * @return The compressed tile, or null if the tile has no data.
+	 */
+	private byte[] readTile(final IFD ifd, final int row, final int col)
+		throws FormatException, IOException
+	{
+		final long[] range = getTileRange(ifd, row, col);
+		if (range == null) return null;
+		final byte[] tile = new byte[(int) range[1]];
 
-		final long numTileCols = ifd.getTilesPerRow();
+		log.debug("Reading tile Length " + tile.length + " Offset " + range[0]);
+		readRaw(range[0], tile, 0, tile.length);
+		return tile;
+	}
 
+	/**
+	 * Gets the file offset and length of the raw bytes of the given tile.
+	 *
+	 * @return The offset and length, or null if the tile has no data.
+	 */
+	private long[] getTileRange(final IFD ifd, final int row, final int col)
+		throws FormatException, IOException
+	{
+		final long tileWidth = ifd.getTileWidth();
+		final long numTileCols = ifd.getTilesPerRow();
 		final int pixel = ifd.getBytesPerSample()[0];
-		final int effectiveChannels = planarConfig == 2 ? 1 : samplesPerPixel;
 
 		final long[] stripByteCounts = ifd.getStripByteCounts();
 		final long[] rowsPerStrip = ifd.getRowsPerStrip();
@@ -658,40 +870,50 @@ public class TiffParser extends AbstractContextual {
 		if (equalStrips) {
 			countIndex = 0;
 		}
-		if (stripByteCounts[countIndex] == (rowsPerStrip[0] * tileWidth) &&
-			pixel > 1)
-		{
-			stripByteCounts[countIndex] *= pixel;
+		long byteCount = stripByteCounts[countIndex];
+		if (byteCount == (rowsPerStrip[0] * tileWidth) && pixel > 1) {
+			byteCount *= pixel;
 		}
 
 		long stripOffset = 0;
-		long nStrips = 0;
 
 		if (ifd.getOnDemandStripOffsets() != null) {
 			final OnDemandLongArray stripOffsets = ifd.getOnDemandStripOffsets();
 			stripOffset = stripOffsets.get(offsetIndex);
-			nStrips = stripOffsets.size();
 		}
 		else {
 			final long[] stripOffsets = ifd.getStripOffsets();
 			stripOffset = stripOffsets[offsetIndex];
-			nStrips = stripOffsets.length;
 		}
 
-		final int size = (int) (tileWidth * tileLength * pixel * effectiveChannels);
-
-		if (buf == null) buf = new byte[size];
-		if (stripByteCounts[countIndex] == 0 || stripOffset >= in.length()) {
-			return buf;
+		if (byteCount == 0 || stripOffset >= in.length()) {
+			return null;
 		}
-		byte[] tile = new byte[(int) stripByteCounts[countIndex]];
+		return new long[] { stripOffset, byteCount };
+	}
+
+	/**
+	 * Decompresses and unpacks the given compressed tile into {@code buf}. This
+	 * method does not touch the input source, so it may be called concurrently
+	 * for distinct tiles, provided each call uses its own buffer and
+	 * {@link CodecOptions}.
+	 */
+	private byte[] decodeTile(final IFD ifd, byte[] tile, final byte[] buf,
+		final int row, final CodecOptions options) throws FormatException,
+		IOException
+	{
+		final byte[] jpegTable = (byte[]) ifd.getIFDValue(IFD.JPEG_TABLES);
 
-		log.debug("Reading tile Length " + tile.length + " Offset " + stripOffset);
-		in.seek(stripOffset);
-		in.read(tile);
+		options.interleaved = true;
+		options.littleEndian = ifd.isLittleEndian();
 
-		codecOptions.maxBytes = Math.max(size, tile.length);
-		codecOptions.ycbcr =
+		final int planarConfig = ifd.getPlanarConfiguration();
+		final TiffCompression compression = ifd.getCompression();
+		final int pixel = ifd.getBytesPerSample()[0];
+
+		final int tileSize = getTileSize(ifd);
+		options.maxBytes = Math.max(tileSize, tile.length);
+		options.ycbcr =
 			ifd.getPhotometricInterpretation() == PhotoInterp.Y_CB_CR &&
 				ifd.getIFDIntValue(IFD.Y_CB_CR_SUB_SAMPLING) == 1 && ycbcrCorrection;
 
@@ -699,13 +921,26 @@ public class TiffParser extends AbstractContextual {
 			final byte[] q = new byte[jpegTable.length + tile.length - 4];
 			System.arraycopy(jpegTable, 0, q, 0, jpegTable.length - 2);
 			System.arraycopy(tile, 2, q, jpegTable.length - 2, tile.length - 2);
-			tile = compression.decompress(scifio.codec(), q, codecOptions);
+			tile = q;
+		}
+		if (buf.length == tileSize && isPlainCopy(ifd)) {
+			// unpacking would be a plain copy, so decode straight into buf
+			final int n = compression.decompress(scifio.codec(), tile, buf, 0,
+				tileSize, options);
+			// NB: A truncated tile is zero-padded after the predictor is undone.
+			scifio.tiff().undifference(buf, n, ifd);
+			Arrays.fill(buf, n, tileSize, (byte) 0);
+		}
+		else {
+			tile = compression.decompress(scifio.codec(), tile, options);
+			scifio.tiff().undifference(tile, ifd);
+			unpackBytes(buf, 0, tile, ifd);
 		}
-		else tile = compression.decompress(scifio.codec(), tile, codecOptions);
-		scifio.tiff().undifference(tile, ifd);
-		unpackBytes(buf, 0, tile, ifd);
 
 		if (planarConfig == 2 && !ifd.isTiled() && ifd.getSamplesPerPixel() > 1) {
+			final long nStrips =
+				ifd.getOnDemandStripOffsets() != null ? ifd.getOnDemandStripOffsets()
+					.size() : ifd.getStripOffsets().length;
 			final int channel = (int) (row % nStrips);
 			if (channel < ifd.getBytesPerSample().length) {
 				final int realBytes = ifd.getBytesPerSample()[channel];
@@ -730,6 +965,15 @@ public class TiffParser extends AbstractContextual {
 		return buf;
 	}
 
+	/** Gets the number of bytes in one decoded tile of the given IFD. */
+	private int getTileSize(final IFD ifd) throws FormatException {
+		final int samplesPerPixel = ifd.getSamplesPerPixel();
+		final int effectiveChannels =
+			ifd.getPlanarConfiguration() == 2 ? 1 : samplesPerPixel;
+		return (int) (ifd.getTileWidth() * ifd.getTileLength() *
+			ifd.getBytesPerSample()[0] * effectiveChannels);
+	}
+
 	public byte[] getSamples(final IFD ifd, final byte[] buf)
 		throws FormatException, IOException
 	{
@@ -827,6 +1071,7 @@ public class TiffParser extends AbstractContextual {
 					(int) (((y + height) / tileLength) * numTileCols + column);
 				lastTile = Math.min(lastTile, stripOffsets.length - 1);
 
+				final List<ReadRange> ranges = new ArrayList<>();
 				int offset = 0;
 				for (int tile = firstTile; tile <= lastTile; tile++) {
 					long byteCount =
@@ -835,11 +1080,11 @@ public class TiffParser extends AbstractContextual {
 						byteCount *= pixel;
 					}
 
-					in.seek(stripOffsets[tile]);
 					final int len = (int) Math.min(buf.length - offset, byteCount);
-					in.read(buf, offset, len);
+					ranges.add(new ReadRange(stripOffsets[tile], len, buf, offset));
 					offset += len;
 				}
+				readRaw(ranges);
 			}
 			return adjustFillOrder(ifd, buf);
 		}
@@ -866,11 +1111,28 @@ public class TiffParser extends AbstractContextual {
 		final int bufferSize =
 			(int) tileWidth * (int) tileLength * bufferSizeSamplesPerPixel * bpp;
 
-		cachedTileBuffer = new byte[bufferSize];
+		// tiles can only be decoded in parallel if they land in disjoint regions
+		// of the output buffer
+		final boolean parallel =
+			decodeThreads > 1 && overlapX == 0 && overlapY == 0 &&
+				compression != TiffCompression.UNCOMPRESSED;
+		final List<Future<?>> decoded = parallel ? new ArrayList<>() : null;
+		final CodecOptions options = codecOptions;
+		final String cacheId = parallel ? getCacheId(ifd) : null;
+
+		if (!parallel &&
+			(cachedTileBuffer == null || cachedTileBuffer.length != bufferSize))
+		{
+			cachedTileBuffer = new byte[bufferSize];
+		}
 
 		final IntRect tileBounds =
 			new IntRect(0, 0, (int) tileWidth, (int) tileLength);
 
+		if (!ifd.isTiled() && overlapY == 0 && getCacheId(ifd) == null) {
+			readStrips(ifd, y, height, tileLength, nrows, numTileRows, numTileCols);
+		}
+
 		for (int row = 0; row < numTileRows; row++) {
 			// make the first row shorter to account for row overlap
 			if (row == 0) {
@@ -892,8 +1154,6 @@ public class TiffParser extends AbstractContextual {
 
 				if (!imageBounds.intersects(tileBounds)) continue;
 
-				getTile(ifd, cachedTileBuffer, row, col);
-
 				// adjust tile bounds, if necessary
 
 				final int tileX = Math.max(tileBounds.x, x);
@@ -913,35 +1173,70 @@ public class TiffParser extends AbstractContextual {
 				// copy appropriate portion of the tile to the output buffer
 
 				final int copy = pixel * twidth;
+				final int copyRows = theight;
+				final int srcOffset = realX * pixel + realY * rowLen;
+				int destOffset = pixel * (tileX - x) + outputRowLen * (tileY - y);
+				if (planarConfig == 2) destOffset += (planeSize * (row / nrows));
+				final int destStart = destOffset;
+
+				final Consumer<byte[]> copier = tile -> {
+					for (int q = 0; q < effectiveChannels; q++) {
+						int src = q * tileSize + srcOffset;
+						int dest = q * planeSize + destStart;
+
+						// copying the tile directly will only work if there is no
+						// overlap;
+						// otherwise, we may be overwriting a previous tile
+						// (or the current tile may be overwritten by a subsequent
+						// tile)
+						if (rowLen == outputRowLen && copy == rowLen && overlapX == 0 &&
+							overlapY == 0)
+						{
+							System.arraycopy(tile, src, buf, dest, copy * copyRows);
+						}
+						else {
+							for (int tileRow = 0; tileRow < copyRows; tileRow++) {
+								System.arraycopy(tile, src, buf, dest, copy);
+								src += rowLen;
+								dest += outputRowLen;
+							}
+						}
+					}
+				};
 
-				realX *= pixel;
-				realY *= rowLen;
-
-				for (int q = 0; q < effectiveChannels; q++) {
-					int src = q * tileSize + realX + realY;
-					int dest =
-						q * planeSize + pixel * (tileX - x) + outputRowLen * (tileY - y);
-					if (planarConfig == 2) dest += (planeSize * (row / nrows));
-
-					// copying the tile directly will only work if there is no
-					// overlap;
-					// otherwise, we may be overwriting a previous tile
-					// (or the current tile may be overwritten by a subsequent
-					// tile)
-					if (rowLen == outputRowLen && overlapX == 0 && overlapY == 0) {
-						System.arraycopy(cachedTileBuffer, src, buf, dest, copy * theight);
+				if (parallel) {
+					final long tileIndex = row * numTileCols + col;
+					final byte[] tile = new byte[bufferSize];
+					if (cacheId != null &&
+						tileCache.get(cacheId, ifd.getOffset(), tileIndex, tile))
+					{
+						copier.accept(tile);
+						continue;
 					}
-					else {
-						for (int tileRow = 0; tileRow < theight; tileRow++) {
-							System.arraycopy(cachedTileBuffer, src, buf, dest, copy);
-							src += rowLen;
-							dest += outputRowLen;
+					// read sequentially, decode and copy concurrently
+					final byte[] compressed = readTile(ifd, row, col);
+					final int tileRow = row;
+					decoded.add(getDecodePool().submit(() -> {
+						if (compressed != null) {
+							decodeTile(ifd, compressed, tile, tileRow, copyOptions(options));
+							if (cacheId != null) {
+								tileCache.put(cacheId, ifd.getOffset(), tileIndex, tile);
+							}
 						}
-					}
+						copier.accept(tile);
+						return null;
+					}));
+				}
+				else {
+					getTile(ifd, cachedTileBuffer, row, col);
+					copier.accept(cachedTileBuffer);
 				}
 			}
 		}
 
+		if (parallel) awaitTiles(decoded);
+		discardPendingStrips();
+
 		return adjustFillOrder(ifd, buf);
 	}
 
@@ -972,6 +1267,283 @@ public class TiffParser extends AbstractContextual {
 		return new TiffIFDEntry(entryTag, entryType, valueCount, offset);
 	}
 
+	// -- Helper methods - IFD chain --
+
+	/** Lists the main IFD chain lazily, or returns null if it cannot be. */
+	private LazyIFDList getLazyIFDs(final boolean thumbnails)
+		throws IOException
+	{
+		if (ifdIndex == null) ifdIndex = readIFDIndex();
+		if (ifdIndex.any(IFDOffsetIndex.IRREGULAR)) return null;
+		if (ifdIndex.offsets.length <= 1) {
+			return new LazyIFDList(this, thumbnails ? new long[0]
+				: ifdIndex.offsets);
+		}
+		return new LazyIFDList(this, ifdIndex.select(IFDOffsetIndex.THUMBNAIL,
+			thumbnails));
+	}
+
+	/**
+	 * Reads the IFD offset index from an up-to-date sidecar when IFD indexing
+	 * is enabled, and walks the IFD chain otherwise (writing the sidecar when
+	 * indexing is enabled).
+	 */
+	private IFDOffsetIndex readIFDIndex() throws IOException {
+		final File file = ifdIndexing ? getIndexableFile() : null;
+		if (file != null) {
+			try {
+				final IFDOffsetIndex index = IFDOffsetIndex.read(file);
+				if (index != null) return index;
+			}
+			catch (final IOException e) {
+				log.debug("Could not read IFD offset index of " + file, e);
+			}
+		}
+
+		final IFDOffsetIndex index = walkIFDChain();
+
+		if (file != null) {
+			try {
+				index.write(file);
+			}
+			catch (final IOException e) {
+				log.debug("Could not write IFD offset index of " + file, e);
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Follows the IFD chain from the header to collect every IFD offset, along
+	 * with the flags of each IFD.
+	 */
+	private IFDOffsetIndex walkIFDChain() throws IOException {
+		// check TIFF header
+		final int bytesPerEntry =
+			bigTiff ? TiffConstants.BIG_TIFF_BYTES_PER_ENTRY
+				: TiffConstants.BYTES_PER_ENTRY;
+
+		final Vector<Long> offsets = new Vector<>();
+		final Vector<Byte> flags = new Vector<>();
+		long offset = getFirstOffset();
+		while (offset > 0 && offset < in.length()) {
+			in.seek(offset);
+			offsets.add(offset);
+			final int nEntries =
+				bigTiff ? (int) in.readLong() : in.readUnsignedShort();
+			final long size =
+				Math.min((long) nEntries * bytesPerEntry, in.length() -
+					in.getFilePointer());
+			final byte[] entries = new byte[(int) Math.max(size, 0)];
+			in.readFully(entries);
+			flags.add(getIFDFlags(entries, bytesPerEntry));
+			offset = getNextOffset(offset);
+		}
+
+		final long[] f = new long[offsets.size()];
+		final byte[] b = new byte[f.length];
+		for (int i = 0; i < f.length; i++) {
+			f[i] = offsets.get(i).longValue();
+			b[i] = flags.get(i).byteValue();
+		}
+
+		return new IFDOffsetIndex(f, b);
+	}
+
+	/**
+	 * Derives the {@link IFDOffsetIndex} flags of an IFD from the raw bytes of
+	 * its directory entries.
+	 */
+	private byte getIFDFlags(final byte[] entries, final int bytesPerEntry) {
+		final boolean little = in.isLittleEndian();
+		final int valueOffset = bigTiff ? 12 : 8;
+		boolean hasWidth = false;
+		byte flags = 0;
+		for (int p = 0; p + bytesPerEntry <= entries.length; p += bytesPerEntry) {
+			final int tag = Bytes.toInt(entries, p, 2, little) & 0xffff;
+			if (tag == IFD.IMAGE_WIDTH) hasWidth = true;
+			else if (tag == IFD.SUB_IFD) flags |= IFDOffsetIndex.IRREGULAR;
+			else if (tag == IFD.NEW_SUBFILE_TYPE || tag == IFD.COMPRESSION) {
+				// both tags hold a single SHORT or LONG, stored inline
+				final int type = Bytes.toInt(entries, p + 2, 2, little) & 0xffff;
+				final int len = type == IFDType.SHORT.getCode() ? 2 : 4;
+				final int value = Bytes.toInt(entries, p + valueOffset, len, little);
+				if (tag == IFD.NEW_SUBFILE_TYPE && value == 1) {
+					flags |= IFDOffsetIndex.THUMBNAIL;
+				}
+				else if (tag == IFD.COMPRESSION &&
+					(value == TiffCompression.JPEG_2000.getCode() ||
+						value == TiffCompression.JPEG_2000_LOSSY.getCode()))
+				{
+					flags |= IFDOffsetIndex.IRREGULAR;
+				}
+			}
+		}
+		if (!hasWidth) flags |= IFDOffsetIndex.IRREGULAR;
+		return flags;
+	}
+
+	/**
+	 * Gets the file backing the input stream, or null if the stream does not
+	 * read a plain file.
+	 */
+	private File getIndexableFile() {
+		final String name = in.getFileName();
+		if (name == null) return null;
+		final File file = new File(name);
+		return file.isFile() ? file : null;
+	}
+
+	// -- Helper methods - raw data access --
+
+	/**
+	 * Reads raw pixel data at the given file offset, from the prefetched data if
+	 * it covers the requested range.
+	 */
+	private void readRaw(final long offset, final byte[] dest,
+		final int destOffset, final int len) throws IOException
+	{
+		if (copyPrefetched(offset, dest, destOffset, len)) return;
+		in.seek(offset);
+		in.read(dest, destOffset, len);
+	}
+
+	/**
+	 * Reads the given ranges of raw pixel data, copying those covered by the
+	 * prefetched data and reading the rest with a single vectored read.
+	 */
+	private void readRaw(final List<ReadRange> ranges) throws IOException {
+		final List<ReadRange> remaining = new ArrayList<>(ranges.size());
+		for (final ReadRange range : ranges) {
+			if (!copyPrefetched(range.getOffset(), range.getDest(), range
+				.getDestOffset(), range.getLength())) remaining.add(range);
+		}
+		if (!remaining.isEmpty()) in.readRanges(remaining);
+	}
+
+	/**
+	 * Copies raw pixel data from the prefetched data, if it covers the requested
+	 * range.
+	 *
+	 * @return true if the data was copied.
+	 */
+	private boolean copyPrefetched(final long offset, final byte[] dest,
+		final int destOffset, final int len)
+	{
+		final Map.Entry<Long, byte[]> run = findPrefetched(offset, len);
+		if (run == null) return false;
+		System.arraycopy(run.getValue(), (int) (offset - run.getKey()), dest,
+			destOffset, len);
+		return true;
+	}
+
+	/**
+	 * Gets the prefetched run covering the given range of raw pixel data.
+	 *
+	 * @return The run, or null if the range is not (entirely) prefetched.
+	 */
+	private Map.Entry<Long, byte[]> findPrefetched(final long offset,
+		final long len)
+	{
+		final Map.Entry<Long, byte[]> run = prefetched.floorEntry(offset);
+		if (run == null || offset + len > run.getKey() + run.getValue().length) {
+			return null;
+		}
+		return run;
+	}
+
+	/**
+	 * Reads all strips of the given strip-based IFD which intersect rows
+	 * {@code y} to {@code y + height - 1} with a single vectored read, and keeps
+	 * them with the prefetched data until {@link #discardPendingStrips()} is
+	 * called, so that the strips can then be decoded one by one without further
+	 * seeks. At most {@link #MAX_PREFETCH_RUN} bytes are read ahead; the
+	 * remaining strips are read on demand.
+	 */
+	private void readStrips(final IFD ifd, final long y, final long height,
+		final long tileLength, final long nrows, final long numTileRows,
+		final long numTileCols) throws FormatException, IOException
+	{
+		discardPendingStrips();
+		final List<ReadRange> ranges = new ArrayList<>();
+		long total = 0;
+		rows:
+		for (int row = 0; row < numTileRows; row++) {
+			final long top = (row % nrows) * tileLength;
+			if (top >= y + height || top + tileLength <= y) continue;
+			for (int col = 0; col < numTileCols; col++) {
+				final long[] range = getTileRange(ifd, row, col);
+				if (range == null || prefetched.containsKey(range[0]) ||
+					findPrefetched(range[0], range[1]) != null)
+				{
+					continue;
+				}
+				if (total + range[1] > MAX_PREFETCH_RUN) break rows;
+				total += range[1];
+				ranges.add(new ReadRange(range[0], (int) range[1],
+					new byte[(int) range[1]], 0));
+			}
+		}
+		if (ranges.size() < 2) return;
+		in.readRanges(ranges);
+		for (final ReadRange range : ranges) {
+			prefetched.put(range.getOffset(), range.getDest());
+			pendingStrips.add(range.getOffset());
+		}
+	}
+
+	/** Discards the strips read ahead by {@link #readStrips}. */
+	private void discardPendingStrips() {
+		for (final Long offset : pendingStrips)
+			prefetched.remove(offset);
+		pendingStrips.clear();
+	}
+
+	// -- Helper methods - parallel tile decoding --
+
+	private synchronized ForkJoinPool getDecodePool() {
+		if (decodePool == null) decodePool = new ForkJoinPool(decodeThreads);
+		return decodePool;
+	}
+
+	/** Creates an independent copy of the given codec options. */
+	private static CodecOptions copyOptions(final CodecOptions options) {
+		if (options instanceof JPEG2000CodecOptions) {
+			return new JPEG2000CodecOptions(options);
+		}
+		return new CodecOptions(options);
+	}
+
+	/**
+	 * Waits for all of the given tile decoding tasks to finish, rethrowing the
+	 * first failure encountered.
+	 */
+	private void awaitTiles(final List<Future<?>> tiles) throws FormatException,
+		IOException
+	{
+		try {
+			for (final Future<?> tile : tiles) {
+				tile.get();
+			}
+		}
+		catch (final InterruptedException e) {
+			throw new IOException("Interrupted while decoding tiles", e);
+		}
+		catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof FormatException) throw (FormatException) cause;
+			if (cause instanceof IOException) throw (IOException) cause;
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new FormatException(cause);
+		}
+		finally {
+			for (final Future<?> tile : tiles) {
+				tile.cancel(false);
+			}
+		}
+	}
+
 	// -- Helper methods - byte stream decoding --
 
 	/**
@@ -1012,8 +1584,6 @@ public class TiffParser extends AbstractContextual {
 		final int nSamples = samples.length / (nChannels * numBytes);
 
 		final boolean noDiv8 = bps0 % 8 != 0;
-		final boolean bps8 = bps0 == 8;
-		final boolean bps16 = bps0 == 16;
 
 		final boolean littleEndian = ifd.isLittleEndian();
 
@@ -1028,10 +1598,7 @@ public class TiffParser extends AbstractContextual {
 		// semi-large datasets this can save **billions** of method calls.
 		// Wed Aug 5 19:04:59 BST 2009
 		// Chris Allan <callan@glencoesoftware.com>
-		if ((bps8 || bps16) && bytes.length <= samples.length && nChannels == 1 &&
-			photoInterp != PhotoInterp.WHITE_IS_ZERO &&
-			photoInterp != PhotoInterp.CMYK && photoInterp != PhotoInterp.Y_CB_CR)
-		{
+		if (bytes.length <= samples.length && isPlainCopy(ifd)) {
 			System.arraycopy(bytes, 0, samples, 0, bytes.length);
 			return;
 		}
@@ -1145,6 +1712,24 @@ public class TiffParser extends AbstractContextual {
 		}
 	}
 
+	/**
+	 * Checks whether unpacking decoded tiles of the given IFD amounts to a plain
+	 * copy: 8- or 16-bit samples of a single channel, needing no photometric
+	 * conversion.
+	 */
+	private static boolean isPlainCopy(final IFD ifd) throws FormatException {
+		PhotoInterp photoInterp = ifd.getPhotometricInterpretation();
+		if (ifd.getCompression() == TiffCompression.JPEG) {
+			photoInterp = PhotoInterp.RGB;
+		}
+		final int[] bitsPerSample = ifd.getBitsPerSample();
+		final int nChannels =
+			ifd.getPlanarConfiguration() == 2 ? 1 : bitsPerSample.length;
+		return (bitsPerSample[0] == 8 || bitsPerSample[0] == 16) &&
+			nChannels == 1 && photoInterp != PhotoInterp.WHITE_IS_ZERO &&
+			photoInterp != PhotoInterp.CMYK && photoInterp != PhotoInterp.Y_CB_CR;
+	}
+
 	/**
 	 * Read a file offset. For bigTiff, a 64-bit number is read. For other Tiffs,
 	 * a 32-bit number is read and possibly adjusted for a possible carry-over
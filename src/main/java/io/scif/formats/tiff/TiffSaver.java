@@ -32,6 +32,7 @@ package io.scif.formats.tiff;
 import io.scif.FormatException;
 import io.scif.SCIFIO;
 import io.scif.codec.CodecOptions;
+import io.scif.codec.ParallelDeflateOutputStream;
 import io.scif.io.ByteArrayHandle;
 import io.scif.io.RandomAccessInputStream;
 import io.scif.io.RandomAccessOutputStream;
@@ -40,10 +41,15 @@ import io.scif.util.FormatTools;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.scijava.AbstractContextual;
 import org.scijava.Context;
@@ -82,6 +88,15 @@ public class TiffSaver extends AbstractContextual {
 
 	private LogService log;
 
+	/** Maximum number of threads used to compress strips. */
+	private int compressionThreads = 1;
+
+	/** Pool compressing strips, or null if it has not been needed yet. */
+	private ForkJoinPool compressionPool;
+
+	/** Images still being compressed, in the order they will be written. */
+	private final Deque<PendingImage> pending = new ArrayDeque<>();
+
 	// -- Constructors --
 
 	/**
@@ -117,6 +132,7 @@ public class TiffSaver extends AbstractContextual {
 		setContext(ctx);
 		scifio = new SCIFIO(ctx);
 		log = scifio.log();
+		invalidateTiles();
 	}
 
 	/**
@@ -185,6 +201,52 @@ public class TiffSaver extends AbstractContextual {
 		this.options = options;
 	}
 
+	/**
+	 * Sets the maximum number of threads used to compress strips. With more
+	 * than one thread, the strips of each image are compressed concurrently.
+	 * When {@link #setWritingSequentially writing sequentially}, later images
+	 * are also compressed while earlier ones are still pending; images are
+	 * always written to the stream in the order they were passed to
+	 * {@code writeImage}, and {@link #flush()} must be called once the last
+	 * image has been passed.
+	 *
+	 * @param compressionThreads Number of compression threads; 1 (the default)
+	 *          compresses every strip on the calling thread.
+	 */
+	public synchronized void setCompressionThreads(
+		final int compressionThreads)
+	{
+		if (compressionThreads == this.compressionThreads) return;
+		this.compressionThreads = compressionThreads;
+		if (compressionPool != null) {
+			compressionPool.shutdown();
+			compressionPool = null;
+		}
+	}
+
+	/** Gets the maximum number of threads used to compress strips. */
+	public int getCompressionThreads() {
+		return compressionThreads;
+	}
+
+	/**
+	 * Writes every image whose strips are still being compressed, releases the
+	 * compression threads and discards any tiles of the file cached meanwhile.
+	 */
+	public synchronized void flush() throws FormatException, IOException {
+		try {
+			writePendingImages(true);
+		}
+		finally {
+			pending.clear();
+			if (compressionPool != null) {
+				compressionPool.shutdown();
+				compressionPool = null;
+			}
+			invalidateTiles();
+		}
+	}
+
 	/** Writes the TIFF file header. */
 	public void writeHeader() throws IOException {
 		// write endianness indicator
@@ -370,6 +432,18 @@ public class TiffSaver extends AbstractContextual {
 			}
 		}
 
+		final int channels = interleaved ? nChannels : 1;
+		// too few strips to keep the pool busy: deflate each one in blocks
+		// across the pool instead of queueing one task per strip
+		final boolean blockParallel = compressionThreads > 1 && !sequentialWrite &&
+			nStrips < compressionThreads && isDeflate(compression);
+		if (compressionThreads > 1 && !blockParallel) {
+			queueImage(ifd, planeIndex, stripBuf, compression, tileWidth,
+				tileHeight, channels, nChannels, last, x, y);
+			return;
+		}
+		if (blockParallel) writePendingImages(true);
+
 		// Compress strips according to given differencing and compression
 		// schemes,
 		// this operation is NOT synchronized and is the ONLY portion of the
@@ -377,16 +451,9 @@ public class TiffSaver extends AbstractContextual {
 		// synchronized.
 		final byte[][] strips = new byte[nStrips][];
 		for (int strip = 0; strip < nStrips; strip++) {
-			strips[strip] = stripBuf[strip].toByteArray();
-			scifio.tiff().difference(strips[strip], ifd);
-			final CodecOptions codecOptions =
-				compression.getCompressionCodecOptions(ifd, options);
-			codecOptions.height = tileHeight;
-			codecOptions.width = tileWidth;
-			codecOptions.channels = interleaved ? nChannels : 1;
-
-			strips[strip] =
-				compression.compress(scifio.codec(), strips[strip], codecOptions);
+			strips[strip] = blockParallel ? deflateStrip(stripBuf[strip]
+				.toByteArray(), ifd, compression) : compressStrip(stripBuf[strip]
+					.toByteArray(), ifd, compression, tileWidth, tileHeight, channels);
 			if (log.isDebug()) {
 				log.debug(String.format("Compressed strip %d/%d length %d", strip + 1,
 					nStrips, strips[strip].length));
@@ -399,6 +466,105 @@ public class TiffSaver extends AbstractContextual {
 		}
 	}
 
+	/**
+	 * Applies the given differencing and compression schemes to one strip or
+	 * tile. Only reads from the IFD, so it may run on any thread.
+	 */
+	private byte[] compressStrip(final byte[] strip, final IFD ifd,
+		final TiffCompression compression, final int tileWidth,
+		final int tileHeight, final int channels) throws FormatException
+	{
+		scifio.tiff().difference(strip, ifd);
+		final CodecOptions codecOptions =
+			compression.getCompressionCodecOptions(ifd, options);
+		codecOptions.height = tileHeight;
+		codecOptions.width = tileWidth;
+		codecOptions.channels = channels;
+		return compression.compress(scifio.codec(), strip, codecOptions);
+	}
+
+	/**
+	 * Applies the differencing scheme to one strip, then deflates it block by
+	 * block on the compression pool into a single zlib stream.
+	 */
+	private byte[] deflateStrip(final byte[] strip, final IFD ifd,
+		final TiffCompression compression) throws FormatException, IOException
+	{
+		scifio.tiff().difference(strip, ifd);
+		final CodecOptions codecOptions =
+			compression.getCompressionCodecOptions(ifd, options);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(strip.length /
+			2);
+		try (final ParallelDeflateOutputStream deflater =
+			new ParallelDeflateOutputStream(bytes, false, codecOptions,
+				getCompressionPool()))
+		{
+			deflater.write(strip);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static boolean isDeflate(final TiffCompression compression) {
+		return compression == TiffCompression.DEFLATE ||
+			compression == TiffCompression.PROPRIETARY_DEFLATE;
+	}
+
+	/**
+	 * Submits the strips of one image to the compression pool, then writes as
+	 * many pending images as possible. When writing sequentially, up to
+	 * {@link #getCompressionThreads()} images are left in flight so that the
+	 * next call can overlap their compression; otherwise the image is written
+	 * before returning.
+	 */
+	private synchronized void queueImage(final IFD ifd, final long planeIndex,
+		final ByteArrayOutputStream[] stripBuf, final TiffCompression compression,
+		final int tileWidth, final int tileHeight, final int channels,
+		final int nChannels, final boolean last, final int x, final int y)
+		throws FormatException, IOException
+	{
+		// NB: writeImageIFD updates the IFD in place, so the compression tasks
+		// work from their own copy.
+		final IFD compressionIFD = new IFD(ifd, log);
+		final List<Future<byte[]>> strips = new ArrayList<>(stripBuf.length);
+		for (final ByteArrayOutputStream buf : stripBuf) {
+			final byte[] strip = buf.toByteArray();
+			strips.add(getCompressionPool().submit(() -> compressStrip(strip,
+				compressionIFD, compression, tileWidth, tileHeight, channels)));
+		}
+		pending.add(new PendingImage(ifd, planeIndex, strips, nChannels, last, x,
+			y));
+		writePendingImages(!sequentialWrite || last);
+	}
+
+	/**
+	 * Writes pending images in order. Unless {@code all} is set, stops at the
+	 * first image that is still being compressed once no more than
+	 * {@link #getCompressionThreads()} images remain.
+	 */
+	private synchronized void writePendingImages(final boolean all)
+		throws FormatException, IOException
+	{
+		while (!pending.isEmpty()) {
+			final PendingImage image = pending.peek();
+			if (!all && !image.isDone() && pending.size() <= compressionThreads) {
+				break;
+			}
+			pending.remove();
+			final byte[][] strips = image.getStrips();
+			// NB: other images may have been written since this one was queued.
+			if (sequentialWrite) out.seek(out.length());
+			writeImageIFD(image.ifd, image.planeIndex, strips, image.nChannels,
+				image.last, image.x, image.y);
+		}
+	}
+
+	private synchronized ForkJoinPool getCompressionPool() {
+		if (compressionPool == null) {
+			compressionPool = new ForkJoinPool(compressionThreads);
+		}
+		return compressionPool;
+	}
+
 	/**
 	 * Performs the actual work of dealing with IFD data and writing it to the
 	 * TIFF for a given image or sub-image.
@@ -893,6 +1059,16 @@ public class TiffSaver extends AbstractContextual {
 
 	// -- Helper methods --
 
+	/**
+	 * Discards the cached tiles of the file being written, which would
+	 * otherwise be returned to readers in place of the new pixels.
+	 */
+	private void invalidateTiles() {
+		if (filename == null) return;
+		final TiffTileCacheService tileCache = scifio.tiffTileCache();
+		if (tileCache != null) tileCache.invalidate(filename);
+	}
+
 	/**
 	 * Coverts a list to a primitive array.
 	 *
@@ -973,4 +1149,68 @@ public class TiffSaver extends AbstractContextual {
 		}
 	}
 
+	// -- Helper classes --
+
+	/** An image queued for writing whose strips may still be compressing. */
+	private static class PendingImage {
+
+		private final IFD ifd;
+		private final long planeIndex;
+		private final List<Future<byte[]>> strips;
+		private final int nChannels;
+		private final boolean last;
+		private final int x;
+		private final int y;
+
+		public PendingImage(final IFD ifd, final long planeIndex,
+			final List<Future<byte[]>> strips, final int nChannels,
+			final boolean last, final int x, final int y)
+		{
+			this.ifd = ifd;
+			this.planeIndex = planeIndex;
+			this.strips = strips;
+			this.nChannels = nChannels;
+			this.last = last;
+			this.x = x;
+			this.y = y;
+		}
+
+		/** Whether every strip of this image has been compressed. */
+		public boolean isDone() {
+			for (final Future<byte[]> strip : strips) {
+				if (!strip.isDone()) return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Waits for every strip of this image to be compressed, rethrowing the
+		 * first failure encountered.
+		 */
+		public byte[][] getStrips() throws FormatException, IOException {
+			final byte[][] result = new byte[strips.size()][];
+			try {
+				for (int i = 0; i < result.length; i++) {
+					result[i] = strips.get(i).get();
+				}
+			}
+			catch (final InterruptedException e) {
+				throw new IOException("Interrupted while compressing strips", e);
+			}
+			catch (final ExecutionException e) {
+				final Throwable cause = e.getCause();
+				if (cause instanceof FormatException) throw (FormatException) cause;
+				if (cause instanceof IOException) throw (IOException) cause;
+				if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+				if (cause instanceof Error) throw (Error) cause;
+				throw new FormatException(cause);
+			}
+			finally {
+				for (final Future<byte[]> strip : strips) {
+					strip.cancel(false);
+				}
+			}
+			return result;
+		}
+	}
 }
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats.tiff;
+
+import io.scif.SCIFIOService;
+
+/**
+ * Interface for services that cache decompressed TIFF tiles, so that
+ * overlapping region requests do not decode the same tile repeatedly. Tiles
+ * are keyed by source file, IFD offset and tile index, and the cache is shared
+ * by every {@link TiffParser} in the context. Tiles are only served while the
+ * source file keeps the length and modification time it had when they were
+ * cached, so files rewritten outside of {@link TiffSaver} are decoded
+ * afresh.
+ */
+public interface TiffTileCacheService extends SCIFIOService {
+
+	/**
+	 * Copies a cached tile into the given buffer.
+	 *
+	 * @param id Identifier of the source file.
+	 * @param ifdOffset Offset of the tile's IFD within the source file.
+	 * @param tileIndex Index of the tile (or strip) within its IFD.
+	 * @param buf Destination for the decoded tile.
+	 * @return True if the tile was cached and copied into {@code buf}.
+	 */
+	boolean get(String id, long ifdOffset, long tileIndex, byte[] buf);
+
+	/**
+	 * Stores a copy of the given decoded tile, evicting the least recently used
+	 * tiles as needed to stay within {@link #getMaxBytes()}.
+	 */
+	void put(String id, long ifdOffset, long tileIndex, byte[] tile);
+
+	/**
+	 * Discards all cached tiles of the given source file. {@link TiffSaver}
+	 * calls this whenever it starts or finishes writing a file.
+	 */
+	void invalidate(String id);
+
+	/** Discards all cached tiles. */
+	void clear();
+
+	/** Gets the maximum number of bytes of tile data held in the cache. */
+	long getMaxBytes();
+
+	/**
+	 * Sets the maximum number of bytes of tile data held in the cache. A value
+	 * of 0 disables caching.
+	 */
+	void setMaxBytes(long maxBytes);
+
+	/** Gets the number of bytes of tile data currently held in the cache. */
+	long getSize();
+
+	/** Gets the number of lookups which found their tile in the cache. */
+	long getHits();
+
+	/** Gets the number of lookups which did not find their tile in the cache. */
+	long getMisses();
+
+	/** Resets the hit and miss counters to zero. */
+	void resetStatistics();
+
+}
@@ -35,6 +35,7 @@ import io.scif.ImageMetadata;
 import io.scif.Metadata;
 import io.scif.Plane;
 import io.scif.Reader;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
 import io.scif.util.ImageTools;
 
@@ -452,7 +453,7 @@ public final class AWTImageTools {
 		final boolean fp, final boolean little, final boolean signed)
 	{
 		final Object pixels =
-			Bytes.makeArray(data, bpp % 3 == 0 ? bpp / 3 : bpp, fp, little);
+			ConversionTools.makeArray(data, bpp % 3 == 0 ? bpp / 3 : bpp, fp, little);
 
 		if (pixels instanceof byte[]) {
 			return makeImage((byte[]) pixels, w, h, c, interleaved, signed);
@@ -494,7 +495,7 @@ public final class AWTImageTools {
 		Object v = null;
 		for (int i = 0; i < c; i++) {
 			final Object pixels =
-				Bytes.makeArray(data[i], bpp % 3 == 0 ? bpp / 3 : bpp, fp,
+				ConversionTools.makeArray(data[i], bpp % 3 == 0 ? bpp / 3 : bpp, fp,
 					little);
 			if (pixels instanceof byte[]) {
 				if (v == null) v = new byte[c][];
@@ -776,12 +777,12 @@ public final class AWTImageTools {
 		final boolean indexed = meta.get(imageIndex).isIndexed();
 
 		if (pixelType == FormatTools.FLOAT) {
-			float[] f = (float[]) Bytes.makeArray(bytes, 4, true, little);
+			float[] f = (float[]) ConversionTools.makeArray(bytes, 4, true, little);
 			if (normal) f = Bytes.normalize(f);
 			return makeImage(f, w, h, rgbChanCount, interleaved);
 		}
 		else if (pixelType == FormatTools.DOUBLE) {
-			double[] d = (double[]) Bytes.makeArray(bytes, 8, true, little);
+			double[] d = (double[]) ConversionTools.makeArray(bytes, 8, true, little);
 			if (normal) d = Bytes.normalize(d);
 			return makeImage(d, w, h, rgbChanCount, interleaved);
 		}
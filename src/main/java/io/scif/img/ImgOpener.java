@@ -50,6 +50,11 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.imagej.ImgPlus;
 import net.imagej.axis.Axes;
@@ -322,6 +327,8 @@ public class ImgOpener extends AbstractImgIOComponent {
 					config);
 			if (SCIFIOCellImgFactory.class.isAssignableFrom(imgFactory.getClass())) {
 				((SCIFIOCellImgFactory<?>) imgFactory).setReader(reader, i(imageIndex));
+				((SCIFIOCellImgFactory<?>) imgFactory).setReaderPool(createReaderPool(
+					reader, config));
 				((SCIFIOCellImgFactory<?>) imgFactory).setSubRegion(config
 					.imgOpenerGetRegion());
 			}
@@ -340,6 +347,24 @@ public class ImgOpener extends AbstractImgIOComponent {
 					imgPlus.setChannelMinimum(c, defaultMinMax[0]);
 					imgPlus.setChannelMaximum(c, defaultMinMax[1]);
 				}
+				if (config.imgOpenerIsMinMaxCaching() &&
+					reader instanceof ReaderFilter)
+				{
+					// statistics persisted by an earlier opening are known upfront
+					final MinMaxFilter minMax =
+						((ReaderFilter) reader).enable(MinMaxFilter.class);
+					minMax.setCaching(true);
+					final long sizeC = reader.getMetadata().get(i(imageIndex))
+						.getAxisLength(Axes.CHANNEL);
+					for (int c = 0; c < sizeC; c++) {
+						final Double min =
+							minMax.getAxisKnownMinimum(i(imageIndex), Axes.CHANNEL, c);
+						final Double max =
+							minMax.getAxisKnownMaximum(i(imageIndex), Axes.CHANNEL, c);
+						if (min != null) imgPlus.setChannelMinimum(c, min);
+						if (max != null) imgPlus.setChannelMaximum(c, max);
+					}
+				}
 			}
 
 			// Put this image's metadata into the ImgPlus's properties table.
@@ -411,15 +436,11 @@ public class ImgOpener extends AbstractImgIOComponent {
 		throws ImgIOException
 	{
 
-		final boolean computeMinMax = config.imgOpenerIsComputeMinMax();
 		statusService.showStatus("Initializing " + source);
 
 		ReaderFilter r = null;
 		try {
-			r = initializeService.initializeReader(source, config);
-			r.enable(ChannelFiller.class);
-			r.enable(PlaneSeparator.class).separate(axesToSplit(r));
-			if (computeMinMax) r.enable(MinMaxFilter.class);
+			r = initializeReader(source, config);
 		}
 		catch (final FormatException e) {
 			throw new ImgIOException(e);
@@ -430,6 +451,43 @@ public class ImgOpener extends AbstractImgIOComponent {
 		return r;
 	}
 
+	/**
+	 * Initializes a {@link ReaderFilter} on the given source, with the filters
+	 * needed by this {@code ImgOpener} enabled.
+	 */
+	private ReaderFilter initializeReader(final String source,
+		final SCIFIOConfig config) throws FormatException, IOException
+	{
+		final ReaderFilter r = initializeService.initializeReader(source, config);
+		r.enable(ChannelFiller.class);
+		r.enable(PlaneSeparator.class).separate(axesToSplit(r));
+		if (config.imgOpenerIsComputeMinMax()) {
+			final MinMaxFilter minMax = r.enable(MinMaxFilter.class);
+			minMax.setCaching(config.imgOpenerIsMinMaxCaching());
+		}
+		return r;
+	}
+
+	/**
+	 * Creates a {@link ReaderPool} of readers equivalent to the given reader, if
+	 * the configuration requests more than one reader and the reader's source
+	 * can be reopened.
+	 *
+	 * @return The new pool, or null if cells should be loaded through the given
+	 *         reader alone.
+	 */
+	private ReaderPool createReaderPool(final Reader reader,
+		final SCIFIOConfig config)
+	{
+		final int poolSize = config.imgOpenerGetReaderPoolSize();
+		final String source = reader.getCurrentFile();
+		if (poolSize <= 1 || source == null) return null;
+
+		final SCIFIOConfig poolConfig = new SCIFIOConfig(config);
+		return new ReaderPool(() -> initializeReader(source, poolConfig),
+			poolSize);
+	}
+
 	/**
 	 * Returns a list of all AxisTypes that should be split out. This is a list of
 	 * all non-X,Y planar axes. Always tries to split {@link Axes#CHANNEL}.
@@ -640,7 +698,19 @@ public class ImgOpener extends AbstractImgIOComponent {
 			else converter = pcService.getDefaultConverter();
 		}
 
-		read(imageIndex, imgPlus, r, config, converter, bounds, npRanges,
+		final int threads = config.imgOpenerGetThreads();
+		if (threads > 1 && (isArray || isPlanar) &&
+			config.imgOpenerGetPlaneConverter() == null &&
+			!config.imgOpenerIsComputeMinMax() && r.getCurrentFile() != null)
+		{
+			// the array and planar converters only touch the destination plane,
+			// so disjoint planes can be filled concurrently
+			final List<Integer> planes = new ArrayList<>();
+			listPlanes(r, npRanges, npIndices, 0, planes);
+			readParallel(imageIndex, imgPlus, r, config, converter, bounds, planes,
+				Math.min(threads, planes.size()));
+		}
+		else read(imageIndex, imgPlus, r, config, converter, bounds, npRanges,
 			npIndices);
 
 		if (config.imgOpenerIsComputeMinMax()) populateMinMax(r, imgPlus,
@@ -688,7 +758,7 @@ public class ImgOpener extends AbstractImgIOComponent {
 			// FIXME: what if tmpPlane length does not match bounds size?
 			// Invent a utility method for checking tmpPlane vs. bounds.
 			if (tmpPlane == null) {
-				tmpPlane = r.openPlane(imageIndex, planeIndex, bounds);
+				tmpPlane = r.openPlane(imageIndex, planeIndex, bounds, config);
 			}
 			else {
 				tmpPlane = r.openPlane(imageIndex, planeIndex, tmpPlane, bounds,
@@ -709,6 +779,94 @@ public class ImgOpener extends AbstractImgIOComponent {
 		return tmpPlane;
 	}
 
+	/**
+	 * Lists the rasterized indices of the planes to read, in the order in which
+	 * {@link #read} visits them.
+	 */
+	private void listPlanes(final Reader r, final Range[] npRanges,
+		final long[] npIndices, final int depth, final List<Integer> planes)
+	{
+		if (depth < npRanges.length) {
+			final int npPosition = npRanges.length - 1 - depth;
+			for (int i = 0; i < npRanges[npPosition].size(); i++) {
+				npIndices[npPosition] = npRanges[npPosition].get(i);
+				listPlanes(r, npRanges, npIndices, depth + 1, planes);
+			}
+		}
+		else planes.add((int) FormatTools.positionToRaster(0, r, npIndices));
+	}
+
+	/**
+	 * Reads the given planes on {@code threads} threads, each of which opens its
+	 * own reader on the source of {@code r}. The i-th listed plane is stored as
+	 * the i-th plane of the {@link ImgPlus}, exactly as {@link #read} would.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void readParallel(final int imageIndex, final ImgPlus imgPlus,
+		final Reader r, final SCIFIOConfig config, final PlaneConverter converter,
+		final Interval bounds, final List<Integer> planes, final int threads)
+		throws FormatException, IOException
+	{
+		final String source = r.getCurrentFile();
+		final SCIFIOConfig poolConfig = new SCIFIOConfig(config);
+		final AtomicInteger next = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try (final ReaderPool pool = new ReaderPool(() -> initializeReader(source,
+			poolConfig), threads))
+		{
+			final List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				workers.add(executor.submit(() -> {
+					final Reader pr = pool.lease();
+					try {
+						if (pr.getPlaneCount(imageIndex) != r.getPlaneCount(imageIndex)) {
+							throw new FormatException("Reopened source " + source +
+								" does not match the original reader");
+						}
+						Plane tmpPlane = null;
+						for (int i = next.getAndIncrement(); i < planes.size(); i =
+							next.getAndIncrement())
+						{
+							tmpPlane = tmpPlane == null ? pr.openPlane(imageIndex, planes
+								.get(i), bounds, config) : pr.openPlane(imageIndex, planes.get(
+									i), tmpPlane, bounds, config);
+							converter.populatePlane(pr, imageIndex, i, tmpPlane.getBytes(),
+								imgPlus, config);
+							synchronized (imgPlus) {
+								imgPlus.setColorTable(tmpPlane.getColorTable(), i);
+							}
+						}
+					}
+					finally {
+						pool.release(pr);
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> worker : workers) {
+				try {
+					worker.get();
+				}
+				catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while reading planes", e);
+				}
+				catch (final ExecutionException e) {
+					final Throwable cause = e.getCause();
+					if (cause instanceof FormatException) throw (FormatException) cause;
+					if (cause instanceof IOException) throw (IOException) cause;
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException) cause;
+					}
+					throw new FormatException(cause);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private void populateMinMax(final Reader r, final ImgPlus<?> imgPlus,
 		final int imageIndex)
 	{
@@ -720,7 +878,7 @@ public class ImgOpener extends AbstractImgIOComponent {
 			final Double min =
 				minMax.getAxisKnownMinimum(imageIndex, Axes.CHANNEL, c);
 			final Double max =
-				minMax.getAxisKnownMinimum(imageIndex, Axes.CHANNEL, c);
+				minMax.getAxisKnownMaximum(imageIndex, Axes.CHANNEL, c);
 			imgPlus.setChannelMinimum(c, min == null ? Double.NaN : min);
 			imgPlus.setChannelMaximum(c, max == null ? Double.NaN : max);
 		}
@@ -0,0 +1,214 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.img;
+
+import io.scif.FormatException;
+import io.scif.Reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bounded pool of independent {@link Reader} instances over the same image
+ * source. Each pooled reader owns its own
+ * {@link io.scif.io.RandomAccessInputStream}, so planes can be opened from
+ * several threads at once without serializing on a single reader.
+ * <p>
+ * Readers are created lazily by the pool's {@link ReaderFactory}, up to the
+ * configured size. Callers {@link #lease()} a reader, use it, and
+ * {@link #release(Reader)} it back to the pool; when all readers are leased,
+ * {@code lease()} blocks until one becomes available.
+ * </p>
+ */
+public class ReaderPool implements Closeable {
+
+	// -- Fields --
+
+	private final ReaderFactory factory;
+
+	private final int size;
+
+	/** All readers created by this pool, and not yet closed. */
+	private final List<Reader> readers;
+
+	/** Readers which are not currently leased. */
+	private final ArrayDeque<Reader> available;
+
+	/** Number of readers being opened outside of the lock. */
+	private int opening;
+
+	private boolean closed;
+
+	// -- Constructor --
+
+	/**
+	 * @param factory Factory used to open each pooled {@link Reader}. Every
+	 *          reader it creates must be initialized on the same source, with
+	 *          equivalent metadata.
+	 * @param size Maximum number of readers this pool will open.
+	 */
+	public ReaderPool(final ReaderFactory factory, final int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Invalid pool size: " + size);
+		}
+		this.factory = factory;
+		this.size = size;
+		readers = new ArrayList<>(size);
+		available = new ArrayDeque<>(size);
+	}
+
+	// -- ReaderPool methods --
+
+	/**
+	 * Obtains exclusive use of a {@link Reader} from this pool, opening a new
+	 * one if none are idle and the pool is not yet full. The returned reader
+	 * must be handed back with {@link #release(Reader)}.
+	 *
+	 * @return A reader initialized on this pool's source.
+	 * @throws IllegalStateException if the pool is closed, including while
+	 *           waiting for a reader.
+	 */
+	public Reader lease() throws FormatException, IOException {
+		synchronized (this) {
+			while (true) {
+				if (closed) throw new IllegalStateException("ReaderPool is closed");
+				final Reader r = available.poll();
+				if (r != null) return r;
+				if (readers.size() + opening < size) break;
+				try {
+					wait();
+				}
+				catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted waiting for a pooled reader", e);
+				}
+			}
+			opening++;
+		}
+
+		// NB: Open the new reader without blocking leases of idle ones.
+		final Reader r;
+		try {
+			r = factory.create();
+		}
+		catch (final Exception e) {
+			synchronized (this) {
+				opening--;
+				notifyAll();
+			}
+			throw e;
+		}
+		synchronized (this) {
+			opening--;
+			if (!closed) {
+				readers.add(r);
+				return r;
+			}
+		}
+		r.close();
+		throw new IllegalStateException("ReaderPool is closed");
+	}
+
+	/**
+	 * Returns a {@link Reader} previously obtained by {@link #lease()} to this
+	 * pool. If the pool was closed while the reader was leased, the reader is
+	 * closed now instead.
+	 */
+	public void release(final Reader r) throws IOException {
+		synchronized (this) {
+			if (!closed) {
+				available.push(r);
+				notify();
+				return;
+			}
+			if (!readers.remove(r)) return;
+		}
+		r.close();
+	}
+
+	/**
+	 * @return The maximum number of readers this pool will open.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of readers this pool has opened so far.
+	 */
+	public synchronized int openCount() {
+		return readers.size();
+	}
+
+	// -- Closeable methods --
+
+	/**
+	 * Closes every idle {@link Reader} opened by this pool. Readers which are
+	 * still leased are closed when they are released, so that reads in
+	 * progress can complete. Subsequent calls to {@link #lease()} will fail.
+	 */
+	@Override
+	public void close() throws IOException {
+		final List<Reader> toClose;
+		synchronized (this) {
+			if (closed) return;
+			closed = true;
+			toClose = new ArrayList<>(available);
+			readers.removeAll(available);
+			available.clear();
+			// wake up lessees waiting for a reader
+			notifyAll();
+		}
+		IOException failure = null;
+		for (final Reader r : toClose) {
+			try {
+				r.close();
+			}
+			catch (final IOException e) {
+				if (failure == null) failure = e;
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * Opens a new {@link Reader} for a {@link ReaderPool}.
+	 */
+	@FunctionalInterface
+	public interface ReaderFactory {
+
+		Reader create() throws FormatException, IOException;
+	}
+}
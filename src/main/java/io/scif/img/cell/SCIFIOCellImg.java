@@ -31,6 +31,7 @@ package io.scif.img.cell;
 
 import io.scif.FormatException;
 import io.scif.Reader;
+import io.scif.img.ReaderPool;
 import io.scif.img.cell.loaders.SCIFIOArrayLoader;
 
 import java.io.IOException;
@@ -60,6 +61,8 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 
 	private final Reader reader;
 
+	private final ReaderPool readerPool;
+
 	private SCIFIOArrayLoader<?> loader;
 
 	private final SCIFIOCellImgFactory<T> factory;
@@ -73,6 +76,7 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 		super(grid, entitiesPerPixel, cache, accessType);
 		this.factory = factory;
 		reader = factory.reader();
+		readerPool = factory.readerPool();
 	}
 
 	// -- SCIFIOCellImg methods --
@@ -107,6 +111,14 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 		return reader;
 	}
 
+	/**
+	 * @return The {@link ReaderPool} used for loading cells, or null if all cells
+	 *         are loaded through {@link #reader()}.
+	 */
+	public ReaderPool readerPool() {
+		return readerPool;
+	}
+
 	public void setLoader(final SCIFIOArrayLoader<?> loader) {
 		this.loader = loader;
 	}
@@ -124,6 +136,7 @@ public class SCIFIOCellImg<T extends NativeType<T>, A> extends
 	public void dispose() {
 		try {
 			reader.close();
+			if (readerPool != null) readerPool.close();
 		}
 		catch (final IOException e) {}
 	}
@@ -32,6 +32,7 @@ package io.scif.img.cell;
 import io.scif.Reader;
 import io.scif.filters.ReaderFilter;
 import io.scif.img.ImageRegion;
+import io.scif.img.ReaderPool;
 import io.scif.img.cell.loaders.AbstractArrayLoader;
 import io.scif.img.cell.loaders.ByteArrayLoader;
 import io.scif.img.cell.loaders.CharArrayLoader;
@@ -98,6 +99,8 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 
 	private Reader reader;
 
+	private ReaderPool readerPool;
+
 	private ImageRegion subregion;
 
 	private int[] defaultCellDimensions;
@@ -169,6 +172,32 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 			imageIndex), (int) reader.getOptimalTileHeight(imageIndex), 1, 1, 1 };
 	}
 
+	/**
+	 * @return The {@link ReaderPool} attached to this factory, or null if all
+	 *         cells are loaded through {@link #reader()}.
+	 */
+	public ReaderPool readerPool() {
+		return readerPool;
+	}
+
+	/**
+	 * Enables pooled-reader mode. Each cell load of any created
+	 * {@link SCIFIOCellImg} will lease its own {@link Reader} from the given
+	 * pool, so cells can be fetched concurrently by the cache's I/O threads
+	 * (see {@link DiskCachedCellImgOptions#numIoThreads(int)}). The pool should
+	 * be sized to match the number of I/O threads.
+	 * <p>
+	 * All pooled readers must be opened on the same source as {@link #reader()},
+	 * which is still used for metadata and color tables.
+	 * </p>
+	 *
+	 * @param pool Pool of independent readers, or null to serialize all cell
+	 *          loads on {@link #reader()}.
+	 */
+	public void setReaderPool(final ReaderPool pool) {
+		readerPool = pool;
+	}
+
 	/**
 	 * @param region The {@link ImageRegion} that will be operated on by any
 	 *          created {@link io.scif.img.cell.SCIFIOCellImg}s.
@@ -238,6 +267,7 @@ public class SCIFIOCellImgFactory<T extends NativeType<T>> extends
 	{
 		final SCIFIOCellLoader<T, A> cellLoader = createCellLoader(typeFactory);
 		cellLoader.loader.setIndex(index);
+		cellLoader.loader.setReaderPool(readerPool);
 
 		final DiskCachedCellImgOptions.Values options = factoryOptions.values;
 
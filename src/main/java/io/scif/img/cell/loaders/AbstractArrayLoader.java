@@ -38,6 +38,7 @@ import io.scif.filters.MetadataWrapper;
 import io.scif.img.ImageRegion;
 import io.scif.img.ImgUtilityService;
 import io.scif.img.Range;
+import io.scif.img.ReaderPool;
 import io.scif.util.FormatTools;
 
 import java.io.IOException;
@@ -73,6 +74,8 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 
 	final private boolean compatible;
 
+	private ReaderPool readerPool;
+
 	@Parameter
 	private ImgUtilityService imgUtilityService;
 
@@ -94,6 +97,15 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 		this.index = index;
 	}
 
+	/**
+	 * @param readerPool Pool of independent readers on this loader's source. If
+	 *          set, each array load leases its own reader from the pool instead
+	 *          of synchronizing on the shared {@link #reader()}.
+	 */
+	public void setReaderPool(final ReaderPool readerPool) {
+		this.readerPool = readerPool;
+	}
+
 	@Override
 	public ColorTable loadTable(final int imageIndex, final int planeIndex)
 		throws FormatException, IOException
@@ -116,148 +128,159 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 
 	@Override
 	public A loadArray(final Interval bounds) {
-		synchronized (reader) {
-			final Metadata meta = reader.getMetadata();
-
-			int entities = 1;
-
-			// Starting indices for the planar dimensions
-			final long[] planarMin = new long[meta.get(0).getAxesPlanar().size()];
-			// Lengths in the planar dimensions
-			final long[] planarMax = new long[meta.get(0).getAxesPlanar().size()];
-			// Non-planar indices to open
-			final Range[] npRanges = new Range[meta.get(0).getAxesNonPlanar().size()];
-			final long[] npIndices = new long[npRanges.length];
-
-			int axisIndex = 0;
-			// Get planar ranges
-			for (final CalibratedAxis axis : meta.get(0).getAxesPlanar()) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
-
-				// Constrain on passed dims
-				if (index < bounds.numDimensions()) {
-					planarMin[axisIndex] = bounds.min(index);
-					planarMax[axisIndex] = bounds.max(index);
-					entities *= bounds.dimension(index);
-				}
-
-				axisIndex++;
+		final Metadata meta = reader.getMetadata();
+
+		int entities = 1;
+
+		// Starting indices for the planar dimensions
+		final long[] planarMin = new long[meta.get(0).getAxesPlanar().size()];
+		// Lengths in the planar dimensions
+		final long[] planarMax = new long[meta.get(0).getAxesPlanar().size()];
+		// Non-planar indices to open
+		final Range[] npRanges = new Range[meta.get(0).getAxesNonPlanar().size()];
+		final long[] npIndices = new long[npRanges.length];
+
+		int axisIndex = 0;
+		// Get planar ranges
+		for (final CalibratedAxis axis : meta.get(0).getAxesPlanar()) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
+
+			// Constrain on passed dims
+			if (index < bounds.numDimensions()) {
+				planarMin[axisIndex] = bounds.min(index);
+				planarMax[axisIndex] = bounds.max(index);
+				entities *= bounds.dimension(index);
 			}
 
-			axisIndex = 0;
-			for (final CalibratedAxis axis : meta.get(0).getAxesNonPlanar()) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
+			axisIndex++;
+		}
 
-				// otherwise just make a straightforward range
-				// spanning the passed dimensional constraints
-				npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
+		axisIndex = 0;
+		for (final CalibratedAxis axis : meta.get(0).getAxesNonPlanar()) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
 
-				if (subRegion != null) {
-					entities *= subRegion.getRange(axis.type()).size();
-				}
-				else {
-					entities *= npRanges[axisIndex].size();
-				}
+			// otherwise just make a straightforward range
+			// spanning the passed dimensional constraints
+			npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
 
-				axisIndex++;
+			if (subRegion != null) {
+				entities *= subRegion.getRange(axis.type()).size();
+			}
+			else {
+				entities *= npRanges[axisIndex].size();
 			}
 
-			A data = null;
+			axisIndex++;
+		}
 
-			data = emptyArray(entities);
+		A data = null;
 
-			try {
-				final Interval planarBounds = new FinalInterval(planarMin, planarMax);
-				read(data, planarBounds, npRanges, npIndices);
-			}
-			catch (final FormatException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
-			catch (final IOException e) {
-				throw new IllegalStateException(
-					"Could not open a plane for the given dimensions", e);
-			}
+		data = emptyArray(entities);
 
-			return data;
+		try {
+			final Interval planarBounds = new FinalInterval(planarMin, planarMax);
+			read(data, planarBounds, npRanges, npIndices);
+		}
+		catch (final FormatException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(
+				"Could not open a plane for the given dimensions", e);
 		}
+
+		return data;
 	}
 
 	public void loadArray(final Interval bounds, final A data) {
-		synchronized (reader) {
-			final Metadata meta = reader.getMetadata();
-
-			final List<CalibratedAxis> planarAxes = meta.get(0).getAxesPlanar();
-			final List<CalibratedAxis> nonPlanarAxes = meta.get(0).getAxesNonPlanar();
-			final int planarAxisCount = planarAxes.size();
-			final int nonPlanarAxisCount = nonPlanarAxes.size();
-
-			// Starting indices for the planar dimensions
-			final long[] planarMin = new long[planarAxisCount];
-			// Lengths in the planar dimensions
-			final long[] planarMax = new long[planarAxisCount];
-			// Non-planar indices to open
-			final Range[] npRanges = new Range[nonPlanarAxisCount];
-			final long[] npIndices = new long[npRanges.length];
-
-			int axisIndex = 0;
-			// Get planar ranges
-			for (final CalibratedAxis axis : planarAxes) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
-
-				// Constrain on passed dims
-				if (index < bounds.numDimensions()) {
-					planarMin[axisIndex] = bounds.min(index);
-					planarMax[axisIndex] = bounds.max(index);
-				}
-
-				axisIndex++;
+		final Metadata meta = reader.getMetadata();
+
+		final List<CalibratedAxis> planarAxes = meta.get(0).getAxesPlanar();
+		final List<CalibratedAxis> nonPlanarAxes = meta.get(0).getAxesNonPlanar();
+		final int planarAxisCount = planarAxes.size();
+		final int nonPlanarAxisCount = nonPlanarAxes.size();
+
+		// Starting indices for the planar dimensions
+		final long[] planarMin = new long[planarAxisCount];
+		// Lengths in the planar dimensions
+		final long[] planarMax = new long[planarAxisCount];
+		// Non-planar indices to open
+		final Range[] npRanges = new Range[nonPlanarAxisCount];
+		final long[] npIndices = new long[npRanges.length];
+
+		int axisIndex = 0;
+		// Get planar ranges
+		for (final CalibratedAxis axis : planarAxes) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
+
+			// Constrain on passed dims
+			if (index < bounds.numDimensions()) {
+				planarMin[axisIndex] = bounds.min(index);
+				planarMax[axisIndex] = bounds.max(index);
 			}
 
-			axisIndex = 0;
-			for (final CalibratedAxis axis : nonPlanarAxes) {
-				final int index = meta.get(0).getAxisIndex(axis.type());
+			axisIndex++;
+		}
 
-				// otherwise just make a straightforward range spanning the
-				// passed
-				// dimensional constraints
-				npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
+		axisIndex = 0;
+		for (final CalibratedAxis axis : nonPlanarAxes) {
+			final int index = meta.get(0).getAxisIndex(axis.type());
 
-				axisIndex++;
-			}
+			// otherwise just make a straightforward range spanning the
+			// passed
+			// dimensional constraints
+			npRanges[axisIndex] = new Range(bounds.min(index), bounds.max(index));
 
-			try {
-				final Interval planarBounds = new FinalInterval(planarMin, planarMax);
-				read(data, planarBounds, npRanges, npIndices);
-			}
-			catch (final FormatException e) {
-				throw new IllegalStateException(
-						"Could not open a plane for the given dimensions", e);
-			}
-			catch (final IOException e) {
-				throw new IllegalStateException(
-						"Could not open a plane for the given dimensions", e);
-			}
+			axisIndex++;
+		}
+
+		try {
+			final Interval planarBounds = new FinalInterval(planarMin, planarMax);
+			read(data, planarBounds, npRanges, npIndices);
+		}
+		catch (final FormatException e) {
+			throw new IllegalStateException(
+					"Could not open a plane for the given dimensions", e);
+		}
+		catch (final IOException e) {
+			throw new IllegalStateException(
+					"Could not open a plane for the given dimensions", e);
 		}
 	}
 
 	/**
 	 * Entry point for
-	 * {@link #read(Object, Plane, Interval, Range[], long[], int, int)}
+	 * {@link #read(Reader, Object, Plane, Interval, Range[], long[], int, int)}
+	 * . Uses a reader from the {@link ReaderPool} if one is set, or the shared
+	 * reader otherwise.
 	 */
 	private void read(final A data, final Interval bounds, final Range[] npRanges,
 		final long[] npIndices) throws FormatException, IOException
 	{
-		read(data, null, bounds, npRanges, npIndices, 0, 0);
+		if (readerPool == null) {
+			synchronized (reader) {
+				read(reader, data, null, bounds, npRanges, npIndices, 0, 0);
+			}
+			return;
+		}
+
+		final Reader r = readerPool.lease();
+		try {
+			read(r, data, null, bounds, npRanges, npIndices, 0, 0);
+		}
+		finally {
+			readerPool.release(r);
+		}
 	}
 
 	/**
 	 * Recurses over all the provided {@link Range}s, reading the corresponding
 	 * bytes and storing them in the provided data object.
 	 */
-	private void read(final A data, Plane tmpPlane, final Interval bounds,
-		final Range[] npRanges, final long[] npIndices, final int depth,
-		int planeCount) throws FormatException, IOException
+	private void read(final Reader r, final A data, Plane tmpPlane,
+		final Interval bounds, final Range[] npRanges, final long[] npIndices,
+		final int depth, int planeCount) throws FormatException, IOException
 	{
 		if (depth < npRanges.length) {
 			// We need to invert the depth index to get the current non-planar
@@ -266,19 +289,19 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 			final int npPosition = npRanges.length - 1 - depth;
 			for (int i = 0; i < npRanges[npPosition].size(); i++) {
 				npIndices[npPosition] = npRanges[npPosition].get(i);
-				read(data, tmpPlane, bounds, npRanges, npIndices, depth + 1,
+				read(r, data, tmpPlane, bounds, npRanges, npIndices, depth + 1,
 					planeCount);
 				planeCount++;
 			}
 		}
 		else if (inSubregion(npIndices)) {
 			final int planeIndex =
-				(int) FormatTools.positionToRaster(0, reader, npIndices);
+				(int) FormatTools.positionToRaster(0, r, npIndices);
 
-			validateBounds(getPlanarAxisLengths(reader.getMetadata()), bounds);
+			validateBounds(getPlanarAxisLengths(r.getMetadata()), bounds);
 
 			if (tmpPlane == null) {
-				tmpPlane = reader.openPlane(index, planeIndex, bounds);
+				tmpPlane = r.openPlane(index, planeIndex, bounds);
 			}
 			else {
 				// Sanity check!
@@ -287,7 +310,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 					throw new IllegalArgumentException("Expected tmpPlane length " +
 						expectedLength + " but was " + tmpPlane.getBytes().length);
 				}
-				tmpPlane = reader.openPlane(index, planeIndex, tmpPlane, bounds);
+				tmpPlane = r.openPlane(index, planeIndex, tmpPlane, bounds);
 			}
 			convertBytes(data, tmpPlane.getBytes(), planeCount);
 
@@ -324,7 +347,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 		return meta.get(0);
 	}
 
-	private boolean[][] loadedTable() {
+	private synchronized boolean[][] loadedTable() {
 		if (loadedTable == null) {
 			final Metadata m = reader.getMetadata();
 			loadedTable =
@@ -347,7 +370,9 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	 * @return the possibly null {@link ColorTable} at the specified image and
 	 *         plane indices
 	 */
-	private ColorTable getTable(final int imageIndex, final int planeIndex) {
+	private synchronized ColorTable getTable(final int imageIndex,
+		final int planeIndex)
+	{
 		final List<List<ColorTable>> tables = tables();
 
 		// Ensure capacity
@@ -365,7 +390,7 @@ public abstract class AbstractArrayLoader<A> implements SCIFIOArrayLoader<A> {
 	/**
 	 * Inserts the given {@link ColorTable} at the specified indices.
 	 */
-	private void addTable(final int imageIndex, final int planeIndex,
+	private synchronized void addTable(final int imageIndex, final int planeIndex,
 		final ColorTable colorTable)
 	{
 		final ColorTable ct = getTable(imageIndex, planeIndex);
@@ -34,8 +34,11 @@ import java.util.function.IntFunction;
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
+import net.imglib2.Dirty;
 import net.imglib2.img.basictypeaccess.ByteAccess;
+import net.imglib2.img.basictypeaccess.array.AbstractByteArray;
 import net.imglib2.type.numeric.integer.GenericByteType;
 
 /**
@@ -59,28 +62,32 @@ public class ByteAccessLoader extends AbstractArrayLoader< ByteAccess >
 	public void convertBytes( final ByteAccess data, final byte[] bytes,
 			final int planesRead )
 	{
-		if ( isCompatible() )
-		{
-			final int offset = planesRead * bytes.length;
+		final ImageMetadata iMeta = reader().getMetadata().get( 0 );
+		final int pixelType = iMeta.getPixelType();
+		final int bpp = isCompatible() ? Byte.BYTES : FormatTools
+				.getBytesPerPixel( pixelType );
+		final int count = bytes.length / bpp;
+		final int offset = planesRead * count;
 
-			for ( int i = 0, k = offset; i < bytes.length; ++i, ++k )
-				data.setValue( k, bytes[ i ] );
-		}
+		// decode straight into the backing array when there is one
+		final boolean direct = data instanceof AbstractByteArray;
+		final byte[] values = direct ? ( ( AbstractByteArray< ? > ) data )
+				.getCurrentStorageArray() : new byte[ count ];
+		final int start = direct ? offset : 0;
+
+		if ( isCompatible() )
+			System.arraycopy( bytes, 0, values, start, count );
 		else
-		{
-			final ImageMetadata iMeta = reader().getMetadata().get( 0 );
-			final int pixelType = iMeta.getPixelType();
-			final int bpp = FormatTools.getBytesPerPixel( pixelType );
-			final int offset = planesRead * ( bytes.length / bpp );
+			ConversionTools.decodeBytes( bytes, 0, pixelType, iMeta.isLittleEndian(),
+					values, start, count );
 
-			for ( int index = 0; index < bytes.length / bpp; index++ )
-			{
-				final byte value =
-						( byte ) utils().decodeWord( bytes, index * bpp, pixelType,
-								iMeta.isLittleEndian() );
-				data.setValue( offset + index, value );
-			}
+		if ( !direct )
+		{
+			for ( int index = 0; index < count; index++ )
+				data.setValue( offset + index, values[ index ] );
 		}
+		else if ( data instanceof Dirty )
+			( ( Dirty ) data ).setDirty();
 	}
 
 	@Override
@@ -29,15 +29,16 @@
 
 package io.scif.img.cell.loaders;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.IntFunction;
 
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
+import net.imglib2.Dirty;
 import net.imglib2.img.basictypeaccess.CharAccess;
+import net.imglib2.img.basictypeaccess.array.AbstractCharArray;
 import net.imglib2.img.basictypeaccess.array.CharArray;
 import net.imglib2.type.numeric.integer.GenericByteType;
 
@@ -63,31 +64,32 @@ public class CharAccessLoader extends AbstractArrayLoader< CharAccess >
 			final int planesRead )
 	{
 		final ImageMetadata iMeta = reader().getMetadata().get( 0 );
-		if ( isCompatible() )
-		{
-			final int offset = planesRead * bytes.length;
+		final int pixelType = iMeta.getPixelType();
+		final int bpp = isCompatible() ? Character.BYTES : FormatTools
+				.getBytesPerPixel( pixelType );
+		final int count = bytes.length / bpp;
+		final int offset = planesRead * count;
 
-			final ByteBuffer bb = ByteBuffer.wrap( bytes );
+		// decode straight into the backing array when there is one
+		final boolean direct = data instanceof AbstractCharArray;
+		final char[] values = direct ? ( ( AbstractCharArray< ? > ) data )
+				.getCurrentStorageArray() : new char[ count ];
+		final int start = direct ? offset : 0;
 
-			bb.order( iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-					: ByteOrder.BIG_ENDIAN );
-			for ( int k = offset; bb.hasRemaining(); ++k )
-				data.setValue( k, bb.getChar() );
-		}
+		if ( isCompatible() )
+			ConversionTools.copyChars( bytes, 0, iMeta.isLittleEndian(), values,
+					start, count );
 		else
-		{
-			final int pixelType = iMeta.getPixelType();
-			final int bpp = FormatTools.getBytesPerPixel( pixelType );
-			final int offset = planesRead * ( bytes.length / bpp );
+			ConversionTools.decodeChars( bytes, 0, pixelType, iMeta.isLittleEndian(),
+					values, start, count );
 
-			for ( int index = 0; index < bytes.length / bpp; index++ )
-			{
-				final char value =
-						( char ) utils().decodeWord( bytes, index * bpp, pixelType,
-								iMeta.isLittleEndian() );
-				data.setValue( offset + index, value );
-			}
+		if ( !direct )
+		{
+			for ( int index = 0; index < count; index++ )
+				data.setValue( offset + index, values[ index ] );
 		}
+		else if ( data instanceof Dirty )
+			( ( Dirty ) data ).setDirty();
 	}
 
 	@Override
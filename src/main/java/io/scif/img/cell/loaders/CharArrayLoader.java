@@ -32,11 +32,9 @@ package io.scif.img.cell.loaders;
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
 import net.imglib2.img.basictypeaccess.array.CharArray;
 import net.imglib2.type.numeric.integer.GenericByteType;
 
@@ -57,26 +55,19 @@ public class CharArrayLoader extends AbstractArrayLoader<CharArray> {
 	{
 		final ImageMetadata iMeta = reader().getMetadata().get(0);
 		if (isCompatible()) {
-			final int offset = planesRead * bytes.length;
-
-			final ByteBuffer bb = ByteBuffer.wrap(bytes);
+			final int bpp = Character.BYTES;
+			final int offset = planesRead * (bytes.length / bpp);
 
-			bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-				: ByteOrder.BIG_ENDIAN);
-			bb.asCharBuffer()
-				.get(data.getCurrentStorageArray(), offset, bytes.length);
+			ConversionTools.copyChars(bytes, 0, iMeta.isLittleEndian(), data
+				.getCurrentStorageArray(), offset, bytes.length / bpp);
 		}
 		else {
 			final int pixelType = iMeta.getPixelType();
 			final int bpp = FormatTools.getBytesPerPixel(pixelType);
 			final int offset = planesRead * (bytes.length / bpp);
 
-			for (int index = 0; index < bytes.length / bpp; index++) {
-				final char value =
-					(char) utils().decodeWord(bytes, index * bpp, pixelType,
-						iMeta.isLittleEndian());
-				data.setValue(offset + index, value);
-			}
+			ConversionTools.decodeChars(bytes, 0, pixelType, iMeta.isLittleEndian(),
+				data.getCurrentStorageArray(), offset, bytes.length / bpp);
 		}
 	}
 
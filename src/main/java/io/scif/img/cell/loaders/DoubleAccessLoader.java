@@ -29,15 +29,16 @@
 
 package io.scif.img.cell.loaders;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.IntFunction;
 
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
+import net.imglib2.Dirty;
 import net.imglib2.img.basictypeaccess.DoubleAccess;
+import net.imglib2.img.basictypeaccess.array.AbstractDoubleArray;
 import net.imglib2.img.basictypeaccess.array.DoubleArray;
 import net.imglib2.type.numeric.real.DoubleType;
 
@@ -63,31 +64,32 @@ public class DoubleAccessLoader extends AbstractArrayLoader< DoubleAccess >
 			final int planesRead )
 	{
 		final ImageMetadata iMeta = reader().getMetadata().get( 0 );
-		if ( isCompatible() )
-		{
-			final int offset = planesRead * ( bytes.length / Double.BYTES );
+		final int pixelType = iMeta.getPixelType();
+		final int bpp = isCompatible() ? Double.BYTES : FormatTools
+				.getBytesPerPixel( pixelType );
+		final int count = bytes.length / bpp;
+		final int offset = planesRead * count;
 
-			final ByteBuffer bb = ByteBuffer.wrap( bytes );
+		// decode straight into the backing array when there is one
+		final boolean direct = data instanceof AbstractDoubleArray;
+		final double[] values = direct ? ( ( AbstractDoubleArray< ? > ) data )
+				.getCurrentStorageArray() : new double[ count ];
+		final int start = direct ? offset : 0;
 
-			bb.order( iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-					: ByteOrder.BIG_ENDIAN );
-			for ( int k = offset; bb.hasRemaining(); ++k )
-				data.setValue( k, bb.getDouble() );
-		}
+		if ( isCompatible() )
+			ConversionTools.copyDoubles( bytes, 0, iMeta.isLittleEndian(), values,
+					start, count );
 		else
-		{
-			final int pixelType = iMeta.getPixelType();
-			final int bpp = FormatTools.getBytesPerPixel( pixelType );
-			final int offset = planesRead * ( bytes.length / bpp );
+			ConversionTools.decodeDoubles( bytes, 0, pixelType, iMeta.isLittleEndian(),
+					values, start, count );
 
-			for ( int index = 0; index < bytes.length / bpp; index++ )
-			{
-				final double value =
-						utils().decodeWord( bytes, index * bpp, pixelType,
-								iMeta.isLittleEndian() );
-				data.setValue( offset + index, value );
-			}
+		if ( !direct )
+		{
+			for ( int index = 0; index < count; index++ )
+				data.setValue( offset + index, values[ index ] );
 		}
+		else if ( data instanceof Dirty )
+			( ( Dirty ) data ).setDirty();
 	}
 
 	@Override
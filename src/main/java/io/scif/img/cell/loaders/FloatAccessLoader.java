@@ -29,15 +29,16 @@
 
 package io.scif.img.cell.loaders;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.IntFunction;
 
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
+import net.imglib2.Dirty;
 import net.imglib2.img.basictypeaccess.FloatAccess;
+import net.imglib2.img.basictypeaccess.array.AbstractFloatArray;
 import net.imglib2.type.numeric.real.FloatType;
 
 /**
@@ -62,32 +63,32 @@ public class FloatAccessLoader extends AbstractArrayLoader< FloatAccess >
 			final int planesRead )
 	{
 		final ImageMetadata iMeta = reader().getMetadata().get( 0 );
-		if ( isCompatible() )
-		{
-			final int offset = planesRead * ( bytes.length / Float.BYTES );
-
-			final ByteBuffer bb = ByteBuffer.wrap( bytes );
-
-			bb.order( iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-					: ByteOrder.BIG_ENDIAN );
+		final int pixelType = iMeta.getPixelType();
+		final int bpp = isCompatible() ? Float.BYTES : FormatTools
+				.getBytesPerPixel( pixelType );
+		final int count = bytes.length / bpp;
+		final int offset = planesRead * count;
 
-			for ( int k = offset; bb.hasRemaining(); ++k )
-				data.setValue( k, bb.getFloat() );
+		// decode straight into the backing array when there is one
+		final boolean direct = data instanceof AbstractFloatArray;
+		final float[] values = direct ? ( ( AbstractFloatArray< ? > ) data )
+				.getCurrentStorageArray() : new float[ count ];
+		final int start = direct ? offset : 0;
 
-		}
+		if ( isCompatible() )
+			ConversionTools.copyFloats( bytes, 0, iMeta.isLittleEndian(), values,
+					start, count );
 		else
+			ConversionTools.decodeFloats( bytes, 0, pixelType, iMeta.isLittleEndian(),
+					values, start, count );
+
+		if ( !direct )
 		{
-			final int pixelType = iMeta.getPixelType();
-			final int bpp = FormatTools.getBytesPerPixel( pixelType );
-			final int offset = planesRead * ( bytes.length / bpp );
-			for ( int index = 0; index < bytes.length / bpp; index++ )
-			{
-				final float value =
-						( float ) utils().decodeWord( bytes, index * bpp, pixelType,
-								iMeta.isLittleEndian() );
-				data.setValue( offset + index, value );
-			}
+			for ( int index = 0; index < count; index++ )
+				data.setValue( offset + index, values[ index ] );
 		}
+		else if ( data instanceof Dirty )
+			( ( Dirty ) data ).setDirty();
 	}
 
 	@Override
@@ -32,11 +32,9 @@ package io.scif.img.cell.loaders;
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-
 import net.imglib2.img.basictypeaccess.array.IntArray;
 import net.imglib2.type.numeric.integer.GenericIntType;
 
@@ -60,24 +58,16 @@ public class IntArrayLoader extends AbstractArrayLoader<IntArray> {
 			final int bpp = getBitsPerElement() / 8;
 			final int offset = planesRead * (bytes.length / bpp);
 
-			final ByteBuffer bb = ByteBuffer.wrap(bytes);
-
-			bb.order(iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-				: ByteOrder.BIG_ENDIAN);
-			bb.asIntBuffer().get(data.getCurrentStorageArray(), offset,
-				bytes.length / bpp);
+			ConversionTools.copyInts(bytes, 0, iMeta.isLittleEndian(), data
+				.getCurrentStorageArray(), offset, bytes.length / bpp);
 		}
 		else {
 			final int pixelType = iMeta.getPixelType();
 			final int bpp = FormatTools.getBytesPerPixel(pixelType);
 			final int offset = planesRead * (bytes.length / bpp);
 
-			for (int index = 0; index < bytes.length / bpp; index++) {
-				final int value =
-					(int) utils().decodeWord(bytes, index * bpp, pixelType,
-						iMeta.isLittleEndian());
-				data.setValue(offset + index, value);
-			}
+			ConversionTools.decodeInts(bytes, 0, pixelType, iMeta.isLittleEndian(),
+				data.getCurrentStorageArray(), offset, bytes.length / bpp);
 		}
 	}
 
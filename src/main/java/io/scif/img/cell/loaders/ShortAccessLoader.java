@@ -29,15 +29,16 @@
 
 package io.scif.img.cell.loaders;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.function.IntFunction;
 
 import io.scif.ImageMetadata;
 import io.scif.Reader;
 import io.scif.img.ImageRegion;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
+import net.imglib2.Dirty;
 import net.imglib2.img.basictypeaccess.ShortAccess;
+import net.imglib2.img.basictypeaccess.array.AbstractShortArray;
 import net.imglib2.img.basictypeaccess.array.ShortArray;
 import net.imglib2.type.numeric.integer.GenericShortType;
 
@@ -63,33 +64,32 @@ public class ShortAccessLoader extends AbstractArrayLoader< ShortAccess >
 			final int planesRead )
 	{
 		final ImageMetadata iMeta = reader().getMetadata().get( 0 );
+		final int pixelType = iMeta.getPixelType();
+		final int bpp = isCompatible() ? Short.BYTES : FormatTools
+				.getBytesPerPixel( pixelType );
+		final int count = bytes.length / bpp;
+		final int offset = planesRead * count;
 
-		if ( isCompatible() )
-		{
-			final int offset = planesRead * ( bytes.length / Short.BYTES );
-
-			final ByteBuffer bb = ByteBuffer.wrap( bytes );
-
-			bb.order( iMeta.isLittleEndian() ? ByteOrder.LITTLE_ENDIAN
-					: ByteOrder.BIG_ENDIAN );
+		// decode straight into the backing array when there is one
+		final boolean direct = data instanceof AbstractShortArray;
+		final short[] values = direct ? ( ( AbstractShortArray< ? > ) data )
+				.getCurrentStorageArray() : new short[ count ];
+		final int start = direct ? offset : 0;
 
-			for ( int k = offset; bb.hasRemaining(); ++k )
-				data.setValue( k, bb.getShort() );
-		}
+		if ( isCompatible() )
+			ConversionTools.copyShorts( bytes, 0, iMeta.isLittleEndian(), values,
+					start, count );
 		else
-		{
-			final int pixelType = iMeta.getPixelType();
-			final int bpp = FormatTools.getBytesPerPixel( pixelType );
-			final int offset = planesRead * ( bytes.length / bpp );
+			ConversionTools.decodeShorts( bytes, 0, pixelType, iMeta.isLittleEndian(),
+					values, start, count );
 
-			for ( int index = 0; index < bytes.length / bpp; index++ )
-			{
-				final short value =
-						( short ) utils().decodeWord( bytes, index * bpp, pixelType,
-								iMeta.isLittleEndian() );
-				data.setValue( offset + index, value );
-			}
+		if ( !direct )
+		{
+			for ( int index = 0; index < count; index++ )
+				data.setValue( offset + index, values[ index ] );
 		}
+		else if ( data instanceof Dirty )
+			( ( Dirty ) data ).setDirty();
 	}
 
 	@Override
@@ -34,6 +34,7 @@ import io.scif.Metadata;
 import io.scif.Reader;
 import io.scif.config.SCIFIOConfig;
 import io.scif.img.ImgUtilityService;
+import io.scif.util.ConversionTools;
 import io.scif.util.FormatTools;
 
 import net.imagej.ImgPlus;
@@ -84,23 +85,22 @@ public class RandomAccessConverter extends AbstractPlaneConverter {
 		final int sY = (int) img.dimension(1);
 
 		final RandomAccess<T> randomAccess = img.randomAccess();
-
-		int index = 0;
+		final double[] row = new double[sX];
 
 		for (int y = 0; y < sY; ++y) {
 			pos[planeX] = 0;
 			pos[planeY] = y;
 
 			randomAccess.setPosition(pos);
+			ConversionTools.decodeDoubles(plane, y * sX, pixelType, little, row, 0,
+				sX);
 
 			for (int x = 1; x < sX; ++x) {
-				randomAccess.get().setReal(
-					imgUtilService.decodeWord(plane, index++, pixelType, little));
+				randomAccess.get().setReal(row[x - 1]);
 				randomAccess.fwd(planeX);
 			}
 
-			randomAccess.get().setReal(
-				imgUtilService.decodeWord(plane, index++, pixelType, little));
+			randomAccess.get().setReal(row[sX - 1]);
 		}
 	}
 
@@ -106,6 +106,45 @@ public class BZip2Handle extends StreamHandle {
 		setStream(new DataInputStream(new CBZip2InputStream(bis, log)));
 	}
 
+	// -- Internal StreamHandle API methods --
+
+	@Override
+	protected CheckpointIndex buildCheckpoints(final long span)
+		throws IOException
+	{
+		final CheckpointIndex.Builder builder = new CheckpointIndex.Builder();
+		final BufferedInputStream bis =
+			new BufferedInputStream(new FileInputStream(getFile()),
+				RandomAccessInputStream.MAX_OVERHEAD);
+		bis.skip(2);
+		try (final CBZip2InputStream in = new CBZip2InputStream(bis, log)) {
+			in.setCheckpoints(builder, span);
+			final byte[] buf = new byte[8192];
+			long length = 0;
+			for (int n; (n = in.read(buf, 0, buf.length)) > 0;) {
+				length += n;
+			}
+			return builder.build(length);
+		}
+	}
+
+	@Override
+	protected void resumeStream(final CheckpointIndex index,
+		final int checkpoint) throws IOException
+	{
+		if (getStream() != null) getStream().close();
+		final FileInputStream in = new FileInputStream(getFile());
+		// NB: The header is "BZh" followed by the block size digit; bit offsets
+		// are counted from the end of the header.
+		final byte[] header = new byte[4];
+		new DataInputStream(in).readFully(header);
+		in.getChannel().position(4 + (index.getBitOffset(checkpoint) >>> 3));
+		final BufferedInputStream bis =
+			new BufferedInputStream(in, RandomAccessInputStream.MAX_OVERHEAD);
+		setStream(new DataInputStream(new CBZip2InputStream(bis, log,
+			header[3] - '0', index, checkpoint)));
+	}
+
 	// -- IStreamAccess API methods --
 
 	@Override
@@ -117,15 +156,17 @@ public class BZip2Handle extends StreamHandle {
 
 		resetStream();
 
-		int length = 0;
-		while (true) {
-			final int skip = getStream().skipBytes(1024);
-			if (skip <= 0) break;
-			length += skip;
-		}
+		if (!loadCheckpoints()) {
+			long length = 0;
+			while (true) {
+				final int skip = getStream().skipBytes(1024);
+				if (skip <= 0) break;
+				length += skip;
+			}
 
-		setLength(length);
+			setLength(length);
 
-		resetStream();
+			resetStream();
+		}
 	}
 }
@@ -179,6 +179,19 @@ public class CBZip2InputStream extends InputStream {
 
 	private int bsLive;
 
+	/** Number of bytes read from the input. */
+	private long bsCount;
+
+	/** Number of bytes decompressed so far. */
+	private long produced;
+
+	/** Whether decompression started at a checkpoint, rather than the start. */
+	private boolean partial;
+
+	private CheckpointIndex.Builder checkpoints;
+
+	private long span;
+
 	private final CRC crc = new CRC();
 
 	private int nInUse;
@@ -260,6 +273,38 @@ public class CBZip2InputStream extends InputStream {
 		init();
 	}
 
+	/**
+	 * Resumes decompressing from the given checkpoint. The stream must be
+	 * positioned at the byte containing the checkpoint's bit offset, counted
+	 * from the end of the stream header.
+	 */
+	CBZip2InputStream(final InputStream in, final LogService log,
+		final int blockSize100k, final CheckpointIndex index, final int checkpoint)
+		throws IOException
+	{
+		super();
+
+		this.in = in;
+		this.log = log;
+		this.blockSize100k = blockSize100k;
+		this.partial = true;
+		this.produced = index.getPosition(checkpoint);
+		bsR((int) (index.getBitOffset(checkpoint) & 7));
+		initBlock();
+		setupBlock();
+	}
+
+	/**
+	 * Records a checkpoint at the first block boundary after each {@code span}
+	 * bytes of output. BZip2 blocks are independent, so no history is needed.
+	 */
+	void setCheckpoints(final CheckpointIndex.Builder checkpoints,
+		final long span)
+	{
+		this.checkpoints = checkpoints;
+		this.span = span;
+	}
+
 	@Override
 	public int read() throws IOException {
 		if (this.in != null) return read0();
@@ -350,6 +395,7 @@ public class CBZip2InputStream extends InputStream {
 	}
 
 	private void initBlock() throws IOException {
+		final long bit = 8 * this.bsCount - this.bsLive;
 		final char magic0 = bsGetUByte();
 		final char magic1 = bsGetUByte();
 		final char magic2 = bsGetUByte();
@@ -373,6 +419,11 @@ public class CBZip2InputStream extends InputStream {
 			throw new IOException("bad block header");
 		}
 		else {
+			if (this.checkpoints != null &&
+				this.produced - this.checkpoints.last() >= this.span)
+			{
+				this.checkpoints.add(this.produced, bit, null);
+			}
 			this.storedBlockCRC = bsGetInt();
 			this.blockRandomised = bsR(1) == 1;
 
@@ -414,7 +465,7 @@ public class CBZip2InputStream extends InputStream {
 		this.currentState = EOF;
 		this.data = null;
 
-		if (this.storedCombinedCRC != this.computedCombinedCRC) {
+		if (!this.partial && this.storedCombinedCRC != this.computedCombinedCRC) {
 			reportCRCError();
 		}
 	}
@@ -441,6 +492,7 @@ public class CBZip2InputStream extends InputStream {
 			final InputStream inShadow = this.in;
 			do {
 				final int thech = inShadow.read();
+				this.bsCount++;
 
 				if (thech < 0) throw new IOException("unexpected end of stream");
 
@@ -671,6 +723,7 @@ public class CBZip2InputStream extends InputStream {
 					// int zvec = bsR(zn);
 					while (bsLiveShadow < zn) {
 						final int thech = inShadow.read();
+						this.bsCount++;
 						if (thech >= 0) {
 							bsBuffShadow = (bsBuffShadow << 8) | thech;
 							bsLiveShadow += 8;
@@ -685,6 +738,7 @@ public class CBZip2InputStream extends InputStream {
 						zn++;
 						while (bsLiveShadow < 1) {
 							final int thech = inShadow.read();
+							this.bsCount++;
 							if (thech >= 0) {
 								bsBuffShadow = (bsBuffShadow << 8) | thech;
 								bsLiveShadow += 8;
@@ -744,6 +798,7 @@ public class CBZip2InputStream extends InputStream {
 				// int zvec = bsR(zn);
 				while (bsLiveShadow < zn) {
 					final int thech = inShadow.read();
+					this.bsCount++;
 					if (thech >= 0) {
 						bsBuffShadow = (bsBuffShadow << 8) | thech;
 						bsLiveShadow += 8;
@@ -758,6 +813,7 @@ public class CBZip2InputStream extends InputStream {
 					zn++;
 					while (bsLiveShadow < 1) {
 						final int thech = inShadow.read();
+						this.bsCount++;
 						if (thech >= 0) {
 							bsBuffShadow = (bsBuffShadow << 8) | thech;
 							bsLiveShadow += 8;
@@ -791,6 +847,7 @@ public class CBZip2InputStream extends InputStream {
 			zn++;
 			while (bsLiveShadow < 1) {
 				final int thech = inShadow.read();
+				this.bsCount++;
 
 				if (thech >= 0) {
 					bsBuffShadow = (bsBuffShadow << 8) | thech;
@@ -859,6 +916,7 @@ public class CBZip2InputStream extends InputStream {
 			this.currentChar = suCh2Shadow;
 			this.currentState = RAND_PART_B_STATE;
 			this.crc.updateCRC(suCh2Shadow);
+			this.produced++;
 		}
 		else {
 			endBlock();
@@ -877,6 +935,7 @@ public class CBZip2InputStream extends InputStream {
 			this.currentChar = suCh2Shadow;
 			this.currentState = NO_RAND_PART_B_STATE;
 			this.crc.updateCRC(suCh2Shadow);
+			this.produced++;
 		}
 		else {
 			this.currentState = NO_RAND_PART_A_STATE;
@@ -917,6 +976,7 @@ public class CBZip2InputStream extends InputStream {
 		if (this.suJ2 < this.suZ) {
 			this.currentChar = this.suCh2;
 			this.crc.updateCRC(this.suCh2);
+			this.produced++;
 			this.suJ2++;
 		}
 		else {
@@ -946,6 +1006,7 @@ public class CBZip2InputStream extends InputStream {
 			final int suCh2Shadow = this.suCh2;
 			this.currentChar = suCh2Shadow;
 			this.crc.updateCRC(suCh2Shadow);
+			this.produced++;
 			this.suJ2++;
 			this.currentState = NO_RAND_PART_C_STATE;
 		}
@@ -0,0 +1,234 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * An index of the places in a compressed stream where decompression can be
+ * restarted without starting over from the beginning.
+ * <p>
+ * Each checkpoint records a position in the uncompressed data, the bit offset
+ * in the compressed data where decompression resumes to produce it, and the
+ * history (e.g. the last 32 KiB of output for deflate) the decompressor needs
+ * at that point. A backward seek then only has to decompress from the nearest
+ * checkpoint, rather than from the start of the stream.
+ * </p>
+ * <p>
+ * An index can be persisted to a {@link SidecarFile} next to the compressed
+ * file.
+ * </p>
+ */
+public final class CheckpointIndex {
+
+	// -- Constants --
+
+	/** Default distance between checkpoints, in uncompressed bytes. */
+	public static final long DEFAULT_SPAN = 1 << 20;
+
+	/** Suffix appended to the compressed file name to name its sidecar. */
+	public static final String SUFFIX = ".ckpt";
+
+	/** Sidecar magic number, "CKPT". */
+	private static final int MAGIC = 0x434b5054;
+
+	private static final int VERSION = 1;
+
+	private static final SidecarFile SIDECAR = new SidecarFile(SUFFIX, MAGIC,
+		VERSION);
+
+	private static final byte[] NO_HISTORY = new byte[0];
+
+	// -- Fields --
+
+	/** Total length of the uncompressed data. */
+	private final long length;
+
+	/** Uncompressed position of each checkpoint, in increasing order. */
+	private final long[] positions;
+
+	/** Compressed bit offset of each checkpoint. */
+	private final long[] bits;
+
+	/** Decompressor history of each checkpoint. */
+	private final byte[][] history;
+
+	// -- Constructor --
+
+	private CheckpointIndex(final long length, final long[] positions,
+		final long[] bits, final byte[][] history)
+	{
+		this.length = length;
+		this.positions = positions;
+		this.bits = bits;
+		this.history = history;
+	}
+
+	// -- CheckpointIndex methods --
+
+	/** Gets the total length of the uncompressed data. */
+	public long length() {
+		return length;
+	}
+
+	/** Gets the number of checkpoints. */
+	public int size() {
+		return positions.length;
+	}
+
+	/** Gets the uncompressed position of the given checkpoint. */
+	public long getPosition(final int checkpoint) {
+		return positions[checkpoint];
+	}
+
+	/** Gets the compressed bit offset of the given checkpoint. */
+	public long getBitOffset(final int checkpoint) {
+		return bits[checkpoint];
+	}
+
+	/**
+	 * Gets the decompressor history of the given checkpoint. The returned array
+	 * must not be modified.
+	 */
+	public byte[] getHistory(final int checkpoint) {
+		return history[checkpoint];
+	}
+
+	/**
+	 * Gets the last checkpoint at or before the given uncompressed position.
+	 *
+	 * @return The checkpoint index, or -1 if the position precedes all
+	 *         checkpoints.
+	 */
+	public int floor(final long position) {
+		final int i = Arrays.binarySearch(positions, position);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	// -- Sidecar methods --
+
+	/** Gets the sidecar file of the given compressed file. */
+	public static File getIndexFile(final File source) {
+		return SIDECAR.getFile(source);
+	}
+
+	/**
+	 * Reads the index of the given compressed file from its sidecar.
+	 *
+	 * @return The index, or null if there is no valid, up-to-date sidecar.
+	 */
+	public static CheckpointIndex read(final File source) throws IOException {
+		try (final DataInputStream in = SIDECAR.open(source)) {
+			if (in == null) return null;
+			// NB: The checkpoint histories compress well, so the body is deflated.
+			final DataInputStream body = new DataInputStream(
+				new BufferedInputStream(new InflaterInputStream(in)));
+			final long length = body.readLong();
+			final int count = body.readInt();
+			if (length < 0 || count < 0) return null;
+			final Builder builder = new Builder();
+			for (int i = 0; i < count; i++) {
+				final long position = body.readLong();
+				final long bit = body.readLong();
+				final byte[] h = new byte[body.readInt()];
+				body.readFully(h);
+				if (position < 0 || position > length || bit < 0) return null;
+				if (i > 0 && position <= builder.positions[i - 1]) return null;
+				builder.add(position, bit, h);
+			}
+			return builder.build(length);
+		}
+	}
+
+	/** Writes this index of the given compressed file to its sidecar. */
+	public void write(final File source) throws IOException {
+		SIDECAR.write(source, out -> {
+			final DeflaterOutputStream deflater = new DeflaterOutputStream(out);
+			final DataOutputStream body =
+				new DataOutputStream(new BufferedOutputStream(deflater));
+			body.writeLong(length);
+			body.writeInt(positions.length);
+			for (int i = 0; i < positions.length; i++) {
+				body.writeLong(positions[i]);
+				body.writeLong(bits[i]);
+				body.writeInt(history[i].length);
+				body.write(history[i]);
+			}
+			body.flush();
+			deflater.finish();
+		});
+	}
+
+	// -- Helper classes --
+
+	/** Collects checkpoints, in increasing order, while a stream is scanned. */
+	public static final class Builder {
+
+		private long[] positions = new long[16];
+
+		private long[] bits = new long[16];
+
+		private byte[][] history = new byte[16][];
+
+		private int size;
+
+		/** Adds a checkpoint after all previously added ones. */
+		public void add(final long position, final long bit, final byte[] h) {
+			if (size == positions.length) {
+				positions = Arrays.copyOf(positions, 2 * size);
+				bits = Arrays.copyOf(bits, 2 * size);
+				history = Arrays.copyOf(history, 2 * size);
+			}
+			positions[size] = position;
+			bits[size] = bit;
+			history[size] = h == null || h.length == 0 ? NO_HISTORY : h;
+			size++;
+		}
+
+		/** Gets the uncompressed position of the last added checkpoint. */
+		public long last() {
+			return size == 0 ? 0 : positions[size - 1];
+		}
+
+		/** Builds the index of a stream of the given uncompressed length. */
+		public CheckpointIndex build(final long length) {
+			return new CheckpointIndex(length, Arrays.copyOf(positions, size),
+				Arrays.copyOf(bits, size), Arrays.copyOf(history, size));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lists the contents of local directory trees using NIO directory streams.
+ * <p>
+ * Entries are consumed as the directory is read, rather than after the whole
+ * listing has been materialized. Each batch of entries is classified on a
+ * separate fork/join task while the stream keeps being read, and each
+ * subdirectory is scanned as its own task, so the per-entry metadata lookups
+ * of large or remote directories overlap.
+ * </p>
+ */
+public final class DirectoryScanner {
+
+	/** Number of directory entries classified by a single task. */
+	private static final int BATCH_SIZE = 1024;
+
+	private DirectoryScanner() {
+		// prevent instantiation of utility class
+	}
+
+	// -- DirectoryScanner API methods --
+
+	/**
+	 * Gets the absolute paths of all non-directory entries beneath the given
+	 * directory, descending into subdirectories. The order of the result is
+	 * unspecified.
+	 */
+	public static List<String> listFiles(final Path dir) throws IOException {
+		try {
+			return ForkJoinPool.commonPool().invoke(new ScanTask(dir
+				.toAbsolutePath()));
+		}
+		catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	// -- Helper classes --
+
+	/** Scans one directory, forking a task per subdirectory and batch. */
+	private static class ScanTask extends RecursiveTask<List<String>> {
+
+		private final Path dir;
+
+		public ScanTask(final Path dir) {
+			this.dir = dir;
+		}
+
+		@Override
+		protected List<String> compute() {
+			final List<RecursiveTask<List<String>>> tasks = new ArrayList<>();
+			try (final DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+				List<Path> batch = new ArrayList<>(BATCH_SIZE);
+				for (final Path entry : stream) {
+					batch.add(entry);
+					if (batch.size() == BATCH_SIZE) {
+						tasks.add(new BatchTask(batch));
+						tasks.get(tasks.size() - 1).fork();
+						batch = new ArrayList<>(BATCH_SIZE);
+					}
+				}
+				tasks.add(new BatchTask(batch));
+				tasks.get(tasks.size() - 1).fork();
+			}
+			catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			final List<String> files = new ArrayList<>();
+			for (final RecursiveTask<List<String>> task : tasks) {
+				files.addAll(task.join());
+			}
+			return files;
+		}
+	}
+
+	/** Classifies a batch of entries, descending into the directories. */
+	private static class BatchTask extends RecursiveTask<List<String>> {
+
+		private final List<Path> entries;
+
+		public BatchTask(final List<Path> entries) {
+			this.entries = entries;
+		}
+
+		@Override
+		protected List<String> compute() {
+			final List<String> files = new ArrayList<>(entries.size());
+			final List<ScanTask> subdirs = new ArrayList<>();
+			for (final Path entry : entries) {
+				if (Files.isDirectory(entry)) {
+					final ScanTask task = new ScanTask(entry);
+					task.fork();
+					subdirs.add(task);
+				}
+				else files.add(entry.toString());
+			}
+			for (final ScanTask task : subdirs) {
+				files.addAll(task.join());
+			}
+			return files;
+		}
+	}
+
+}
@@ -49,6 +49,11 @@ import org.scijava.util.Bytes;
 @Plugin(type = IStreamAccess.class)
 public class GZipHandle extends StreamHandle {
 
+	// -- Fields --
+
+	/** Offset of the gzip data within the file. */
+	private long offset;
+
 	// -- Constructor --
 
 	/**
@@ -93,9 +98,47 @@ public class GZipHandle extends StreamHandle {
 	public void resetStream() throws IOException {
 		if (getStream() != null) getStream().close();
 		final BufferedInputStream bis =
-			new BufferedInputStream(new FileInputStream(getFile()),
-				RandomAccessInputStream.MAX_OVERHEAD);
-		setStream(new DataInputStream(new GZIPInputStream(bis)));
+			new BufferedInputStream(open(0), RandomAccessInputStream.MAX_OVERHEAD);
+		try {
+			setStream(new DataInputStream(new GZIPInputStream(bis)));
+		}
+		catch (final IOException e) {
+			bis.close();
+			throw e;
+		}
+	}
+
+	// -- StreamHandle API methods --
+
+	@Override
+	public CheckpointIndex getCheckpoints() throws IOException {
+		final CheckpointIndex index = super.getCheckpoints();
+		// NB: Building the checkpoints also measures the stream.
+		if (index != null) setLength(index.length());
+		return index;
+	}
+
+	// -- Internal StreamHandle API methods --
+
+	@Override
+	protected CheckpointIndex buildCheckpoints(final long span)
+		throws IOException
+	{
+		final CheckpointIndex.Builder builder = new CheckpointIndex.Builder();
+		try (final GZipInflater inflater = new GZipInflater(open(0), true)) {
+			inflater.setCheckpoints(builder, span);
+			inflater.skip(Long.MAX_VALUE);
+			return builder.build(inflater.getPosition());
+		}
+	}
+
+	@Override
+	protected void resumeStream(final CheckpointIndex index,
+		final int checkpoint) throws IOException
+	{
+		if (getStream() != null) getStream().close();
+		setStream(new DataInputStream(new GZipInflater(open(index.getBitOffset(
+			checkpoint) >>> 3), true, index, checkpoint)));
 	}
 
 	// -- IStreamAccess API methods --
@@ -103,22 +146,53 @@ public class GZipHandle extends StreamHandle {
 	@Override
 	public void setFile(final String file) throws IOException {
 		super.setFile(file);
+		offset = 0;
 		if (!isConstructable(file)) {
 			throw new HandleException(file + " is not a gzip file.");
 		}
 
 		resetStream();
 
-		int length = 0;
-		while (true) {
-			final int skip = getStream().skipBytes(1024);
-			if (skip <= 0) break;
-			length += skip;
+		if (!loadCheckpoints()) {
+			long length = 0;
+			while (true) {
+				final int skip = getStream().skipBytes(1024);
+				if (skip <= 0) break;
+				length += skip;
+			}
+
+			setLength(length);
+
+			resetStream();
 		}
+	}
 
-		setLength(length);
+	// -- GZipHandle API methods --
 
+	/**
+	 * Opens the gzip data starting at the given offset of the given file, such
+	 * as data following an uncompressed header. Unlike {@link #setFile(String)},
+	 * this does not decompress all of the data up front to measure it, so
+	 * {@link #length()} is 0 until the checkpoints are loaded or built.
+	 *
+	 * @throws java.util.zip.ZipException if the data is not in gzip format.
+	 */
+	public void setFile(final String file, final long offset)
+		throws IOException
+	{
+		super.setFile(file);
+		this.offset = offset;
 		resetStream();
+		loadCheckpoints();
+	}
+
+	// -- Helper methods --
+
+	/** Opens the file at the given position within the gzip data. */
+	private FileInputStream open(final long pos) throws IOException {
+		final FileInputStream in = new FileInputStream(getFile());
+		in.getChannel().position(offset + pos);
+		return in;
 	}
 
 }
@@ -0,0 +1,567 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.ZipException;
+
+/**
+ * A deflate decompressor that can record and resume from
+ * {@link CheckpointIndex} checkpoints.
+ * <p>
+ * {@link java.util.zip.Inflater} can neither report the bit offsets of deflate
+ * blocks nor start decompressing in the middle of a stream, so this class
+ * implements the format (RFC 1951, and the RFC 1952 gzip wrapper, including
+ * concatenated members) itself. Checkpoints are taken at block boundaries,
+ * together with the last 32 KiB of output that later blocks may refer back to.
+ * Gzip trailers are skipped, not verified.
+ * </p>
+ */
+final class GZipInflater extends InputStream {
+
+	// -- Constants --
+
+	/** Maximum distance a deflate match may refer back. */
+	private static final int HISTORY = 32768;
+
+	/** Size of the circular output window; a power of two. */
+	private static final int WINDOW = 1 << 16;
+
+	private static final int WINDOW_MASK = WINDOW - 1;
+
+	/** Bytes of zero padding tolerated past the end of the input. */
+	private static final int MAX_PADDING = 4;
+
+	private static final int STATE_MEMBER = 0;
+
+	private static final int STATE_BLOCK = 1;
+
+	private static final int STATE_STORED = 2;
+
+	private static final int STATE_HUFFMAN = 3;
+
+	private static final int STATE_DONE = 4;
+
+	private static final int[] LENGTH_BASE = { 3, 4, 5, 6, 7, 8, 9, 10, 11, 13,
+		15, 17, 19, 23, 27, 31, 35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195,
+		227, 258 };
+
+	private static final int[] LENGTH_EXTRA = { 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1,
+		1, 2, 2, 2, 2, 3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0 };
+
+	private static final int[] DISTANCE_BASE = { 1, 2, 3, 4, 5, 7, 9, 13, 17,
+		25, 33, 49, 65, 97, 129, 193, 257, 385, 513, 769, 1025, 1537, 2049, 3073,
+		4097, 6145, 8193, 12289, 16385, 24577 };
+
+	private static final int[] DISTANCE_EXTRA = { 0, 0, 0, 0, 1, 1, 2, 2, 3, 3,
+		4, 4, 5, 5, 6, 6, 7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13 };
+
+	/** Order of the code length code lengths in a dynamic block header. */
+	private static final int[] CODE_LENGTH_ORDER = { 16, 17, 18, 0, 8, 7, 9, 6,
+		10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15 };
+
+	private static final Table FIXED_LITERALS;
+
+	private static final Table FIXED_DISTANCES;
+
+	static {
+		final byte[] lengths = new byte[288];
+		for (int i = 0; i < 288; i++) {
+			lengths[i] = (byte) (i < 144 ? 8 : i < 256 ? 9 : i < 280 ? 7 : 8);
+		}
+		final byte[] distances = new byte[30];
+		for (int i = 0; i < 30; i++) {
+			distances[i] = 5;
+		}
+		try {
+			FIXED_LITERALS = new Table(lengths, 0, 288);
+			FIXED_DISTANCES = new Table(distances, 0, 30);
+		}
+		catch (final ZipException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// -- Fields --
+
+	private InputStream in;
+
+	/** Whether the input is gzip-wrapped, rather than raw deflate. */
+	private final boolean gzip;
+
+	private final byte[] inBuffer = new byte[8192];
+
+	private final byte[] single = new byte[1];
+
+	private int inPos, inLength;
+
+	/** Bytes fetched into the input buffer so far. */
+	private long inCount;
+
+	/** Bit offset of the first input byte within the compressed stream. */
+	private final long inBase;
+
+	private int padding;
+
+	private long bitBuffer;
+
+	private int bitCount;
+
+	private int state;
+
+	private boolean lastBlock, anyMember;
+
+	private int storedRemaining;
+
+	private Table literals, distances;
+
+	private int copyLength, copyDistance;
+
+	/** Circular buffer holding the most recent output. */
+	private final byte[] window = new byte[WINDOW];
+
+	/** Number of bytes output so far. */
+	private long position;
+
+	/** Output position at which the current gzip member starts. */
+	private long memberStart;
+
+	private CheckpointIndex.Builder checkpoints;
+
+	private long span;
+
+	// -- Constructors --
+
+	/**
+	 * Decompresses the given stream from its start.
+	 *
+	 * @param gzip whether the stream is gzip-wrapped, rather than raw deflate
+	 */
+	GZipInflater(final InputStream in, final boolean gzip) {
+		this.in = in;
+		this.gzip = gzip;
+		inBase = 0;
+		state = gzip ? STATE_MEMBER : STATE_BLOCK;
+	}
+
+	/**
+	 * Resumes decompressing from the given checkpoint. The stream must be
+	 * positioned at the compressed byte containing the checkpoint's bit offset.
+	 */
+	GZipInflater(final InputStream in, final boolean gzip,
+		final CheckpointIndex index, final int checkpoint) throws IOException
+	{
+		this.in = in;
+		this.gzip = gzip;
+		final long bit = index.getBitOffset(checkpoint);
+		inBase = bit & ~7L;
+		getBits((int) (bit & 7));
+
+		final byte[] history = index.getHistory(checkpoint);
+		position = index.getPosition(checkpoint);
+		memberStart = position - history.length;
+		for (int i = 0; i < history.length; i++) {
+			window[(int) (memberStart + i) & WINDOW_MASK] = history[i];
+		}
+		anyMember = true;
+		state = STATE_BLOCK;
+	}
+
+	// -- GZipInflater methods --
+
+	/**
+	 * Records a checkpoint at the first block boundary after each {@code span}
+	 * bytes of output.
+	 */
+	void setCheckpoints(final CheckpointIndex.Builder checkpoints,
+		final long span)
+	{
+		this.checkpoints = checkpoints;
+		this.span = span;
+	}
+
+	/** Gets the number of bytes output so far. */
+	long getPosition() {
+		return position;
+	}
+
+	// -- InputStream methods --
+
+	@Override
+	public int read() throws IOException {
+		return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		if (in == null) throw new IOException("Stream closed");
+		if (len == 0) return 0;
+		int n = 0;
+		while (n < len) {
+			if (copyLength > 0) {
+				final int count = Math.min(copyLength, len - n);
+				for (int i = 0; i < count; i++) {
+					final byte v =
+						window[(int) (position - copyDistance) & WINDOW_MASK];
+					window[(int) position++ & WINDOW_MASK] = v;
+					b[off + n++] = v;
+				}
+				copyLength -= count;
+				continue;
+			}
+			switch (state) {
+				case STATE_HUFFMAN: {
+					final int symbol = decode(literals);
+					if (symbol < 256) {
+						final byte v = (byte) symbol;
+						window[(int) position++ & WINDOW_MASK] = v;
+						b[off + n++] = v;
+					}
+					else if (symbol == 256) state = STATE_BLOCK;
+					else readMatch(symbol - 257);
+					break;
+				}
+				case STATE_STORED:
+					if (storedRemaining == 0) {
+						state = STATE_BLOCK;
+						break;
+					}
+					final int count = Math.min(storedRemaining, len - n);
+					for (int i = 0; i < count; i++) {
+						final byte v = (byte) getBits(8);
+						window[(int) position++ & WINDOW_MASK] = v;
+						b[off + n++] = v;
+					}
+					storedRemaining -= count;
+					break;
+				case STATE_BLOCK:
+					if (lastBlock) endMember();
+					else {
+						checkpoint();
+						readBlockHeader();
+					}
+					break;
+				case STATE_MEMBER:
+					readMemberHeader();
+					break;
+				default:
+					return n == 0 ? -1 : n;
+			}
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final byte[] b = new byte[(int) Math.min(n, 8192)];
+		long skipped = 0;
+		while (skipped < n) {
+			final int r = read(b, 0, (int) Math.min(b.length, n - skipped));
+			if (r < 0) break;
+			skipped += r;
+		}
+		return skipped;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return state == STATE_DONE ? 0 : 1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (in != null) in.close();
+		in = null;
+	}
+
+	// -- Helper methods --
+
+	/** Records a checkpoint here, if one is due. */
+	private void checkpoint() {
+		if (checkpoints == null || position - checkpoints.last() < span) return;
+		final int length = (int) Math.min(HISTORY, position - memberStart);
+		final byte[] history = new byte[length];
+		for (int i = 0; i < length; i++) {
+			history[i] = window[(int) (position - length + i) & WINDOW_MASK];
+		}
+		final long consumed = inCount - (inLength - inPos);
+		checkpoints.add(position, inBase + 8 * consumed - bitCount, history);
+	}
+
+	private void readBlockHeader() throws IOException {
+		lastBlock = getBits(1) == 1;
+		final int type = getBits(2);
+		if (type == 0) {
+			// stored block: skip to the byte boundary
+			getBits(bitCount & 7);
+			final int length = getBits(16);
+			if ((length ^ 0xffff) != getBits(16)) {
+				throw new ZipException("invalid stored block lengths");
+			}
+			storedRemaining = length;
+			state = STATE_STORED;
+		}
+		else if (type == 1) {
+			literals = FIXED_LITERALS;
+			distances = FIXED_DISTANCES;
+			state = STATE_HUFFMAN;
+		}
+		else if (type == 2) {
+			readDynamicTables();
+			state = STATE_HUFFMAN;
+		}
+		else throw new ZipException("invalid block type");
+	}
+
+	private void readDynamicTables() throws IOException {
+		final int literalCount = getBits(5) + 257;
+		final int distanceCount = getBits(5) + 1;
+		final int codeLengthCount = getBits(4) + 4;
+		if (literalCount > 286 || distanceCount > 30) {
+			throw new ZipException("too many length or distance symbols");
+		}
+
+		final byte[] lengths = new byte[19];
+		for (int i = 0; i < codeLengthCount; i++) {
+			lengths[CODE_LENGTH_ORDER[i]] = (byte) getBits(3);
+		}
+		final Table codeLengths = new Table(lengths, 0, 19);
+
+		final byte[] codes = new byte[literalCount + distanceCount];
+		for (int i = 0; i < codes.length;) {
+			final int symbol = decode(codeLengths);
+			if (symbol < 16) {
+				codes[i++] = (byte) symbol;
+				continue;
+			}
+			final byte value;
+			final int repeat;
+			if (symbol == 16) {
+				if (i == 0) throw new ZipException("invalid bit length repeat");
+				value = codes[i - 1];
+				repeat = 3 + getBits(2);
+			}
+			else {
+				value = 0;
+				repeat = symbol == 17 ? 3 + getBits(3) : 11 + getBits(7);
+			}
+			if (i + repeat > codes.length) {
+				throw new ZipException("invalid bit length repeat");
+			}
+			for (int r = 0; r < repeat; r++) {
+				codes[i++] = value;
+			}
+		}
+		if (codes[256] == 0) {
+			throw new ZipException("invalid code -- missing end-of-block");
+		}
+		literals = new Table(codes, 0, literalCount);
+		distances = new Table(codes, literalCount, distanceCount);
+	}
+
+	private void readMatch(final int symbol) throws IOException {
+		if (symbol >= LENGTH_BASE.length) {
+			throw new ZipException("invalid literal/length code");
+		}
+		final int length =
+			LENGTH_BASE[symbol] + getBits(LENGTH_EXTRA[symbol]);
+		final int code = decode(distances);
+		if (code >= DISTANCE_BASE.length) {
+			throw new ZipException("invalid distance code");
+		}
+		final int distance = DISTANCE_BASE[code] + getBits(DISTANCE_EXTRA[code]);
+		if (distance > position - memberStart) {
+			throw new ZipException("invalid distance too far back");
+		}
+		copyLength = length;
+		copyDistance = distance;
+	}
+
+	private void readMemberHeader() throws IOException {
+		// NB: Members start on byte boundaries.
+		getBits(bitCount & 7);
+		if (bitCount == 0 && !fill()) {
+			if (!anyMember) throw new EOFException();
+			state = STATE_DONE;
+			return;
+		}
+		final int magic = getBits(16);
+		if (magic != 0x8b1f) {
+			if (!anyMember) throw new ZipException("Not in GZIP format");
+			// NB: Ignore trailing garbage, as GZIPInputStream does.
+			state = STATE_DONE;
+			return;
+		}
+		if (getBits(8) != 8) {
+			throw new ZipException("Unsupported compression method");
+		}
+		final int flags = getBits(8);
+		// skip MTIME, XFL and OS
+		for (int i = 0; i < 6; i++) {
+			getBits(8);
+		}
+		if ((flags & 4) != 0) {
+			final int extra = getBits(16);
+			for (int i = 0; i < extra; i++) {
+				getBits(8);
+			}
+		}
+		if ((flags & 8) != 0) while (getBits(8) != 0) {}
+		if ((flags & 16) != 0) while (getBits(8) != 0) {}
+		if ((flags & 2) != 0) getBits(16);
+
+		anyMember = true;
+		memberStart = position;
+		lastBlock = false;
+		state = STATE_BLOCK;
+	}
+
+	private void endMember() throws IOException {
+		if (!gzip) {
+			state = STATE_DONE;
+			return;
+		}
+		// skip to the byte boundary, then the CRC32 and ISIZE trailer
+		getBits(bitCount & 7);
+		for (int i = 0; i < 4; i++) {
+			getBits(16);
+		}
+		state = STATE_MEMBER;
+	}
+
+	/** Decodes the next symbol of the given code. */
+	private int decode(final Table table) throws IOException {
+		if (bitCount < table.bits) refill(table.bits);
+		final int entry = table.entries[(int) bitBuffer & table.mask];
+		final int length = entry & 15;
+		if (length == 0) throw new ZipException("invalid code");
+		bitBuffer >>>= length;
+		bitCount -= length;
+		return entry >>> 4;
+	}
+
+	/** Consumes the next {@code n} bits, least significant first. */
+	private int getBits(final int n) throws IOException {
+		if (n == 0) return 0;
+		if (bitCount < n) refill(n);
+		final int value = (int) bitBuffer & ((1 << n) - 1);
+		bitBuffer >>>= n;
+		bitCount -= n;
+		return value;
+	}
+
+	private void refill(final int n) throws IOException {
+		while (bitCount < n) {
+			if (inPos == inLength && !fill()) {
+				// NB: Pad with zeros, so that the final code can be decoded with a
+				// full table lookup; a stream that really needs them is truncated.
+				if (++padding > MAX_PADDING) {
+					throw new EOFException("Unexpected end of ZLIB input stream");
+				}
+				bitCount += 8;
+				continue;
+			}
+			bitBuffer |= (long) (inBuffer[inPos++] & 0xff) << bitCount;
+			bitCount += 8;
+		}
+	}
+
+	/** Makes input available, returning false at the end of the input. */
+	private boolean fill() throws IOException {
+		if (inPos < inLength) return true;
+		if (padding > 0) return false;
+		final int r = in.read(inBuffer, 0, inBuffer.length);
+		if (r <= 0) return false;
+		inPos = 0;
+		inLength = r;
+		inCount += r;
+		return true;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * A canonical Huffman code, as a lookup table indexed by the next bits of
+	 * input. Each entry holds a symbol and its code length; zero marks bit
+	 * patterns that are not a valid code.
+	 */
+	private static final class Table {
+
+		private final int[] entries;
+
+		private final int bits;
+
+		private final int mask;
+
+		private Table(final byte[] lengths, final int offset, final int count)
+			throws ZipException
+		{
+			final int[] counts = new int[16];
+			int max = 0;
+			for (int i = 0; i < count; i++) {
+				final int length = lengths[offset + i];
+				counts[length]++;
+				if (length > max) max = length;
+			}
+			counts[0] = 0;
+
+			// reject over-subscribed codes; incomplete codes are allowed
+			int left = 1;
+			for (int length = 1; length <= 15; length++) {
+				left = (left << 1) - counts[length];
+				if (left < 0) throw new ZipException("over-subscribed code");
+			}
+
+			final int[] next = new int[16];
+			for (int length = 1, code = 0; length <= 15; length++) {
+				code = (code + counts[length - 1]) << 1;
+				next[length] = code;
+			}
+
+			bits = Math.max(max, 1);
+			mask = (1 << bits) - 1;
+			entries = new int[1 << bits];
+			for (int symbol = 0; symbol < count; symbol++) {
+				final int length = lengths[offset + symbol];
+				if (length == 0) continue;
+				final int reversed =
+					Integer.reverse(next[length]++) >>> (32 - length);
+				final int entry = (symbol << 4) | length;
+				for (int i = reversed; i < entries.length; i += 1 << length) {
+					entries[i] = entry;
+				}
+			}
+		}
+	}
+}
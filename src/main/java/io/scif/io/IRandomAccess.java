@@ -34,6 +34,7 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.List;
 
 /**
  * Interface for random access into structures (e.g., files or arrays).
@@ -101,6 +102,31 @@ public interface IRandomAccess extends DataInput, DataOutput {
 	 */
 	void seek(long pos) throws IOException;
 
+	/**
+	 * Reads several ranges of bytes, each into its own destination. The ranges
+	 * are read in ascending offset order, and ranges lying close to each other
+	 * are merged (see {@link ReadRange#coalesce(List)}), so that as few reads
+	 * as possible are issued. Bytes past the end of the stream are left
+	 * untouched in their destinations. The file pointer is left unchanged.
+	 *
+	 * @param ranges The ranges to read, in any order.
+	 * @return The total number of bytes read into the destinations.
+	 */
+	default long readRanges(final List<ReadRange> ranges) throws IOException {
+		final long fp = getFilePointer();
+		long total = 0;
+		try {
+			for (final ReadRange[] run : ReadRange.coalesce(ranges)) {
+				seek(run[0].getOffset());
+				total += ReadRange.readRun(this, run);
+			}
+		}
+		finally {
+			seek(fp);
+		}
+		return total;
+	}
+
 	/**
 	 * Writes up to buffer.capacity() bytes of data from the given ByteBuffer to
 	 * this stream.
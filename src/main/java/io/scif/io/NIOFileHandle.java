@@ -39,6 +39,7 @@ import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.util.List;
 
 /**
  * A wrapper for buffered NIO logic that implements the IRandomAccess interface.
@@ -59,6 +60,15 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	 */
 	private static int defaultRWBufferSize = 8192;
 
+	/** Default size of the segments in which memory mapped files are mapped. */
+	private static int defaultMappedSegmentSize = 1 << 30;
+
+	/**
+	 * Number of bytes by which consecutive mapped segments overlap, so that any
+	 * primitive value can be read from a single segment.
+	 */
+	private static final int SEGMENT_OVERLAP = 8;
+
 	// -- Fields --
 
 	/** The random access file object backing this FileHandle. */
@@ -88,6 +98,17 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	/** Service which provides NIO byte buffers, allocated or memory mapped. */
 	private final NIOService nioService;
 
+	/**
+	 * Read-only mappings covering the whole file, or null if the file is
+	 * accessed through a sliding buffer. Segment {@code i} starts at
+	 * {@code i * bufferSize} and extends {@link #SEGMENT_OVERLAP} bytes into the
+	 * next one.
+	 */
+	private ByteBuffer[] segments;
+
+	/** Length of the file when it was memory mapped. */
+	private long mappedLength;
+
 	// -- Constructors --
 
 	/**
@@ -96,15 +117,34 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	 */
 	public NIOFileHandle(final NIOService nioService, final File file,
 		final String mode, final int bufferSize) throws IOException
+	{
+		this(nioService, file, mode, bufferSize, false);
+	}
+
+	/**
+	 * Creates a random access file stream to read from, and optionally to write
+	 * to, the file specified by the File argument. If {@code memoryMapped} is
+	 * set, the whole file is mapped into memory up front, in segments of
+	 * {@code bufferSize} bytes, so that seeking never needs to re-buffer. Only
+	 * read-only ({@code "r"}) handles may be memory mapped.
+	 */
+	public NIOFileHandle(final NIOService nioService, final File file,
+		final String mode, final int bufferSize, final boolean memoryMapped)
+		throws IOException
 	{
 		this.nioService = nioService;
 		this.bufferSize = bufferSize;
 		validateMode(mode);
 		if (mode.equals("rw")) {
+			if (memoryMapped) {
+				throw new IllegalArgumentException(
+					"Only read-only handles can be memory mapped");
+			}
 			mapMode = FileChannel.MapMode.READ_WRITE;
 		}
 		raf = new RandomAccessFile(file, mode);
 		channel = raf.getChannel();
+		if (memoryMapped) mapSegments();
 		buffer(position, 0);
 	}
 
@@ -129,6 +169,21 @@ public class NIOFileHandle extends AbstractNIOHandle {
 		this(nioService, new File(name), mode);
 	}
 
+	/**
+	 * Creates a random access file stream to read from, and optionally to write
+	 * to, a file with the specified name, optionally mapping the whole file into
+	 * memory.
+	 *
+	 * @see #NIOFileHandle(NIOService, File, String, int, boolean)
+	 */
+	public NIOFileHandle(final NIOService nioService, final String name,
+		final String mode, final boolean memoryMapped) throws IOException
+	{
+		this(nioService, new File(name), mode, memoryMapped
+			? defaultMappedSegmentSize : mode.equals("rw") ? defaultRWBufferSize
+				: defaultBufferSize, memoryMapped);
+	}
+
 	// -- NIOFileHandle API methods --
 
 	/**
@@ -149,6 +204,61 @@ public class NIOFileHandle extends AbstractNIOHandle {
 		defaultRWBufferSize = size;
 	}
 
+	/**
+	 * Set the default segment size for memory mapped files. Subsequent uses of
+	 * the NIOFileHandle(String, String, boolean) constructor will map files in
+	 * segments of this size.
+	 */
+	public static void setDefaultMappedSegmentSize(final int size) {
+		if (size <= 0 || size > Integer.MAX_VALUE - SEGMENT_OVERLAP) {
+			throw new IllegalArgumentException("Invalid segment size: " + size);
+		}
+		defaultMappedSegmentSize = size;
+	}
+
+	/** Whether or not the whole file is memory mapped. */
+	public boolean isMemoryMapped() {
+		return segments != null;
+	}
+
+	/**
+	 * Gets a read-only view of the given range of the file. If the file is memory
+	 * mapped and the range lies within a single segment, the returned buffer
+	 * shares its content with the mapping and no bytes are copied; otherwise the
+	 * range is read into a newly allocated buffer. The file pointer is left
+	 * unchanged.
+	 *
+	 * @param offset The location within the file of the first byte.
+	 * @param length The number of bytes to include.
+	 * @return A buffer positioned at 0, with the handle's byte order.
+	 */
+	public ByteBuffer slice(final long offset, final int length)
+		throws IOException
+	{
+		final ByteOrder byteOrder = getOrder();
+		if (segments != null) {
+			final int index = segmentIndex(offset);
+			final long start = (long) index * bufferSize;
+			final ByteBuffer segment = segments[index];
+			if (offset - start + length <= segment.limit()) {
+				final ByteBuffer view = segment.duplicate();
+				view.position((int) (offset - start));
+				view.limit(view.position() + length);
+				final ByteBuffer slice = view.slice().asReadOnlyBuffer();
+				if (byteOrder != null) slice.order(byteOrder);
+				return slice;
+			}
+		}
+		final long fp = position;
+		final ByteBuffer copy = ByteBuffer.allocate(length);
+		seek(offset);
+		read(copy, 0, length);
+		seek(fp);
+		copy.flip();
+		if (byteOrder != null) copy.order(byteOrder);
+		return copy.asReadOnlyBuffer();
+	}
+
 	// -- FileHandle and Channel API methods --
 
 	/** Gets the random access file object backing this FileHandle. */
@@ -179,6 +289,8 @@ public class NIOFileHandle extends AbstractNIOHandle {
 
 	@Override
 	public void close() throws IOException {
+		segments = null;
+		buffer = null;
 		raf.close();
 	}
 
@@ -200,7 +312,12 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	@Override
 	public void setOrder(final ByteOrder order) {
 		this.order = order;
-		if (buffer != null) {
+		if (segments != null) {
+			for (final ByteBuffer segment : segments) {
+				segment.order(order);
+			}
+		}
+		else if (buffer != null) {
 			buffer.order(order);
 		}
 	}
@@ -228,15 +345,41 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	{
 		buf.position(off);
 		buf.limit(off + len);
+		if (segments != null) return readMapped(buf);
 		channel.position(position);
 		final int readLength = channel.read(buf);
-		buffer(position + readLength, 0);
+		buffer(position + Math.max(readLength, 0), 0);
 		// Return value of NIO channel's is -1 when zero bytes are read at the
 		// end
 		// of the file.
 		return readLength == -1 ? 0 : readLength;
 	}
 
+	/**
+	 * Reads the merged runs of ranges directly from the channel, scattering each
+	 * run into the ranges' destinations with a single vectored read, without
+	 * going through the read buffer. Memory mapped files are copied from the
+	 * mapped segments instead.
+	 */
+	@Override
+	public long readRanges(final List<ReadRange> ranges) throws IOException {
+		final long fp = position;
+		long total = 0;
+		try {
+			for (final ReadRange[] run : ReadRange.coalesce(ranges)) {
+				if (segments != null) {
+					buffer(run[0].getOffset(), 0);
+					total += ReadRange.readRun(this, run);
+				}
+				else total += readRun(run);
+			}
+		}
+		finally {
+			buffer(fp, 0);
+		}
+		return total;
+	}
+
 	@Override
 	public void seek(final long pos) throws IOException {
 		if (mapMode == FileChannel.MapMode.READ_WRITE && pos > length()) {
@@ -519,6 +662,15 @@ public class NIOFileHandle extends AbstractNIOHandle {
 	 */
 	private void buffer(long offset, final int size) throws IOException {
 		position = offset;
+		if (segments != null) {
+			// the whole file is mapped; just pick the segment containing offset
+			final int index = segmentIndex(offset);
+			bufferStartPosition = (long) index * bufferSize;
+			buffer = segments[index];
+			buffer.position((int) Math.min(offset - bufferStartPosition, buffer
+				.limit()));
+			return;
+		}
 		final long newPosition = offset + size;
 		if (newPosition < bufferStartPosition ||
 			newPosition > bufferStartPosition + bufferSize || buffer == null)
@@ -548,6 +700,116 @@ public class NIOFileHandle extends AbstractNIOHandle {
 		}
 	}
 
+	/**
+	 * Maps the whole file into memory, as a series of overlapping read-only
+	 * segments of {@link #bufferSize} bytes each.
+	 */
+	private void mapSegments() throws IOException {
+		if (bufferSize <= 0 || bufferSize > Integer.MAX_VALUE - SEGMENT_OVERLAP) {
+			throw new IllegalArgumentException("Invalid segment size: " +
+				bufferSize);
+		}
+		mappedLength = channel.size();
+		final long count =
+			Math.max(1, (mappedLength + bufferSize - 1) / bufferSize);
+		if (count > Integer.MAX_VALUE) {
+			throw new IOException("Too many segments required to map file of " +
+				"length " + mappedLength);
+		}
+		segments = new ByteBuffer[(int) count];
+		for (int i = 0; i < segments.length; i++) {
+			final long start = (long) i * bufferSize;
+			final long size =
+				Math.min(bufferSize + SEGMENT_OVERLAP, mappedLength - start);
+			segments[i] =
+				channel.map(FileChannel.MapMode.READ_ONLY, start, Math.max(0, size));
+		}
+	}
+
+	/** Gets the index of the mapped segment containing the given offset. */
+	private int segmentIndex(final long offset) {
+		return (int) Math.min(Math.max(0, offset) / bufferSize,
+			segments.length - 1);
+	}
+
+	/**
+	 * Copies bytes from the mapped segments, starting at the current position,
+	 * into the remaining space of the given buffer.
+	 */
+	private int readMapped(final ByteBuffer buf) throws IOException {
+		int readLength = 0;
+		while (buf.hasRemaining() && position < mappedLength) {
+			buffer(position, 0);
+			final ByteBuffer src = buffer.duplicate();
+			final int n = Math.min(buf.remaining(), src.remaining());
+			if (n <= 0) break;
+			src.limit(src.position() + n);
+			buf.put(src);
+			position += n;
+			readLength += n;
+		}
+		buffer(position, 0);
+		return readLength;
+	}
+
+	/**
+	 * Reads a run of ranges with one scattering read from the channel. Gaps
+	 * between the ranges are read into a scratch buffer; runs with overlapping
+	 * ranges are read into a temporary array and copied.
+	 */
+	private long readRun(final ReadRange[] run) throws IOException {
+		final long start = run[0].getOffset();
+		final ByteBuffer[] dsts = new ByteBuffer[2 * run.length - 1];
+		ByteBuffer scratch = null;
+		int count = 0;
+		long pos = start;
+		final ByteBuffer[] targets = new ByteBuffer[run.length];
+		for (int i = 0; i < run.length; i++) {
+			final ReadRange range = run[i];
+			if (range.getOffset() < pos) {
+				// overlapping ranges cannot be scattered into directly
+				final byte[] bytes = new byte[(int) (ReadRange.end(run) - start)];
+				final int n = readFully(ByteBuffer.wrap(bytes), start);
+				return ReadRange.scatter(run, bytes, start, n);
+			}
+			if (range.getOffset() > pos) {
+				final int gap = (int) (range.getOffset() - pos);
+				if (scratch == null) scratch = ByteBuffer.allocate(ReadRange.MAX_GAP);
+				scratch.clear().limit(gap);
+				dsts[count++] = scratch.slice();
+			}
+			targets[i] =
+				ByteBuffer.wrap(range.getDest(), range.getDestOffset(), range
+					.getLength());
+			dsts[count++] = targets[i];
+			pos = range.getEnd();
+		}
+		synchronized (channel) {
+			channel.position(start);
+			while (dsts[count - 1].hasRemaining()) {
+				if (channel.read(dsts, 0, count) <= 0) break;
+			}
+		}
+		long total = 0;
+		for (int i = 0; i < run.length; i++) {
+			total += targets[i].position() - run[i].getDestOffset();
+		}
+		return total;
+	}
+
+	/** Reads from the given offset until the buffer is full or EOF is hit. */
+	private int readFully(final ByteBuffer buf, final long offset)
+		throws IOException
+	{
+		int total = 0;
+		while (buf.hasRemaining()) {
+			final int n = channel.read(buf, offset + total);
+			if (n <= 0) break;
+			total += n;
+		}
+		return total;
+	}
+
 	private void writeSetup(final int length) throws IOException {
 		validateLength(length);
 		buffer(position, length);
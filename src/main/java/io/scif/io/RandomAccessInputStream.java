@@ -38,6 +38,7 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.List;
 
 import org.scijava.Context;
 import org.scijava.log.LogService;
@@ -450,9 +451,46 @@ public class RandomAccessInputStream extends InputStream implements DataInput {
 		return rtn;
 	}
 
-	/** Read bytes from the stream into the given buffer. */
+	/**
+	 * Read bytes from the stream into the remaining space of the given buffer,
+	 * starting at its current position. The buffer's position is advanced by the
+	 * number of bytes read. Heap buffers are filled through their backing array,
+	 * and NIO file handles read straight into direct buffers; only other
+	 * combinations are staged through a temporary array.
+	 *
+	 * @return The number of bytes read, or -1 if the end of the stream had
+	 *         already been reached.
+	 */
 	public int read(final ByteBuffer buf) throws IOException {
-		return raf.read(buf);
+		final int n = buf.remaining();
+		if (n == 0) return 0;
+		final int start = buf.position();
+		if (buf.hasArray()) {
+			final int rtn = read(buf.array(), buf.arrayOffset() + start, n);
+			if (rtn > 0) buf.position(start + rtn);
+			return rtn;
+		}
+		int total = 0;
+		if (raf instanceof NIOFileHandle) {
+			final int limit = buf.limit();
+			while (total < n) {
+				final int rtn = raf.read(buf, start + total, n - total);
+				if (rtn <= 0) break;
+				total += rtn;
+			}
+			buf.limit(limit);
+			buf.position(start + total);
+		}
+		else {
+			final byte[] chunk = new byte[Math.min(n, 65536)];
+			while (total < n) {
+				final int rtn = read(chunk, 0, Math.min(chunk.length, n - total));
+				if (rtn <= 0) break;
+				buf.put(chunk, 0, rtn);
+				total += rtn;
+			}
+		}
+		return total == 0 ? -1 : total;
 	}
 
 	/**
@@ -480,6 +518,16 @@ public class RandomAccessInputStream extends InputStream implements DataInput {
 		raf.readFully(array, offset, n);
 	}
 
+	/**
+	 * Reads several ranges of bytes with as few reads as possible, leaving the
+	 * file pointer unchanged.
+	 *
+	 * @see IRandomAccess#readRanges(List)
+	 */
+	public long readRanges(final List<ReadRange> ranges) throws IOException {
+		return raf.readRanges(ranges);
+	}
+
 	// -- InputStream API methods --
 
 	@Override
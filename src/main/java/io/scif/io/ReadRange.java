@@ -0,0 +1,205 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A range of bytes to read from an {@link IRandomAccess}, together with the
+ * location to store them at. Used for vectored reads, see
+ * {@link IRandomAccess#readRanges(List)}.
+ */
+public final class ReadRange {
+
+	// -- Constants --
+
+	/**
+	 * Gap between two ranges up to which they are read together, since reading a
+	 * few unused bytes is cheaper than issuing another read.
+	 */
+	public static final int MAX_GAP = 16 * 1024;
+
+	/** Maximum number of bytes read at once for merged ranges. */
+	public static final int MAX_RUN = 16 * 1024 * 1024;
+
+	// -- Fields --
+
+	private final long offset;
+
+	private final int length;
+
+	private final byte[] dest;
+
+	private final int destOffset;
+
+	// -- Constructors --
+
+	/**
+	 * @param offset Offset of the first byte to read.
+	 * @param length Number of bytes to read.
+	 * @param dest Array to store the bytes in.
+	 * @param destOffset Index in {@code dest} at which to store the first byte.
+	 */
+	public ReadRange(final long offset, final int length, final byte[] dest,
+		final int destOffset)
+	{
+		if (offset < 0 || length < 0 || destOffset < 0 ||
+			destOffset + length > dest.length)
+		{
+			throw new IllegalArgumentException("Invalid range: offset=" + offset +
+				", length=" + length + ", destOffset=" + destOffset);
+		}
+		this.offset = offset;
+		this.length = length;
+		this.dest = dest;
+		this.destOffset = destOffset;
+	}
+
+	// -- ReadRange methods --
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/** @return Offset just past the last byte of this range. */
+	public long getEnd() {
+		return offset + length;
+	}
+
+	public byte[] getDest() {
+		return dest;
+	}
+
+	public int getDestOffset() {
+		return destOffset;
+	}
+
+	// -- Utility methods --
+
+	/**
+	 * Sorts the given ranges by offset and groups ranges which overlap, touch
+	 * or lie at most {@link #MAX_GAP} bytes apart into runs which can each be
+	 * read at once, as long as they span no more than {@link #MAX_RUN} bytes.
+	 *
+	 * @return The runs, each holding its ranges in ascending offset order.
+	 */
+	public static List<ReadRange[]> coalesce(final List<ReadRange> ranges) {
+		final ReadRange[] sorted = ranges.toArray(new ReadRange[ranges.size()]);
+		Arrays.sort(sorted, (a, b) -> Long.compare(a.offset, b.offset));
+
+		final List<ReadRange[]> runs = new ArrayList<>();
+		int first = 0;
+		while (first < sorted.length) {
+			final long start = sorted[first].offset;
+			long end = sorted[first].getEnd();
+			int last = first + 1;
+			while (last < sorted.length) {
+				final ReadRange next = sorted[last];
+				final long nextEnd = Math.max(end, next.getEnd());
+				if (next.offset > end + MAX_GAP || nextEnd - start > MAX_RUN) break;
+				end = nextEnd;
+				last++;
+			}
+			runs.add(Arrays.copyOfRange(sorted, first, last));
+			first = last;
+		}
+		return runs;
+	}
+
+	/** @return Offset just past the last byte of the given run. */
+	public static long end(final ReadRange[] run) {
+		long end = 0;
+		for (final ReadRange range : run)
+			end = Math.max(end, range.getEnd());
+		return end;
+	}
+
+	/**
+	 * Reads the given run of ranges with a single read from the current position
+	 * of the given handle, which must be the offset of the run's first range.
+	 * Bytes past the end of the handle are left untouched.
+	 *
+	 * @return The number of bytes stored in the ranges' destinations.
+	 */
+	static long readRun(final IRandomAccess handle, final ReadRange[] run)
+		throws IOException
+	{
+		if (run.length == 1) {
+			final ReadRange range = run[0];
+			return readFully(handle, range.dest, range.destOffset, range.length);
+		}
+		final long start = run[0].offset;
+		final byte[] bytes = new byte[(int) (end(run) - start)];
+		final int n = readFully(handle, bytes, 0, bytes.length);
+		return scatter(run, bytes, start, n);
+	}
+
+	/**
+	 * Copies the bytes of the given run, read into {@code bytes} starting from
+	 * offset {@code start}, into the ranges' destinations.
+	 *
+	 * @param available Number of valid bytes in {@code bytes}.
+	 * @return The number of bytes stored in the ranges' destinations.
+	 */
+	static long scatter(final ReadRange[] run, final byte[] bytes,
+		final long start, final int available)
+	{
+		long total = 0;
+		for (final ReadRange range : run) {
+			final int from = (int) (range.offset - start);
+			final int n = Math.max(0, Math.min(range.length, available - from));
+			System.arraycopy(bytes, from, range.dest, range.destOffset, n);
+			total += n;
+		}
+		return total;
+	}
+
+	// -- Helper methods --
+
+	/** Reads until {@code len} bytes are read or the end is reached. */
+	private static int readFully(final IRandomAccess handle, final byte[] b,
+		final int off, final int len) throws IOException
+	{
+		int total = 0;
+		while (total < len) {
+			final int n = handle.read(b, off + total, len - total);
+			if (n <= 0) break;
+			total += n;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@link InputStream} of gzip-compressed data stored in a local file,
+ * starting at a given offset, that supports seeking.
+ * <p>
+ * Reading and seeking are delegated to a {@link GZipHandle}: reading forwards
+ * decompresses sequentially, and the first backward seek builds a
+ * {@link CheckpointIndex} with one decompression pass, from then on reaching
+ * any position by decompressing at most one checkpoint span.
+ * </p>
+ */
+public class SeekableGZipStream extends InputStream {
+
+	// -- Fields --
+
+	private final GZipHandle handle = new GZipHandle();
+
+	private final byte[] oneByte = new byte[1];
+
+	// -- Constructor --
+
+	/**
+	 * Opens the gzip data starting at the given offset of the given file.
+	 *
+	 * @throws java.util.zip.ZipException if the data is not in gzip format.
+	 */
+	public SeekableGZipStream(final File file, final long offset)
+		throws IOException
+	{
+		handle.setFile(file.getPath(), offset);
+	}
+
+	// -- SeekableGZipStream methods --
+
+	/** Gets the current position within the uncompressed data. */
+	public long getPosition() {
+		return handle.getFp();
+	}
+
+	public long getCheckpointSpan() {
+		return handle.getCheckpointSpan();
+	}
+
+	/** Sets the distance between checkpoints, in uncompressed bytes. */
+	public void setCheckpointSpan(final long checkpointSpan) {
+		handle.setCheckpointSpan(checkpointSpan);
+	}
+
+	/**
+	 * Gets the checkpoints of the gzip data, building them with one
+	 * decompression pass on first use.
+	 */
+	public CheckpointIndex getCheckpoints() throws IOException {
+		return handle.getCheckpoints();
+	}
+
+	/** Moves to the given position within the uncompressed data. */
+	public void seek(final long pos) throws IOException {
+		handle.seek(pos);
+	}
+
+	// -- InputStream methods --
+
+	@Override
+	public int read() throws IOException {
+		return read(oneByte, 0, 1) < 0 ? -1 : oneByte[0] & 0xff;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+		throws IOException
+	{
+		if (len == 0) return 0;
+		// NB: StreamHandle reports the end of the stream as an empty read.
+		final int n = handle.read(b, off, len);
+		return n == 0 ? -1 : n;
+	}
+
+	@Override
+	public void close() throws IOException {
+		handle.close();
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A sidecar file next to a source file, caching data derived from the source
+ * so that reopening it is cheap. The sidecar is named after the source plus a
+ * suffix, and starts with a header holding a magic number, a format version,
+ * and the length and modification time of the source. A sidecar is ignored
+ * once the source changes, and is replaced atomically where the file system
+ * allows it, so that readers never see a partially written one.
+ */
+public final class SidecarFile {
+
+	// -- Constants --
+
+	/** Length of the header preceding the contents of a sidecar, in bytes. */
+	public static final int HEADER_LENGTH = 24;
+
+	// -- Fields --
+
+	private final String suffix;
+
+	private final int magic;
+
+	private final int version;
+
+	// -- Constructor --
+
+	/**
+	 * @param suffix Suffix appended to the source file name to name its sidecar.
+	 * @param magic Magic number identifying the sidecar format.
+	 * @param version Version of the sidecar format.
+	 */
+	public SidecarFile(final String suffix, final int magic, final int version) {
+		this.suffix = suffix;
+		this.magic = magic;
+		this.version = version;
+	}
+
+	// -- SidecarFile methods --
+
+	/** Gets the suffix appended to the source file name. */
+	public String getSuffix() {
+		return suffix;
+	}
+
+	/** Gets the sidecar file of the given source file. */
+	public File getFile(final File source) {
+		return new File(source.getPath() + suffix);
+	}
+
+	/**
+	 * Opens the sidecar of the given source file, positioned after its header.
+	 *
+	 * @return A stream over the contents, or null if there is no valid,
+	 *         up-to-date sidecar.
+	 */
+	public DataInputStream open(final File source) throws IOException {
+		final File sidecar = getFile(source);
+		if (!sidecar.isFile()) return null;
+		final DataInputStream in = new DataInputStream(new BufferedInputStream(
+			new FileInputStream(sidecar)));
+		boolean valid = false;
+		try {
+			valid = in.readInt() == magic && in.readInt() == version && in
+				.readLong() == source.length() && in.readLong() == source
+					.lastModified();
+			return valid ? in : null;
+		}
+		finally {
+			if (!valid) in.close();
+		}
+	}
+
+	/**
+	 * Writes the sidecar of the given source file, with the given contents
+	 * following the header.
+	 */
+	public void write(final File source, final Contents contents)
+		throws IOException
+	{
+		final File sidecar = getFile(source);
+		final File tmp =
+			File.createTempFile(sidecar.getName(), null, sidecar.getAbsoluteFile()
+				.getParentFile());
+		try {
+			try (final DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(tmp))))
+			{
+				out.writeInt(magic);
+				out.writeInt(version);
+				out.writeLong(source.length());
+				out.writeLong(source.lastModified());
+				contents.write(out);
+			}
+			Files.move(tmp.toPath(), sidecar.toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			tmp.delete();
+		}
+	}
+
+	// -- Helper classes --
+
+	/** Writes the contents of a sidecar. */
+	public interface Contents {
+
+		void write(DataOutputStream out) throws IOException;
+	}
+}
@@ -34,6 +34,7 @@ import io.scif.AbstractSCIFIOPlugin;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -75,6 +76,18 @@ public abstract class StreamHandle extends AbstractSCIFIOPlugin implements
 	/** Byte ordering of this stream. */
 	private ByteOrder order;
 
+	/** Checkpoints for restarting decompression, or null if not yet built. */
+	private CheckpointIndex checkpoints;
+
+	/** Whether this stream cannot build checkpoints. */
+	private boolean noCheckpoints;
+
+	/** Distance between checkpoints, in uncompressed bytes. */
+	private long checkpointSpan = CheckpointIndex.DEFAULT_SPAN;
+
+	/** Whether checkpoints are persisted to a sidecar file once built. */
+	private boolean checkpointsPersisted;
+
 	// -- Constructor --
 
 	public StreamHandle() {
@@ -142,6 +155,118 @@ public abstract class StreamHandle extends AbstractSCIFIOPlugin implements
 		this.mark = mark;
 	}
 
+	public long getCheckpointSpan() {
+		return checkpointSpan;
+	}
+
+	/**
+	 * Sets the distance between the checkpoints built by
+	 * {@link #getCheckpoints()}, in uncompressed bytes. A backward seek has to
+	 * decompress at most this many bytes beyond the target position.
+	 */
+	public void setCheckpointSpan(final long checkpointSpan) {
+		if (checkpointSpan <= 0) {
+			throw new IllegalArgumentException("Invalid span: " + checkpointSpan);
+		}
+		this.checkpointSpan = checkpointSpan;
+	}
+
+	public boolean isCheckpointsPersisted() {
+		return checkpointsPersisted;
+	}
+
+	/**
+	 * Sets whether checkpoints are written to a sidecar file (see
+	 * {@link CheckpointIndex#getIndexFile}) once built, so that later handles
+	 * on the same file can seek without a full decompression pass. Existing
+	 * sidecars are used regardless of this setting.
+	 */
+	public void setCheckpointsPersisted(final boolean checkpointsPersisted) {
+		this.checkpointsPersisted = checkpointsPersisted;
+	}
+
+	// -- StreamHandle API methods --
+
+	/**
+	 * Gets the checkpoints of this stream, building them with one
+	 * decompression pass on first use.
+	 *
+	 * @return The checkpoints, or null if this stream does not support them.
+	 */
+	public CheckpointIndex getCheckpoints() throws IOException {
+		if (checkpoints != null || noCheckpoints) return checkpoints;
+		if (loadCheckpoints()) return checkpoints;
+
+		checkpoints = buildCheckpoints(checkpointSpan);
+		noCheckpoints = checkpoints == null;
+		final File source = getCheckpointSource();
+		if (checkpoints != null && checkpointsPersisted && source != null) {
+			try {
+				checkpoints.write(source);
+			}
+			catch (final IOException e) {
+				if (log() != null) log().debug("Cannot write checkpoints", e);
+			}
+		}
+		return checkpoints;
+	}
+
+	// -- Internal StreamHandle API methods --
+
+	/**
+	 * Loads the checkpoints of this stream from an up-to-date sidecar file,
+	 * also taking the stream length from it.
+	 *
+	 * @return true if the checkpoints were loaded.
+	 */
+	protected boolean loadCheckpoints() {
+		final File source = getCheckpointSource();
+		if (source == null) return false;
+		try {
+			final CheckpointIndex index = CheckpointIndex.read(source);
+			if (index == null) return false;
+			checkpoints = index;
+			length = index.length();
+			return true;
+		}
+		catch (final IOException e) {
+			if (log() != null) log().debug("Cannot read checkpoints", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Scans the whole stream, recording a checkpoint after each {@code span}
+	 * uncompressed bytes.
+	 *
+	 * @return The checkpoints, or null if this stream does not support them.
+	 */
+	protected CheckpointIndex buildCheckpoints(final long span)
+		throws IOException
+	{
+		return null;
+	}
+
+	/**
+	 * Reopens the stream at the given checkpoint, built by
+	 * {@link #buildCheckpoints}.
+	 */
+	protected void resumeStream(final CheckpointIndex index,
+		final int checkpoint) throws IOException
+	{
+		throw new HandleException("Checkpoints are not supported.");
+	}
+
+	/**
+	 * Gets the local file whose checkpoints may be persisted, or null if there
+	 * is none.
+	 */
+	protected File getCheckpointSource() {
+		if (file == null) return null;
+		final File source = new File(file);
+		return source.isFile() ? source : null;
+	}
+
 	// -- IStreamAccess API methods --
 
 	@Override
@@ -154,6 +279,8 @@ public abstract class StreamHandle extends AbstractSCIFIOPlugin implements
 	@Override
 	public void close() throws IOException {
 		length = fp = mark = 0;
+		checkpoints = null;
+		noCheckpoints = false;
 		if (stream != null) stream.close();
 		if (outStream != null) outStream.close();
 		stream = null;
@@ -216,14 +343,27 @@ public abstract class StreamHandle extends AbstractSCIFIOPlugin implements
 		long diff = pos - fp;
 		fp = pos;
 
-		if (diff < 0) {
-			resetStream();
-			diff = fp;
+		// restart from the nearest checkpoint when seeking backwards, or when
+		// seeking forwards past one
+		final CheckpointIndex index = diff < 0 ? getCheckpoints() : checkpoints;
+		final int checkpoint = index == null ? -1 : index.floor(pos);
+		if (diff < 0 || checkpoint >= 0 && index.getPosition(checkpoint) > pos -
+			diff)
+		{
+			if (checkpoint < 0) {
+				resetStream();
+				diff = pos;
+			}
+			else {
+				resumeStream(index, checkpoint);
+				diff = pos - index.getPosition(checkpoint);
+			}
 		}
-		int skipped = stream.skipBytes((int) diff);
+		long skipped = 0;
 		while (skipped < diff) {
-			final int n = stream.skipBytes((int) (diff - skipped));
-			if (n == 0) break;
+			final int n =
+				stream.skipBytes((int) Math.min(diff - skipped, Integer.MAX_VALUE));
+			if (n <= 0) break;
 			skipped += n;
 		}
 	}
@@ -36,6 +36,7 @@ import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -201,6 +202,44 @@ public class ZipHandle extends StreamHandle {
 		if (resetStream) resetStream();
 	}
 
+	// -- Internal StreamHandle API methods --
+
+	@Override
+	protected CheckpointIndex buildCheckpoints(final long span)
+		throws IOException
+	{
+		final long offset = findEntryData();
+		if (offset < 0) return null;
+		final CheckpointIndex.Builder builder = new CheckpointIndex.Builder();
+		final RandomAccessInputStream data = openStream(getFile());
+		data.seek(offset);
+		try (final GZipInflater inflater = new GZipInflater(data, false)) {
+			inflater.setCheckpoints(builder, span);
+			inflater.skip(Long.MAX_VALUE);
+			return builder.build(inflater.getPosition());
+		}
+	}
+
+	@Override
+	protected void resumeStream(final CheckpointIndex index,
+		final int checkpoint) throws IOException
+	{
+		final long offset = findEntryData();
+		if (offset < 0) throw new HandleException("Zip entry not found.");
+		if (getStream() != null) getStream().close();
+		if (in != null) in.close();
+		in = openStream(getFile());
+		in.seek(offset + (index.getBitOffset(checkpoint) >>> 3));
+		setStream(new DataInputStream(new GZipInflater(in, false, index,
+			checkpoint)));
+	}
+
+	/** Checkpoints belong to a single entry, so they are never persisted. */
+	@Override
+	protected File getCheckpointSource() {
+		return null;
+	}
+
 	// -- IRandomAccess API methods --
 
 	@Override
@@ -233,6 +272,64 @@ public class ZipHandle extends StreamHandle {
 		}
 	}
 
+	/**
+	 * Finds the compressed data of the backing Zip entry through the central
+	 * directory.
+	 *
+	 * @return The offset of the entry's deflated data, or -1 if the entry is
+	 *         not deflated or cannot be located.
+	 */
+	private long findEntryData() throws IOException {
+		try (final RandomAccessInputStream s = openStream(getFile())) {
+			s.order(true);
+
+			// find the end of central directory record, which may be followed by
+			// a comment of up to 64 KiB
+			final long length = s.length();
+			long end = -1;
+			for (long p = length - 22; p >= Math.max(0, length - 22 - 65535); p--)
+			{
+				s.seek(p);
+				if (s.readInt() == 0x06054b50) {
+					end = p;
+					break;
+				}
+			}
+			if (end < 0) return -1;
+			s.seek(end + 10);
+			final int entries = s.readUnsignedShort();
+			s.skipBytes(4);
+			s.seek(s.readInt() & 0xffffffffL);
+
+			for (int i = 0; i < entries; i++) {
+				if (s.readInt() != 0x02014b50) return -1;
+				s.skipBytes(6);
+				final int method = s.readUnsignedShort();
+				s.skipBytes(16);
+				final int nameLength = s.readUnsignedShort();
+				final int extraLength = s.readUnsignedShort();
+				final int commentLength = s.readUnsignedShort();
+				s.skipBytes(8);
+				final long header = s.readInt() & 0xffffffffL;
+				final byte[] name = new byte[nameLength];
+				s.readFully(name);
+				s.skipBytes(extraLength + commentLength);
+				if (!new String(name, StandardCharsets.UTF_8).equals(entryName)) {
+					continue;
+				}
+				// NB: Zip64 offsets are not supported.
+				if (method != ZipEntry.DEFLATED || header == 0xffffffffL) return -1;
+				s.seek(header);
+				if (s.readInt() != 0x04034b50) return -1;
+				s.seek(header + 26);
+				final int localName = s.readUnsignedShort();
+				final int localExtra = s.readUnsignedShort();
+				return header + 30 + localName + localExtra;
+			}
+			return -1;
+		}
+	}
+
 	/** Sets the stream length, computing it by force if necessary. */
 	private void populateLength(final long size) throws IOException {
 		if (size >= 0) {
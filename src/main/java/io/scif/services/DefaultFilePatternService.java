@@ -30,15 +30,17 @@
 package io.scif.services;
 
 import io.scif.AxisGuesser;
+import io.scif.FileNameIndex;
 import io.scif.FilePattern;
 import io.scif.NumberFilter;
 import io.scif.io.Location;
 
 import java.io.File;
 import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import org.scijava.plugin.Plugin;
@@ -82,11 +84,8 @@ public class DefaultFilePatternService extends AbstractService implements
 			new Location(getContext(), dir.equals("") ? "." : dir);
 
 		// list files in the given directory
-		final Location[] f = dirFile.listFiles();
-		if (f == null) return null;
-		final String[] nameList = new String[f.length];
-		for (int i = 0; i < nameList.length; i++)
-			nameList[i] = f[i].getName();
+		final String[] nameList = dirFile.list();
+		if (nameList == null) return null;
 
 		return findPattern(name, dir, nameList);
 	}
@@ -99,8 +98,70 @@ public class DefaultFilePatternService extends AbstractService implements
 	}
 
 	@Override
-	public String findPattern(final String name, String dir,
-		final String[] nameList, int[] excludeAxes)
+	public String findPattern(final String name, final String dir,
+		final String[] nameList, final int[] excludeAxes)
+	{
+		return findPattern(name, dir, new NameList(nameList), excludeAxes);
+	}
+
+	@Override
+	public String findPattern(final String[] names) {
+		final String dir =
+			names[0].substring(0, names[0].lastIndexOf(File.separator) + 1);
+
+		final StringBuilder pattern = new StringBuilder();
+		pattern.append(Pattern.quote(dir));
+
+		for (int i = 0; i < names.length; i++) {
+			pattern.append("(?:");
+			final String name =
+				names[i].substring(names[i].lastIndexOf(File.separator) + 1);
+			pattern.append(Pattern.quote(name));
+			pattern.append(")");
+			if (i < names.length - 1) {
+				pattern.append("|");
+			}
+		}
+		return pattern.toString();
+	}
+
+	@Override
+	public String[] findImagePatterns(final String base) {
+		final Location file = new Location(getContext(), base).getAbsoluteFile();
+		final Location parent = file.getParentFile();
+		final String[] list = parent.list(true);
+		return findImagePatterns(base, parent.getAbsolutePath(), list);
+	}
+
+	@Override
+	public String[] findImagePatterns(final String base, final String dir,
+		final String[] nameList)
+	{
+		String baseSuffix = base.substring(base.lastIndexOf(File.separator) + 1);
+		final int dot = baseSuffix.indexOf(".");
+		if (dot < 0) baseSuffix = "";
+		else baseSuffix = baseSuffix.substring(dot + 1);
+		final String suffix = baseSuffix;
+
+		// names are examined in parallel, sharing the analyses of their groups
+		final NameList names = new NameList(nameList);
+		final Set<String> patterns = ConcurrentHashMap.newKeySet();
+		final Map<String, Boolean> containsBase = new ConcurrentHashMap<>();
+		Arrays.stream(nameList).parallel().forEach(name -> {
+			final String pattern = findImagePattern(base, suffix, name, dir, names,
+				patterns, containsBase);
+			if (pattern != null) patterns.add(pattern);
+		});
+		final String[] s = patterns.toArray(new String[patterns.size()]);
+		Arrays.sort(s);
+		return s;
+	}
+
+	// -- Utility helper methods --
+
+	/** Identifies the group pattern of a name within an indexed name list. */
+	private String findPattern(final String name, String dir,
+		final NameList nameList, int[] excludeAxes)
 	{
 		if (excludeAxes == null) excludeAxes = new int[0];
 
@@ -157,38 +218,18 @@ public class DefaultFilePatternService extends AbstractService implements
 			final String post = name.substring(endList[i]);
 
 			final NumberFilter filter = new NumberFilter(pre, post);
-			final String[] list = matchFiles(nameList, filter);
-			if (list == null || list.length == 0) return null;
-			if (list.length == 1) {
+			final Block block = nameList.getBlock(name, filter);
+			if (block.count == 0) return null;
+			if (block.count == 1) {
 				// false alarm; this number block is constant
 				sb.append(name.substring(indexList[i], endList[i]));
 				continue;
 			}
-			boolean fix = true;
-			for (final String s : list) {
-				if (s.length() != len) {
-					fix = false;
-					break;
-				}
-			}
-			if (fix) {
+			if (block.same != null) {
 				// tricky; this fixed-width block could represent multiple
 				// numberings
 				final int width = endList[i] - indexList[i];
-
-				// check each character for duplicates
-				final boolean[] same = new boolean[width];
-				for (int j = 0; j < width; j++) {
-					same[j] = true;
-					final int jx = indexList[i] + j;
-					final char c = name.charAt(jx);
-					for (final String s : list) {
-						if (s.charAt(jx) != c) {
-							same[j] = false;
-							break;
-						}
-					}
-				}
+				final boolean[] same = block.same;
 
 				// break down each sub-block
 				int j = 0;
@@ -220,14 +261,8 @@ public class DefaultFilePatternService extends AbstractService implements
 			}
 			else {
 				// assume variable-width block represents only one numbering
-				final BigInteger[] numbers = new BigInteger[list.length];
-				for (int j = 0; j < list.length; j++) {
-					numbers[j] = filter.getNumber(list[j]);
-				}
-				Arrays.sort(numbers);
-				final String bounds = getBounds(numbers, false);
-				if (bounds == null) return null;
-				sb.append(bounds);
+				if (block.bounds == null) return null;
+				sb.append(block.bounds);
 			}
 		}
 		sb.append(q > 0 ? name.substring(endList[q - 1]) : name);
@@ -242,90 +277,48 @@ public class DefaultFilePatternService extends AbstractService implements
 		return sb.toString();
 	}
 
-	@Override
-	public String findPattern(final String[] names) {
-		final String dir =
-			names[0].substring(0, names[0].lastIndexOf(File.separator) + 1);
-
-		final StringBuilder pattern = new StringBuilder();
-		pattern.append(Pattern.quote(dir));
-
-		for (int i = 0; i < names.length; i++) {
-			pattern.append("(?:");
-			final String name =
-				names[i].substring(names[i].lastIndexOf(File.separator) + 1);
-			pattern.append(Pattern.quote(name));
-			pattern.append(")");
-			if (i < names.length - 1) {
-				pattern.append("|");
-			}
-		}
-		return pattern.toString();
-	}
-
-	@Override
-	public String[] findImagePatterns(final String base) {
-		final Location file = new Location(getContext(), base).getAbsoluteFile();
-		final Location parent = file.getParentFile();
-		final String[] list = parent.list(true);
-		return findImagePatterns(base, parent.getAbsolutePath(), list);
-	}
-
-	@Override
-	public String[] findImagePatterns(final String base, final String dir,
-		final String[] nameList)
+	/**
+	 * Gets the pattern of the given name, excluding the series axis, if it is a
+	 * new image pattern of the same kind as the base file.
+	 */
+	private String findImagePattern(final String base, final String baseSuffix,
+		final String name, final String dir, final NameList nameList,
+		final Set<String> patterns, final Map<String, Boolean> containsBase)
 	{
-		String baseSuffix = base.substring(base.lastIndexOf(File.separator) + 1);
-		int dot = baseSuffix.indexOf(".");
-		if (dot < 0) baseSuffix = "";
-		else baseSuffix = baseSuffix.substring(dot + 1);
-
-		final ArrayList<String> patterns = new ArrayList<>();
 		final int[] exclude = new int[] { AxisGuesser.S_AXIS };
-		for (final String name : nameList) {
-			final String pattern = findPattern(name, dir, nameList, exclude);
-			if (pattern == null) continue;
-			int start = pattern.lastIndexOf(File.separator) + 1;
-			if (start < 0) start = 0;
-			String patternSuffix = pattern.substring(start);
-			dot = patternSuffix.indexOf(".");
-			if (dot < 0) patternSuffix = "";
-			else patternSuffix = patternSuffix.substring(dot + 1);
-
-			final String checkPattern = findPattern(name, dir, nameList);
-			final String[] checkFiles =
-				new FilePattern(getContext(), checkPattern).getFiles();
-
-			if (!patterns.contains(pattern) &&
-				(!new Location(getContext(), pattern).exists() || base.equals(pattern)) &&
-				patternSuffix.equals(baseSuffix) &&
-				ArrayUtils.indexOf(checkFiles, base) >= 0)
-			{
-				patterns.add(pattern);
-			}
+		final String pattern = findPattern(name, dir, nameList, exclude);
+		if (pattern == null || patterns.contains(pattern)) return null;
+		int start = pattern.lastIndexOf(File.separator) + 1;
+		if (start < 0) start = 0;
+		String patternSuffix = pattern.substring(start);
+		final int dot = patternSuffix.indexOf(".");
+		if (dot < 0) patternSuffix = "";
+		else patternSuffix = patternSuffix.substring(dot + 1);
+		if (!patternSuffix.equals(baseSuffix)) return null;
+
+		// the full pattern is shared by the whole group, so list it only once
+		final String checkPattern = findPattern(name, dir, nameList, null);
+		if (checkPattern == null) return null;
+		final boolean match = containsBase.computeIfAbsent(checkPattern,
+			p -> ArrayUtils.indexOf(new FilePattern(getContext(), p).getFiles(),
+				base) >= 0);
+		if (!match) return null;
+
+		if (new Location(getContext(), pattern).exists() && !base.equals(pattern)) {
+			return null;
 		}
-		final String[] s = patterns.toArray(new String[patterns.size()]);
-		Arrays.sort(s);
-		return s;
+		return pattern;
 	}
 
-	// -- Utility helper methods --
-
 	/** Recursive method for parsing a fixed-width numerical block. */
-	private String findPattern(final String name, final String[] nameList,
+	private String findPattern(final String name, final NameList nameList,
 		final int ndx, final int end, final String p)
 	{
 		if (ndx == end) return p;
 		for (int i = end - ndx; i >= 1; i--) {
 			final NumberFilter filter =
 				new NumberFilter(name.substring(0, ndx), name.substring(ndx + i));
-			final String[] list = matchFiles(nameList, filter);
-			final BigInteger[] numbers = new BigInteger[list.length];
-			for (int j = 0; j < list.length; j++) {
-				numbers[j] = new BigInteger(list[j].substring(ndx, ndx + i));
-			}
-			Arrays.sort(numbers);
-			final String bounds = getBounds(numbers, true);
+			final String bounds = nameList.getFixedBounds(filter, i);
 			if (bounds == null) continue;
 			final String pat = findPattern(name, nameList, ndx + i, end, p + bounds);
 			if (pat != null) return pat;
@@ -338,7 +331,9 @@ public class DefaultFilePatternService extends AbstractService implements
 	 * Gets a string containing start, end and step values for a sorted list of
 	 * numbers.
 	 */
-	private String getBounds(final BigInteger[] numbers, final boolean fixed) {
+	private static String getBounds(final BigInteger[] numbers,
+		final boolean fixed)
+	{
 		if (numbers.length < 2) return null;
 		final BigInteger b = numbers[0];
 		final BigInteger e = numbers[numbers.length - 1];
@@ -372,14 +367,161 @@ public class DefaultFilePatternService extends AbstractService implements
 		return bounds.toString();
 	}
 
-	/** Filters the given list of filenames according to the specified filter. */
-	private String[]
-		matchFiles(final String[] inFiles, final NumberFilter filter)
-	{
-		final List<String> list = new ArrayList<>();
-		for (final String inFile : inFiles) {
-			if (filter.accept(inFile)) list.add(inFile);
+	// -- Helper classes --
+
+	/**
+	 * A list of file names searched for patterns, along with the block analyses
+	 * already computed against it. Analyses of blocks matching many names are
+	 * shared, so inferring the pattern of every name in a large directory does
+	 * not rescan the whole group for each of its members.
+	 */
+	private static class NameList {
+
+		/** Minimum number of candidate names for an analysis to be kept. */
+		private static final int SHARE_THRESHOLD = 64;
+
+		private final FileNameIndex index;
+
+		private final Map<BlockKey, Block> blocks = new ConcurrentHashMap<>();
+
+		private final Map<BlockKey, String> fixedBounds =
+			new ConcurrentHashMap<>();
+
+		public NameList(final String[] names) {
+			index = new FileNameIndex(names);
+		}
+
+		/**
+		 * Analyzes the numerical block of the given name delimited by the filter.
+		 */
+		public Block getBlock(final String name, final NumberFilter filter) {
+			// an analysis only depends on the name when it is not in the list
+			if (!isShared(filter) || !index.contains(name)) {
+				return new Block(name, filter, index.match(filter));
+			}
+			return blocks.computeIfAbsent(new BlockKey(filter, -1), k -> new Block(
+				name, filter, index.match(filter)));
+		}
+
+		/**
+		 * Gets the bounds of the fixed-width numbers of the given width starting
+		 * the numerical block delimited by the filter, or null if they do not
+		 * form a valid numbering.
+		 */
+		public String getFixedBounds(final NumberFilter filter, final int width) {
+			if (!isShared(filter)) return computeFixedBounds(filter, width);
+			final String bounds = fixedBounds.computeIfAbsent(new BlockKey(filter,
+				width), k -> {
+					final String b = computeFixedBounds(filter, width);
+					return b == null ? "" : b;
+				});
+			return bounds.isEmpty() ? null : bounds;
+		}
+
+		private boolean isShared(final NumberFilter filter) {
+			return index.candidates(filter.getPrefix()) >= SHARE_THRESHOLD;
+		}
+
+		private String computeFixedBounds(final NumberFilter filter,
+			final int width)
+		{
+			final int ndx = filter.getPrefix().length();
+			final String[] list = index.match(filter);
+			final BigInteger[] numbers = new BigInteger[list.length];
+			for (int j = 0; j < list.length; j++) {
+				numbers[j] = new BigInteger(list[j].substring(ndx, ndx + width));
+			}
+			Arrays.sort(numbers);
+			return getBounds(numbers, true);
+		}
+	}
+
+	/** Identifies a numerical block analysis within a {@link NameList}. */
+	private static class BlockKey {
+
+		private final String pre;
+
+		private final String post;
+
+		private final int width;
+
+		public BlockKey(final NumberFilter filter, final int width) {
+			pre = filter.getPrefix();
+			post = filter.getSuffix();
+			this.width = width;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof BlockKey)) return false;
+			final BlockKey key = (BlockKey) o;
+			return width == key.width && pre.equals(key.pre) && post.equals(
+				key.post);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * pre.hashCode() + post.hashCode()) + width;
+		}
+	}
+
+	/** Analysis of the names matching one numerical block of a name. */
+	private static class Block {
+
+		/** Number of names matching the block. */
+		private final int count;
+
+		/**
+		 * For fixed-width blocks, whether each character of the block is shared
+		 * by all matching names; null for variable-width blocks.
+		 */
+		private final boolean[] same;
+
+		/** For variable-width blocks, the bounds of the numbering, if valid. */
+		private final String bounds;
+
+		public Block(final String name, final NumberFilter filter,
+			final String[] list)
+		{
+			count = list.length;
+			boolean fix = true;
+			for (final String s : list) {
+				if (s.length() != name.length()) {
+					fix = false;
+					break;
+				}
+			}
+			final int start = filter.getPrefix().length();
+			final int width = name.length() - filter.getSuffix().length() - start;
+			if (count < 2) {
+				same = null;
+				bounds = null;
+			}
+			else if (fix) {
+				// check each character for duplicates
+				same = new boolean[width];
+				for (int j = 0; j < width; j++) {
+					same[j] = true;
+					final int jx = start + j;
+					final char c = name.charAt(jx);
+					for (final String s : list) {
+						if (s.charAt(jx) != c) {
+							same[j] = false;
+							break;
+						}
+					}
+				}
+				bounds = null;
+			}
+			else {
+				final BigInteger[] numbers = new BigInteger[list.length];
+				for (int j = 0; j < list.length; j++) {
+					numbers[j] = filter.getNumber(list[j]);
+				}
+				Arrays.sort(numbers);
+				same = null;
+				bounds = getBounds(numbers, false);
+			}
 		}
-		return list.toArray(new String[0]);
 	}
 }
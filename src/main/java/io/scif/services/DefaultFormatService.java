@@ -42,15 +42,20 @@ import io.scif.config.SCIFIOConfig;
 import io.scif.io.RandomAccessInputStream;
 import io.scif.util.FormatTools;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.scijava.app.AppService;
 import org.scijava.log.LogService;
@@ -86,6 +91,14 @@ public class DefaultFormatService extends AbstractService implements
 	@Parameter
 	private LogService logService;
 
+	@Parameter
+	private LocationService locationService;
+
+	// -- Constants --
+
+	/** Maximum number of source ids whose formats are remembered. */
+	private static final int FORMAT_CACHE_SIZE = 4096;
+
 	// -- Fields --
 
 	/*
@@ -124,14 +137,26 @@ public class DefaultFormatService extends AbstractService implements
 	private Map<Class<?>, Format> metadataMap;
 
 	/*
-	 * Maps String ids to their associated Format.
+	 * Maps source ids to the Formats found compatible with them. Entries are
+	 * only reused while the source's length and modification time are unchanged.
 	 * TODO: Update this logic for
 	 * https://github.com/scifio/scifio/issues/237
 	 */
-	private Map<String, Format> formatCache;
+	private Map<FormatKey, FormatVerdict> formatCache;
 
 	private boolean dirtyFormatCache = false;
 
+	/*
+	 * Maps Formats to a shared instance of their Checker.
+	 */
+	private Map<Format, Checker> checkers;
+
+	/*
+	 * Candidate Formats by first byte of a source, or null if it needs to be
+	 * rebuilt.
+	 */
+	private volatile SignatureIndex signatureIndex;
+
 	// Flag to mark if this service has been initialized or not.
 	private boolean initialized = false;
 
@@ -171,6 +196,8 @@ public class DefaultFormatService extends AbstractService implements
 				formats().add(format);
 				formatMap().put(format.getClass(), format);
 				addComponents(format);
+				signatureIndex = null;
+				dirtyFormatCache = true;
 			}
 		}
 
@@ -182,6 +209,8 @@ public class DefaultFormatService extends AbstractService implements
 	public boolean removeFormat(final Format format) {
 		removeComponents(format);
 		formatMap().remove(format.getClass());
+		checkers.remove(format);
+		signatureIndex = null;
 		dirtyFormatCache = true;
 		return formats().remove(format);
 	}
@@ -311,15 +340,7 @@ public class DefaultFormatService extends AbstractService implements
 	public Format getFormat(final String id, final SCIFIOConfig config)
 		throws FormatException
 	{
-		Format format = formatCache().get(id);
-		if (format == null) {
-			format = getFormatList(id, config, true).get(0);
-			synchronized (formats) {
-				// Synchronized to protect cache modification
-				if (formatCache().get(id) == null) formatCache().put(id, format);
-			}
-		}
-		return format;
+		return getFormatList(id, config, true).get(0);
 	}
 
 	@Override
@@ -331,6 +352,15 @@ public class DefaultFormatService extends AbstractService implements
 	public List<Format> getFormatList(final String id, final SCIFIOConfig config,
 		final boolean greedy) throws FormatException
 	{
+		// NB: a changed length or modification time invalidates cached verdicts
+		final File file = new File(locationService.getMappedId(id));
+		final long length = file.length();
+		final long lastModified = file.lastModified();
+		final FormatKey key = new FormatKey(id, config.checkerIsOpen(), greedy);
+		final FormatVerdict cached = formatCache().get(key);
+		if (cached != null && cached.isValid(length, lastModified)) {
+			return new ArrayList<>(cached.formats);
+		}
 
 		final List<Format> formatList = new ArrayList<>();
 
@@ -338,7 +368,7 @@ public class DefaultFormatService extends AbstractService implements
 
 		for (final Format format : formats()) {
 			if (!found && format.isEnabled() &&
-				format.createChecker().isFormat(id, config))
+				checker(format).isFormat(id, config))
 			{
 				// if greedy is true, we can end after finding the first format
 				found = greedy;
@@ -350,7 +380,9 @@ public class DefaultFormatService extends AbstractService implements
 			throw new FormatException(id + ": No supported format found.");
 		}
 
-		return formatList;
+		formatCache().put(key, new FormatVerdict(length, lastModified,
+			formatList));
+		return new ArrayList<>(formatList);
 	}
 
 	@Override
@@ -382,10 +414,20 @@ public class DefaultFormatService extends AbstractService implements
 
 		boolean found = false;
 
-		for (final Format format : formats()) {
-			try {
-				if (!found && format.isEnabled() &&
-					format.createChecker().isFormat(source))
+		try {
+			// Read the leading bytes once, and only consult the checkers whose
+			// signatures they could match
+			final SignatureIndex index = signatureIndex();
+			final byte[] header = new byte[(int) Math.min(index.maxLength, source
+				.length())];
+			source.seek(0);
+			source.readFully(header);
+			source.seek(0);
+
+			for (final Format format : index.getCandidates(header)) {
+				final Checker checker = checker(format);
+				if (!found && format.isEnabled() && matches(header, checker
+					.getSignatures()) && checker.isFormat(source))
 				{
 					// if greedy is true, we can end after finding the first format
 					found = greedy;
@@ -394,9 +436,9 @@ public class DefaultFormatService extends AbstractService implements
 				// Reset the stream
 				source.seek(0);
 			}
-			catch (final IOException e) {
-				throw new FormatException(e);
-			}
+		}
+		catch (final IOException e) {
+			throw new FormatException(e);
 		}
 
 		if (formatList.isEmpty()) {
@@ -440,7 +482,18 @@ public class DefaultFormatService extends AbstractService implements
 			readerMap = new HashMap<>();
 			writerMap = new HashMap<>();
 			metadataMap = new HashMap<>();
-			formatCache = new WeakHashMap<>();
+			formatCache = Collections.synchronizedMap(
+				new LinkedHashMap<FormatKey, FormatVerdict>(16, 0.75f, true)
+			{
+
+				@Override
+				protected boolean removeEldestEntry(
+					final Map.Entry<FormatKey, FormatVerdict> eldest)
+				{
+					return size() > FORMAT_CACHE_SIZE;
+				}
+			});
+			checkers = new ConcurrentHashMap<>();
 
 			// HACK: Wait until the FormatService is available from the context
 			// before initializing all the formats. Otherwise, any Format that
@@ -501,7 +554,7 @@ public class DefaultFormatService extends AbstractService implements
 		return metadataMap;
 	}
 
-	private Map<String, Format> formatCache() {
+	private Map<FormatKey, FormatVerdict> formatCache() {
 		checkLock();
 		if (dirtyFormatCache) {
 			// Double lock so that a cache is only cleared once
@@ -515,6 +568,53 @@ public class DefaultFormatService extends AbstractService implements
 		return formatCache;
 	}
 
+	/** Gets the shared checker of the given format, creating it if needed. */
+	private Checker checker(final Format format) throws FormatException {
+		Checker checker = checkers.get(format);
+		if (checker == null) {
+			checker = format.createChecker();
+			final Checker existing = checkers.putIfAbsent(format, checker);
+			if (existing != null) checker = existing;
+		}
+		return checker;
+	}
+
+	/** Gets the signature index of all known formats, building it if needed. */
+	private SignatureIndex signatureIndex() throws FormatException {
+		SignatureIndex index = signatureIndex;
+		if (index == null) {
+			// wait for initialization before locking out the formats being added
+			final Set<Format> all = formats();
+			synchronized (formats) {
+				index = new SignatureIndex();
+				for (final Format format : all) {
+					index.add(format, checker(format).getSignatures());
+				}
+				signatureIndex = index;
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Checks whether the given header starts with one of the given signatures.
+	 * A null signature list matches any header.
+	 */
+	private static boolean matches(final byte[] header,
+		final byte[][] signatures)
+	{
+		if (signatures == null) return true;
+		for (final byte[] signature : signatures) {
+			if (signature.length > header.length) continue;
+			boolean match = true;
+			for (int i = 0; i < signature.length && match; i++) {
+				match = header[i] == signature[i];
+			}
+			if (match) return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Helper method that checks if one of these is true:
 	 * <ul>
@@ -542,4 +642,104 @@ public class DefaultFormatService extends AbstractService implements
 			}
 		}
 	}
+
+	// -- Helper classes --
+
+	/**
+	 * Lists, for every possible first byte of a source, the formats whose
+	 * checkers may accept it, in priority order.
+	 */
+	private static class SignatureIndex {
+
+		/** Candidates by first byte; the last entry is for empty sources. */
+		private final List<List<Format>> candidates = new ArrayList<>();
+
+		/** Length of the longest signature of any format. */
+		private int maxLength;
+
+		public SignatureIndex() {
+			for (int i = 0; i <= 256; i++) {
+				candidates.add(new ArrayList<>());
+			}
+		}
+
+		/** Adds the next format in priority order. */
+		public void add(final Format format, final byte[][] signatures) {
+			final boolean[] included = new boolean[candidates.size()];
+			if (signatures == null) Arrays.fill(included, true);
+			else {
+				for (final byte[] signature : signatures) {
+					if (signature.length == 0) Arrays.fill(included, true);
+					else included[signature[0] & 0xff] = true;
+					maxLength = Math.max(maxLength, signature.length);
+				}
+			}
+			for (int i = 0; i < included.length; i++) {
+				if (included[i]) candidates.get(i).add(format);
+			}
+		}
+
+		public List<Format> getCandidates(final byte[] header) {
+			return candidates.get(header.length == 0 ? 256 : header[0] & 0xff);
+		}
+	}
+
+	/** Identifies one format lookup for a source id. */
+	private static class FormatKey {
+
+		private final String id;
+		private final boolean open;
+		private final boolean greedy;
+
+		public FormatKey(final String id, final boolean open,
+			final boolean greedy)
+		{
+			this.id = id;
+			this.open = open;
+			this.greedy = greedy;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof FormatKey)) return false;
+			final FormatKey other = (FormatKey) o;
+			return id.equals(other.id) && open == other.open &&
+				greedy == other.greedy;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(id, open, greedy);
+		}
+	}
+
+	/** The formats found for a source, with the source state they apply to. */
+	private static class FormatVerdict {
+
+		private final long length;
+		private final long lastModified;
+		private final List<Format> formats;
+
+		public FormatVerdict(final long length, final long lastModified,
+			final List<Format> formats)
+		{
+			this.length = length;
+			this.lastModified = lastModified;
+			this.formats = formats;
+		}
+
+		/**
+		 * Whether this verdict still applies to a source of the given length and
+		 * modification time, and all of its formats are still enabled.
+		 */
+		public boolean isValid(final long length, final long lastModified) {
+			if (length != this.length || lastModified != this.lastModified) {
+				return false;
+			}
+			for (final Format format : formats) {
+				if (!format.isEnabled()) return false;
+			}
+			return true;
+		}
+	}
 }
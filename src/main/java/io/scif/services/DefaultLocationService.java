@@ -195,7 +195,16 @@ public class DefaultLocationService extends AbstractService implements
 	public IRandomAccess getHandle(final String id, final boolean writable,
 		final boolean allowArchiveHandles) throws IOException
 	{
-		log.trace("getHandle(id = " + id + ", writable = " + writable + ")");
+		return getHandle(id, writable, allowArchiveHandles, false);
+	}
+
+	@Override
+	public IRandomAccess getHandle(final String id, final boolean writable,
+		final boolean allowArchiveHandles, final boolean memoryMapped)
+		throws IOException
+	{
+		log.trace("getHandle(id = " + id + ", writable = " + writable +
+			", memoryMapped = " + memoryMapped + ")");
 		IRandomAccess handle = getMappedFile(id);
 		if (handle == null) {
 			log.trace("no handle was mapped for this ID");
@@ -217,7 +226,8 @@ public class DefaultLocationService extends AbstractService implements
 
 			try {
 				if (handle == null) handle =
-					new NIOFileHandle(nioService, mapId, writable ? "rw" : "r");
+					new NIOFileHandle(nioService, mapId, writable ? "rw" : "r",
+						memoryMapped && !writable);
 			}
 			catch (final IOException e) {
 				// File doesn't exist on disk, so we'll create a virtual handle
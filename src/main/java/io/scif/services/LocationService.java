@@ -158,6 +158,21 @@ public interface LocationService extends SCIFIOService {
 	IRandomAccess getHandle(String id, boolean writable,
 		boolean allowArchiveHandles) throws IOException;
 
+	/**
+	 * Gets an IRandomAccess object that can read from or write to the given file.
+	 * If {@code memoryMapped} is true and the id resolves to a plain file opened
+	 * read-only, the whole file is memory mapped, so that seeking is cheap even
+	 * for very large files.
+	 * <p>
+	 * NB: if the file doesn't exist, a {@link VirtualHandle} will be returned.
+	 * </p>
+	 *
+	 * @see io.scif.io.IRandomAccess
+	 * @see io.scif.io.NIOFileHandle#isMemoryMapped()
+	 */
+	IRandomAccess getHandle(String id, boolean writable,
+		boolean allowArchiveHandles, boolean memoryMapped) throws IOException;
+
 	/**
 	 * Checks that the given id points at a valid data stream.
 	 *
@@ -0,0 +1,361 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * A utility class for converting whole runs of raw pixel bytes into primitive
+ * arrays.
+ * <p>
+ * Samples are read through typed views of a byte buffer in the requested byte
+ * order, rather than assembled one byte at a time with a branch on the
+ * endianness for each of them. Same-width copies are bulk transfers; the
+ * {@code decode} methods convert any pixel type in chunks, with the same
+ * results as {@code ImgUtilityService#decodeWord} followed by a cast.
+ * </p>
+ */
+public final class ConversionTools {
+
+	/** Number of samples decoded at a time by the narrowing conversions. */
+	private static final int CHUNK_SIZE = 4096;
+
+	private ConversionTools() {
+		// prevent instantiation of utility class
+	}
+
+	// -- Same-width copies --
+
+	/**
+	 * Copies {@code count} 16-bit values, starting at the given value index of
+	 * {@code src}, into {@code dest}.
+	 */
+	public static void copyChars(final byte[] src, final int srcIndex,
+		final boolean little, final char[] dest, final int destIndex,
+		final int count)
+	{
+		final CharBuffer buffer = wrap(src, little).asCharBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Copies {@code count} 16-bit values, starting at the given value index of
+	 * {@code src}, into {@code dest}.
+	 */
+	public static void copyShorts(final byte[] src, final int srcIndex,
+		final boolean little, final short[] dest, final int destIndex,
+		final int count)
+	{
+		final ShortBuffer buffer = wrap(src, little).asShortBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Copies {@code count} 32-bit values, starting at the given value index of
+	 * {@code src}, into {@code dest}.
+	 */
+	public static void copyInts(final byte[] src, final int srcIndex,
+		final boolean little, final int[] dest, final int destIndex,
+		final int count)
+	{
+		final IntBuffer buffer = wrap(src, little).asIntBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Copies {@code count} 64-bit values, starting at the given value index of
+	 * {@code src}, into {@code dest}.
+	 */
+	public static void copyLongs(final byte[] src, final int srcIndex,
+		final boolean little, final long[] dest, final int destIndex,
+		final int count)
+	{
+		final LongBuffer buffer = wrap(src, little).asLongBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Copies {@code count} 32-bit floating point values, starting at the given
+	 * value index of {@code src}, into {@code dest}.
+	 */
+	public static void copyFloats(final byte[] src, final int srcIndex,
+		final boolean little, final float[] dest, final int destIndex,
+		final int count)
+	{
+		final FloatBuffer buffer = wrap(src, little).asFloatBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Copies {@code count} 64-bit floating point values, starting at the given
+	 * value index of {@code src}, into {@code dest}.
+	 */
+	public static void copyDoubles(final byte[] src, final int srcIndex,
+		final boolean little, final double[] dest, final int destIndex,
+		final int count)
+	{
+		final DoubleBuffer buffer = wrap(src, little).asDoubleBuffer();
+		buffer.position(srcIndex);
+		buffer.get(dest, destIndex, count);
+	}
+
+	/**
+	 * Converts the given bytes to an array of the primitive type matching the
+	 * given sample width, as {@code org.scijava.util.Bytes#makeArray} does. A
+	 * single byte per sample returns the given array itself.
+	 */
+	public static Object makeArray(final byte[] b, final int bpp,
+		final boolean fp, final boolean little)
+	{
+		final int count = b.length / bpp;
+		if (bpp == 1) return b;
+		if (bpp == 2) {
+			final short[] s = new short[count];
+			copyShorts(b, 0, little, s, 0, count);
+			return s;
+		}
+		if (bpp == 4 && fp) {
+			final float[] f = new float[count];
+			copyFloats(b, 0, little, f, 0, count);
+			return f;
+		}
+		if (bpp == 4) {
+			final int[] i = new int[count];
+			copyInts(b, 0, little, i, 0, count);
+			return i;
+		}
+		if (bpp == 8 && fp) {
+			final double[] d = new double[count];
+			copyDoubles(b, 0, little, d, 0, count);
+			return d;
+		}
+		if (bpp == 8) {
+			final long[] l = new long[count];
+			copyLongs(b, 0, little, l, 0, count);
+			return l;
+		}
+		return null;
+	}
+
+	// -- Pixel decoding --
+
+	/**
+	 * Decodes {@code count} pixels of the given {@link FormatTools} pixel type,
+	 * starting at the given pixel index of {@code src}, into {@code dest}.
+	 * Unknown pixel types decode to {@link Double#NaN}.
+	 */
+	public static void decodeDoubles(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final double[] dest,
+		final int destIndex, final int count)
+	{
+		final ByteBuffer bb = wrap(src, little);
+		switch (pixelType) {
+			case FormatTools.UINT8:
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = src[srcIndex + i] & 0xff;
+				}
+				break;
+			case FormatTools.INT8:
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = src[srcIndex + i];
+				}
+				break;
+			case FormatTools.UINT16: {
+				final ShortBuffer buffer = bb.asShortBuffer();
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = buffer.get(srcIndex + i) & 0xffff;
+				}
+				break;
+			}
+			case FormatTools.INT16: {
+				final ShortBuffer buffer = bb.asShortBuffer();
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = buffer.get(srcIndex + i);
+				}
+				break;
+			}
+			case FormatTools.UINT32: {
+				final IntBuffer buffer = bb.asIntBuffer();
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = buffer.get(srcIndex + i) & 0xffffffffL;
+				}
+				break;
+			}
+			case FormatTools.INT32: {
+				final IntBuffer buffer = bb.asIntBuffer();
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = buffer.get(srcIndex + i);
+				}
+				break;
+			}
+			case FormatTools.FLOAT: {
+				final FloatBuffer buffer = bb.asFloatBuffer();
+				for (int i = 0; i < count; i++) {
+					dest[destIndex + i] = buffer.get(srcIndex + i);
+				}
+				break;
+			}
+			case FormatTools.DOUBLE:
+				copyDoubles(src, srcIndex, little, dest, destIndex, count);
+				break;
+			default:
+				Arrays.fill(dest, destIndex, destIndex + count, Double.NaN);
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeFloats(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final float[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (float) chunk[i];
+			}
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeLongs(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final long[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (long) chunk[i];
+			}
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeInts(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final int[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (int) chunk[i];
+			}
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeShorts(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final short[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (short) chunk[i];
+			}
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeChars(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final char[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (char) chunk[i];
+			}
+		}
+	}
+
+	/**
+	 * Decodes {@code count} pixels of the given pixel type, starting at the
+	 * given pixel index of {@code src}, into {@code dest}, casting each value.
+	 */
+	public static void decodeBytes(final byte[] src, final int srcIndex,
+		final int pixelType, final boolean little, final byte[] dest,
+		final int destIndex, final int count)
+	{
+		final double[] chunk = new double[Math.min(count, CHUNK_SIZE)];
+		for (int n = 0; n < count; n += chunk.length) {
+			final int len = Math.min(chunk.length, count - n);
+			decodeDoubles(src, srcIndex + n, pixelType, little, chunk, 0, len);
+			for (int i = 0; i < len; i++) {
+				dest[destIndex + n + i] = (byte) chunk[i];
+			}
+		}
+	}
+
+	// -- Helper methods --
+
+	private static ByteBuffer wrap(final byte[] src, final boolean little) {
+		return ByteBuffer.wrap(src).order(little ? ByteOrder.LITTLE_ENDIAN
+			: ByteOrder.BIG_ENDIAN);
+	}
+
+}
@@ -40,6 +40,9 @@ import io.scif.io.RandomAccessInputStream;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.Vector;
 
 import net.imagej.axis.Axes;
@@ -926,6 +929,44 @@ public final class FormatTools {
 		}
 	}
 
+	// -- Utility methods - batch and asynchronous reading --
+
+	/**
+	 * Reads the given planes one at a time. Default implementation of
+	 * {@link Reader#openPlanes(int, long[], Interval, SCIFIOConfig)}.
+	 */
+	public static Plane[] openPlanes(final Reader reader, final int imageIndex,
+		final long[] planeIndices, final Interval bounds, final SCIFIOConfig config)
+		throws FormatException, IOException
+	{
+		final Plane[] planes = new Plane[planeIndices.length];
+		for (int i = 0; i < planes.length; i++) {
+			planes[i] = reader.openPlane(imageIndex, planeIndices[i], bounds, config);
+		}
+		return planes;
+	}
+
+	/**
+	 * Reads the given plane on the given executor. Default implementation of
+	 * {@link Reader#openPlaneAsync(int, long, Interval, SCIFIOConfig)}; the
+	 * executor is expected to run the requests of a reader one at a time, e.g.
+	 * as a {@link SerialExecutor} does.
+	 */
+	public static CompletableFuture<Plane> openPlaneAsync(final Reader reader,
+		final Executor executor, final int imageIndex, final long planeIndex,
+		final Interval bounds, final SCIFIOConfig config)
+	{
+		final PlaneRequest request =
+			new PlaneRequest(reader, imageIndex, planeIndex, bounds, config);
+		try {
+			executor.execute(request);
+		}
+		catch (final RejectedExecutionException e) {
+			request.completeExceptionally(e);
+		}
+		return request;
+	}
+
 	// -- Utility methods -- export
 
 	/**
@@ -1189,4 +1230,49 @@ public final class FormatTools {
 		return false;
 	}
 
+	// -- Helper classes --
+
+	/**
+	 * A plane read by {@link #openPlaneAsync}, which is its own task so that an
+	 * executor rejecting it can fail it (see {@link SerialExecutor}).
+	 */
+	private static final class PlaneRequest extends CompletableFuture<Plane>
+		implements Runnable
+	{
+
+		private final Reader reader;
+
+		private final int imageIndex;
+
+		private final long planeIndex;
+
+		private final Interval bounds;
+
+		private final SCIFIOConfig config;
+
+		private PlaneRequest(final Reader reader, final int imageIndex,
+			final long planeIndex, final Interval bounds, final SCIFIOConfig config)
+		{
+			this.reader = reader;
+			this.imageIndex = imageIndex;
+			this.planeIndex = planeIndex;
+			this.bounds = bounds;
+			this.config = config;
+		}
+
+		@Override
+		public void run() {
+			if (isDone()) return;
+			// NB: guards against requests queued on different executors
+			synchronized (reader) {
+				try {
+					complete(reader.openPlane(imageIndex, planeIndex, bounds, config));
+				}
+				catch (final Throwable t) {
+					completeExceptionally(t);
+				}
+			}
+		}
+	}
+
 }
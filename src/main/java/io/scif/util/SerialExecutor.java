@@ -0,0 +1,157 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Executor} which runs its tasks one at a time, in submission order, on
+ * an underlying executor. Used to pipeline requests to components which are
+ * not thread-safe, such as {@link io.scif.Reader}s, without tying up a thread
+ * per queued request.
+ * <p>
+ * If the underlying executor rejects a task, the task is skipped so that the
+ * tasks queued behind it still run. A task which is itself a
+ * {@link CompletableFuture} is completed exceptionally with the rejection.
+ * </p>
+ */
+public class SerialExecutor implements Executor {
+
+	// -- Constants --
+
+	/** Executor used when none is given: daemon threads, reclaimed when idle. */
+	private static final ExecutorService DEFAULT_EXECUTOR =
+		new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+			new SynchronousQueue<>(), r -> {
+				final Thread t = new Thread(r, "SCIFIO-SerialExecutor");
+				t.setDaemon(true);
+				return t;
+			});
+
+	// -- Fields --
+
+	private final Executor executor;
+
+	private final Queue<Task> tasks = new ArrayDeque<>();
+
+	private Task active;
+
+	// -- Constructors --
+
+	/** Creates a serial executor running its tasks on shared daemon threads. */
+	public SerialExecutor() {
+		this(null);
+	}
+
+	/**
+	 * @param executor Executor to run the tasks on, or null to use shared daemon
+	 *          threads.
+	 */
+	public SerialExecutor(final Executor executor) {
+		this.executor = executor;
+	}
+
+	// -- SerialExecutor methods --
+
+	/**
+	 * @return The executor the tasks run on, as given at construction.
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	// -- Executor API methods --
+
+	/**
+	 * @throws RejectedExecutionException if the underlying executor rejects the
+	 *           command right away.
+	 */
+	@Override
+	public synchronized void execute(final Runnable command) {
+		final Task task = new Task(command);
+		tasks.add(task);
+		if (active == null) scheduleNext();
+		if (task.rejection != null) throw task.rejection;
+	}
+
+	// -- Helper methods --
+
+	private synchronized void scheduleNext() {
+		while ((active = tasks.poll()) != null) {
+			try {
+				(executor == null ? DEFAULT_EXECUTOR : executor).execute(active);
+				return;
+			}
+			catch (final RejectedExecutionException e) {
+				active.reject(e);
+			}
+		}
+	}
+
+	// -- Helper classes --
+
+	/** Runs a command, then schedules the next queued task. */
+	private final class Task implements Runnable {
+
+		private final Runnable command;
+
+		/** Why the underlying executor rejected this task, if it did. */
+		private RejectedExecutionException rejection;
+
+		private Task(final Runnable command) {
+			this.command = command;
+		}
+
+		@Override
+		public void run() {
+			try {
+				command.run();
+			}
+			finally {
+				scheduleNext();
+			}
+		}
+
+		private void reject(final RejectedExecutionException e) {
+			rejection = e;
+			if (command instanceof CompletableFuture) {
+				((CompletableFuture<?>) command).completeExceptionally(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.config.SCIFIOConfig;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Vector;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link CompactMetaTable}.
+ */
+public class CompactMetaTableTest {
+
+	@Test
+	public void testValueTypes() {
+		final CompactMetaTable table = new CompactMetaTable();
+		final Object[] values = { 7, -3L, (short) 12, (byte) -1, 2.5, 1.25f, true,
+			"text", 'c', new int[] { 1, 2 } };
+		for (int i = 0; i < values.length; i++)
+			table.put("key" + i, values[i]);
+
+		assertEquals(values.length, table.size());
+		for (int i = 0; i < values.length - 2; i++) {
+			final Object value = table.get("key" + i);
+			assertEquals(values[i], value);
+			assertEquals(values[i].getClass(), value.getClass());
+		}
+		// characters are stored as strings, as by DefaultMetaTable
+		assertEquals("c", table.get("key8"));
+		// complex values are kept as is
+		assertSame(values[9], table.get("key9"));
+
+		assertNull(table.put(" padded ", 1));
+		assertEquals(1, table.get("padded"));
+		assertNull(table.put(null, 1));
+		assertNull(table.put("null", null));
+		assertFalse(table.containsKey("null"));
+	}
+
+	@Test
+	public void testSameAsDefault() {
+		final MetaTable expected = new DefaultMetaTable();
+		final MetaTable table = new CompactMetaTable();
+		final Random r = new Random(0xdecaf);
+		for (int i = 0; i < 20000; i++) {
+			final String key = "key" + r.nextInt(500);
+			final int op = r.nextInt(10);
+			if (op < 2) {
+				assertEquals(expected.remove(key), table.remove(key));
+			}
+			else if (op < 3) {
+				expected.putList(key, i);
+				table.putList(key, i);
+			}
+			else {
+				final Object value = op < 5 ? (Object) r.nextDouble() : op < 7
+					? (Object) r.nextLong() : "value" + r.nextInt(50);
+				assertEquals(expected.put(key, value), table.put(key, value));
+			}
+			assertEquals(expected.size(), table.size());
+		}
+		assertEquals(expected, table);
+		assertEquals(table, expected);
+		assertEquals(expected.hashCode(), table.hashCode());
+		for (int i = 0; i < 500; i++) {
+			assertEquals(expected.get("key" + i), table.get("key" + i));
+		}
+
+		final CompactMetaTable copy = new CompactMetaTable(table, //
+			new CompactMetaTable.StringPool());
+		assertEquals(expected, copy);
+		assertEquals(expected, new CompactMetaTable(copy));
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		final CompactMetaTable table = new CompactMetaTable();
+		final Map<String, Object> expected = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			table.put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+
+		int visited = 0;
+		final Iterator<Map.Entry<String, Object>> iter =
+			table.entrySet().iterator();
+		while (iter.hasNext()) {
+			final Map.Entry<String, Object> e = iter.next();
+			visited++;
+			if ((Integer) e.getValue() % 3 == 0) {
+				iter.remove();
+				expected.remove(e.getKey());
+			}
+			else e.setValue(-(Integer) e.getValue());
+		}
+		assertEquals(1000, visited);
+		for (final Map.Entry<String, Object> e : expected.entrySet())
+			e.setValue(-(Integer) e.getValue());
+		assertEquals(expected, table);
+
+		table.clear();
+		assertTrue(table.isEmpty());
+		assertNull(table.get("key1"));
+	}
+
+	@Test
+	public void testSharedPool() {
+		final CompactMetaTable.StringPool pool = new CompactMetaTable.StringPool();
+		final CompactMetaTable a = new CompactMetaTable(pool);
+		final CompactMetaTable b = new CompactMetaTable(pool);
+		a.put(new String("Exposure"), new String("10 ms"));
+		b.put(new String("Exposure"), new String("10 ms"));
+		assertEquals(2, pool.size());
+		assertSame(a.get("Exposure"), b.get("Exposure"));
+		assertSame(a.keySet().iterator().next(), b.keySet().iterator().next());
+	}
+
+	@Test
+	public void testFiltered() {
+		final MetaTable expected = new DefaultMetaTable(true);
+		final MetaTable table = new CompactMetaTable(
+			new CompactMetaTable.StringPool(), true);
+		for (final MetaTable t : new MetaTable[] { expected, table }) {
+			t.put("a<b>", "x&amp;y");
+			t.put("1234", "digits");
+			t.put("complex", new Vector<>());
+			t.put("blank", "   ");
+		}
+		assertEquals(expected, table);
+		assertEquals(1, table.size());
+	}
+
+	@Test
+	public void testParse() throws IOException, FormatException {
+		final SCIFIO scifio = new SCIFIO();
+		final String id = "multi-image&images=40&lengths=8,8.fake";
+		final Metadata meta = scifio.format().getFormat(id).createParser().parse(
+			id, new SCIFIOConfig().parserSetCompactMetaTables(true));
+
+		assertTrue(meta.getTable() instanceof CompactMetaTable);
+		final CompactMetaTable.StringPool pool = //
+			((CompactMetaTable) meta.getTable()).getPool();
+		for (final ImageMetadata imageMeta : meta.getAll()) {
+			assertTrue(imageMeta.getTable() instanceof CompactMetaTable);
+			assertSame(pool, ((CompactMetaTable) imageMeta.getTable()).getPool());
+		}
+
+		final ImageMetadata copy = meta.get(0).copy();
+		assertTrue(copy.getTable() instanceof CompactMetaTable);
+		scifio.getContext().dispose();
+	}
+}
@@ -29,14 +29,18 @@
 
 package io.scif;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import io.scif.formats.FakeFormat;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import net.imagej.axis.Axes;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
 import net.imglib2.display.ColorTable;
 
 import org.junit.Test;
@@ -134,6 +138,39 @@ public class FakeFormatTest {
 		}
 	}
 
+	// -- ByteBuffer plane tests --
+
+	/**
+	 * Test that planes read into heap and direct {@link ByteBuffer}s match the
+	 * bytes of a plane opened the usual way.
+	 */
+	@Test
+	public void testOpenPlaneIntoByteBuffer() throws FormatException,
+		IOException
+	{
+		final String sampleImage =
+			"16bit-signed&pixelType=int16&lengths=32,24,3&axes=X,Y,Time.fake";
+
+		final Reader reader = scifio.initializer().initializeReader(sampleImage);
+		final Interval bounds = new FinalInterval(reader.getMetadata().get(0)
+			.getAxesLengthsPlanar());
+		final byte[] expected = reader.openPlane(0, 2).getBytes();
+		final ByteBuffer heap = ByteBuffer.allocate(expected.length);
+		final ByteBuffer direct = ByteBuffer.allocateDirect(expected.length + 4);
+		direct.position(4);
+
+		assertEquals(heap, reader.openPlane(0, 2, heap, bounds));
+		assertEquals(expected.length, heap.position());
+		assertArrayEquals(expected, heap.array());
+
+		reader.openPlane(0, 2, direct, bounds);
+		assertEquals(expected.length + 4, direct.position());
+		final byte[] actual = new byte[expected.length];
+		direct.position(4);
+		direct.get(actual);
+		assertArrayEquals(expected, actual);
+	}
+
 	/**
 	 * Test that fake images with more axes than lengths can not be constructed.
 	 */
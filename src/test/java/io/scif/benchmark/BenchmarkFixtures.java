@@ -0,0 +1,146 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.formats.tiff.IFD;
+import io.scif.formats.tiff.TiffCompression;
+import io.scif.formats.tiff.TiffSaver;
+import io.scif.util.FormatTools;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.scijava.Context;
+import org.scijava.log.LogService;
+
+/**
+ * Generates the fixture files used by the benchmarks. Pixel data is derived
+ * from a fixed seed, so every run measures byte-identical input without
+ * relying on any external sample data.
+ */
+public final class BenchmarkFixtures {
+
+	private static final long SEED = 0x5C1F10L;
+
+	private BenchmarkFixtures() {
+		// prevent instantiation of utility class
+	}
+
+	/** Creates a temporary file of the given length filled with random bytes. */
+	public static File createRawFile(final int length) throws IOException {
+		final File file = createTempFile(".raw");
+		final byte[] bytes = new byte[length];
+		new Random(SEED).nextBytes(bytes);
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(bytes);
+		}
+		return file;
+	}
+
+	/**
+	 * Creates a temporary 16-bit grayscale TIFF file.
+	 *
+	 * @param context Context used to write the file.
+	 * @param width Width of each plane, in pixels.
+	 * @param height Height of each plane, in pixels.
+	 * @param planes Number of planes (IFDs) to write.
+	 * @param tileSize Edge length of square tiles, or 0 to write one strip per
+	 *          16 rows.
+	 * @param compression Compression to apply to every strip or tile.
+	 */
+	public static File createTiff(final Context context, final int width,
+		final int height, final int planes, final int tileSize,
+		final TiffCompression compression) throws FormatException, IOException
+	{
+		final File file = createTempFile(".tif");
+		final String id = file.getAbsolutePath();
+		final LogService log = context.getService(LogService.class);
+		final TiffSaver saver = new TiffSaver(context, id);
+		try {
+			saver.setWritingSequentially(true);
+			saver.setLittleEndian(true);
+			saver.writeHeader();
+			for (int p = 0; p < planes; p++) {
+				final IFD ifd = new IFD(log);
+				ifd.put(IFD.IMAGE_WIDTH, (long) width);
+				ifd.put(IFD.IMAGE_LENGTH, (long) height);
+				ifd.put(IFD.LITTLE_ENDIAN, Boolean.TRUE);
+				ifd.put(IFD.COMPRESSION, compression.getCode());
+				if (tileSize > 0) {
+					ifd.put(IFD.TILE_WIDTH, (long) tileSize);
+					ifd.put(IFD.TILE_LENGTH, (long) tileSize);
+				}
+				else {
+					ifd.put(IFD.ROWS_PER_STRIP, new long[] { 16 });
+				}
+				// sequential writes append each plane at the end of the file
+				saver.getStream().seek(saver.getStream().length());
+				saver.writeImage(createPixels(width, height, p), ifd, p,
+					FormatTools.UINT16, p == planes - 1);
+			}
+		}
+		finally {
+			saver.getStream().close();
+		}
+		return file;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Creates one little-endian 16-bit plane: a smooth gradient with some
+	 * noise, so that compressed variants compress realistically.
+	 */
+	private static byte[] createPixels(final int width, final int height,
+		final int plane)
+	{
+		final Random random = new Random(SEED + plane);
+		final byte[] pixels = new byte[2 * width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int value = 16 * (x + y + plane) + random.nextInt(64);
+				final int index = 2 * (y * width + x);
+				pixels[index] = (byte) value;
+				pixels[index + 1] = (byte) (value >> 8);
+			}
+		}
+		return pixels;
+	}
+
+	private static File createTempFile(final String suffix) throws IOException {
+		final File file = File.createTempFile("scifio-benchmark", suffix);
+		file.deleteOnExit();
+		return file;
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.util.ConversionTools;
+import io.scif.util.FormatTools;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.util.Bytes;
+
+/**
+ * Compares the per-sample {@link Bytes} conversions used by the plane loaders
+ * and converters with the bulk conversions of {@link ConversionTools}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+	/** Length of the converted plane, in bytes. */
+	private static final int LENGTH = 1024 * 1024;
+
+	@Param({ "uint8", "int16", "uint16", "int32", "float", "double" })
+	private String pixelType;
+
+	@Param({ "true", "false" })
+	private boolean little;
+
+	private int type;
+
+	private int bpp;
+
+	private boolean fp;
+
+	private byte[] plane;
+
+	private float[] floats;
+
+	private double[] doubles;
+
+	@Setup
+	public void setup() {
+		type = FormatTools.pixelTypeFromString(pixelType);
+		bpp = FormatTools.getBytesPerPixel(type);
+		fp = FormatTools.isFloatingPoint(type);
+		plane = new byte[LENGTH];
+		new Random(0xdecaf).nextBytes(plane);
+		floats = new float[LENGTH / bpp];
+		doubles = new double[LENGTH / bpp];
+	}
+
+	@Benchmark
+	public Object makeArrayBytes() {
+		return Bytes.makeArray(plane, bpp, fp, little);
+	}
+
+	@Benchmark
+	public Object makeArrayBulk() {
+		return ConversionTools.makeArray(plane, bpp, fp, little);
+	}
+
+	@Benchmark
+	public float[] decodeFloatsPerSample() {
+		for (int i = 0; i < floats.length; i++) {
+			floats[i] = (float) decodeWord(plane, i, type, little);
+		}
+		return floats;
+	}
+
+	@Benchmark
+	public float[] decodeFloatsBulk() {
+		ConversionTools.decodeFloats(plane, 0, type, little, floats, 0,
+			floats.length);
+		return floats;
+	}
+
+	@Benchmark
+	public double[] decodeDoublesPerSample() {
+		for (int i = 0; i < doubles.length; i++) {
+			doubles[i] = decodeWord(plane, i, type, little);
+		}
+		return doubles;
+	}
+
+	@Benchmark
+	public double[] decodeDoublesBulk() {
+		ConversionTools.decodeDoubles(plane, 0, type, little, doubles, 0,
+			doubles.length);
+		return doubles;
+	}
+
+	// -- Helper methods --
+
+	/** The per-sample path of {@code DefaultImgUtilityService#decodeWord}. */
+	private static double decodeWord(final byte[] plane, final int index,
+		final int pixelType, final boolean little)
+	{
+		switch (pixelType) {
+			case FormatTools.UINT8:
+				return plane[index] & 0xff;
+			case FormatTools.INT8:
+				return plane[index];
+			case FormatTools.UINT16:
+				return Bytes.toShort(plane, 2 * index, 2, little) & 0xffff;
+			case FormatTools.INT16:
+				return Bytes.toShort(plane, 2 * index, 2, little);
+			case FormatTools.UINT32:
+				return Bytes.toInt(plane, 4 * index, 4, little) & 0xffffffffL;
+			case FormatTools.INT32:
+				return Bytes.toInt(plane, 4 * index, 4, little);
+			case FormatTools.FLOAT:
+				return Bytes.toFloat(plane, 4 * index, 4, little);
+			case FormatTools.DOUBLE:
+				return Bytes.toDouble(plane, 8 * index, 8, little);
+			default:
+				return Double.NaN;
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(ConversionBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+}
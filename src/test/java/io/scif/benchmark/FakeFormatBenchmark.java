@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.formats.FakeFormat;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks initializing a {@link FakeFormat} reader and opening its planes.
+ * The fake format synthesizes its pixels, so this measures the framework
+ * overhead of the read path independent of any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FakeFormatBenchmark {
+
+	@Param({ "uint8", "int16", "float32" })
+	private String pixelType;
+
+	private Context context;
+
+	private SCIFIO scifio;
+
+	private String id;
+
+	private Reader reader;
+
+	private Plane plane;
+
+	private long planeIndex;
+
+	@Setup
+	public void setup() throws FormatException, IOException {
+		context = new Context();
+		scifio = new SCIFIO(context);
+		id = "benchmark&pixelType=" + pixelType +
+			"&axes=X,Y,Z&lengths=512,512,32.fake";
+		reader = scifio.initializer().initializeReader(id);
+		plane = reader.openPlane(0, 0);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		reader.close();
+		context.dispose();
+	}
+
+	@Benchmark
+	public Reader initializeReader() throws FormatException, IOException {
+		final Reader r = scifio.initializer().initializeReader(id);
+		r.close();
+		return r;
+	}
+
+	@Benchmark
+	public Plane openPlane() throws FormatException, IOException {
+		planeIndex = (planeIndex + 1) % reader.getPlaneCount(0);
+		return reader.openPlane(0, planeIndex);
+	}
+
+	@Benchmark
+	public Plane openPlaneReused() throws FormatException, IOException {
+		planeIndex = (planeIndex + 1) % reader.getPlaneCount(0);
+		return reader.openPlane(0, planeIndex, plane);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(FakeFormatBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.formats.tiff.TiffCompression;
+import io.scif.img.ImgOpener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.imglib2.Cursor;
+import net.imglib2.type.numeric.RealType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks opening a multi-plane TIFF file with {@link ImgOpener}, for each
+ * {@link ImgMode} and with serial or parallel plane reading. Every pixel is
+ * visited, so that lazily loaded images pay for their reads too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ImgOpenerBenchmark {
+
+	@Param({ "ARRAY", "PLANAR", "CELL" })
+	private ImgMode mode;
+
+	@Param({ "1", "4" })
+	private int threads;
+
+	private Context context;
+
+	private File file;
+
+	private ImgOpener opener;
+
+	private SCIFIOConfig config;
+
+	@Setup
+	public void setup() throws FormatException, IOException {
+		context = new Context();
+		file = BenchmarkFixtures.createTiff(context, 512, 512, 16, 0,
+			TiffCompression.UNCOMPRESSED);
+		opener = new ImgOpener(context);
+		config = new SCIFIOConfig().imgOpenerSetImgModes(mode) //
+			.imgOpenerSetThreads(threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+		context.dispose();
+	}
+
+	@Benchmark
+	public double openImgs() {
+		final Cursor<?> cursor =
+			opener.openImgs(file.getAbsolutePath(), config).get(0).cursor();
+		double sum = 0;
+		while (cursor.hasNext()) {
+			sum += ((RealType<?>) cursor.next()).getRealDouble();
+		}
+		return sum;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(ImgOpenerBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,300 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+import io.scif.codec.CodecOptions;
+import io.scif.codec.LZWCodec;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Compares the table-driven LZW decoder of {@link LZWCodec} with the previous
+ * chain-walking decoder, on 8- and 16-bit tiles of smooth, noisy image data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class LZWCodecBenchmark {
+
+	/** Width and height of the decoded tile, in pixels. */
+	private static final int SIZE = 256;
+
+	private static final int CLEAR_CODE = 256;
+
+	private static final int EOI_CODE = 257;
+
+	private static final int FIRST_CODE = 258;
+
+	private static final int[] DECOMPR_MASKS = { 0x00, 0x01, 0x03, 0x07, 0x0f,
+		0x1f, 0x3f, 0x7f };
+
+	@Param({ "8", "16" })
+	private int bitsPerSample;
+
+	private Context context;
+
+	private LZWCodec codec;
+
+	private CodecOptions options;
+
+	private byte[] compressed;
+
+	private byte[] tile;
+
+	@Setup
+	public void setup() throws FormatException {
+		context = new Context();
+		codec = new SCIFIO(context).codec().getCodec(LZWCodec.class);
+
+		// a gradient with a little noise, as from a microscope camera
+		final int bpp = bitsPerSample / 8;
+		final byte[] data = new byte[SIZE * SIZE * bpp];
+		final Random r = new Random(0xdecaf);
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				final int value = (x + y) * 4 + r.nextInt(8);
+				final int index = (y * SIZE + x) * bpp;
+				data[index] = (byte) value;
+				if (bpp == 2) data[index + 1] = (byte) (value >> 8);
+			}
+		}
+		compressed = codec.compress(data, null);
+		tile = new byte[data.length];
+		options = new CodecOptions();
+		options.maxBytes = data.length;
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.dispose();
+	}
+
+	@Benchmark
+	public byte[] tableDriven() throws FormatException {
+		codec.decompress(compressed, tile, 0, tile.length, options);
+		return tile;
+	}
+
+	@Benchmark
+	public byte[] chainWalking() throws FormatException {
+		decodeChains(compressed, tile, 0, tile.length);
+		return tile;
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(LZWCodecBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+
+	// -- Helper methods --
+
+	/** The decoder {@link LZWCodec} used before the table-driven one. */
+	private static int decodeChains(final byte[] input, final byte[] output,
+		final int offset, final int length) throws FormatException
+	{
+		if (input == null || input.length == 0) return 0;
+
+		// Position in output buffer to write next byte to
+		int currOutPos = offset;
+		final int end = offset + length;
+		// Position in input to read next byte from
+		int inPos = 0;
+
+		// Table mapping codes to strings.
+		// Its structure is based on the fact that a string for a code has form:
+		// (string for another code) + (new byte).
+		// Thus, at index 'code': first array contains 'another code', second
+		// array
+		// contains 'new byte', and third array contains length of the string.
+		// The length is needed to make retrieving the string faster.
+		final int[] anotherCodes = new int[4096];
+		final byte[] newBytes = new byte[4096];
+		final int[] lengths = new int[4096];
+		// We need to initialize only firt 256 entries in the table
+		for (int i = 0; i < 256; i++) {
+			newBytes[i] = (byte) i;
+			lengths[i] = 1;
+		}
+
+		// Length of the code to be read from input
+		int currCodeLength = 9;
+		// Next code to be added to the table
+		int nextCode = FIRST_CODE;
+
+		// Variables to handle reading bit stream:
+		// Byte from 'input[curr_in_pos-1]' -- only 'bits_read' bits on the
+		// right
+		// are non-zero
+		int currRead = 0;
+		// Number of bits in 'curr_read' that were not consumed yet
+		int bitsRead = 0;
+
+		// Current code being processed by decompressor.
+		int currCode;
+		// Previous code processed by decompressor.
+		int oldCode = 0; // without initializer, Java reports error later
+
+		try {
+			do {
+				// read next code
+				{
+					int bitsLeft = currCodeLength - bitsRead;
+					if (bitsLeft > 8) {
+						currRead = (currRead << 8) | byteAt(input, inPos++);
+						bitsLeft -= 8;
+					}
+					bitsRead = 8 - bitsLeft;
+					final int nextByte = byteAt(input, inPos++);
+					currCode = (currRead << bitsLeft) | (nextByte >> bitsRead);
+					currRead = nextByte & DECOMPR_MASKS[bitsRead];
+				}
+
+				if (currCode == EOI_CODE) break;
+
+				if (currCode == CLEAR_CODE) {
+					// initialize table -- nothing to do
+					nextCode = FIRST_CODE;
+					currCodeLength = 9;
+					// read next code
+					{
+						int bitsLeft = currCodeLength - bitsRead;
+						if (bitsLeft > 8) {
+							currRead = (currRead << 8) | byteAt(input, inPos++);
+							bitsLeft -= 8;
+						}
+						bitsRead = 8 - bitsLeft;
+
+						final int nextByte = byteAt(input, inPos++);
+						currCode = (currRead << bitsLeft) | (nextByte >> bitsRead);
+						currRead = nextByte & DECOMPR_MASKS[bitsRead];
+					}
+					if (currCode == EOI_CODE) break;
+					// write string[curr_code] to output
+					// -- but here we are sure that string consists of a single
+					// byte
+					if (currOutPos >= end - 1) break;
+					output[currOutPos++] = newBytes[currCode];
+					oldCode = currCode;
+				}
+				else if (currCode < nextCode) {
+					// Code is already in the table
+					// 1) Write strin[curr_code] to output
+					final int outLength = lengths[currCode];
+					int i = currOutPos + outLength;
+					int tablePos = currCode;
+					if (i > end) break;
+					while (i > currOutPos) {
+						output[--i] = newBytes[tablePos];
+						tablePos = anotherCodes[tablePos];
+					}
+					currOutPos += outLength;
+					// 2) Add string[old_code]+firstByte(string[curr_code]) to
+					// the table
+					if (nextCode >= anotherCodes.length) break;
+					anotherCodes[nextCode] = oldCode;
+					newBytes[nextCode] = output[i];
+					lengths[nextCode] = lengths[oldCode] + 1;
+					oldCode = currCode;
+					nextCode++;
+				}
+				else {
+					// Special case: code is not in the table
+					// 1) Write string[old_code] to output
+					final int outLength = lengths[oldCode];
+					int i = currOutPos + outLength;
+					int tablePos = oldCode;
+					if (i > end) break;
+					while (i > currOutPos) {
+						output[--i] = newBytes[tablePos];
+						tablePos = anotherCodes[tablePos];
+					}
+					currOutPos += outLength;
+					// 2) Write firstByte(string[old_code]) to output
+					if (currOutPos >= end - 1) break;
+					output[currOutPos++] = output[i];
+					// 3) Add string[old_code]+firstByte(string[old_code]) to
+					// the table
+					anotherCodes[nextCode] = oldCode;
+					newBytes[nextCode] = output[i];
+					lengths[nextCode] = outLength + 1;
+					oldCode = currCode;
+					nextCode++;
+				}
+				// Increase length of code if needed
+				switch (nextCode) {
+					case 511:
+						currCodeLength = 10;
+						break;
+					case 1023:
+						currCodeLength = 11;
+						break;
+					case 2047:
+						currCodeLength = 12;
+						break;
+				}
+			}
+			while (currOutPos < end && inPos < input.length);
+		}
+		catch (final ArrayIndexOutOfBoundsException e) {
+			throw new FormatException("Invalid LZW data", e);
+		}
+		return currOutPos - offset;
+	}
+
+	private static int byteAt(final byte[] input, final int pos) {
+		return pos < input.length ? input[pos] & 0xff : 0;
+	}
+}
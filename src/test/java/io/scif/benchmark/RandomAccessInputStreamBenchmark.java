@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.io.ByteArrayHandle;
+import io.scif.io.FileHandle;
+import io.scif.io.IRandomAccess;
+import io.scif.io.NIOFileHandle;
+import io.scif.io.NIOService;
+import io.scif.io.RandomAccessInputStream;
+import io.scif.services.LocationService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks primitive reads of {@link RandomAccessInputStream} on top of the
+ * different {@link IRandomAccess} implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RandomAccessInputStreamBenchmark {
+
+	/** Length of the fixture file, in bytes. */
+	private static final int LENGTH = 1024 * 1024;
+
+	/** Length of the blocks read by {@link #readBlocks}. */
+	private static final int BLOCK = 64 * 1024;
+
+	@Param({ "FileHandle", "NIOFileHandle", "MappedNIOFileHandle",
+		"ByteArrayHandle" })
+	private String handle;
+
+	private Context context;
+
+	private File file;
+
+	private RandomAccessInputStream stream;
+
+	private final byte[] block = new byte[BLOCK];
+
+	@Setup
+	public void setup() throws IOException {
+		context = new Context(NIOService.class, LocationService.class);
+		file = BenchmarkFixtures.createRawFile(LENGTH);
+		stream = new RandomAccessInputStream(context, createHandle());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		stream.close();
+		file.delete();
+		context.dispose();
+	}
+
+	@Benchmark
+	public void readByte(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH; i++) {
+			bh.consume(stream.readByte());
+		}
+	}
+
+	@Benchmark
+	public void readShort(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH / 2; i++) {
+			bh.consume(stream.readShort());
+		}
+	}
+
+	@Benchmark
+	public void readInt(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH / 4; i++) {
+			bh.consume(stream.readInt());
+		}
+	}
+
+	@Benchmark
+	public void readLong(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH / 8; i++) {
+			bh.consume(stream.readLong());
+		}
+	}
+
+	@Benchmark
+	public void readDouble(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH / 8; i++) {
+			bh.consume(stream.readDouble());
+		}
+	}
+
+	@Benchmark
+	public void readBlocks(final Blackhole bh) throws IOException {
+		stream.seek(0);
+		for (int i = 0; i < LENGTH / BLOCK; i++) {
+			stream.readFully(block);
+			bh.consume(block);
+		}
+	}
+
+	@Benchmark
+	public void seekAndReadInt(final Blackhole bh) throws IOException {
+		// stride backwards through the file, defeating sequential buffering
+		for (long pos = LENGTH - 4; pos >= 0; pos -= 4099) {
+			stream.seek(pos);
+			bh.consume(stream.readInt());
+		}
+	}
+
+	// -- Helper methods --
+
+	private IRandomAccess createHandle() throws IOException {
+		final NIOService nio = context.getService(NIOService.class);
+		switch (handle) {
+			case "FileHandle":
+				return new FileHandle(file, "r");
+			case "NIOFileHandle":
+				return new NIOFileHandle(nio, file, "r");
+			case "MappedNIOFileHandle":
+				return new NIOFileHandle(nio, file.getAbsolutePath(), "r", true);
+			case "ByteArrayHandle":
+				return new ByteArrayHandle(Files.readAllBytes(file.toPath()));
+			default:
+				throw new IllegalArgumentException("Unknown handle: " + handle);
+		}
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(RandomAccessInputStreamBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.benchmark;
+
+import io.scif.FormatException;
+import io.scif.formats.tiff.IFD;
+import io.scif.formats.tiff.TiffCompression;
+import io.scif.formats.tiff.TiffParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.scijava.Context;
+
+/**
+ * Benchmarks {@link TiffParser#getSamples} on stripped, tiled and compressed
+ * TIFF files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TiffParserBenchmark {
+
+	private static final int SIZE = 1024;
+
+	@Param({ "strips", "tiles", "lzwStrips", "lzwTiles", "deflateTiles" })
+	private String layout;
+
+	private Context context;
+
+	private File file;
+
+	private TiffParser parser;
+
+	private IFD ifd;
+
+	private byte[] plane;
+
+	private byte[] region;
+
+	@Setup
+	public void setup() throws FormatException, IOException {
+		context = new Context();
+		final int tileSize = layout.endsWith("Tiles") || layout.equals("tiles")
+			? 256 : 0;
+		final TiffCompression compression = layout.startsWith("lzw")
+			? TiffCompression.LZW : layout.startsWith("deflate")
+				? TiffCompression.DEFLATE : TiffCompression.UNCOMPRESSED;
+		file = BenchmarkFixtures.createTiff(context, SIZE, SIZE, 1, tileSize,
+			compression);
+		parser = new TiffParser(context, file.getAbsolutePath());
+		ifd = parser.getFirstIFD();
+		plane = new byte[2 * SIZE * SIZE];
+		region = new byte[2 * (SIZE / 4) * (SIZE / 4)];
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		parser.getStream().close();
+		file.delete();
+		context.dispose();
+	}
+
+	@Benchmark
+	public byte[] getSamples() throws FormatException, IOException {
+		return parser.getSamples(ifd, plane);
+	}
+
+	@Benchmark
+	public byte[] getSamplesRegion() throws FormatException, IOException {
+		// a region which straddles tile boundaries in both dimensions
+		return parser.getSamples(ifd, region, SIZE / 3, SIZE / 3, SIZE / 4,
+			SIZE / 4);
+	}
+
+	public static void main(final String... args) throws RunnerException {
+		final Options options = new OptionsBuilder() //
+			.include(TiffParserBenchmark.class.getSimpleName()) //
+			.build();
+		new Runner(options).run();
+	}
+}
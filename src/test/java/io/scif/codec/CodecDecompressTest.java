@@ -0,0 +1,193 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests decompressing into caller-provided buffers.
+ *
+ * @see Codec#decompress(byte[], byte[], int, int, CodecOptions)
+ */
+public class CodecDecompressTest {
+
+	private SCIFIO scifio;
+
+	private byte[] data;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		data = new byte[20000];
+		final Random r = new Random(42);
+		for (int i = 0; i < data.length; i++) {
+			// compressible, but not trivially so
+			data[i] = (byte) (r.nextInt(16) + i / 1000);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		scifio.getContext().dispose();
+	}
+
+	@Test
+	public void testZlib() throws FormatException {
+		assertInPlace(scifio.codec().getCodec(ZlibCodec.class));
+	}
+
+	@Test
+	public void testLZW() throws FormatException {
+		assertInPlace(scifio.codec().getCodec(LZWCodec.class));
+	}
+
+	@Test
+	public void testLZWTableResets() throws FormatException {
+		final Codec codec = scifio.codec().getCodec(LZWCodec.class);
+		// incompressible data fills the string table many times over
+		final byte[] noise = new byte[100000];
+		new Random(7).nextBytes(noise);
+		// long runs exercise codes which refer to themselves (KwKwK)
+		final byte[] runs = new byte[100000];
+		for (int i = 0; i < runs.length; i++) {
+			runs[i] = (byte) (i / 5000);
+		}
+		for (final byte[] bytes : new byte[][] { noise, runs }) {
+			final byte[] output = new byte[bytes.length];
+			assertEquals(bytes.length, codec.decompress(codec.compress(bytes, null),
+				output, 0, output.length, null));
+			assertArrayEquals(bytes, output);
+		}
+	}
+
+	@Test
+	public void testLZWTruncated() throws FormatException {
+		final Codec codec = scifio.codec().getCodec(LZWCodec.class);
+		final byte[] compressed = codec.compress(data, null);
+		final byte[] half = Arrays.copyOf(compressed, compressed.length / 2);
+		final byte[] output = new byte[data.length];
+		final int n = codec.decompress(half, output, 0, output.length, null);
+		assertTrue(n > 0 && n < data.length);
+		assertArrayEquals(Arrays.copyOf(data, n), Arrays.copyOf(output, n));
+	}
+
+	@Test
+	public void testLZWInvalidCode() throws FormatException {
+		final Codec codec = scifio.codec().getCodec(LZWCodec.class);
+		// CLEAR code, 'A', then code 300, which is not yet in the table
+		final byte[] invalid = { (byte) 0x80, 0x10, 0x65, (byte) 0x80 };
+		final byte[] output = new byte[16];
+		// decoding stops quietly, keeping the data decoded before the code
+		assertEquals(1, codec.decompress(invalid, output, 0, output.length,
+			null));
+		assertEquals('A', output[0]);
+	}
+
+	@Test
+	public void testPassthrough() throws FormatException {
+		assertInPlace(scifio.codec().getCodec(PassthroughCodec.class));
+	}
+
+	@Test
+	public void testPackbits() throws FormatException {
+		final Codec codec = scifio.codec().getCodec(PackbitsCodec.class);
+		// literal run of 3, repeat run of 4, no-op, literal run of 1
+		final byte[] packed = { 2, 1, 2, 3, -3, 9, -128, 0, 7 };
+		final byte[] expected = { 1, 2, 3, 9, 9, 9, 9, 7 };
+		final byte[] output = new byte[12];
+		assertEquals(8, codec.decompress(packed, output, 2, 10, null));
+		assertArrayEquals(expected, Arrays.copyOfRange(output, 2, 10));
+
+		// decoding stops once the requested length is reached
+		final byte[] partial = new byte[5];
+		assertEquals(5, codec.decompress(packed, partial, 0, 5, null));
+		assertArrayEquals(Arrays.copyOf(expected, 5), partial);
+	}
+
+	@Test
+	public void testByteBuffer() throws FormatException {
+		final Codec codec = scifio.codec().getCodec(ZlibCodec.class);
+		final byte[] compressed = codec.compress(data, null);
+		for (final ByteBuffer buf : new ByteBuffer[] {
+			ByteBuffer.allocate(data.length + 10),
+			ByteBuffer.allocateDirect(data.length + 10) })
+		{
+			buf.position(10);
+			assertEquals(data.length, codec.decompress(compressed, buf, options()));
+			assertEquals(data.length + 10, buf.position());
+			final byte[] actual = new byte[data.length];
+			buf.position(10);
+			buf.get(actual);
+			assertArrayEquals(data, actual);
+		}
+	}
+
+	// -- Helper methods --
+
+	private CodecOptions options() {
+		final CodecOptions options = new CodecOptions();
+		options.maxBytes = data.length;
+		return options;
+	}
+
+	/**
+	 * Checks that decompressing in place matches decompressing into a new
+	 * array, including when the output region is offset and too small.
+	 */
+	private void assertInPlace(final Codec codec) throws FormatException {
+		final byte[] compressed = codec.compress(data, null);
+		final byte[] expected = codec.decompress(compressed, options());
+		assertArrayEquals(data, Arrays.copyOf(expected, data.length));
+
+		final byte[] output = new byte[data.length + 7];
+		final int n =
+			codec.decompress(compressed, output, 7, data.length, options());
+		assertEquals(data.length, n);
+		assertArrayEquals(data, Arrays.copyOfRange(output, 7, output.length));
+
+		final byte[] partial = new byte[100];
+		assertEquals(100, codec.decompress(compressed, partial, 0, 100,
+			options()));
+		assertArrayEquals(Arrays.copyOf(data, 100), partial);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.FormatException;
+import io.scif.SCIFIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link LosslessJPEGCodec}, and the Huffman decoding beneath it.
+ */
+public class LosslessJPEGCodecTest {
+
+	private SCIFIO scifio;
+
+	private LosslessJPEGCodec codec;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		codec = scifio.codec().getCodec(LosslessJPEGCodec.class);
+	}
+
+	@After
+	public void tearDown() {
+		scifio.getContext().dispose();
+	}
+
+	@Test
+	public void test12Bit() throws FormatException {
+		final int[] samples =
+			LosslessJPEGFrames.createFrameSamples(256, 192, 12);
+		assertDecodes(samples, 256, 192, 12);
+	}
+
+	@Test
+	public void test16Bit() throws FormatException {
+		final int[] samples =
+			LosslessJPEGFrames.createFrameSamples(128, 96, 16);
+		// a difference of 2^15, whose code is longer than the lookup table
+		samples[5] = (samples[4] + 32768) % 65536;
+		assertDecodes(samples, 128, 96, 16);
+	}
+
+	@Test
+	public void testBitBuffer() {
+		final BitWriter out = new BitWriter();
+		out.write(5, 3);
+		out.write(0x1ffff, 17);
+		out.write(0, 1);
+		out.write(0x7fffffff, 31);
+		out.write(0xab, 8);
+		final BitBuffer bb = new BitBuffer(out.toByteArray());
+		assertEquals(0x5ff, bb.peekBits(11));
+		assertEquals(5, bb.getBits(3));
+		assertEquals(0x1ffff, bb.getBits(17));
+		bb.skipBits(1);
+		// only the last 32 bits of longer reads are returned
+		assertEquals(0xfffffff5, bb.getBits(36));
+		assertEquals(7, bb.getRemainingBits());
+		// bits past the end peek as 0, and short reads return what is left
+		assertEquals(0x6, bb.peekBits(4));
+		assertEquals(0x60, bb.peekBits(8));
+		assertEquals(0x30, bb.getBits(8));
+		assertEquals(-1, bb.getBits(1));
+	}
+
+	// -- Helper methods --
+
+	private void assertDecodes(final int[] samples, final int width,
+		final int height, final int bitsPerSample) throws FormatException
+	{
+		final byte[] frame = LosslessJPEGFrames.createLosslessJPEG(samples,
+			width, height, bitsPerSample);
+		final CodecOptions options = new CodecOptions();
+		options.littleEndian = false;
+		final byte[] decoded = codec.decompress(frame, options);
+
+		final byte[] expected = new byte[samples.length * 2];
+		for (int i = 0; i < samples.length; i++) {
+			expected[2 * i] = (byte) (samples[i] >> 8);
+			expected[2 * i + 1] = (byte) samples[i];
+		}
+		assertArrayEquals(expected, decoded);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Generates lossless JPEG frames for the {@link LosslessJPEGCodec} tests and
+ * benchmarks. Samples are derived from a fixed seed, so every frame is
+ * byte-identical across runs.
+ */
+public final class LosslessJPEGFrames {
+
+	private static final long SEED = 0x5C1F10L;
+
+	private LosslessJPEGFrames() {
+		// prevent instantiation of utility class
+	}
+
+	/**
+	 * Creates the samples of a CT-like frame: a smooth disc on a dark
+	 * background, with some noise and a few saturated spikes.
+	 */
+	public static int[] createFrameSamples(final int width, final int height,
+		final int bitsPerSample)
+	{
+		final Random random = new Random(SEED);
+		final int max = (1 << bitsPerSample) - 1;
+		final int[] samples = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final double dx = x - width / 2.0, dy = y - height / 2.0;
+				final double r = Math.sqrt(dx * dx + dy * dy) / (width / 2.0);
+				final double level = r < 0.9 ? 0.4 + 0.2 * (1 - r * r) : 0.05;
+				int value =
+					(int) (level * max + random.nextGaussian() * max / 400.0);
+				if (random.nextInt(5000) == 0) value = max;
+				samples[y * width + x] = Math.max(0, Math.min(max, value));
+			}
+		}
+		return samples;
+	}
+
+	/**
+	 * Encodes grayscale samples as a lossless JPEG frame (SOF3, with the first
+	 * predictor), as DICOM stores them.
+	 */
+	public static byte[] createLosslessJPEG(final int[] samples,
+		final int width, final int height, final int bitsPerSample)
+	{
+		// code lengths 2 to 11 of the difference categories, most frequent first
+		final int[] counts = { 0, 1, 3, 3, 2, 2, 2, 1, 1, 1, 1, 0, 0, 0, 0, 0 };
+		final int[] symbols =
+			{ 4, 5, 3, 6, 2, 7, 1, 0, 8, 9, 10, 11, 12, 13, 14, 15, 16 };
+		final int[] codes = new int[17];
+		final int[] lengths = new int[17];
+		int code = 0, next = 0;
+		for (int length = 1; length <= counts.length; length++) {
+			for (int i = 0; i < counts[length - 1]; i++) {
+				codes[symbols[next]] = code++;
+				lengths[symbols[next++]] = length;
+			}
+			code <<= 1;
+		}
+
+		final BitWriter bits = new BitWriter();
+		final int modulus = 1 << 16;
+		for (int i = 0; i < samples.length; i++) {
+			final int x = i % width;
+			final int predictor = i == 0 ? 1 << (bitsPerSample - 1) : i < width
+				? samples[i - 1] : x == 0 ? samples[i - width] : samples[i - 1];
+			// differences are taken modulo 2^16
+			int diff = (samples[i] - predictor + modulus) % modulus;
+			if (diff > modulus / 2) diff -= modulus;
+			if (diff == modulus / 2) {
+				bits.write(codes[16], lengths[16]);
+				continue;
+			}
+			final int category = 32 - Integer.numberOfLeadingZeros(Math.abs(diff));
+			bits.write(codes[category], lengths[category]);
+			if (category > 0) {
+				bits.write(diff < 0 ? diff + (1 << category) - 1 : diff, category);
+			}
+		}
+		// pad the last byte with ones
+		bits.write(0x7f, 7);
+		final byte[] data = bits.toByteArray();
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writeShort(out, 0xffd8); // SOI
+		writeShort(out, 0xffc3); // SOF3
+		writeShort(out, 11);
+		out.write(bitsPerSample);
+		writeShort(out, height);
+		writeShort(out, width);
+		out.write(1); // one component
+		out.write(1);
+		out.write(0x11);
+		out.write(0);
+		writeShort(out, 0xffc4); // DHT
+		writeShort(out, 3 + counts.length + symbols.length);
+		out.write(0);
+		for (final int count : counts) {
+			out.write(count);
+		}
+		for (final int symbol : symbols) {
+			out.write(symbol);
+		}
+		writeShort(out, 0xffda); // SOS
+		writeShort(out, 8);
+		out.write(1); // one component, with table 0
+		out.write(1);
+		out.write(0);
+		out.write(1); // first predictor
+		out.write(0);
+		out.write(0);
+		for (final byte b : data) {
+			out.write(b);
+			if (b == (byte) 0xff) out.write(0); // byte stuffing
+		}
+		writeShort(out, 0xffd9); // EOI
+		return out.toByteArray();
+	}
+
+	// -- Helper methods --
+
+	private static void writeShort(final ByteArrayOutputStream out,
+		final int value)
+	{
+		out.write(value >> 8);
+		out.write(value);
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ParallelDeflateOutputStream}.
+ */
+public class ParallelDeflateOutputStreamTest {
+
+	private ExecutorService executor;
+
+	private byte[] data;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+		// several blocks, the last one partial
+		data = new byte[ParallelDeflateOutputStream.BLOCK_SIZE * 5 + 1234];
+		final Random r = new Random(42);
+		for (int i = 0; i < data.length; i++) {
+			// compressible, but not trivially so
+			data[i] = (byte) (r.nextInt(16) + i / 1000);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testZlib() throws IOException {
+		final byte[] compressed = deflate(data, false, null);
+		assertArrayEquals(data, inflate(new InflaterInputStream(
+			new ByteArrayInputStream(compressed))));
+	}
+
+	@Test
+	public void testGZip() throws IOException {
+		final byte[] compressed = deflate(data, true, null);
+		assertArrayEquals(data, inflate(new GZIPInputStream(
+			new ByteArrayInputStream(compressed))));
+	}
+
+	@Test
+	public void testInline() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ParallelDeflateOutputStream out =
+			new ParallelDeflateOutputStream(bytes, false, null, null))
+		{
+			// odd-sized writes straddling the block boundaries
+			for (int off = 0; off < data.length; off += 70001) {
+				out.write(data, off, Math.min(70001, data.length - off));
+			}
+		}
+		assertArrayEquals(data, inflate(new InflaterInputStream(
+			new ByteArrayInputStream(bytes.toByteArray()))));
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		assertArrayEquals(new byte[0], inflate(new GZIPInputStream(
+			new ByteArrayInputStream(deflate(new byte[0], true, null)))));
+	}
+
+	@Test
+	public void testLevelAndStrategy() throws IOException {
+		final CodecOptions fast = new CodecOptions();
+		fast.deflateLevel = Deflater.BEST_SPEED;
+		final CodecOptions stored = new CodecOptions();
+		stored.deflateLevel = Deflater.NO_COMPRESSION;
+		final CodecOptions huffman = new CodecOptions();
+		huffman.deflateStrategy = Deflater.HUFFMAN_ONLY;
+		for (final CodecOptions options : new CodecOptions[] { fast, stored,
+			huffman })
+		{
+			final byte[] compressed = deflate(data, false, options);
+			assertArrayEquals(data, inflate(new InflaterInputStream(
+				new ByteArrayInputStream(compressed))));
+		}
+		assertTrue(deflate(data, false, stored).length > data.length);
+		assertTrue(deflate(data, false, fast).length < data.length);
+	}
+
+	// -- Helper methods --
+
+	private byte[] deflate(final byte[] bytes, final boolean gzip,
+		final CodecOptions options) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (final ParallelDeflateOutputStream deflater =
+			new ParallelDeflateOutputStream(out, gzip, options, executor))
+		{
+			deflater.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] inflate(final InputStream in) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final byte[] buf = new byte[8192];
+		int n;
+		while ((n = in.read(buf)) > 0) {
+			out.write(buf, 0, n);
+		}
+		in.close();
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.filters;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FileStitcher}.
+ */
+public class FileStitcherTest {
+
+	private static final String SUFFIX = "&lengths=16,16,3&axes=X,Y,Time.fake";
+
+	private SCIFIO scifio;
+
+	private ReaderFilter filter;
+
+	private FileStitcher stitcher;
+
+	@Before
+	public void setUp() throws FormatException, IOException {
+		scifio = new SCIFIO();
+		filter = scifio.initializer().initializeReader("stitch1" + SUFFIX);
+		stitcher = filter.enable(FileStitcher.class);
+		stitcher.setUsingPatternIds(true);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		filter.close();
+		scifio.getContext().dispose();
+	}
+
+	/**
+	 * Tests that images are read from their own files while at most the
+	 * configured number of child readers stays open, besides the parent reader
+	 * of the first file.
+	 */
+	@Test
+	public void testReaderPool() throws FormatException, IOException {
+		stitcher.setMaxOpenReaders(2);
+		stitcher.setSource("stitch<1-5>" + SUFFIX);
+		assertEquals(5, stitcher.getFilePattern().getFiles().length);
+
+		final Reader first = stitcher.getReader(0);
+		assertSame(stitcher.getParent(), first);
+		final byte[] expected = first.openPlane(0, 1).getBytes();
+		for (int i = 0; i < 5; i++) {
+			assertEquals("stitch" + (i + 1) + SUFFIX, stitcher.getReader(i)
+				.getCurrentFile());
+			assertArrayEquals(expected, stitcher.openPlane(i, 1).getBytes());
+			assertTrue(stitcher.getUnderlyingReaders().length <= 3);
+		}
+		assertEquals(3, stitcher.getUnderlyingReaders().length);
+		assertEquals("stitch1" + SUFFIX, stitcher.getReader(0).getCurrentFile());
+	}
+
+	/**
+	 * Tests that a reader handed out by the stitcher stays open after it is
+	 * evicted from the pool.
+	 */
+	@Test
+	public void testEvictedReader() throws FormatException, IOException {
+		stitcher.setMaxOpenReaders(2);
+		stitcher.setSource("stitch<1-5>" + SUFFIX);
+
+		final Reader second = stitcher.getReader(1);
+		final byte[] expected = second.openPlane(0, 2).getBytes();
+		for (int i = 2; i < 5; i++) {
+			stitcher.openPlane(i, 2);
+		}
+		assertFalse(Arrays.asList(stitcher.getUnderlyingReaders()).contains(
+			second));
+		assertEquals("stitch2" + SUFFIX, second.getCurrentFile());
+		assertArrayEquals(expected, second.openPlane(0, 2).getBytes());
+	}
+
+	/**
+	 * Tests that planes read concurrently from more files than the pool keeps
+	 * open are read correctly, while readers are evicted and prefetched.
+	 */
+	@Test
+	public void testConcurrentReads() throws Exception {
+		final int files = FileStitcher.DEFAULT_MAX_OPEN_READERS + 8;
+		stitcher.setPrefetchCount(2);
+		stitcher.setSource("stitch<1-" + files + ">" + SUFFIX);
+		final byte[][] expected = new byte[3][];
+		for (int p = 0; p < 3; p++) {
+			expected[p] = stitcher.openPlane(0, p).getBytes();
+		}
+
+		final int threads = 4;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<?>> workers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int offset = t * files / threads;
+				workers.add(executor.submit(() -> {
+					for (int n = 0; n < 2 * files; n++) {
+						final int i = (offset + n) % files;
+						final int p = n % 3;
+						assertArrayEquals(expected[p], stitcher.openPlane(i, p)
+							.getBytes());
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> worker : workers) {
+				worker.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertTrue(stitcher.getUnderlyingReaders().length <=
+			FileStitcher.DEFAULT_MAX_OPEN_READERS + 1);
+	}
+
+	/** Tests that prefetched readers are handed out in plane order. */
+	@Test
+	public void testPrefetch() throws FormatException, IOException {
+		stitcher.setPrefetchCount(2);
+		stitcher.setSource("stitch<1-5>" + SUFFIX);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals("stitch" + (i + 1) + SUFFIX, stitcher.getReader(i)
+				.getCurrentFile());
+			assertEquals(256, stitcher.openPlane(i, 2).getBytes().length);
+		}
+		assertEquals(5, stitcher.getUnderlyingReaders().length);
+	}
+}
@@ -30,12 +30,19 @@
 package io.scif.filters;
 
 import static io.scif.JUnitHelper.assertCloseEnough;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import io.scif.FormatException;
 import io.scif.SCIFIO;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import net.imagej.axis.Axes;
 
@@ -102,4 +109,57 @@ public class MinMaxFilterTest {
 		assertCloseEnough(0.0, minMax.getAxisGlobalMinimum(0, Axes.CHANNEL, 1));
 		assertCloseEnough(0.0, minMax.getAxisGlobalMinimum(0, Axes.CHANNEL, 2));
 	}
+
+	@Test
+	public void testStatisticsCaching() throws FormatException, IOException {
+		final File dir = Files.createTempDirectory("scifio-minmax").toFile();
+		final File file = new File(dir, id);
+		final File sidecar = new File(file.getPath() + MinMaxIndex.SUFFIX);
+		try {
+			assertTrue(file.createNewFile());
+
+			// compute statistics for every plane, and persist them on close
+			ReaderFilter filter =
+				scifio.initializer().initializeReader(file.getAbsolutePath());
+			MinMaxFilter minMax = filter.enable(MinMaxFilter.class);
+			minMax.setCaching(true);
+			for (int i = 0; i < minMax.getPlaneCount(0); i++) {
+				filter.openPlane(0, i);
+			}
+			final int[] histogram = minMax.getPlaneHistogram(0, 2);
+			assertNotNull(histogram);
+			assertEquals(MinMaxFilter.HISTOGRAM_BINS, histogram.length);
+			long total = 0;
+			for (final int count : histogram) {
+				total += count;
+			}
+			assertEquals(3 * 127 * 127, total);
+			filter.close();
+			assertTrue(sidecar.isFile());
+
+			// reopening restores the statistics before any plane is read
+			filter = scifio.initializer().initializeReader(file.getAbsolutePath());
+			minMax = filter.enable(MinMaxFilter.class);
+			minMax.setCaching(true);
+			assertCloseEnough(126.0, minMax.getAxisGlobalMaximum(0, Axes.CHANNEL, 1));
+			assertCloseEnough(0.0, minMax.getAxisGlobalMinimum(0, Axes.CHANNEL, 2));
+			assertCloseEnough(126.0, minMax.getPlaneMaximum(0, 3));
+			assertArrayEquals(histogram, minMax.getPlaneHistogram(0, 2));
+			filter.close();
+
+			// a modified source invalidates the sidecar
+			assertTrue(file.setLastModified(file.lastModified() - 10000));
+			filter = scifio.initializer().initializeReader(file.getAbsolutePath());
+			minMax = filter.enable(MinMaxFilter.class);
+			minMax.setCaching(true);
+			assertNull(minMax.getPlaneMaximum(0, 3));
+			assertFalse(minMax.isMinMaxPopulated(0));
+			filter.close();
+		}
+		finally {
+			sidecar.delete();
+			file.delete();
+			dir.delete();
+		}
+	}
 }
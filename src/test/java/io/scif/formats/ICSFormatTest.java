@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.Writer;
+import io.scif.config.SCIFIOConfig;
+import io.scif.img.ImgOpener;
+import io.scif.img.ImgSaver;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import net.imglib2.Cursor;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link ICSFormat}.
+ */
+public class ICSFormatTest {
+
+	private SCIFIO scifio;
+
+	private File ics, ids;
+
+	@Before
+	public void setUp() throws IOException {
+		scifio = new SCIFIO();
+		ics = File.createTempFile("ics", ".ics");
+		ids = new File(ics.getPath().replaceFirst("\\.ics$", ".ids"));
+	}
+
+	@After
+	public void tearDown() {
+		ics.delete();
+		ids.delete();
+		scifio.getContext().dispose();
+	}
+
+	/**
+	 * Tests that the planes of gzip-compressed pixel data can be read in any
+	 * order.
+	 */
+	@Test
+	public void testGZipRandomAccess() throws Exception {
+		final int planes = 24;
+		final Img<?> source =
+			new ImgOpener(scifio.getContext()).openImgs("gzip&pixelType=uint16" +
+				"&axes=X,Y,Time&lengths=256,256," + planes + ".fake").get(0);
+		ics.delete();
+		new ImgSaver(scifio.getContext()).saveImg(ics.getAbsolutePath(), source);
+
+		final byte[][] expected = new byte[planes][];
+		final Reader raw =
+			scifio.initializer().initializeReader(ics.getAbsolutePath());
+		for (int p = 0; p < planes; p++) {
+			expected[p] = raw.openPlane(0, p).getBytes();
+		}
+		raw.close();
+
+		// compress the pixel data, and declare it in the header
+		final byte[] pixels = Files.readAllBytes(ids.toPath());
+		try (final OutputStream out =
+			new GZIPOutputStream(new FileOutputStream(ids)))
+		{
+			out.write(pixels);
+		}
+		final String header =
+			new String(Files.readAllBytes(ics.toPath()), StandardCharsets.ISO_8859_1);
+		Files.write(ics.toPath(), header.replace(
+			"compression\tuncompressed", "compression\tgzip").getBytes(
+				StandardCharsets.ISO_8859_1));
+
+		final Reader reader =
+			scifio.initializer().initializeReader(ics.getAbsolutePath());
+		for (int p = planes - 1; p >= 0; p -= 3) {
+			assertArrayEquals(expected[p], reader.openPlane(0, p).getBytes());
+		}
+		for (int p = 0; p < planes; p += 5) {
+			assertArrayEquals(expected[p], reader.openPlane(0, p).getBytes());
+		}
+		assertArrayEquals(expected[2], reader.openPlane(0, 2).getBytes());
+		reader.close();
+	}
+
+	/**
+	 * Tests that pixel data written gzip-compressed on multiple threads reads
+	 * back as the original planes.
+	 */
+	@Test
+	public void testGZipWriting() throws Exception {
+		final int planes = 6;
+		final Img<?> img =
+			new ImgOpener(scifio.getContext()).openImgs("gzip&pixelType=uint16" +
+				"&axes=X,Y,Channel,Time&lengths=300,200,2," + planes + ".fake").get(0);
+		ics.delete();
+		new ImgSaver(scifio.getContext()).saveImg(ics.getAbsolutePath(), img,
+			new SCIFIOConfig().writerSetCompression(ICSFormat.Writer.COMPRESSION_GZIP)
+				.writerSetCompressionThreads(4));
+
+		final String header =
+			new String(Files.readAllBytes(ics.toPath()), StandardCharsets.ISO_8859_1);
+		assertTrue(header.contains("compression\tgzip"));
+		// the pixels are one gzip stream
+		final byte[] pixels = Files.readAllBytes(ids.toPath());
+		assertEquals(0x1f, pixels[0] & 0xff);
+		assertEquals(0x8b, pixels[1] & 0xff);
+
+		final Img<?> actual = new ImgOpener(scifio.getContext()).openImgs(ics
+			.getAbsolutePath()).get(0);
+		assertEquals(img.size(), actual.size());
+		final Cursor<?> e = img.cursor();
+		final Cursor<?> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(((RealType<?>) e.next()).getRealDouble(),
+				((RealType<?>) a.next()).getRealDouble(), 0);
+		}
+	}
+	/**
+	 * Tests that a writer can write another gzip-compressed file once the
+	 * previous one is closed.
+	 */
+	@Test
+	public void testGZipWriterReuse() throws Exception {
+		final int planes = 3;
+		final Reader reader = scifio.initializer().initializeReader(
+			"gzip&pixelType=uint8&axes=X,Y,Time&lengths=64,48," + planes + ".fake");
+		final SCIFIOConfig config = new SCIFIOConfig().writerSetCompression(
+			ICSFormat.Writer.COMPRESSION_GZIP);
+		ics.delete();
+		final Writer writer = scifio.initializer().initializeWriter(reader
+			.getMetadata(), ics.getAbsolutePath(), config);
+		for (int i = 0; i < 2; i++) {
+			if (i > 0) {
+				ics.delete();
+				ids.delete();
+				writer.setDest(ics.getAbsolutePath(), 0, config);
+			}
+			for (int p = 0; p < planes; p++) {
+				writer.savePlane(0, p, reader.openPlane(0, p));
+			}
+			writer.close(true);
+		}
+		writer.close();
+
+		final Reader actual =
+			scifio.initializer().initializeReader(ics.getAbsolutePath());
+		for (int p = 0; p < planes; p++) {
+			assertArrayEquals(reader.openPlane(0, p).getBytes(), actual.openPlane(0,
+				p).getBytes());
+		}
+		actual.close();
+		reader.close();
+	}
+}
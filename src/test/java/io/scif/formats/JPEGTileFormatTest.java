@@ -0,0 +1,236 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.Format;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.codec.CodecOptions;
+import io.scif.codec.JPEGCodec;
+import io.scif.codec.JPEGRestartIndex;
+import io.scif.config.SCIFIOConfig;
+import io.scif.io.RandomAccessInputStream;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import net.imglib2.FinalInterval;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+/**
+ * Tests {@link JPEGTileFormat}.
+ */
+public class JPEGTileFormatTest {
+
+	private static final String NATIVE_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+	private SCIFIO scifio;
+
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		scifio = new SCIFIO();
+		file = File.createTempFile("tile", ".jpg");
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+		scifio.getContext().dispose();
+	}
+
+	/**
+	 * Tests regions of a colour image whose restart intervals each cover part
+	 * of a single MCU row.
+	 */
+	@Test
+	public void testRestartIntervalsWithinRows() throws Exception {
+		assertRegions(320, 200, BufferedImage.TYPE_3BYTE_BGR, 5);
+	}
+
+	/** Tests regions of a colour image whose restart intervals span rows. */
+	@Test
+	public void testRestartIntervalsAcrossRows() throws Exception {
+		assertRegions(320, 200, BufferedImage.TYPE_3BYTE_BGR, 30);
+	}
+
+	/** Tests regions of a grayscale image with restart intervals. */
+	@Test
+	public void testGrayRestartIntervals() throws Exception {
+		assertRegions(300, 190, BufferedImage.TYPE_BYTE_GRAY, 4);
+		assertRegions(300, 190, BufferedImage.TYPE_BYTE_GRAY, 7);
+	}
+
+	/** Tests that images without restart markers are not indexed. */
+	@Test
+	public void testNoRestartIntervals() throws Exception {
+		writeJPEG(createImage(64, 48, BufferedImage.TYPE_3BYTE_BGR), 0);
+		try (final RandomAccessInputStream in = new RandomAccessInputStream(
+			scifio.getContext(), file.getPath()))
+		{
+			assertEquals(null, JPEGRestartIndex.create(in));
+		}
+	}
+
+	// -- Helper methods --
+
+	private void assertRegions(final int width, final int height,
+		final int type, final int interval) throws Exception
+	{
+		writeJPEG(createImage(width, height, type), interval);
+		final int c = type == BufferedImage.TYPE_BYTE_GRAY ? 1 : 3;
+
+		try (final RandomAccessInputStream in = new RandomAccessInputStream(
+			scifio.getContext(), file.getPath()))
+		{
+			final JPEGRestartIndex index = JPEGRestartIndex.create(in);
+			assertNotNull(index);
+			assertEquals(interval, index.getInterval());
+			assertEquals(0, in.getFilePointer());
+		}
+
+		final CodecOptions options = new CodecOptions();
+		options.interleaved = true;
+		options.littleEndian = false;
+		final byte[] full = scifio.codec().getCodec(JPEGCodec.class).decompress(
+			Files.readAllBytes(file.toPath()), options);
+		assertEquals(width * height * c, full.length);
+
+		final Format format = scifio.format().getFormatFromClass(
+			JPEGTileFormat.class);
+		for (final int threads : new int[] { 1, 3 }) {
+			final SCIFIOConfig config = new SCIFIOConfig()
+				.readerSetTileDecodeThreads(threads);
+			final Reader reader = format.createReader();
+			try {
+				reader.setSource(file.getPath());
+				assertEquals(c, reader.getMetadata().get(0).getAxisLength(0));
+				assertTrue(((JPEGTileFormat.Metadata) reader.getMetadata())
+					.getDecoder().hasRestartIndex());
+				final int[][] regions = { { 0, 0, width, height }, { 0, 0, 17, 9 },
+					{ 37, 21, 101, 77 }, { width - 50, height - 30, 50, 30 },
+					{ 8, 16, width - 8, 1 }, { width - 1, 0, 1, height } };
+				for (final int[] r : regions) {
+					final byte[] plane = reader.openPlane(0, 0, new FinalInterval(
+						new long[] { 0, r[0], r[1] }, new long[] { c - 1, r[0] + r[2] - 1,
+							r[1] + r[3] - 1 }), config).getBytes();
+					assertArrayEquals(crop(full, width, c, r), plane);
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
+
+	private static byte[] crop(final byte[] pixels, final int width,
+		final int c, final int[] r)
+	{
+		final byte[] region = new byte[r[2] * r[3] * c];
+		for (int row = 0; row < r[3]; row++) {
+			System.arraycopy(pixels, ((r[1] + row) * width + r[0]) * c, region, row *
+				r[2] * c, r[2] * c);
+		}
+		return region;
+	}
+
+	private static BufferedImage createImage(final int width, final int height,
+		final int type)
+	{
+		final BufferedImage image = new BufferedImage(width, height, type);
+		final Random random = new Random(width * 31 + height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int red = (x * 255 / width + random.nextInt(16)) & 0xff;
+				final int green = (y * 255 / height + random.nextInt(16)) & 0xff;
+				final int blue = ((x ^ y) + random.nextInt(16)) & 0xff;
+				image.setRGB(x, y, (red << 16) | (green << 8) | blue);
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Writes the given image as a baseline JPEG, with restart markers every
+	 * {@code interval} MCUs if the interval is positive.
+	 */
+	private void writeJPEG(final BufferedImage image, final int interval)
+		throws IOException
+	{
+		final ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg")
+			.next();
+		final IIOMetadata metadata = writer.getDefaultImageMetadata(
+			new ImageTypeSpecifier(image), null);
+		if (interval > 0) {
+			final Node root = metadata.getAsTree(NATIVE_FORMAT);
+			final IIOMetadataNode dri = new IIOMetadataNode("dri");
+			dri.setAttribute("interval", String.valueOf(interval));
+			final Node markers = ((IIOMetadataNode) root).getElementsByTagName(
+				"markerSequence").item(0);
+			markers.insertBefore(dri, markers.getFirstChild());
+			metadata.setFromTree(NATIVE_FORMAT, root);
+		}
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (final ImageOutputStream out = ImageIO.createImageOutputStream(
+			bytes))
+		{
+			writer.setOutput(out);
+			writer.write(new IIOImage(image, null, metadata));
+		}
+		finally {
+			writer.dispose();
+		}
+		Files.write(file.toPath(), bytes.toByteArray());
+		assertTrue(file.length() > 0);
+	}
+}
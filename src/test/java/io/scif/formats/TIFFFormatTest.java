@@ -31,14 +31,53 @@ package io.scif.formats;
 
 import static org.junit.Assert.*;
 
+import io.scif.FormatException;
+import io.scif.MetadataLevel;
+import io.scif.Plane;
+import io.scif.Reader;
+import io.scif.SCIFIO;
+import io.scif.benchmark.BenchmarkFixtures;
+import io.scif.config.SCIFIOConfig;
+import io.scif.config.SCIFIOConfig.ImgMode;
+import io.scif.filters.ChannelFiller;
+import io.scif.filters.PlaneSeparator;
+import io.scif.filters.ReaderFilter;
+import io.scif.formats.tiff.IFD;
+import io.scif.formats.tiff.IFDList;
+import io.scif.formats.tiff.LazyIFDList;
+import io.scif.formats.tiff.TiffCompression;
+import io.scif.formats.tiff.TiffParser;
+import io.scif.formats.tiff.TiffSaver;
+import io.scif.formats.tiff.TiffTileCacheService;
 import io.scif.img.IO;
+import io.scif.img.ImgOpener;
+import io.scif.img.ImgSaver;
+import io.scif.util.FormatTools;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.imagej.ImgPlus;
 import net.imagej.axis.Axes;
+import net.imglib2.Cursor;
+import net.imglib2.FinalInterval;
+import net.imglib2.Interval;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
+import org.scijava.Context;
 
 /**
  * Tests reading of TIFF files without (dimensional) metainformation.
@@ -48,6 +87,30 @@ import org.junit.Test;
  */
 public class TIFFFormatTest {
 
+	private SCIFIO scifio;
+
+	private Context context;
+
+	/** Scratch TIFF file, which does not exist when a test starts. */
+	private File file;
+
+	private String id;
+
+	@Before
+	public void setUp() throws IOException {
+		scifio = new SCIFIO();
+		context = scifio.getContext();
+		file = File.createTempFile("tiff", ".tif");
+		file.delete();
+		id = file.getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+		context.dispose();
+	}
+
 	/**
 	 * Tests if TIFFs without metadata in the header are read sensibly.
 	 */
@@ -63,4 +126,536 @@ public class TIFFFormatTest {
 		assertEquals(Axes.UNKNOWN_LABEL, img.axis(2).type().getLabel());
 	}
 
+	/**
+	 * Tests that decoding the strips of a compressed TIFF on multiple threads
+	 * yields the same pixels as decoding them serially.
+	 */
+	@Test
+	public void testParallelTileDecoding() throws Exception {
+		final Img<?> source =
+			new ImgOpener(context).openImgs(
+				"parallel&axes=X,Y,Z&lengths=64,48,3.fake").get(0);
+		new ImgSaver(context).saveImg(id, source, new SCIFIOConfig()
+			.writerSetCompression(TIFFFormat.Writer.COMPRESSION_LZW));
+
+		final SCIFIOConfig serial =
+			new SCIFIOConfig().imgOpenerSetImgModes(ImgMode.ARRAY);
+		final SCIFIOConfig parallel =
+			new SCIFIOConfig(serial).readerSetTileDecodeThreads(4);
+		final ImgOpener opener = new ImgOpener(context);
+		assertSamePixels(opener.openImgs(id, serial).get(0), opener.openImgs(id,
+			parallel).get(0));
+	}
+
+	/**
+	 * Tests that compressing the planes of a sequentially written TIFF on
+	 * multiple threads writes them in order and yields the original pixels.
+	 */
+	@Test
+	public void testParallelCompression() throws Exception {
+		final Img<?> source =
+			new ImgOpener(context).openImgs(
+				"compression&axes=X,Y,Z&lengths=64,48,8.fake").get(0);
+		new ImgSaver(context).saveImg(id, source, new SCIFIOConfig()
+			.writerSetCompression(TIFFFormat.Writer.COMPRESSION_LZW)
+			.writerSetSequential(true).writerSetCompressionThreads(4));
+
+		assertSamePixels(source, openArrayImg());
+	}
+
+	/**
+	 * Tests that zlib-compressed TIFFs written on multiple threads yield the
+	 * original pixels.
+	 */
+	@Test
+	public void testZlibCompression() throws Exception {
+		final Img<?> source =
+			new ImgOpener(context).openImgs(
+				"zlib&pixelType=uint16&axes=X,Y,Z&lengths=64,48,4.fake").get(0);
+		new ImgSaver(context).saveImg(id, source, new SCIFIOConfig()
+			.writerSetCompression(TIFFFormat.Writer.COMPRESSION_ZLIB)
+			.writerSetCompressionThreads(4));
+
+		assertSamePixels(source, openArrayImg());
+	}
+
+	/**
+	 * Tests that strips too few to occupy every compression thread, which are
+	 * deflated block by block across the threads instead, yield the original
+	 * pixels.
+	 */
+	@Test
+	public void testBlockParallelDeflate() throws Exception {
+		final int width = 512, height = 256, planes = 2;
+		final byte[][] pixels = new byte[planes][width * height * 2];
+		for (int p = 0; p < planes; p++) {
+			for (int i = 0; i < pixels[p].length; i += 2) {
+				final int value = (i / 2 % width) * (i / 2 / width) + p * 7 + i % 5;
+				pixels[p][i] = (byte) value;
+				pixels[p][i + 1] = (byte) (value >> 8);
+			}
+		}
+		final TiffSaver saver = new TiffSaver(context, id);
+		try {
+			saver.setLittleEndian(true);
+			saver.setCompressionThreads(4);
+			saver.writeHeader();
+			for (int p = 0; p < planes; p++) {
+				final IFD ifd = new IFD(scifio.log());
+				ifd.put(IFD.IMAGE_WIDTH, (long) width);
+				ifd.put(IFD.IMAGE_LENGTH, (long) height);
+				ifd.put(IFD.LITTLE_ENDIAN, Boolean.TRUE);
+				ifd.put(IFD.COMPRESSION, TiffCompression.DEFLATE.getCode());
+				ifd.put(IFD.ROWS_PER_STRIP, new long[] { height });
+				saver.getStream().seek(saver.getStream().length());
+				saver.writeImage(pixels[p], ifd, p, FormatTools.UINT16,
+					p == planes - 1);
+			}
+		}
+		finally {
+			saver.flush();
+			saver.getStream().close();
+		}
+
+		final Reader reader = scifio.initializer().initializeReader(id);
+		for (int p = 0; p < planes; p++) {
+			assertArrayEquals(pixels[p], reader.openPlane(0, p).getBytes());
+		}
+		reader.close();
+	}
+
+	/**
+	 * Tests that re-reading a compressed TIFF plane with tile caching enabled is
+	 * served from the shared tile cache and yields the same pixels.
+	 */
+	@Test
+	public void testTileCaching() throws Exception {
+		final Img<?> source =
+			new ImgOpener(context).openImgs(
+				"cached&axes=X,Y,Z&lengths=64,48,2.fake").get(0);
+		new ImgSaver(context).saveImg(id, source, new SCIFIOConfig()
+			.writerSetCompression(TIFFFormat.Writer.COMPRESSION_LZW));
+
+		final TiffTileCacheService cache = scifio.tiffTileCache();
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetTileCaching(true);
+		final Reader reader = scifio.initializer().initializeReader(id);
+		final byte[] expected = reader.openPlane(0, 1).getBytes();
+
+		cache.resetStatistics();
+		final byte[] first = reader.openPlane(0, 1, config).getBytes();
+		assertEquals(0, cache.getHits());
+		assertTrue(cache.getMisses() > 0);
+		assertTrue(cache.getSize() > 0);
+
+		final byte[] second = reader.openPlane(0, 1, config).getBytes();
+		assertEquals(cache.getMisses(), cache.getHits());
+		assertArrayEquals(expected, first);
+		assertArrayEquals(expected, second);
+		reader.close();
+	}
+
+	/**
+	 * Tests that rewriting a TIFF discards its cached tiles, so that reading it
+	 * again yields the new pixels rather than the cached ones.
+	 */
+	@Test
+	public void testTileCacheRewrite() throws Exception {
+		final Img<?> source =
+			new ImgOpener(context).openImgs("rewrite&axes=X,Y&lengths=64,48.fake",
+				new SCIFIOConfig().imgOpenerSetImgModes(ImgMode.ARRAY)).get(0);
+		final SCIFIOConfig lzw = new SCIFIOConfig()
+			.writerSetCompression(TIFFFormat.Writer.COMPRESSION_LZW);
+		new ImgSaver(context).saveImg(id, source, lzw);
+
+		final SCIFIOConfig config = new SCIFIOConfig().readerSetTileCaching(true);
+		Reader reader = scifio.initializer().initializeReader(id);
+		final byte[] before = reader.openPlane(0, 0, config).getBytes();
+		reader.close();
+		assertTrue(scifio.tiffTileCache().getSize() > 0);
+
+		// reverse the rows, so that the file keeps its size and layout
+		final byte[] reversed = new byte[before.length];
+		for (int y = 0; y < 48; y++) {
+			System.arraycopy(before, y * 64, reversed, (47 - y) * 64, 64);
+		}
+		final Cursor<?> cursor = source.localizingCursor();
+		while (cursor.hasNext()) {
+			final RealType<?> value = (RealType<?>) cursor.next();
+			value.setReal(reversed[cursor.getIntPosition(1) * 64 + cursor
+				.getIntPosition(0)] & 0xff);
+		}
+		new ImgSaver(context).saveImg(id, source, lzw);
+
+		reader = scifio.initializer().initializeReader(id);
+		assertArrayEquals(reversed, reader.openPlane(0, 0, config).getBytes());
+		reader.close();
+	}
+
+	/**
+	 * Tests that cached tiles of a file are no longer served once the file is
+	 * modified by other means than a {@link TiffSaver}.
+	 */
+	@Test
+	public void testTileCacheExternalRewrite() throws Exception {
+		final TiffTileCacheService cache = scifio.tiffTileCache();
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.write(new byte[16]);
+		}
+		final byte[] buf = new byte[4];
+		cache.put(id, 8, 0, new byte[] { 1, 2, 3, 4 });
+		assertTrue(cache.get(id, 8, 0, buf));
+
+		assertTrue(file.setLastModified(file.lastModified() - 10000));
+		assertFalse(cache.get(id, 8, 0, buf));
+		// a change of length alone is noticed too
+		cache.put(id, 8, 0, new byte[] { 5, 6, 7, 8 });
+		final long lastModified = file.lastModified();
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(8);
+		}
+		assertTrue(file.setLastModified(lastModified));
+		assertFalse(cache.get(id, 8, 0, buf));
+	}
+
+	/**
+	 * Tests that the tile cache evicts its least recently used tiles once it
+	 * exceeds its capacity.
+	 */
+	@Test
+	public void testTileCacheEviction() {
+		final TiffTileCacheService cache = scifio.tiffTileCache();
+		cache.setMaxBytes(30);
+		final byte[] buf = new byte[10];
+		cache.put("a", 8, 0, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 });
+		cache.put("a", 8, 1, new byte[10]);
+		cache.put("a", 8, 2, new byte[10]);
+		assertTrue(cache.get("a", 8, 0, buf));
+		assertEquals(10, buf[9]);
+		cache.put("a", 8, 3, new byte[10]);
+		assertEquals(30, cache.getSize());
+		assertFalse(cache.get("a", 8, 1, buf));
+		assertTrue(cache.get("a", 8, 0, buf));
+		assertFalse(cache.get("b", 8, 0, buf));
+		assertEquals(2, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		cache.invalidate("a");
+		assertEquals(0, cache.getSize());
+	}
+
+	/**
+	 * Tests that reading a region which starts inside a tile, and whose width
+	 * happens to match the tile width, yields the same pixels as cropping the
+	 * whole plane.
+	 */
+	@Test
+	public void testTiledRegion() throws Exception {
+		writeTiledTiff(128, 128, 32);
+		final TiffParser parser = new TiffParser(context, id);
+		final IFD ifd = parser.getFirstIFD();
+		final byte[] plane = parser.getSamples(ifd, new byte[2 * 128 * 128]);
+		final int x = 40, y = 21, w = 32, h = 50;
+		final byte[] region =
+			parser.getSamples(ifd, new byte[2 * w * h], x, y, w, h);
+		for (int row = 0; row < h; row++) {
+			for (int b = 0; b < 2 * w; b++) {
+				assertEquals(plane[2 * ((y + row) * 128 + x) + b],
+					region[2 * row * w + b]);
+			}
+		}
+		parser.getStream().close();
+	}
+
+	/**
+	 * Tests that the missing tail of a truncated strip with a horizontal
+	 * predictor reads as zeros, rather than as the last decoded value.
+	 */
+	@Test
+	public void testTruncatedPredictorStrip() throws Exception {
+		final int width = 16, height = 2;
+		final byte[] pixels = new byte[width * height];
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (byte) (i + 1);
+		}
+		final TiffSaver saver = new TiffSaver(context, id);
+		try {
+			saver.setLittleEndian(true);
+			saver.writeHeader();
+			final IFD ifd = new IFD(scifio.log());
+			ifd.put(IFD.IMAGE_WIDTH, (long) width);
+			ifd.put(IFD.IMAGE_LENGTH, (long) height);
+			ifd.put(IFD.LITTLE_ENDIAN, Boolean.TRUE);
+			ifd.put(IFD.COMPRESSION, TiffCompression.DEFLATE.getCode());
+			ifd.put(IFD.PREDICTOR, 2);
+			ifd.put(IFD.ROWS_PER_STRIP, new long[] { height });
+			saver.writeImage(pixels, ifd, 0, FormatTools.UINT8, true);
+		}
+		finally {
+			saver.getStream().close();
+		}
+
+		// widen the image, so that the strip ends in the middle of its last row
+		final int wideWidth = 24;
+		TiffParser parser = new TiffParser(context, id);
+		final long first = parser.getFirstOffset();
+		parser.getStream().seek(first);
+		final int entries = parser.getStream().readUnsignedShort();
+		long widthOffset = -1;
+		for (int e = 0; e < entries; e++) {
+			parser.getStream().seek(first + 2 + 12 * e);
+			if (parser.getStream().readUnsignedShort() == IFD.IMAGE_WIDTH) {
+				widthOffset = first + 2 + 12 * e + 8;
+			}
+		}
+		parser.getStream().close();
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(widthOffset);
+			raf.write(wideWidth);
+		}
+
+		parser = new TiffParser(context, id);
+		final byte[] plane = parser.getSamples(parser.getFirstIFD(),
+			new byte[wideWidth * height]);
+		parser.getStream().close();
+		for (int i = pixels.length; i < plane.length; i++) {
+			assertEquals("byte " + i, 0, plane[i]);
+		}
+	}
+
+	/**
+	 * Tests that a lazy IFD list only parses the IFDs that are accessed, and
+	 * yields the same IFDs as eager parsing.
+	 */
+	@Test
+	public void testLazyIFDs() throws Exception {
+		final File tiff = BenchmarkFixtures.createTiff(context, 32, 32, 5, 0,
+			TiffCompression.UNCOMPRESSED);
+		final TiffParser parser = new TiffParser(context, tiff.getAbsolutePath());
+		final long[] offsets = parser.getIFDOffsets();
+		final LazyIFDList ifds = parser.getLazyIFDs();
+
+		assertEquals(5, ifds.size());
+		assertFalse(ifds.isParsed(2));
+		assertEquals(offsets[2], ifds.get(2).getOffset());
+		assertTrue(ifds.isParsed(2));
+		assertFalse(ifds.isParsed(3));
+
+		int i = 0;
+		for (final IFD ifd : ifds) {
+			assertEquals(offsets[i++], ifd.getOffset());
+			assertEquals(32, ifd.getImageWidth());
+		}
+		parser.getStream().close();
+	}
+
+	/**
+	 * Tests that the format parser lists the pages of a plain multi-page file
+	 * lazily at every metadata level, and that unused pages are left unparsed.
+	 */
+	@Test
+	public void testLazyPages() throws Exception {
+		final File tiff = BenchmarkFixtures.createTiff(context, 32, 32, 5, 0,
+			TiffCompression.UNCOMPRESSED);
+		final String tiffId = tiff.getAbsolutePath();
+		final TiffParser parser = new TiffParser(context, tiffId);
+		final IFDList expected = parser.getIFDs();
+		for (final MetadataLevel level : MetadataLevel.values()) {
+			final Reader reader = scifio.initializer().initializeReader(tiffId,
+				new SCIFIOConfig().parserSetLevel(level));
+			try {
+				final TIFFFormat.Metadata meta = (TIFFFormat.Metadata) reader
+					.getMetadata();
+				final LazyIFDList ifds = (LazyIFDList) meta.getIfds();
+				assertEquals(5, ifds.size());
+				assertFalse(ifds.isParsed(3));
+				assertEquals(0, meta.getThumbnailIFDs().size());
+
+				assertArrayEquals(parser.getSamples(expected.get(3),
+					new byte[2 * 32 * 32]), reader.openPlane(0, 3).getBytes());
+				assertTrue(ifds.isParsed(3));
+				assertFalse(ifds.isParsed(4));
+			}
+			finally {
+				reader.close();
+			}
+		}
+		parser.getStream().close();
+	}
+
+	/**
+	 * Tests that IFDs of a lazy IFD list accessed from several threads at once
+	 * are parsed correctly.
+	 */
+	@Test
+	public void testConcurrentLazyIFDs() throws Exception {
+		final int planes = 64;
+		final File tiff = BenchmarkFixtures.createTiff(context, 32, 32, planes, 0,
+			TiffCompression.UNCOMPRESSED);
+		final TiffParser parser = new TiffParser(context, tiff.getAbsolutePath());
+		final IFDList expected = parser.getIFDs();
+		final LazyIFDList ifds = parser.getLazyIFDs();
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<?>> readers = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				final int first = t * planes / 4;
+				readers.add(executor.submit(() -> {
+					for (int i = 0; i < planes; i++) {
+						final int index = (first + i) % planes;
+						assertArrayEquals(expected.get(index).getStripOffsets(), ifds
+							.get(index).getStripOffsets());
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> reader : readers) {
+				reader.get();
+			}
+		}
+		finally {
+			executor.shutdown();
+			parser.getStream().close();
+		}
+	}
+
+	/**
+	 * Tests that IFD offsets are read back from an up-to-date sidecar index, and
+	 * that a stale index is ignored.
+	 */
+	@Test
+	public void testIFDOffsetIndex() throws Exception {
+		final File tiff = BenchmarkFixtures.createTiff(context, 32, 32, 5, 0,
+			TiffCompression.UNCOMPRESSED);
+		final String tiffId = tiff.getAbsolutePath();
+		final File index = new File(tiffId + ".ifdx");
+		index.deleteOnExit();
+
+		TiffParser parser = new TiffParser(context, tiffId);
+		parser.setIFDIndexing(true);
+		final long[] offsets = parser.getIFDOffsets();
+		parser.getStream().close();
+		assertTrue(index.exists());
+
+		// tamper with the last recorded offset to see where offsets come from
+		try (final RandomAccessFile raf = new RandomAccessFile(index, "rw")) {
+			raf.seek(raf.length() - offsets.length - 8);
+			raf.writeLong(12345);
+		}
+		parser = new TiffParser(context, tiffId);
+		parser.setIFDIndexing(true);
+		assertEquals(12345, parser.getIFDOffsets()[4]);
+		parser.getStream().close();
+
+		// a modified TIFF invalidates the index
+		assertTrue(tiff.setLastModified(tiff.lastModified() - 10000));
+		parser = new TiffParser(context, tiffId);
+		parser.setIFDIndexing(true);
+		assertArrayEquals(offsets, parser.getIFDOffsets());
+		parser.getStream().close();
+	}
+
+	/**
+	 * Tests that batch and asynchronous plane reads, whose strip reads are
+	 * coalesced, yield the same planes as reading them one at a time.
+	 */
+	@Test
+	public void testOpenPlanes() throws Exception {
+		for (final TiffCompression compression : new TiffCompression[] {
+			TiffCompression.UNCOMPRESSED, TiffCompression.LZW })
+		{
+			final File tiff =
+				BenchmarkFixtures.createTiff(context, 32, 48, 6, 0, compression);
+			final ReaderFilter reader =
+				scifio.initializer().initializeReader(tiff.getAbsolutePath());
+			if (compression == TiffCompression.LZW) {
+				// filters which leave these planes as they are forward the requests
+				reader.enable(ChannelFiller.class);
+				reader.enable(PlaneSeparator.class);
+			}
+			final long[] planeIndices = { 4, 1, 2, 5, 2 };
+			for (final Interval bounds : new Interval[] { new FinalInterval(32, 48),
+				new FinalInterval(new long[] { 3, 20 }, new long[] { 20, 40 }) })
+			{
+				final Plane[] planes = reader.openPlanes(0, planeIndices, bounds);
+				final List<CompletableFuture<Plane>> futures = new ArrayList<>();
+				for (final long planeIndex : planeIndices) {
+					futures.add(reader.openPlaneAsync(0, planeIndex, bounds));
+				}
+				// the reader must not be used directly while requests are pending
+				final List<Plane> requested = new ArrayList<>();
+				for (final CompletableFuture<Plane> future : futures) {
+					requested.add(future.get());
+				}
+				for (int i = 0; i < planeIndices.length; i++) {
+					final byte[] expected =
+						reader.openPlane(0, planeIndices[i], bounds).getBytes();
+					assertArrayEquals(expected, planes[i].getBytes());
+					assertArrayEquals(expected, requested.get(i).getBytes());
+				}
+			}
+			reader.close();
+		}
+
+		// failures are reported through the future
+		final Reader reader = scifio.initializer().initializeReader(
+			"async&axes=X,Y,Z&lengths=8,8,2.fake");
+		final CompletableFuture<Plane> missing =
+			reader.openPlaneAsync(0, 7, new FinalInterval(8, 8));
+		try {
+			missing.get();
+			fail("Expected an exception for a missing plane");
+		}
+		catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof FormatException ||
+				e.getCause() instanceof IllegalArgumentException);
+		}
+		reader.close();
+	}
+
+	// -- Helper methods --
+
+	/** Opens the scratch file as an array image. */
+	private Img<?> openArrayImg() {
+		return new ImgOpener(context).openImgs(id, new SCIFIOConfig()
+			.imgOpenerSetImgModes(ImgMode.ARRAY)).get(0);
+	}
+
+	private static void assertSamePixels(final Img<?> expected,
+		final Img<?> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+		final Cursor<?> e = expected.cursor();
+		final Cursor<?> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(((RealType<?>) e.next()).getRealDouble(),
+				((RealType<?>) a.next()).getRealDouble(), 0);
+		}
+	}
+
+	/** Writes an uncompressed, tiled 16-bit TIFF to the scratch file. */
+	private void writeTiledTiff(final int width, final int height,
+		final int tileSize) throws FormatException, IOException
+	{
+		final TiffSaver saver = new TiffSaver(context, id);
+		try {
+			saver.setLittleEndian(true);
+			saver.writeHeader();
+			final IFD ifd = new IFD(scifio.log());
+			ifd.put(IFD.IMAGE_WIDTH, (long) width);
+			ifd.put(IFD.IMAGE_LENGTH, (long) height);
+			ifd.put(IFD.LITTLE_ENDIAN, Boolean.TRUE);
+			ifd.put(IFD.COMPRESSION, TiffCompression.UNCOMPRESSED.getCode());
+			ifd.put(IFD.TILE_WIDTH, (long) tileSize);
+			ifd.put(IFD.TILE_LENGTH, (long) tileSize);
+			final byte[] pixels = new byte[2 * width * height];
+			for (int i = 0; i < pixels.length; i++) {
+				pixels[i] = (byte) (i * 7 + i / 255);
+			}
+			saver.writeImage(pixels, ifd, 0, FormatTools.UINT16, true);
+		}
+		finally {
+			saver.getStream().close();
+		}
+	}
+
 }
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.formats.tiff;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.FormatException;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.log.LogService;
+
+/**
+ * Tests the {@link Map} behavior and typed accessors of {@link IFD}.
+ */
+public class IFDTest {
+
+	private final LogService log = new Context(LogService.class).getService(
+		LogService.class);
+
+	@Test
+	public void testSameAsHashMap() {
+		final IFD ifd = new IFD(log);
+		final Map<Integer, Object> expected = new HashMap<>();
+		final Random r = new Random(0xc0ffee);
+		for (int i = 0; i < 20000; i++) {
+			final Integer tag = 250 + r.nextInt(100);
+			final int op = r.nextInt(10);
+			if (op < 2) assertEquals(expected.remove(tag), ifd.remove(tag));
+			else {
+				final Object value = op < 4 ? (Object) r.nextInt() : op < 6
+					? (Object) r.nextLong() : op < 7 ? (Object) (short) r.nextInt()
+						: op < 8 ? (Object) r.nextDouble() : op < 9 ? "v" + i
+							: new long[] { i };
+				assertEquals(expected.put(tag, value), ifd.put(tag, value));
+			}
+			assertEquals(expected.size(), ifd.size());
+		}
+		assertEquals(expected, ifd);
+		assertEquals(ifd, expected);
+		assertEquals(expected.hashCode(), ifd.hashCode());
+
+		// entries are iterated in ascending tag order
+		int previous = -1;
+		for (final Integer tag : ifd.keySet()) {
+			assertTrue(tag > previous);
+			previous = tag;
+		}
+
+		final IFD copy = new IFD(ifd, log);
+		assertEquals(expected, copy);
+		assertEquals(expected, ifd.clone());
+		copy.clear();
+		assertTrue(copy.isEmpty());
+		assertEquals(expected, ifd);
+	}
+
+	@Test
+	public void testValueTypes() throws FormatException {
+		final IFD ifd = new IFD(log);
+		ifd.putIFDValue(IFD.IMAGE_WIDTH, 512);
+		ifd.putIFDValue(IFD.IMAGE_LENGTH, 300L);
+		ifd.putIFDValue(IFD.NEW_SUBFILE_TYPE, (short) 2);
+		ifd.putIFDValue(IFD.LITTLE_ENDIAN, Boolean.TRUE);
+		ifd.putIFDValue(IFD.X_RESOLUTION, new TiffRational(72, 1));
+
+		assertEquals(512, ifd.get(IFD.IMAGE_WIDTH));
+		assertEquals(300L, ifd.get(IFD.IMAGE_LENGTH));
+		assertEquals((short) 2, ifd.get(IFD.NEW_SUBFILE_TYPE));
+		assertEquals(Boolean.TRUE, ifd.get(IFD.LITTLE_ENDIAN));
+		assertTrue(ifd.isLittleEndian());
+		assertEquals(512, ifd.getImageWidth());
+		assertEquals(300, ifd.getIFDIntValue(IFD.IMAGE_LENGTH));
+		assertEquals(2, ifd.getIFDLongValue(IFD.NEW_SUBFILE_TYPE, 0));
+		assertEquals(-1, ifd.getIFDIntValue(IFD.SUBFILE_TYPE));
+		assertArrayEquals(new long[] { 512 }, ifd.getIFDLongArray(
+			IFD.IMAGE_WIDTH));
+		assertEquals(72, ifd.getIFDRationalValue(IFD.X_RESOLUTION).longValue());
+
+		final Iterator<Integer> iter = ifd.keySet().iterator();
+		while (iter.hasNext()) {
+			if (iter.next() != IFD.IMAGE_WIDTH) iter.remove();
+		}
+		assertEquals(1, ifd.size());
+		assertFalse(ifd.containsKey(IFD.IMAGE_LENGTH));
+		assertNull(ifd.getIFDValue(IFD.IMAGE_LENGTH));
+	}
+
+	@Test
+	public void testStripArraysShared() throws FormatException {
+		final IFD ifd = new IFD(log);
+		ifd.putIFDValue(IFD.IMAGE_WIDTH, 64);
+		ifd.putIFDValue(IFD.IMAGE_LENGTH, 64);
+		ifd.putIFDValue(IFD.ROWS_PER_STRIP, 16);
+		final long[] offsets = { 8, 1032, 2056, 3080 };
+		final long[] counts = { 1024, 1024, 1024, 1024 };
+		ifd.putIFDValue(IFD.STRIP_OFFSETS, offsets);
+		ifd.putIFDValue(IFD.STRIP_BYTE_COUNTS, counts);
+
+		assertSame(offsets, ifd.getStripOffsets());
+		assertSame(ifd.getStripOffsets(), ifd.getStripOffsets());
+		assertSame(ifd.getStripByteCounts(), ifd.getStripByteCounts());
+		assertArrayEquals(counts, ifd.getStripByteCounts());
+
+		// derived arrays are recomputed once the directory changes
+		ifd.putIFDValue(IFD.STRIP_OFFSETS, new int[] { 8, 1032, 2056, 3080 });
+		assertNotSame(offsets, ifd.getStripOffsets());
+		assertArrayEquals(offsets, ifd.getStripOffsets());
+
+		ifd.putIFDValue(IFD.COMPRESSION, TiffCompression.LZW.getCode());
+		ifd.remove(IFD.ROWS_PER_STRIP);
+		ifd.putIFDValue(IFD.STRIP_OFFSETS, new long[] { 8 });
+		ifd.putIFDValue(IFD.STRIP_BYTE_COUNTS, new long[] { 1024 });
+		assertArrayEquals(new long[] { 2048 }, ifd.getStripByteCounts());
+	}
+}
@@ -45,11 +45,13 @@ import io.scif.img.cell.SCIFIOCellImgFactory;
 import io.scif.io.RandomAccessInputStream;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import net.imagej.ImgPlus;
 import net.imagej.axis.Axes;
 import net.imagej.axis.AxisType;
+import net.imglib2.Cursor;
 import net.imglib2.exception.IncompatibleTypeException;
 import net.imglib2.img.ImgFactory;
 import net.imglib2.img.array.ArrayImgFactory;
@@ -129,6 +131,37 @@ public class ImgOpenerTest {
 		testSubRegion(new SCIFIOCellImgFactory<>(t));
 	}
 
+	/**
+	 * Tests that reading planes on several threads, via
+	 * {@link SCIFIOConfig#imgOpenerSetThreads(int)}, fills the same planes in
+	 * the same order as reading them serially.
+	 */
+	@Test
+	public void testParallelPlaneReading() throws ImgIOException {
+		final String id =
+			"testImg&lengths=64,48,3,7&axes=X,Y,Z,Time.fake";
+		final UnsignedByteType t = new UnsignedByteType();
+		final ImageRegion region =
+			new ImageRegion(new AxisType[] { Axes.TIME }, new String[] { "1-6" });
+		final List<ImgFactory<UnsignedByteType>> factories =
+			Arrays.asList(new ArrayImgFactory<>(t), new PlanarImgFactory<>(t));
+		for (final ImgFactory<UnsignedByteType> factory : factories) {
+			final SCIFIOConfig serial = new SCIFIOConfig().imgOpenerSetRegion(region);
+			final SCIFIOConfig parallel =
+				new SCIFIOConfig(serial).imgOpenerSetThreads(4);
+			final ImgPlus<UnsignedByteType> expected =
+				imgOpener.openImgs(id, factory, serial).get(0);
+			final ImgPlus<UnsignedByteType> actual =
+				imgOpener.openImgs(id, factory, parallel).get(0);
+			assertEquals(64 * 48 * 3 * 6, actual.size());
+			final Cursor<UnsignedByteType> e = expected.cursor();
+			final Cursor<UnsignedByteType> a = actual.cursor();
+			while (e.hasNext()) {
+				assertEquals(e.next().get(), a.next().get());
+			}
+		}
+	}
+
 	/**
 	 * Tests that opening datasets with multiple images, via
 	 * {@link SCIFIOConfig#imgOpenerIsOpenAllImages()} is working as intended.
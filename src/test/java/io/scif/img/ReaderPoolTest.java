@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.img;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import io.scif.Reader;
+import io.scif.SCIFIO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests {@link ReaderPool}. */
+public class ReaderPoolTest {
+
+	private static final String ID =
+		"8bit-unsigned&pixelType=uint8&lengths=32,32,4&axes=X,Y,Time.fake";
+
+	private SCIFIO scifio;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+	}
+
+	@After
+	public void tearDown() {
+		scifio.getContext().dispose();
+	}
+
+	/**
+	 * Tests that closing the pool leaves leased readers open until they are
+	 * released.
+	 */
+	@Test
+	public void testCloseWhileLeased() throws Exception {
+		final ReaderPool pool = new ReaderPool(() -> scifio.initializer()
+			.initializeReader(ID), 2);
+		final Reader leased = pool.lease();
+		final Reader idle = pool.lease();
+		pool.release(idle);
+		assertEquals(2, pool.openCount());
+
+		pool.close();
+		assertNull(idle.getMetadata());
+		assertEquals(1, pool.openCount());
+		// the leased reader still reads
+		assertNotNull(leased.openPlane(0, 3));
+
+		pool.release(leased);
+		assertNull(leased.getMetadata());
+		assertEquals(0, pool.openCount());
+		try {
+			pool.lease();
+			fail("Leased a reader from a closed pool");
+		}
+		catch (final IllegalStateException e) {
+			// expected
+		}
+	}
+
+	/** Tests that closing the pool fails leases waiting for a reader. */
+	@Test
+	public void testCloseWhileWaiting() throws Exception {
+		final ReaderPool pool = new ReaderPool(() -> scifio.initializer()
+			.initializeReader(ID), 1);
+		final Reader leased = pool.lease();
+		final Thread waiter = new Thread(() -> {
+			try {
+				pool.lease();
+			}
+			catch (final IllegalStateException e) {
+				// expected
+			}
+			catch (final Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		waiter.start();
+		while (waiter.getState() != Thread.State.WAITING) {
+			Thread.sleep(1);
+		}
+		pool.close();
+		waiter.join(10000);
+		assertEquals(Thread.State.TERMINATED, waiter.getState());
+		pool.release(leased);
+	}
+}
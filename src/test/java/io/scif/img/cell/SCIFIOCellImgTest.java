@@ -29,14 +29,25 @@
 
 package io.scif.img.cell;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import io.scif.config.SCIFIOConfig;
 import io.scif.img.IO;
+import io.scif.img.ImgIOException;
+import io.scif.img.ImgOpener;
+import io.scif.img.ReaderPool;
 import io.scif.img.SCIFIOImgPlus;
 import io.scif.io.TestParameters;
 
 import java.util.Collection;
+import java.util.stream.IntStream;
+
+import net.imglib2.RandomAccess;
+import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -78,6 +89,43 @@ public class SCIFIOCellImgTest {
 		assertNull(((SCIFIOCellImg) img.getImg()).reader().getMetadata());
 	}
 
+	/**
+	 * Test that cells loaded concurrently through a {@link ReaderPool} match the
+	 * fully read image, and that the pooled readers are closed on disposal.
+	 */
+	@Test
+	public void testReaderPool() throws ImgIOException {
+		final String id = "pooled&axes=X,Y,Z&lengths=64,64,32.fake";
+		final UnsignedByteType type = new UnsignedByteType();
+		final ImgOpener opener = new ImgOpener();
+
+		final SCIFIOImgPlus<UnsignedByteType> expected = opener.openImgs(id,
+			new ArrayImgFactory<>(type)).get(0);
+		final SCIFIOImgPlus<UnsignedByteType> pooled = opener.openImgs(id,
+			new SCIFIOCellImgFactory<>(type), new SCIFIOConfig()
+				.imgOpenerSetReaderPoolSize(4)).get(0);
+
+		final ReaderPool pool = ((SCIFIOCellImg<?, ?>) pooled.getImg())
+			.readerPool();
+		assertNotNull(pool);
+
+		IntStream.range(0, 32).parallel().forEach(z -> {
+			final RandomAccess<UnsignedByteType> eAccess = expected.randomAccess();
+			final RandomAccess<UnsignedByteType> pAccess = pooled.randomAccess();
+			for (int y = 0; y < 64; y++) {
+				for (int x = 0; x < 64; x++) {
+					eAccess.setPosition(new long[] { x, y, z });
+					pAccess.setPosition(new long[] { x, y, z });
+					assertEquals(eAccess.get().get(), pAccess.get().get());
+				}
+			}
+		});
+		assertTrue(pool.openCount() >= 1 && pool.openCount() <= 4);
+
+		pooled.dispose();
+		assertEquals(0, pool.openCount());
+	}
+
 	// This test is currently disabled because it fails for unknown reasons.
 	// It passes from Eclipse, it passes from Maven on the command line, but it
 	// fails when run by Jenkins using Maven.
@@ -0,0 +1,252 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import io.scif.SCIFIO;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests seeking through {@link StreamHandle}s with a {@link CheckpointIndex}.
+ */
+public class CheckpointIndexTest {
+
+	private static final int LENGTH = 3 * 1024 * 1024;
+
+	private static final long SPAN = 128 * 1024;
+
+	private SCIFIO scifio;
+
+	private byte[] data;
+
+	private File file;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		// alternate runs of noise (stored blocks) and compressible data
+		final Random random = new Random(0xc0ffee);
+		data = new byte[LENGTH];
+		for (int i = 0; i < LENGTH;) {
+			final boolean noise = random.nextBoolean();
+			final int run = Math.min(LENGTH - i, 1 + random.nextInt(100000));
+			for (int j = 0; j < run; j++, i++) {
+				data[i] = (byte) (noise ? random.nextInt() : i / 64 + j % 3);
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		if (file != null) {
+			file.delete();
+			CheckpointIndex.getIndexFile(file).delete();
+		}
+		scifio.getContext().dispose();
+	}
+
+	@Test
+	public void testGZipSeek() throws IOException {
+		file = File.createTempFile("checkpoints", ".gz");
+		// write two members, as concatenated gzip files do
+		try (final OutputStream out = new FileOutputStream(file)) {
+			final GZIPOutputStream first = new GZIPOutputStream(out);
+			first.write(data, 0, LENGTH / 3);
+			first.finish();
+			final GZIPOutputStream second = new GZIPOutputStream(out);
+			second.write(data, LENGTH / 3, LENGTH - LENGTH / 3);
+			second.finish();
+		}
+		final GZipHandle handle = new GZipHandle(scifio.getContext());
+		handle.setCheckpointSpan(SPAN);
+		handle.setFile(file.getAbsolutePath());
+		assertEquals(LENGTH, handle.length());
+		assertSeeks(handle);
+		assertTrue(handle.getCheckpoints().size() > 1);
+		handle.close();
+	}
+
+	@Test
+	public void testGZipPersisted() throws IOException {
+		file = File.createTempFile("checkpoints", ".gz");
+		try (final OutputStream out =
+			new GZIPOutputStream(new FileOutputStream(file)))
+		{
+			out.write(data);
+		}
+		final GZipHandle handle = new GZipHandle(scifio.getContext());
+		handle.setCheckpointSpan(SPAN);
+		handle.setCheckpointsPersisted(true);
+		handle.setFile(file.getAbsolutePath());
+		final CheckpointIndex built = handle.getCheckpoints();
+		handle.close();
+		assertTrue(CheckpointIndex.getIndexFile(file).isFile());
+
+		final CheckpointIndex read = CheckpointIndex.read(file);
+		assertNotNull(read);
+		assertEquals(built.size(), read.size());
+		assertEquals(LENGTH, read.length());
+		for (int i = 0; i < read.size(); i++) {
+			assertEquals(built.getPosition(i), read.getPosition(i));
+			assertEquals(built.getBitOffset(i), read.getBitOffset(i));
+			assertArrayEquals(built.getHistory(i), read.getHistory(i));
+		}
+
+		// a new handle picks up the sidecar, and its length, at once
+		final GZipHandle reopened =
+			new GZipHandle(scifio.getContext(), file.getAbsolutePath());
+		assertEquals(LENGTH, reopened.length());
+		assertSeeks(reopened);
+		reopened.close();
+	}
+
+	@Test
+	public void testZipSeek() throws IOException {
+		file = File.createTempFile("checkpoints", ".zip");
+		try (final ZipOutputStream out =
+			new ZipOutputStream(new FileOutputStream(file)))
+		{
+			out.putNextEntry(new ZipEntry("other.bin"));
+			out.write(data, 0, 1000);
+			out.closeEntry();
+			out.putNextEntry(new ZipEntry("data.bin"));
+			out.write(data);
+			out.closeEntry();
+		}
+		final ZipHandle handle = new ZipHandle(scifio.getContext());
+		handle.setCheckpointSpan(SPAN);
+		handle.setFile(file.getAbsolutePath(), new ZipEntry("data.bin"));
+		assertEquals(LENGTH, handle.length());
+		assertSeeks(handle);
+		assertTrue(handle.getCheckpoints().size() > 1);
+		handle.close();
+	}
+
+	@Test
+	public void testBZip2Seek() throws IOException {
+		file = File.createTempFile("checkpoints", ".bz2");
+		// several bzip2 blocks of text, compressed with 100k blocks
+		try (final InputStream in = getClass().getResourceAsStream(
+			"words.txt.bz2"))
+		{
+			Files.copy(in, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		// a sequential read, without any checkpoints, is the reference
+		final BZip2Handle sequential =
+			new BZip2Handle(scifio.getContext(), file.getAbsolutePath());
+		final byte[] expected = new byte[(int) sequential.length()];
+		sequential.readFully(expected);
+		sequential.close();
+
+		final BZip2Handle handle = new BZip2Handle(scifio.getContext());
+		handle.setCheckpointSpan(SPAN);
+		handle.setFile(file.getAbsolutePath());
+		assertSeeks(handle, expected);
+		assertTrue(handle.getCheckpoints().size() > 1);
+		assertEquals(expected.length, handle.getCheckpoints().length());
+		handle.close();
+	}
+
+	@Test
+	public void testSeekableGZipStream() throws IOException {
+		file = File.createTempFile("checkpoints", ".bin");
+		// gzip data following an uncompressed header
+		final byte[] header = new byte[123];
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(header);
+			final GZIPOutputStream gzip = new GZIPOutputStream(out);
+			gzip.write(data);
+			gzip.finish();
+		}
+		try (final SeekableGZipStream stream =
+			new SeekableGZipStream(file, header.length))
+		{
+			stream.setCheckpointSpan(SPAN);
+			final Random random = new Random(0xfeed);
+			final byte[] block = new byte[4096];
+			for (int i = 0; i < 40; i++) {
+				final int pos = random.nextInt(LENGTH - block.length);
+				stream.seek(pos);
+				new DataInputStream(stream).readFully(block);
+				assertArrayEquals("at " + pos, Arrays.copyOfRange(data, pos, pos +
+					block.length), block);
+				assertEquals(pos + block.length, stream.getPosition());
+			}
+			assertEquals(LENGTH, stream.getCheckpoints().length());
+		}
+	}
+
+	// -- Helper methods --
+
+	/** Reads blocks at scattered positions, backwards and forwards. */
+	private void assertSeeks(final StreamHandle handle) throws IOException {
+		assertSeeks(handle, data);
+	}
+
+	/**
+	 * Reads blocks at scattered positions, backwards and forwards, comparing
+	 * them to the given uncompressed data.
+	 */
+	private void assertSeeks(final StreamHandle handle, final byte[] expected)
+		throws IOException
+	{
+		final Random random = new Random(0xbeef);
+		final byte[] block = new byte[4096];
+		for (int i = 0; i < 40; i++) {
+			final int pos = random.nextInt(expected.length - block.length);
+			handle.seek(pos);
+			handle.readFully(block);
+			assertArrayEquals("at " + pos, Arrays.copyOfRange(expected, pos, pos +
+				block.length), block);
+			assertEquals(pos + block.length, handle.getFilePointer());
+		}
+	}
+}
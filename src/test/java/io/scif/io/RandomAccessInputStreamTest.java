@@ -37,6 +37,7 @@ import io.scif.io.providers.IRandomAccessProviderFactory;
 import io.scif.services.LocationService;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 
 import org.junit.After;
@@ -135,6 +136,34 @@ public class RandomAccessInputStreamTest {
 		}
 	}
 
+	@Test
+	public void testHeapBufferRead() throws IOException {
+		stream.seek(4);
+		final ByteBuffer buf = ByteBuffer.allocate(PAGE.length);
+		buf.position(2);
+		buf.limit(12);
+		assertEquals(10, stream.read(buf));
+		assertEquals(12, buf.position());
+		assertEquals(14, stream.getFilePointer());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(PAGE[4 + i], buf.get(2 + i));
+		}
+	}
+
+	@Test
+	public void testDirectBufferRead() throws IOException {
+		stream.seek(8);
+		final ByteBuffer buf = ByteBuffer.allocateDirect(PAGE.length);
+		buf.position(3);
+		assertEquals(PAGE.length - 8, stream.read(buf));
+		assertEquals(PAGE.length - 5, buf.position());
+		assertEquals(PAGE.length, stream.getFilePointer());
+		for (int i = 0; i < PAGE.length - 8; i++) {
+			assertEquals(PAGE[8 + i], buf.get(3 + i));
+		}
+		assertEquals(-1, stream.read(buf));
+	}
+
 	@Test
 	public void testRandomRead() throws IOException {
 		final long fp = PAGE.length / 2;
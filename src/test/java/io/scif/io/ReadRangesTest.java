@@ -0,0 +1,147 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import io.scif.io.providers.IRandomAccessProvider;
+import io.scif.io.providers.IRandomAccessProviderFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests for vectored reads from a {@link IRandomAccess}.
+ *
+ * @see IRandomAccess#readRanges(List)
+ */
+@RunWith(Parameterized.class)
+public class ReadRangesTest {
+
+	private static final byte[] PAGE = new byte[] { (byte) 0x01, (byte) 0x02,
+		(byte) 0x03, (byte) 0x04, (byte) 0x05, (byte) 0x06, (byte) 0x07,
+		(byte) 0x08, (byte) 0x09, (byte) 0x0A, (byte) 0x0B, (byte) 0x0C,
+		(byte) 0x0D, (byte) 0x0E, (byte) 0xFF, (byte) 0xFE };
+
+	private static final String MODE = "r";
+
+	private static final int BUFFER_SIZE = 2;
+
+	private IRandomAccess fileHandle;
+
+	@Parameters
+	public static Collection<Object[]> parameters() {
+		return TestParameters.parameters("readTests");
+	}
+
+	private final String provider;
+
+	public ReadRangesTest(final String provider, final boolean checkGrowth,
+		final boolean testLength)
+	{
+		this.provider = provider;
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		final IRandomAccessProviderFactory factory =
+			new IRandomAccessProviderFactory();
+		final IRandomAccessProvider instance = factory.getInstance(provider);
+		fileHandle = instance.createMock(PAGE, MODE, BUFFER_SIZE);
+	}
+
+	@Test
+	public void testReadRanges() throws IOException {
+		fileHandle.seek(5);
+		final byte[] a = new byte[4];
+		final byte[] b = new byte[6];
+		final long n =
+			fileHandle.readRanges(Arrays.asList(new ReadRange(12, 3, a, 1),
+				new ReadRange(0, 2, b, 0), new ReadRange(4, 4, b, 2)));
+		assertEquals(9, n);
+		assertEquals(5, fileHandle.getFilePointer());
+		assertArrayEquals(new byte[] { 0, 0x0D, 0x0E, (byte) 0xFF }, a);
+		assertArrayEquals(new byte[] { 0x01, 0x02, 0x05, 0x06, 0x07, 0x08 }, b);
+		assertEquals(0x06, fileHandle.readByte());
+	}
+
+	@Test
+	public void testOverlappingRanges() throws IOException {
+		final byte[] a = new byte[4];
+		final byte[] b = new byte[3];
+		fileHandle.readRanges(Arrays.asList(new ReadRange(2, 4, a, 0),
+			new ReadRange(3, 3, b, 0)));
+		assertArrayEquals(new byte[] { 0x03, 0x04, 0x05, 0x06 }, a);
+		assertArrayEquals(new byte[] { 0x04, 0x05, 0x06 }, b);
+	}
+
+	@Test
+	public void testRangePastEnd() throws IOException {
+		final byte[] a = new byte[2];
+		final byte[] b = new byte[4];
+		final long n =
+			fileHandle.readRanges(Arrays.asList(new ReadRange(0, 2, a, 0),
+				new ReadRange(14, 4, b, 0)));
+		assertEquals(4, n);
+		assertArrayEquals(new byte[] { 0x01, 0x02 }, a);
+		assertArrayEquals(new byte[] { (byte) 0xFF, (byte) 0xFE, 0, 0 }, b);
+	}
+
+	@Test
+	public void testCoalesce() {
+		final byte[] dest = new byte[ReadRange.MAX_GAP];
+		final List<ReadRange[]> runs =
+			ReadRange.coalesce(Arrays.asList(new ReadRange(100, 10, dest, 0),
+				new ReadRange(0, 10, dest, 0), new ReadRange(10 + ReadRange.MAX_GAP +
+					1000, 10, dest, 0), new ReadRange(20, 10, dest, 0)));
+		assertEquals(2, runs.size());
+		assertEquals(3, runs.get(0).length);
+		assertEquals(0, runs.get(0)[0].getOffset());
+		assertEquals(20, runs.get(0)[1].getOffset());
+		assertEquals(100, runs.get(0)[2].getOffset());
+		assertEquals(110, ReadRange.end(runs.get(0)));
+		assertEquals(1, runs.get(1).length);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		fileHandle.close();
+	}
+}
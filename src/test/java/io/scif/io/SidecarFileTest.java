@@ -0,0 +1,95 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link SidecarFile}.
+ */
+public class SidecarFileTest {
+
+	private final SidecarFile sidecar = new SidecarFile(".test", 0x54455354, 1);
+
+	private File source;
+
+	@Before
+	public void setUp() throws IOException {
+		source = File.createTempFile("sidecar", ".dat");
+		try (final FileOutputStream out = new FileOutputStream(source)) {
+			out.write(new byte[100]);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		sidecar.getFile(source).delete();
+		source.delete();
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		assertNull(sidecar.open(source));
+		sidecar.write(source, out -> out.writeLong(42));
+		assertEquals(SidecarFile.HEADER_LENGTH + 8, sidecar.getFile(source)
+			.length());
+		try (final DataInputStream in = sidecar.open(source)) {
+			assertNotNull(in);
+			assertEquals(42, in.readLong());
+		}
+	}
+
+	@Test
+	public void testStale() throws IOException {
+		sidecar.write(source, out -> out.writeLong(42));
+		try (final FileOutputStream out = new FileOutputStream(source, true)) {
+			out.write(1);
+		}
+		assertNull(sidecar.open(source));
+	}
+
+	@Test
+	public void testOtherFormat() throws IOException {
+		sidecar.write(source, out -> out.writeLong(42));
+		assertNull(new SidecarFile(".test", 0x54455354, 2).open(source));
+		assertNull(new SidecarFile(".test", 0x4f544852, 1).open(source));
+	}
+}
@@ -55,6 +55,7 @@ public class TestParameters {
 		{ "BZip2Handle", false, true, asSet("readTests"), asSet("readLineTest") },
 		{ "GZipHandle", false, true, asSet("readTests"), asSet("readLineTest") },
 		{ "NIOFileHandle", false, true, asSet("readTests", "writeTests") },
+		{ "MappedNIOFileHandle", false, true, asSet("readTests") },
 		{ "URLHandle", false, true, asSet("readTests"), asSet("readLineTest") },
 		{ "ZipHandle", false, true, asSet("readTests"), asSet("readLineTest") } };
 
@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.scif.FilePattern;
+import io.scif.SCIFIO;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link FilePatternService}.
+ */
+public class FilePatternServiceTest {
+
+	private FilePatternService filePatternService;
+
+	private Path dir;
+
+	@Before
+	public void setUp() throws IOException {
+		filePatternService = new SCIFIO().filePattern();
+		dir = Files.createTempDirectory("scifio-pattern");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		filePatternService.getContext().dispose();
+		try (final Stream<Path> paths = Files.walk(dir)) {
+			paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(
+				File::delete);
+		}
+	}
+
+	@Test
+	public void testFindPattern() {
+		final List<String> names = new ArrayList<>();
+		names.add("outlier.ext");
+		for (int c = 1; c <= 2; c++) {
+			for (int z = 0; z < 300; z++) {
+				names.add(String.format("img_z%03d_c%d.tif", z, c));
+			}
+		}
+		names.add("b-1.tif");
+		names.add("b-2.tif");
+		names.add("b-3.tif");
+		final String[] nameList = names.toArray(new String[names.size()]);
+
+		assertEquals("img_z<000-299>_c<1-2>.tif", filePatternService.findPattern(
+			"img_z042_c2.tif", null, nameList));
+		assertEquals("b-<1-3>.tif", filePatternService.findPattern("b-2.tif",
+			null, nameList));
+		assertEquals("outlier.ext", filePatternService.findPattern("outlier.ext",
+			null, nameList));
+		// a template outside of the list is compared against its own digits
+		assertNull(filePatternService.findPattern("img_z042_c3.tif", null,
+			nameList));
+	}
+
+	@Test
+	public void testFindImagePatterns() throws IOException {
+		for (int t = 0; t < 40; t++) {
+			for (int c = 0; c < 3; c++) {
+				Files.createFile(dir.resolve("cell_T" + t + "_C" + c + ".tif"));
+			}
+		}
+		for (int t = 0; t < 5; t++) {
+			Files.createFile(dir.resolve("other" + t + ".png"));
+		}
+		final String base = dir.resolve("cell_T7_C1.tif").toString();
+		final String prefix = dir.toString() + File.separator;
+
+		assertArrayEquals(new String[] { prefix + "cell_T<0-39>_C<0-2>.tif" },
+			filePatternService.findImagePatterns(base));
+		assertEquals(prefix + "other<0-4>.png", filePatternService.findPattern(
+			prefix + "other2.png"));
+	}
+
+	@Test
+	public void testRecursiveRegex() throws IOException {
+		Files.createDirectories(dir.resolve("a/b"));
+		Files.createFile(dir.resolve("q1.tif"));
+		Files.createFile(dir.resolve("a/q2.tif"));
+		Files.createFile(dir.resolve("a/b/q3.tif"));
+		Files.createFile(dir.resolve("a/b/r4.tif"));
+
+		final FilePattern fp = new FilePattern(filePatternService.getContext(),
+			dir.toString() + File.separator + ".*q[0-9]\\.tif");
+		final String[] expected = { dir.resolve("a/b/q3.tif").toString(), dir
+			.resolve("a/q2.tif").toString(), dir.resolve("q1.tif").toString() };
+		Arrays.sort(expected);
+		assertArrayEquals(expected, fp.getFiles());
+	}
+}
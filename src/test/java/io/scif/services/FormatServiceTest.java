@@ -30,14 +30,25 @@
 package io.scif.services;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import io.scif.Format;
 import io.scif.FormatException;
+import io.scif.config.SCIFIOConfig;
+import io.scif.formats.APNGFormat;
 import io.scif.formats.StratecPQCTFormat;
+import io.scif.io.RandomAccessInputStream;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -90,6 +101,66 @@ public class FormatServiceTest {
 		assertTrue("Suffixes missing", expectedSuffixes.isEmpty());
 	}
 
+	/**
+	 * Tests that narrowing the checkers by signature finds the same formats as
+	 * asking every checker.
+	 */
+	@Test
+	public void testSignatureIndex() throws FormatException, IOException {
+		final byte[][] headers = { {}, { 'I', 'I', 42, 0, 8, 0, 0, 0 }, { 'M',
+			'M', 0, 42, 0, 0, 0, 8 }, { (byte) 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a,
+				0x0a }, { 'G', 'I', 'F', '8', '9', 'a', 1, 0 }, { 'B', 'M', 0, 0 }, {
+					10, 5, 1, 8 }, { 'P', '5', '\n', '1' }, { 1, 2, 3, 4, 5, 6, 7, 8 } };
+		final File file = File.createTempFile("FormatServiceTest", ".bin");
+		file.deleteOnExit();
+		final String id = file.getAbsolutePath();
+		for (final byte[] bytes : headers) {
+			write(file, Arrays.copyOf(bytes, bytes.length == 0 ? 0 : 4096));
+			final List<Format> expected = new ArrayList<>();
+			for (final Format format : formatService.getAllFormats()) {
+				if (!format.isEnabled()) continue;
+				try (final RandomAccessInputStream stream =
+					new RandomAccessInputStream(formatService.getContext(), id))
+				{
+					if (format.createChecker().isFormat(stream)) expected.add(format);
+				}
+			}
+			List<Format> actual = new ArrayList<>();
+			try (final RandomAccessInputStream stream = new RandomAccessInputStream(
+				formatService.getContext(), id))
+			{
+				actual = formatService.getFormatList(stream);
+			}
+			catch (final FormatException e) {
+				// no supported format found
+			}
+			assertEquals(Arrays.toString(bytes), expected, actual);
+		}
+	}
+
+	/**
+	 * Tests that a cached format is discarded once the file it was found for
+	 * changes.
+	 */
+	@Test
+	public void testFormatCacheInvalidation() throws FormatException,
+		IOException
+	{
+		final File file = File.createTempFile("FormatServiceTest", ".bin");
+		file.deleteOnExit();
+		final String id = file.getAbsolutePath();
+		final SCIFIOConfig config = new SCIFIOConfig().checkerSetOpen(true);
+
+		write(file, new byte[] { 'I', 'I', 42, 0, 8, 0, 0, 0 });
+		final Format tiff = formatService.getFormat(id, config);
+		assertFalse(tiff instanceof APNGFormat);
+		assertEquals(tiff, formatService.getFormat(id, config));
+
+		write(file, new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a,
+			0x0a, 0, 0, 0, 0 });
+		assertTrue(formatService.getFormat(id, config) instanceof APNGFormat);
+	}
+
 	/**
 	 * Test simultaneous format caching on multiple threads.
 	 * <p>
@@ -135,4 +206,13 @@ public class FormatServiceTest {
 		assertEquals(threads, count[0]);
 	}
 
+	// -- Helper methods --
+
+	private static void write(final File file, final byte[] bytes)
+		throws IOException
+	{
+		try (final OutputStream out = new FileOutputStream(file)) {
+			out.write(bytes);
+		}
+	}
 }
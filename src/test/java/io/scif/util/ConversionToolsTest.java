@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import io.scif.SCIFIO;
+import io.scif.img.ImgUtilityService;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.scijava.util.Bytes;
+
+/**
+ * Unit tests for {@link ConversionTools}.
+ */
+public class ConversionToolsTest {
+
+	private static final int LENGTH = 10000;
+
+	private SCIFIO scifio;
+
+	private byte[] plane;
+
+	@Before
+	public void setUp() {
+		scifio = new SCIFIO();
+		plane = new byte[LENGTH * 8];
+		new Random(0xdecaf).nextBytes(plane);
+	}
+
+	@After
+	public void tearDown() {
+		scifio.getContext().dispose();
+	}
+
+	/**
+	 * Tests that {@link ConversionTools#makeArray} matches
+	 * {@link Bytes#makeArray} for every sample width.
+	 */
+	@Test
+	public void testMakeArray() {
+		for (final boolean little : new boolean[] { true, false }) {
+			assertSame(plane, ConversionTools.makeArray(plane, 1, false, little));
+			assertArrayEquals((short[]) Bytes.makeArray(plane, 2, false, little),
+				(short[]) ConversionTools.makeArray(plane, 2, false, little));
+			assertArrayEquals((int[]) Bytes.makeArray(plane, 4, false, little),
+				(int[]) ConversionTools.makeArray(plane, 4, false, little));
+			assertArrayEquals((float[]) Bytes.makeArray(plane, 4, true, little),
+				(float[]) ConversionTools.makeArray(plane, 4, true, little), 0);
+			assertArrayEquals((long[]) Bytes.makeArray(plane, 8, false, little),
+				(long[]) ConversionTools.makeArray(plane, 8, false, little));
+			assertArrayEquals((double[]) Bytes.makeArray(plane, 8, true, little),
+				(double[]) ConversionTools.makeArray(plane, 8, true, little), 0);
+		}
+	}
+
+	/**
+	 * Tests that the bulk decoders match
+	 * {@link ImgUtilityService#decodeWord} for every pixel type, including
+	 * chunk boundaries and unaligned offsets.
+	 */
+	@Test
+	public void testDecode() {
+		final ImgUtilityService utils = scifio.imgUtil();
+		final int offset = 3;
+		final int count = LENGTH - offset;
+		for (int pixelType = FormatTools.INT8; pixelType <= FormatTools.DOUBLE;
+			pixelType++)
+		{
+			for (final boolean little : new boolean[] { true, false }) {
+				final double[] d = new double[count];
+				final float[] f = new float[count];
+				final int[] i = new int[count];
+				final short[] s = new short[count];
+				final byte[] b = new byte[count];
+				ConversionTools.decodeDoubles(plane, offset, pixelType, little, d, 0,
+					count);
+				ConversionTools.decodeFloats(plane, offset, pixelType, little, f, 0,
+					count);
+				ConversionTools.decodeInts(plane, offset, pixelType, little, i, 0,
+					count);
+				ConversionTools.decodeShorts(plane, offset, pixelType, little, s, 0,
+					count);
+				ConversionTools.decodeBytes(plane, offset, pixelType, little, b, 0,
+					count);
+				for (int n = 0; n < count; n++) {
+					final double value =
+						utils.decodeWord(plane, offset + n, pixelType, little);
+					assertEquals(value, d[n], 0);
+					assertEquals((float) value, f[n], 0);
+					assertEquals((int) value, i[n]);
+					assertEquals((short) value, s[n]);
+					assertEquals((byte) value, b[n]);
+				}
+			}
+		}
+	}
+
+}
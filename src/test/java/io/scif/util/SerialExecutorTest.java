@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * SCIFIO library for reading and converting scientific file formats.
+ * %%
+ * Copyright (C) 2011 - 2017 SCIFIO developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package io.scif.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SerialExecutor}.
+ */
+public class SerialExecutorTest {
+
+	/**
+	 * Tests that a task rejected by the underlying executor fails, and that the
+	 * tasks queued behind it still run.
+	 */
+	@Test
+	public void testRejectedTask() throws Exception {
+		final CountDownLatch gate = new CountDownLatch(1);
+		final AtomicInteger submissions = new AtomicInteger();
+		final Executor rejectSecond = task -> {
+			if (submissions.getAndIncrement() == 1) {
+				throw new RejectedExecutionException();
+			}
+			new Thread(task).start();
+		};
+		final SerialExecutor executor = new SerialExecutor(rejectSecond);
+
+		final Job first = new Job(1, gate);
+		final Job second = new Job(2, null);
+		final Job third = new Job(3, null);
+		executor.execute(first);
+		executor.execute(second);
+		executor.execute(third);
+		gate.countDown();
+
+		assertEquals(1, (int) first.get());
+		assertRejected(second);
+		assertEquals(3, (int) third.get());
+	}
+
+	/**
+	 * Tests that a task rejected right away is reported to its submitter.
+	 */
+	@Test
+	public void testRejectedSubmission() throws Exception {
+		final SerialExecutor executor = new SerialExecutor(task -> {
+			throw new RejectedExecutionException();
+		});
+		final Job job = new Job(1, null);
+		try {
+			executor.execute(job);
+			fail("Expected the submission to be rejected");
+		}
+		catch (final RejectedExecutionException e) {
+			// NB: Expected.
+		}
+		assertRejected(job);
+	}
+
+	// -- Helper methods --
+
+	private void assertRejected(final Job job) throws InterruptedException {
+		try {
+			job.get();
+			fail("Expected the job to fail");
+		}
+		catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+	}
+
+	// -- Helper classes --
+
+	/** Completes with its value once run, after waiting for its gate. */
+	private static final class Job extends CompletableFuture<Integer> implements
+		Runnable
+	{
+
+		private final int value;
+
+		private final CountDownLatch gate;
+
+		private Job(final int value, final CountDownLatch gate) {
+			this.value = value;
+			this.gate = gate;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (gate != null) gate.await();
+				complete(value);
+			}
+			catch (final InterruptedException e) {
+				completeExceptionally(e);
+			}
+		}
+	}
+}